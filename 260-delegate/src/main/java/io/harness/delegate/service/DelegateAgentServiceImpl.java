@@ -147,6 +147,7 @@ import io.harness.filesystem.FileIo;
 import io.harness.grpc.util.RestartableServiceManager;
 import io.harness.logging.AutoLogContext;
 import io.harness.logstreaming.LogStreamingClient;
+import io.harness.logstreaming.LogStreamingDispatcher;
 import io.harness.logstreaming.LogStreamingHelper;
 import io.harness.logstreaming.LogStreamingSanitizer;
 import io.harness.logstreaming.LogStreamingTaskClient;
@@ -274,6 +275,10 @@ import retrofit2.Response;
 @OwnedBy(HarnessTeam.DEL)
 public class DelegateAgentServiceImpl implements DelegateAgentService {
   private static final int POLL_INTERVAL_SECONDS = 3;
+  // how long the manager holds a poll for task leases when there is nothing to lease
+  private static final long TASK_LEASE_WAIT_SECONDS = 20;
+  // how long to wait before polling for task leases again when the account does not lease tasks or the poll failed
+  private static final long TASK_LEASE_RETRY_INTERVAL = TimeUnit.MINUTES.toMillis(5);
   private static final long UPGRADE_TIMEOUT = TimeUnit.HOURS.toMillis(2);
   private static final long HEARTBEAT_TIMEOUT = TimeUnit.MINUTES.toMillis(15);
   private static final long HEARTBEAT_SOCKET_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
@@ -328,6 +333,7 @@ public class DelegateAgentServiceImpl implements DelegateAgentService {
   private static final String DEFAULT_PATCH_VERSION = "000";
 
   private final boolean BLOCK_SHELL_TASK = Boolean.parseBoolean(System.getenv().get("BLOCK_SHELL_TASK"));
+  private final boolean BATCHED_LOG_STREAMING = Boolean.parseBoolean(System.getenv().get("BATCHED_LOG_STREAMING"));
   private static final String DEFAULT_JRE_VERSION = "11.0.19+7";
 
   private static volatile String delegateId;
@@ -393,6 +399,7 @@ public class DelegateAgentServiceImpl implements DelegateAgentService {
   private final AtomicBoolean restartNeeded = new AtomicBoolean(false);
   private final AtomicBoolean acquireTasks = new AtomicBoolean(true);
   private final AtomicBoolean frozen = new AtomicBoolean(false);
+  private volatile long pauseTaskLeasePollingUntil;
   private final AtomicBoolean executingProfile = new AtomicBoolean(false);
   private final AtomicBoolean selfDestruct = new AtomicBoolean(false);
   private final AtomicBoolean multiVersionWatcherStarted = new AtomicBoolean(false);
@@ -649,6 +656,8 @@ public class DelegateAgentServiceImpl implements DelegateAgentService {
         startDynamicHandlingOfTasks();
       }
 
+      startTaskLeasePolling();
+
       if (isPollingForTasksEnabled()) {
         log.info("Polling is enabled for Delegate");
         startHttpHeartbeat(builder);
@@ -1522,6 +1531,45 @@ public class DelegateAgentServiceImpl implements DelegateAgentService {
     }
   }
 
+  /**
+   * Long polls the manager for the tasks leased to this delegate, next to the broadcast tasks. The leased tasks are
+   * acquired like the broadcast ones, and the manager stops broadcasting the tasks to this delegate while it polls.
+   */
+  private void startTaskLeasePolling() {
+    // the next poll starts once the previous one returned
+    taskPollExecutor.scheduleWithFixedDelay(
+        new Schedulable("Failed to poll for task leases", this::pollForTaskLeases), 0, 1, TimeUnit.SECONDS);
+  }
+
+  private void pollForTaskLeases() {
+    if (!shouldContactManager() || !acquireTasks.get() || frozen.get() || rejectRequest.get()
+        || clock.millis() < pauseTaskLeasePollingUntil) {
+      return;
+    }
+    Integer freeSlots =
+        delegateTaskCapacity.map(capacity -> Math.max(0, capacity - currentlyAcquiringTasksCount.get())).orElse(null);
+    if (freeSlots != null && freeSlots == 0) {
+      return;
+    }
+    try {
+      DelegateTaskEventsResponse taskEventsResponse = ManagerCallHelper.executeRestCall(
+          delegateAgentManagerClient.leaseTaskEvents(delegateId, accountId, freeSlots, TASK_LEASE_WAIT_SECONDS),
+          this::handleErrorResponse);
+      if (taskEventsResponse == null || Boolean.TRUE.equals(taskEventsResponse.getLeasingDisabled())) {
+        pauseTaskLeasePollingUntil = clock.millis() + TASK_LEASE_RETRY_INTERVAL;
+        return;
+      }
+      if (shouldProcessDelegateTaskEvents(taskEventsResponse)) {
+        List<DelegateTaskEvent> taskEvents = taskEventsResponse.getDelegateTaskEvents();
+        log.info("Processing leased DelegateTaskEvents {}", taskEvents);
+        processDelegateTaskEventsInBlockingLoop(taskEvents);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to poll for task leases", e);
+      pauseTaskLeasePollingUntil = clock.millis() + TASK_LEASE_RETRY_INTERVAL;
+    }
+  }
+
   private boolean shouldProcessDelegateTaskEvents(DelegateTaskEventsResponse taskEventsResponse) {
     return taskEventsResponse != null && isNotEmpty(taskEventsResponse.getDelegateTaskEvents());
   }
@@ -2344,6 +2392,7 @@ public class DelegateAgentServiceImpl implements DelegateAgentService {
             .baseLogKey(logBaseKey)
             .logService(delegateLogService)
             .taskProgressExecutor(taskProgressExecutor)
+            .logStreamingDispatcher(BATCHED_LOG_STREAMING ? LogStreamingDispatcher.getInstance() : null)
             .appId(appId)
             .activityId(activityId);
 
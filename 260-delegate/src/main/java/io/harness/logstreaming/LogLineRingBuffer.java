@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.logstreaming;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free ring buffer of log lines, for any number of writing threads and a single draining thread. Each
+ * slot carries a sequence number which tells whether it is free for the writer of a given position or published for
+ * the reader, so writers only contend on the tail counter and never wait for each other or for the reader.
+ */
+final class LogLineRingBuffer {
+  private final AtomicReferenceArray<LogLine> slots;
+  private final AtomicLongArray sequences;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  // only written by the draining thread
+  private volatile long head;
+
+  LogLineRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+    this.slots = new AtomicReferenceArray<>(size);
+    this.sequences = new AtomicLongArray(size);
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /**
+   * Appends the line unless the buffer is full, never blocks.
+   */
+  boolean offer(LogLine logLine) {
+    long position = tail.get();
+    while (true) {
+      int index = (int) (position & mask);
+      long available = sequences.get(index) - position;
+      if (available == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          slots.set(index, logLine);
+          sequences.set(index, position + 1);
+          return true;
+        }
+        position = tail.get();
+      } else if (available < 0) {
+        // the slot still holds the line written one lap ago, the buffer is full
+        return false;
+      } else {
+        position = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Moves up to maxLines published lines into the target, in the order they were appended. Must only be called from
+   * one thread at a time.
+   */
+  int drainTo(List<LogLine> target, int maxLines) {
+    long position = head;
+    int drained = 0;
+    while (drained < maxLines) {
+      int index = (int) (position & mask);
+      if (sequences.get(index) != position + 1) {
+        break;
+      }
+      target.add(slots.get(index));
+      slots.set(index, null);
+      sequences.set(index, position + mask + 1);
+      position++;
+      drained++;
+    }
+    head = position;
+    return drained;
+  }
+
+  /**
+   * Number of lines claimed by writers and not drained yet, lines which are still being written included.
+   */
+  int size() {
+    return (int) Math.max(0, tail.get() - head);
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+}
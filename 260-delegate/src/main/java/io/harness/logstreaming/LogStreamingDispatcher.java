@@ -0,0 +1,280 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.logstreaming;
+
+import static java.lang.System.currentTimeMillis;
+
+import io.harness.annotations.dev.HarnessModule;
+import io.harness.annotations.dev.TargetModule;
+import io.harness.network.SafeHttpCall;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ships the log lines of all the tasks running on this delegate. Task threads only append to a bounded lock free
+ * buffer per log key, and a single dispatcher thread drains the buffers of all the active keys and hands batches of at
+ * most maxBatchSize lines to a small pool of sender threads, every flushIntervalMillis or as soon as some buffer holds
+ * a full batch. Each key has at most one batch in flight, so lines of a key are pushed in order.
+ *
+ * When pushes fail or take longer than slowPushMillis the dispatcher backs off, doubling the pause between rounds up
+ * to maxBackoffMillis. Lines which do not fit into a full buffer, and batches which could not be pushed, are dropped
+ * and counted instead of blocking the task.
+ */
+@Slf4j
+@TargetModule(HarnessModule._420_DELEGATE_AGENT)
+public class LogStreamingDispatcher {
+  private static final long DROPPED_LINES_LOG_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+  private static final long IDLE_STREAM_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+  private static volatile LogStreamingDispatcher instance;
+
+  private final Config config;
+  private final ConcurrentMap<String, LogStream> logStreams = new ConcurrentHashMap<>();
+  private final ExecutorService senderExecutor;
+  private final Thread dispatcherThread;
+  private volatile boolean running = true;
+  private volatile long backoffMillis;
+  private long lastDroppedLinesLog;
+  private long lastDroppedLines;
+
+  private final LongAdder linesAccepted = new LongAdder();
+  private final LongAdder linesDropped = new LongAdder();
+  private final LongAdder linesSent = new LongAdder();
+  private final LongAdder batchesSent = new LongAdder();
+  private final LongAdder pushFailures = new LongAdder();
+
+  public static LogStreamingDispatcher getInstance() {
+    if (instance == null) {
+      synchronized (LogStreamingDispatcher.class) {
+        if (instance == null) {
+          instance = new LogStreamingDispatcher(Config.builder().build());
+        }
+      }
+    }
+    return instance;
+  }
+
+  @VisibleForTesting
+  LogStreamingDispatcher(Config config) {
+    this.config = config;
+    this.senderExecutor = Executors.newFixedThreadPool(config.getSenderThreads(),
+        new ThreadFactoryBuilder().setNameFormat("log-streaming-sender-%d").setDaemon(true).build());
+    this.dispatcherThread = new ThreadFactoryBuilder()
+                                .setNameFormat("log-streaming-dispatcher")
+                                .setDaemon(true)
+                                .build()
+                                .newThread(this::dispatchLoop);
+    this.dispatcherThread.start();
+  }
+
+  /**
+   * Buffers the line for the given key, returns false if it had to be dropped because the buffer is full.
+   */
+  public boolean append(String logKey, LogStreamingClient client, String token, String accountId, LogLine logLine) {
+    LogStream logStream =
+        logStreams.computeIfAbsent(logKey, key -> new LogStream(key, client, token, accountId, config.getBufferSize()));
+    if (!logStream.buffer.offer(logLine)) {
+      linesDropped.increment();
+      return false;
+    }
+    linesAccepted.increment();
+    logStream.lastAppend = currentTimeMillis();
+    if (logStream.buffer.size() >= config.getMaxBatchSize()) {
+      flush();
+    }
+    return true;
+  }
+
+  /**
+   * Runs onDrained, on a sender thread, once every line buffered for the key so far was pushed, or once
+   * closeTimeoutMillis passed, whatever comes first. Lines still buffered at that point are dropped.
+   */
+  public void close(String logKey, Runnable onDrained) {
+    LogStream logStream = logStreams.get(logKey);
+    if (logStream == null) {
+      senderExecutor.execute(onDrained);
+      return;
+    }
+    logStream.closeDeadline = currentTimeMillis() + config.getCloseTimeoutMillis();
+    logStream.onDrained = onDrained;
+    flush();
+  }
+
+  /**
+   * Asks for the buffered lines to be pushed now rather than at the end of the current interval, never blocks.
+   */
+  public void flush() {
+    LockSupport.unpark(dispatcherThread);
+  }
+
+  public long getLinesAccepted() {
+    return linesAccepted.sum();
+  }
+
+  public long getLinesDropped() {
+    return linesDropped.sum();
+  }
+
+  public long getLinesSent() {
+    return linesSent.sum();
+  }
+
+  public long getBatchesSent() {
+    return batchesSent.sum();
+  }
+
+  public long getPushFailures() {
+    return pushFailures.sum();
+  }
+
+  @VisibleForTesting
+  void shutdown() {
+    running = false;
+    dispatcherThread.interrupt();
+    senderExecutor.shutdown();
+  }
+
+  private void dispatchLoop() {
+    while (running) {
+      long pauseMillis = backoffMillis > 0 ? backoffMillis : config.getFlushIntervalMillis();
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+      // a flush does not cut a back off short, the log service needs the break
+      while (backoffMillis > 0 && running && System.nanoTime() < deadline) {
+        LockSupport.parkNanos(deadline - System.nanoTime());
+      }
+      try {
+        dispatch();
+      } catch (Exception e) {
+        log.error("Unexpected error while dispatching logs", e);
+      }
+    }
+  }
+
+  private void dispatch() {
+    long now = currentTimeMillis();
+    for (LogStream logStream : logStreams.values()) {
+      if (!logStream.inFlight.compareAndSet(false, true)) {
+        continue;
+      }
+      boolean closing = logStream.onDrained != null;
+      if (closing && now > logStream.closeDeadline) {
+        int remaining = logStream.buffer.size();
+        log.warn("Logs were not drained for {} in time, dropping {} lines", logStream.logKey, remaining);
+        linesDropped.add(remaining);
+        closeStream(logStream);
+        continue;
+      }
+      List<LogLine> batch = new ArrayList<>();
+      logStream.buffer.drainTo(batch, config.getMaxBatchSize());
+      if (!batch.isEmpty()) {
+        senderExecutor.execute(() -> push(logStream, batch));
+      } else if (closing && logStream.buffer.isEmpty()) {
+        closeStream(logStream);
+      } else if (logStream.buffer.isEmpty() && now - logStream.lastAppend > IDLE_STREAM_EXPIRY_MILLIS) {
+        // the stream was never closed, most likely the task died before closing it
+        logStreams.remove(logStream.logKey, logStream);
+      } else {
+        logStream.inFlight.set(false);
+      }
+    }
+    logDroppedLines(now);
+  }
+
+  private void closeStream(LogStream logStream) {
+    // the stream stays in flight, so nothing is dispatched for it anymore
+    logStreams.remove(logStream.logKey, logStream);
+    senderExecutor.execute(logStream.onDrained);
+  }
+
+  private void push(LogStream logStream, List<LogLine> batch) {
+    long startTime = currentTimeMillis();
+    try {
+      SafeHttpCall.executeWithExceptions(
+          logStream.client.pushMessage(logStream.token, logStream.accountId, logStream.logKey, batch));
+      linesSent.add(batch.size());
+      batchesSent.increment();
+      if (currentTimeMillis() - startTime > config.getSlowPushMillis()) {
+        backOff();
+      } else {
+        backoffMillis = 0;
+      }
+    } catch (Exception ex) {
+      log.warn("Unable to push message to log stream for account {} and key {}", logStream.accountId,
+          logStream.logKey, ex);
+      pushFailures.increment();
+      linesDropped.add(batch.size());
+      backOff();
+    } finally {
+      logStream.inFlight.set(false);
+    }
+  }
+
+  private void backOff() {
+    backoffMillis =
+        Math.min(config.getMaxBackoffMillis(), Math.max(config.getFlushIntervalMillis(), backoffMillis * 2));
+  }
+
+  private void logDroppedLines(long now) {
+    if (now - lastDroppedLinesLog < DROPPED_LINES_LOG_INTERVAL_MILLIS) {
+      return;
+    }
+    long droppedLines = linesDropped.sum();
+    if (droppedLines != lastDroppedLines) {
+      log.warn("Dropped {} log lines in the last minute, {} in total, {} push failures, current back off {} ms",
+          droppedLines - lastDroppedLines, droppedLines, pushFailures.sum(), backoffMillis);
+    }
+    lastDroppedLines = droppedLines;
+    lastDroppedLinesLog = now;
+  }
+
+  @Value
+  @Builder
+  public static class Config {
+    @Builder.Default int bufferSize = 2048;
+    @Builder.Default int maxBatchSize = 500;
+    @Builder.Default long flushIntervalMillis = 100;
+    @Builder.Default long slowPushMillis = 2000;
+    @Builder.Default long maxBackoffMillis = 10000;
+    @Builder.Default long closeTimeoutMillis = 5000;
+    @Builder.Default int senderThreads = 4;
+  }
+
+  private static class LogStream {
+    private final String logKey;
+    private final LogStreamingClient client;
+    private final String token;
+    private final String accountId;
+    private final LogLineRingBuffer buffer;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+    private volatile Runnable onDrained;
+    private volatile long closeDeadline;
+    private volatile long lastAppend = currentTimeMillis();
+
+    LogStream(String logKey, LogStreamingClient client, String token, String accountId, int bufferSize) {
+      this.logKey = logKey;
+      this.client = client;
+      this.token = token;
+      this.accountId = accountId;
+      this.buffer = new LogLineRingBuffer(bufferSize);
+    }
+  }
+}
@@ -81,6 +81,8 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
   @Deprecated private final String activityId;
   private ScheduledFuture scheduledFuture;
   private final ITaskProgressClient taskProgressClient;
+  // when set, lines are shipped by the shared dispatcher instead of a dispatch job and a log cache per task
+  private final LogStreamingDispatcher logStreamingDispatcher;
 
   @Default private final Map<String, List<LogLine>> logCache = new HashMap<>();
 
@@ -98,6 +100,9 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
     } catch (Exception ex) {
       log.warn("Unable to open log stream for account {} and key {}", accountId, logKey, ex);
     }
+    if (logStreamingDispatcher != null) {
+      return;
+    }
     scheduledFuture = scheduledExecutorService.scheduleAtFixedRate(this::dispatchLogs, 0, 100, TimeUnit.MILLISECONDS);
   }
 
@@ -105,6 +110,11 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
   public void closeStream(String baseLogKeySuffix) {
     String logKey = getLogKey(baseLogKeySuffix);
 
+    if (logStreamingDispatcher != null) {
+      logStreamingDispatcher.close(logKey, () -> closeLogStream(logKey));
+      return;
+    }
+
     synchronized (logCache) {
       // We can mark this task to be completed. Log upload can happen asynchronously.
       scheduledExecutorService.submit(() -> closeStreamAsync(logKey));
@@ -129,9 +139,7 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
           logCache.size());
     }
     try {
-      SafeHttpCall.executeWithExceptions(logStreamingClient.closeLogStream(token, accountId, logKey, true));
-    } catch (Exception ex) {
-      log.warn("Unable to close log stream for account {} and key {}", accountId, logKey, ex);
+      closeLogStream(logKey);
     } finally {
       if (scheduledFuture != null) {
         scheduledFuture.cancel(false);
@@ -141,6 +149,14 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
     }
   }
 
+  private void closeLogStream(String logKey) {
+    try {
+      SafeHttpCall.executeWithExceptions(logStreamingClient.closeLogStream(token, accountId, logKey, true));
+    } catch (Exception ex) {
+      log.warn("Unable to close log stream for account {} and key {}", accountId, logKey, ex);
+    }
+  }
+
   @Override
   public void writeLogLine(LogLine logLine, String baseLogKeySuffix) {
     if (logLine == null) {
@@ -152,6 +168,11 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
     logStreamingSanitizer.sanitizeLogMessage(logLine, getMarkers());
     colorLog(logLine);
 
+    if (logStreamingDispatcher != null) {
+      logStreamingDispatcher.append(logKey, logStreamingClient, token, accountId, logLine);
+      return;
+    }
+
     synchronized (logCache) {
       if (!logCache.containsKey(logKey)) {
         logCache.put(logKey, new ArrayList<>());
@@ -162,6 +183,11 @@ public class LogStreamingTaskClient implements ILogStreamingTaskClient {
 
   @Override
   public void dispatchLogs() {
+    if (logStreamingDispatcher != null) {
+      // shipping happens off the task thread, only ask for it to happen now
+      logStreamingDispatcher.flush();
+      return;
+    }
     synchronized (logCache) {
       for (Iterator<Map.Entry<String, List<LogLine>>> iterator = logCache.entrySet().iterator(); iterator.hasNext();) {
         Map.Entry<String, List<LogLine>> next = iterator.next();
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.logstreaming;
+
+import static io.harness.rule.OwnerRule.MARKO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.logging.LogLevel;
+import io.harness.rule.Owner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import retrofit2.Call;
+import retrofit2.Response;
+
+public class LogStreamingDispatcherTest extends CategoryTest {
+  private static final String ACCOUNT_ID = "accountId";
+  private static final String TOKEN = "token";
+  private static final int CONCURRENT_TASKS = 500;
+
+  private final Map<String, List<LogLine>> pushedLines = new ConcurrentHashMap<>();
+  private volatile boolean logServiceDown;
+  private final CountDownLatch closedStreams = new CountDownLatch(CONCURRENT_TASKS);
+  private LogStreamingClient logStreamingClient;
+  private LogStreamingDispatcher dispatcher;
+
+  @Before
+  public void setup() throws IOException {
+    Call<Void> successfulCall = mock(Call.class);
+    when(successfulCall.execute()).thenReturn(Response.success(null));
+    Call<Void> failingCall = mock(Call.class);
+    when(failingCall.execute()).thenThrow(new IOException("log service is down"));
+
+    logStreamingClient = mock(LogStreamingClient.class, withSettings().stubOnly());
+    when(logStreamingClient.openLogStream(any(), any(), any())).thenReturn(successfulCall);
+    when(logStreamingClient.closeLogStream(any(), any(), any(), anyBoolean())).thenAnswer(invocation -> {
+      closedStreams.countDown();
+      return successfulCall;
+    });
+    when(logStreamingClient.pushMessage(any(), any(), any(), any())).thenAnswer(invocation -> {
+      if (logServiceDown) {
+        return failingCall;
+      }
+      String logKey = invocation.getArgument(2);
+      List<LogLine> lines = invocation.getArgument(3);
+      pushedLines.computeIfAbsent(logKey, key -> Collections.synchronizedList(new ArrayList<>())).addAll(lines);
+      return successfulCall;
+    });
+  }
+
+  @After
+  public void tearDown() {
+    if (dispatcher != null) {
+      dispatcher.shutdown();
+    }
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldKeepOrderAcrossRingBufferLaps() {
+    LogLineRingBuffer buffer = new LogLineRingBuffer(4);
+    List<LogLine> drained = new ArrayList<>();
+    List<LogLine> written = lines("key", 10);
+
+    for (int i = 0; i < written.size(); i += 2) {
+      assertThat(buffer.offer(written.get(i))).isTrue();
+      assertThat(buffer.offer(written.get(i + 1))).isTrue();
+      buffer.drainTo(drained, 1);
+      buffer.drainTo(drained, 1);
+    }
+
+    assertThat(drained).containsExactlyElementsOf(written);
+    assertThat(buffer.isEmpty()).isTrue();
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldPushBatchesInOrderAndCloseOnceDrained() throws InterruptedException {
+    dispatcher = new LogStreamingDispatcher(LogStreamingDispatcher.Config.builder().maxBatchSize(10).build());
+    List<LogLine> first = lines("first", 25);
+    List<LogLine> second = lines("second", 5);
+    CountDownLatch closed = new CountDownLatch(2);
+
+    first.forEach(line -> dispatcher.append("first", logStreamingClient, TOKEN, ACCOUNT_ID, line));
+    second.forEach(line -> dispatcher.append("second", logStreamingClient, TOKEN, ACCOUNT_ID, line));
+    dispatcher.close("first", closed::countDown);
+    dispatcher.close("second", closed::countDown);
+
+    assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(pushedLines.get("first")).containsExactlyElementsOf(first);
+    assertThat(pushedLines.get("second")).containsExactlyElementsOf(second);
+    assertThat(dispatcher.getBatchesSent()).isGreaterThanOrEqualTo(4);
+    assertThat(dispatcher.getLinesDropped()).isZero();
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldDropLinesInsteadOfBlockingWhenBufferIsFull() {
+    dispatcher = new LogStreamingDispatcher(
+        LogStreamingDispatcher.Config.builder().bufferSize(8).flushIntervalMillis(TimeUnit.HOURS.toMillis(1)).build());
+
+    int accepted = 0;
+    for (LogLine line : lines("key", 20)) {
+      accepted += dispatcher.append("key", logStreamingClient, TOKEN, ACCOUNT_ID, line) ? 1 : 0;
+    }
+
+    assertThat(accepted).isEqualTo(8);
+    assertThat(dispatcher.getLinesAccepted()).isEqualTo(8);
+    assertThat(dispatcher.getLinesDropped()).isEqualTo(12);
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldCountFailedPushesAndStillClose() throws InterruptedException {
+    dispatcher = new LogStreamingDispatcher(LogStreamingDispatcher.Config.builder().maxBatchSize(2).build());
+    logServiceDown = true;
+    CountDownLatch closed = new CountDownLatch(1);
+
+    lines("key", 5).forEach(line -> dispatcher.append("key", logStreamingClient, TOKEN, ACCOUNT_ID, line));
+    dispatcher.close("key", closed::countDown);
+
+    assertThat(closed.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(dispatcher.getPushFailures()).isEqualTo(3);
+    assertThat(dispatcher.getLinesDropped()).isEqualTo(5);
+    assertThat(pushedLines).isEmpty();
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldShipLogsOfConcurrentTasks() throws InterruptedException {
+    int tasks = CONCURRENT_TASKS;
+    int linesPerTask = 200;
+    dispatcher = new LogStreamingDispatcher(LogStreamingDispatcher.Config.builder().build());
+    ExecutorService taskExecutor = Executors.newFixedThreadPool(tasks);
+
+    try {
+      for (int task = 0; task < tasks; task++) {
+        String baseLogKey = "task-" + task;
+        taskExecutor.execute(() -> {
+          LogStreamingTaskClient taskClient = LogStreamingTaskClient.builder()
+                                                  .logStreamingClient(logStreamingClient)
+                                                  .accountId(ACCOUNT_ID)
+                                                  .token(TOKEN)
+                                                  .logStreamingSanitizer(LogStreamingSanitizer.builder().build())
+                                                  .baseLogKey(baseLogKey)
+                                                  .logStreamingDispatcher(dispatcher)
+                                                  .build();
+          taskClient.openStream(null);
+          for (int line = 0; line < linesPerTask; line++) {
+            taskClient.log(LogLevel.INFO, baseLogKey + " line " + line);
+          }
+          taskClient.closeStream(null);
+        });
+      }
+
+      assertThat(closedStreams.await(60, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      taskExecutor.shutdownNow();
+    }
+
+    assertThat(dispatcher.getLinesDropped()).isZero();
+    assertThat(dispatcher.getLinesSent()).isEqualTo((long) tasks * linesPerTask);
+    assertThat(pushedLines).hasSize(tasks);
+    pushedLines.forEach((logKey, lines) -> {
+      List<String> expected = IntStream.range(0, linesPerTask)
+                                  .mapToObj(line -> logKey + " line " + line)
+                                  .collect(Collectors.toList());
+      assertThat(lines.stream().map(LogLine::getMessage).collect(Collectors.toList()))
+          .containsExactlyElementsOf(expected);
+    });
+  }
+
+  private static List<LogLine> lines(String prefix, int count) {
+    List<LogLine> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      lines.add(LogLine.builder().level(LogLevel.INFO).message(prefix + " " + i).skipColoring(true).build());
+    }
+    return lines;
+  }
+}
@@ -17,11 +17,13 @@ import io.harness.delegate.authenticator.DelegateSecretManager;
 import io.harness.delegate.authenticator.DelegateTokenAuthenticatorImpl;
 import io.harness.event.MessageProcessorType;
 import io.harness.event.grpc.EventPublisherServerImpl;
+import io.harness.event.grpc.EventWritePipeline;
 import io.harness.event.grpc.MessageProcessor;
 import io.harness.event.metrics.EventServiceMetricsPublisher;
 import io.harness.event.service.impl.EventDataBulkWriteServiceImpl;
 import io.harness.event.service.impl.EventPublisherServiceImpl;
 import io.harness.event.service.impl.LastReceivedPublishedMessageRepositoryImpl;
+import io.harness.event.service.impl.UtilizationRollup;
 import io.harness.event.service.intfc.EventDataBulkWriteService;
 import io.harness.event.service.intfc.EventPublisherService;
 import io.harness.event.service.intfc.LastReceivedPublishedMessageRepository;
@@ -99,6 +101,9 @@ public class EventServiceModule extends AbstractModule {
     bind(LastReceivedPublishedMessageRepository.class).to(LastReceivedPublishedMessageRepositoryImpl.class);
     bind(EventDataBulkWriteService.class).to(EventDataBulkWriteServiceImpl.class);
     bind(EventPublisherService.class).to(EventPublisherServiceImpl.class);
+    Multibinder<Service> serviceMultibinder = Multibinder.newSetBinder(binder(), Service.class);
+    serviceMultibinder.addBinding().to(UtilizationRollup.class);
+    serviceMultibinder.addBinding().to(EventWritePipeline.class);
 
     Multibinder<BindableService> bindableServiceMultibinder = Multibinder.newSetBinder(binder(), BindableService.class);
     bindableServiceMultibinder.addBinding().to(EventPublisherServerImpl.class);
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.event.config;
+
+import com.google.inject.Singleton;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Singleton
+public class EventIngestConfig {
+  // roll up pod, node and pv utilization samples into one document per instance and window
+  private boolean rollupUtilization;
+  private int rollupWindowMinutes;
+  // write published messages on a bounded pool instead of the grpc request threads
+  private boolean asyncWrite;
+  private int writeThreads;
+  private int writeQueueCapacity;
+}
@@ -15,6 +15,7 @@ import static java.util.Objects.requireNonNull;
 
 import io.harness.delegate.task.DelegateLogContext;
 import io.harness.event.EventPublisherGrpc;
+import io.harness.event.PublishBatch;
 import io.harness.event.PublishRequest;
 import io.harness.event.PublishResponse;
 import io.harness.event.service.intfc.EventPublisherService;
@@ -25,17 +26,22 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import io.grpc.Context;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Singleton
 public class EventPublisherServerImpl extends EventPublisherGrpc.EventPublisherImplBase {
   private final EventPublisherService eventPublisherService;
+  private final EventWritePipeline eventWritePipeline;
 
   @Inject
-  public EventPublisherServerImpl(EventPublisherService eventPublisherService) {
+  public EventPublisherServerImpl(EventPublisherService eventPublisherService, EventWritePipeline eventWritePipeline) {
     this.eventPublisherService = eventPublisherService;
+    this.eventWritePipeline = eventWritePipeline;
   }
 
   @Override
@@ -43,17 +49,138 @@ public class EventPublisherServerImpl extends EventPublisherGrpc.EventPublisherI
     String accountId = requireNonNull(ACCOUNT_ID_CTX_KEY.get(Context.current()));
     log.info(
         "Received publish request with {} messages via grpc for accountId: {}", request.getMessagesCount(), accountId);
+    try {
+      write(accountId, request).whenComplete((ignored, e) -> {
+        if (e == null) {
+          responseObserver.onNext(PublishResponse.newBuilder().build());
+          responseObserver.onCompleted();
+        } else {
+          log.error("Exception in Event Publisher Service", e);
+          responseObserver.onError(Status.INTERNAL.withCause(e).asException());
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.warn("Rejecting publish request for accountId: {}, too many pending writes", accountId);
+      responseObserver.onError(Status.RESOURCE_EXHAUSTED.withDescription("Too many pending writes").asException());
+    }
+  }
+
+  /**
+   * Batches are read one at a time, the next one is only requested once the previous one is written. A slow write
+   * holds back the client through grpc flow control instead of blocking a grpc thread.
+   */
+  @Override
+  public StreamObserver<PublishBatch> publishStream(StreamObserver<PublishResponse> responseObserver) {
+    String accountId = requireNonNull(ACCOUNT_ID_CTX_KEY.get(Context.current()));
+    ServerCallStreamObserver<PublishResponse> serverCallStreamObserver =
+        (ServerCallStreamObserver<PublishResponse>) responseObserver;
+    serverCallStreamObserver.disableAutoRequest();
+    serverCallStreamObserver.request(1);
+    return new StreamObserver<PublishBatch>() {
+      // guards responseObserver, as writes complete on the write pipeline threads
+      private final Object lock = new Object();
+      private boolean failed;
+      private boolean writing;
+      private boolean completed;
+
+      @Override
+      public void onNext(PublishBatch batch) {
+        synchronized (lock) {
+          if (failed) {
+            return;
+          }
+          writing = true;
+        }
+        try {
+          // PublishBatch is wire compatible with PublishRequest
+          PublishRequest request = PublishRequest.parseFrom(batch.toByteString());
+          log.info("Received publish batch with {} messages via grpc stream for accountId: {}",
+              request.getMessagesCount(), accountId);
+          write(accountId, request).whenComplete((ignored, e) -> onWritten(e));
+        } catch (RejectedExecutionException e) {
+          log.warn("Rejecting publish batch for accountId: {}, too many pending writes", accountId);
+          fail(Status.RESOURCE_EXHAUSTED.withDescription("Too many pending writes"));
+        } catch (Exception e) {
+          log.error("Exception in Event Publisher Service", e);
+          fail(Status.INTERNAL.withCause(e));
+        }
+      }
+
+      private void onWritten(Throwable e) {
+        if (e != null) {
+          log.error("Exception in Event Publisher Service", e);
+          fail(Status.INTERNAL.withCause(e));
+          return;
+        }
+        synchronized (lock) {
+          writing = false;
+          if (failed) {
+            return;
+          }
+          responseObserver.onNext(PublishResponse.newBuilder().build());
+          if (completed) {
+            responseObserver.onCompleted();
+            return;
+          }
+        }
+        serverCallStreamObserver.request(1);
+      }
+
+      private void fail(Status status) {
+        synchronized (lock) {
+          writing = false;
+          if (!failed) {
+            failed = true;
+            responseObserver.onError(status.asException());
+          }
+        }
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        log.warn("Publish stream for accountId: {} failed", accountId, t);
+        synchronized (lock) {
+          failed = true;
+        }
+      }
+
+      @Override
+      public void onCompleted() {
+        synchronized (lock) {
+          if (failed) {
+            return;
+          }
+          completed = true;
+          if (!writing) {
+            responseObserver.onCompleted();
+          }
+        }
+      }
+    };
+  }
+
+  private CompletableFuture<Void> write(String accountId, PublishRequest request) {
+    if (eventWritePipeline.isEnabled()) {
+      return eventWritePipeline.submit(() -> publish(accountId, request));
+    }
+    CompletableFuture<Void> written = new CompletableFuture<>();
+    try {
+      publish(accountId, request);
+      written.complete(null);
+    } catch (Exception e) {
+      written.completeExceptionally(e);
+    }
+    return written;
+  }
+
+  private void publish(String accountId, PublishRequest request) {
+    if (request.getMessagesCount() == 0) {
+      return;
+    }
     String delegateId = request.getMessages(0).getAttributesMap().getOrDefault(DELEGATE_ID, "");
     try (AutoLogContext ignore = new AccountLogContext(accountId, OVERRIDE_ERROR);
          AutoLogContext ignore1 = new DelegateLogContext(delegateId, OVERRIDE_ERROR)) {
-      try {
-        eventPublisherService.publish(accountId, delegateId, request.getMessagesList(), request.getMessagesCount());
-        responseObserver.onNext(PublishResponse.newBuilder().build());
-        responseObserver.onCompleted();
-      } catch (Exception e) {
-        log.error("Exception in Event Publisher Service", e);
-        responseObserver.onError(Status.INTERNAL.withCause(e).asException());
-      }
+      eventPublisherService.publish(accountId, delegateId, request.getMessagesList(), request.getMessagesCount());
     }
   }
 }
\ No newline at end of file
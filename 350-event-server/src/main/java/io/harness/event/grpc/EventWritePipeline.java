@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.event.grpc;
+
+import io.harness.event.app.EventServiceConfig;
+import io.harness.event.config.EventIngestConfig;
+
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded pool writing published messages off the grpc threads. Writes are rejected once the queue is full, so that
+ * the server can push back on clients instead of piling up requests.
+ * <p/>
+ * Stopped with the other services of the event server, the queued writes are finished first and later ones are
+ * rejected.
+ */
+@Slf4j
+@Singleton
+public class EventWritePipeline extends AbstractIdleService {
+  private static final int DEFAULT_WRITE_THREADS = 8;
+  private static final int DEFAULT_WRITE_QUEUE_CAPACITY = 64;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+
+  private final ExecutorService executor;
+
+  @Inject
+  public EventWritePipeline(EventServiceConfig eventServiceConfig) {
+    EventIngestConfig eventIngestConfig = eventServiceConfig.getEventIngestConfig();
+    if (eventIngestConfig == null || !eventIngestConfig.isAsyncWrite()) {
+      executor = null;
+      return;
+    }
+    int threads =
+        eventIngestConfig.getWriteThreads() > 0 ? eventIngestConfig.getWriteThreads() : DEFAULT_WRITE_THREADS;
+    int queueCapacity = eventIngestConfig.getWriteQueueCapacity() > 0 ? eventIngestConfig.getWriteQueueCapacity()
+                                                                       : DEFAULT_WRITE_QUEUE_CAPACITY;
+    executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        new ThreadFactoryBuilder().setNameFormat("event-write-%d").setDaemon(true).build());
+  }
+
+  public boolean isEnabled() {
+    return executor != null;
+  }
+
+  /**
+   * Queues the write.
+   *
+   * @throws RejectedExecutionException if the queue is full or the pipeline is stopped
+   */
+  public CompletableFuture<Void> submit(Runnable write) {
+    return CompletableFuture.runAsync(write, executor);
+  }
+
+  @Override
+  protected void startUp() {
+    // threads are started with the first writes
+  }
+
+  @Override
+  protected void shutDown() throws InterruptedException {
+    if (executor == null) {
+      return;
+    }
+    executor.shutdown();
+    if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      log.warn("Event writes still running after {} seconds, interrupting them", SHUTDOWN_TIMEOUT_SECONDS);
+      executor.shutdownNow();
+    }
+  }
+}
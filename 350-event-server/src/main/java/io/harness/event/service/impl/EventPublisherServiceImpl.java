@@ -50,24 +50,27 @@ public class EventPublisherServiceImpl implements EventPublisherService {
   private final MessageProcessorRegistry messageProcessorRegistry;
   private final MetricService metricService;
   private final EventDataBulkWriteService eventDataBulkWriteService;
+  private final UtilizationRollup utilizationRollup;
 
   private static final String POD_UTILIZATION = "io.harness.event.payloads.PodMetric";
   private static final String NODE_UTILIZATION = "io.harness.event.payloads.NodeMetric";
   private static final String PV_UTILIZATION = "io.harness.event.payloads.PVMetric";
   private static final String K8S_CONTAINER_STATE = "io.harness.event.payloads.ContainerStateProto";
   private static final String K8S_WORKLOAD_SPEC = "io.harness.perpetualtask.k8s.watch.K8sWorkloadSpec";
+  private static final String K8S_CLUSTER_SYNC_EVENT = "io.harness.perpetualtask.k8s.watch.K8SClusterSyncEvent";
 
   @Inject
   public EventPublisherServiceImpl(final HPersistence hPersistence, final EventServiceConfig eventServiceConfig,
       LastReceivedPublishedMessageRepository lastReceivedPublishedMessageRepository,
       MessageProcessorRegistry messageProcessorRegistry, MetricService metricService,
-      EventDataBulkWriteService eventDataBulkWriteService) {
+      EventDataBulkWriteService eventDataBulkWriteService, UtilizationRollup utilizationRollup) {
     this.hPersistence = hPersistence;
     this.eventServiceConfig = eventServiceConfig;
     this.lastReceivedPublishedMessageRepository = lastReceivedPublishedMessageRepository;
     this.messageProcessorRegistry = messageProcessorRegistry;
     this.metricService = metricService;
     this.eventDataBulkWriteService = eventDataBulkWriteService;
+    this.utilizationRollup = utilizationRollup;
   }
 
   @Override
@@ -75,14 +78,19 @@ public class EventPublisherServiceImpl implements EventPublisherService {
     final boolean enableBatchWrite = eventServiceConfig.getEventDataBatchQueryConfig().isEnableBatchWrite();
     List<PublishedMessage> withoutCategory = new ArrayList<>();
     List<PublishedMessage> withCategory = new ArrayList<>();
+    // persisted once their window closes
+    List<PublishedMessage> rolledUp = new ArrayList<>();
     messagesList.stream()
         .map(publishMessage -> toPublishedMessage(accountId, enableBatchWrite, publishMessage))
         .filter(Objects::nonNull)
         .forEach(publishedMessage -> {
-          if (isEmpty(publishedMessage.getCategory())) {
-            withoutCategory.add(publishedMessage);
-          } else {
+          publishMetric(publishedMessage);
+          if (!isEmpty(publishedMessage.getCategory())) {
             withCategory.add(publishedMessage);
+          } else if (utilizationRollup.add(publishedMessage)) {
+            rolledUp.add(publishedMessage);
+          } else {
+            withoutCategory.add(publishedMessage);
           }
         });
     if (isNotEmpty(withoutCategory)) {
@@ -100,6 +108,7 @@ public class EventPublisherServiceImpl implements EventPublisherService {
 
     try {
       lastReceivedPublishedMessageRepository.updateLastReceivedPublishedMessages(withoutCategory);
+      lastReceivedPublishedMessageRepository.updateLastReceivedPublishedMessages(rolledUp);
     } catch (Exception e) {
       log.warn("Error while persisting last received data", e);
     }
@@ -113,12 +122,8 @@ public class EventPublisherServiceImpl implements EventPublisherService {
     } catch (Exception e) {
       log.warn("Error while processing messages", e);
     }
-    log.info("Published messages persisted. withCategory:{}, withoutCategory:{}", withCategory.size(),
-        withoutCategory.size());
-
-    withoutCategory.forEach(this::publishMetric);
-    withCategory.forEach(this::publishMetric);
-    messagesList.forEach(msg -> publishMetric(msg, accountId));
+    log.info("Published messages persisted. withCategory:{}, withoutCategory:{}, rolledUp:{}", withCategory.size(),
+        withoutCategory.size(), rolledUp.size());
   }
 
   private void publishMetric(PublishedMessage msg) {
@@ -129,14 +134,9 @@ public class EventPublisherServiceImpl implements EventPublisherService {
     try (MessagesMetricsGroupContext x = new MessagesMetricsGroupContext(accountId, clusterId, messageType)) {
       metricService.incCounter(EventServiceMetricNames.INCOMING_MESSAGE_COUNT);
     }
-  }
-
-  private void publishMetric(PublishMessage msg, String accountId) {
-    final String SYNC_MSG_TYPE = "io.harness.perpetualtask.k8s.watch.K8SClusterSyncEvent";
-    if (AnyUtils.toFqcn(msg.getPayload()).equals(SYNC_MSG_TYPE)) {
-      String clusterId = msg.getAttributesMap().getOrDefault(CLUSTER_ID_IDENTIFIER, "MISSING_CLUSTER_ID");
+    if (K8S_CLUSTER_SYNC_EVENT.equals(messageType) && msg.getMessage() != null) {
       try (ClusterResourcesMetricsGroup x = new ClusterResourcesMetricsGroup(accountId, clusterId)) {
-        K8SClusterSyncEvent ev = AnyUtils.findClassAndUnpack(msg.getPayload());
+        K8SClusterSyncEvent ev = (K8SClusterSyncEvent) msg.getMessage();
         metricService.recordMetric(EventServiceMetricNames.POD_COUNT, ev.getActivePodUidsMapMap().size());
         metricService.recordMetric(EventServiceMetricNames.NODE_COUNT, ev.getActiveNodeUidsMapMap().size());
         metricService.recordMetric(EventServiceMetricNames.PV_COUNT, ev.getActivePvUidsMapMap().size());
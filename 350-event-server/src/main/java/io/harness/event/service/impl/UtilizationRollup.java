@@ -0,0 +1,360 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.event.service.impl;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+
+import io.harness.ccm.commons.entities.events.PublishedMessage;
+import io.harness.eraro.mongo.MongoError;
+import io.harness.event.app.EventServiceConfig;
+import io.harness.event.config.EventIngestConfig;
+import io.harness.event.grpc.EventWritePipeline;
+import io.harness.event.payloads.AggregatedStorage;
+import io.harness.event.payloads.AggregatedUsage;
+import io.harness.event.payloads.NodeMetric;
+import io.harness.event.payloads.PVMetric;
+import io.harness.event.payloads.PodMetric;
+import io.harness.event.service.intfc.EventDataBulkWriteService;
+import io.harness.grpc.utils.HTimestamps;
+import io.harness.persistence.HPersistence;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.protobuf.Any;
+import com.google.protobuf.Duration;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Durations;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rolls up the pod, node and pv utilization samples of an instance into one message per window, so that one document
+ * gets written per instance and window instead of one per sample. The rolled up message has the same type as the
+ * samples, spans from the start of the first sample to the end of the last one and averages are weighted by the length
+ * of the samples.
+ * <p/>
+ * Windows are kept in memory until they close, so samples of open windows are lost if the event server goes down
+ * without shutting down. On shutdown, all the windows are flushed once the queued writes of the {@link
+ * EventWritePipeline} are done.
+ */
+@Singleton
+@Slf4j
+public class UtilizationRollup extends AbstractScheduledService {
+  private static final int DEFAULT_WINDOW_MINUTES = 60;
+  // samples can arrive after their window closed, e.g. if the delegate has a backlog
+  private static final long FLUSH_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+  private static final int MAX_OPEN_WINDOWS = 200_000;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 90;
+  private static final Set<String> UTILIZATION_TYPES =
+      ImmutableSet.of(PodMetric.class.getName(), NodeMetric.class.getName(), PVMetric.class.getName());
+
+  private final HPersistence hPersistence;
+  private final EventServiceConfig eventServiceConfig;
+  private final EventDataBulkWriteService eventDataBulkWriteService;
+  private final EventWritePipeline eventWritePipeline;
+  private final boolean enabled;
+  private final long windowMillis;
+
+  private final ConcurrentMap<WindowKey, Window> windows = new ConcurrentHashMap<>();
+  private final AtomicLong samplesReceived = new AtomicLong();
+  private final AtomicLong documentsWritten = new AtomicLong();
+
+  @Inject
+  public UtilizationRollup(HPersistence hPersistence, EventServiceConfig eventServiceConfig,
+      EventDataBulkWriteService eventDataBulkWriteService, EventWritePipeline eventWritePipeline) {
+    this.hPersistence = hPersistence;
+    this.eventServiceConfig = eventServiceConfig;
+    this.eventDataBulkWriteService = eventDataBulkWriteService;
+    this.eventWritePipeline = eventWritePipeline;
+    EventIngestConfig eventIngestConfig = eventServiceConfig.getEventIngestConfig();
+    this.enabled = eventIngestConfig != null && eventIngestConfig.isRollupUtilization();
+    int windowMinutes = eventIngestConfig != null && eventIngestConfig.getRollupWindowMinutes() > 0
+        ? eventIngestConfig.getRollupWindowMinutes()
+        : DEFAULT_WINDOW_MINUTES;
+    this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+  }
+
+  /**
+   * Adds the message to the window of its instance if it is a utilization sample.
+   *
+   * @return false if the message isn't rolled up and needs to be persisted as is
+   */
+  public boolean add(PublishedMessage publishedMessage) {
+    if (!enabled || !UTILIZATION_TYPES.contains(publishedMessage.getType())) {
+      return false;
+    }
+    Message message = publishedMessage.getMessage();
+    WindowKey key;
+    if (message instanceof PodMetric) {
+      PodMetric podMetric = (PodMetric) message;
+      key = windowKey(publishedMessage, podMetric.getClusterId(), podMetric.getNamespace() + "/" + podMetric.getName(),
+          podMetric.getTimestamp(), podMetric.getWindow());
+    } else if (message instanceof NodeMetric) {
+      NodeMetric nodeMetric = (NodeMetric) message;
+      key = windowKey(publishedMessage, nodeMetric.getClusterId(), nodeMetric.getName(), nodeMetric.getTimestamp(),
+          nodeMetric.getWindow());
+    } else if (message instanceof PVMetric) {
+      PVMetric pvMetric = (PVMetric) message;
+      key = windowKey(publishedMessage, pvMetric.getClusterId(), pvMetric.getNamespace() + "/" + pvMetric.getName(),
+          pvMetric.getTimestamp(), pvMetric.getWindow());
+    } else {
+      return false;
+    }
+    windows.compute(key, (windowKey, window) -> {
+      Window updated = window == null ? new Window(publishedMessage) : window;
+      updated.add(publishedMessage);
+      return updated;
+    });
+    samplesReceived.incrementAndGet();
+    return true;
+  }
+
+  @Override
+  protected void runOneIteration() {
+    try {
+      flush(System.currentTimeMillis());
+    } catch (Exception e) {
+      log.error("Exception while flushing utilization windows", e);
+    }
+  }
+
+  @Override
+  protected void shutDown() {
+    if (eventWritePipeline.isEnabled()) {
+      try {
+        // stopped along with this service, queued writes may still add samples
+        eventWritePipeline.awaitTerminated(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      } catch (TimeoutException | IllegalStateException e) {
+        log.warn("Flushing utilization windows before the queued event writes are done", e);
+      }
+    }
+    flush(Long.MAX_VALUE);
+  }
+
+  @Override
+  protected Scheduler scheduler() {
+    return Scheduler.newFixedDelaySchedule(1, 1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Persists the windows closed at the given time, or all windows if too many are open.
+   */
+  @VisibleForTesting
+  void flush(long now) {
+    boolean flushAll = windows.size() > MAX_OPEN_WINDOWS;
+    if (flushAll) {
+      log.warn("{} utilization windows open, flushing all of them", windows.size());
+    }
+    List<PublishedMessage> rolledUp = new ArrayList<>();
+    for (WindowKey key : windows.keySet()) {
+      long windowEnd = (key.getWindowIndex() + 1) * windowMillis;
+      if (flushAll || windowEnd + FLUSH_DELAY_MILLIS <= now) {
+        // removes the window atomically with respect to add, samples arriving afterwards open a new window
+        Window window = windows.remove(key);
+        if (window != null) {
+          rolledUp.add(window.toPublishedMessage());
+        }
+      }
+    }
+    if (rolledUp.isEmpty()) {
+      return;
+    }
+    if (eventServiceConfig.getEventDataBatchQueryConfig().isEnableBatchWrite()) {
+      // one bulk write per batch, so the indexes of its write errors point into the batch
+      int batchSize = eventServiceConfig.getEventDataBatchQueryConfig().getQueryBatchSize();
+      for (List<PublishedMessage> batch : Lists.partition(rolledUp, batchSize > 0 ? batchSize : rolledUp.size())) {
+        try {
+          eventDataBulkWriteService.bulkInsertPublishedMessages(batch);
+          onPersisted(batch.size());
+        } catch (BulkWriteException e) {
+          List<PublishedMessage> failed = new ArrayList<>();
+          for (BulkWriteError writeError : e.getWriteErrors()) {
+            // inserted by an earlier attempt of the bulk write
+            if (writeError.getCode() != MongoError.DUPLICATE_KEY.getErrorCode()) {
+              failed.add(batch.get(writeError.getIndex()));
+            }
+          }
+          log.warn("{} of {} rolled up utilization messages not persisted, retrying with the next flush",
+              failed.size(), batch.size(), e);
+          onPersisted(batch.size() - failed.size());
+          retry(failed);
+        } catch (Exception e) {
+          log.warn("Error while persisting rolled up utilization messages, retrying with the next flush", e);
+          retry(batch);
+        }
+      }
+      return;
+    }
+    try {
+      hPersistence.saveIgnoringDuplicateKeys(rolledUp);
+      onPersisted(rolledUp.size());
+    } catch (Exception e) {
+      log.warn("Error while persisting rolled up utilization messages, retrying with the next flush", e);
+      retry(rolledUp);
+    }
+  }
+
+  private void onPersisted(int count) {
+    documentsWritten.addAndGet(count);
+    log.info("Persisted {} rolled up utilization messages, {} samples rolled up into {} messages so far", count,
+        samplesReceived.get(), documentsWritten.get());
+  }
+
+  // a rolled up message is just a longer sample
+  private void retry(List<PublishedMessage> notPersisted) {
+    samplesReceived.addAndGet(-notPersisted.size());
+    notPersisted.forEach(this::add);
+  }
+
+  @VisibleForTesting
+  long getSamplesReceived() {
+    return samplesReceived.get();
+  }
+
+  @VisibleForTesting
+  long getDocumentsWritten() {
+    return documentsWritten.get();
+  }
+
+  private WindowKey windowKey(PublishedMessage publishedMessage, String clusterId, String instanceId,
+      Timestamp sampleEnd, Duration sampleLength) {
+    // by the start of the sample, so that a sample ending on a window boundary stays in the window it covers
+    long windowIndex = (HTimestamps.toMillis(sampleEnd) - Durations.toMillis(sampleLength)) / windowMillis;
+    return new WindowKey(
+        publishedMessage.getAccountId(), publishedMessage.getType(), clusterId, instanceId, windowIndex);
+  }
+
+  @Value
+  private static class WindowKey {
+    String accountId;
+    String type;
+    String clusterId;
+    String instanceId;
+    long windowIndex;
+  }
+
+  private static class Window {
+    private final PublishedMessage first;
+    private Message latest;
+    private long latestOccurredAt;
+    private long start = Long.MAX_VALUE;
+    private long end = Long.MIN_VALUE;
+    private long totalWeight;
+    // weighted by the length of the samples
+    private double avgCpuNanoSum;
+    private double avgMemoryByteSum;
+    private double avgCapacityByteSum;
+    private double avgUsedByteSum;
+    private long maxCpuNano;
+    private long maxMemoryByte;
+
+    Window(PublishedMessage first) {
+      this.first = first;
+    }
+
+    void add(PublishedMessage publishedMessage) {
+      Message message = publishedMessage.getMessage();
+      if (publishedMessage.getOccurredAt() >= latestOccurredAt) {
+        latest = message;
+        latestOccurredAt = publishedMessage.getOccurredAt();
+      }
+      if (message instanceof PodMetric) {
+        PodMetric podMetric = (PodMetric) message;
+        addUsage(podMetric.getTimestamp(), podMetric.getWindow(), podMetric.getAggregatedUsage());
+      } else if (message instanceof NodeMetric) {
+        NodeMetric nodeMetric = (NodeMetric) message;
+        addUsage(nodeMetric.getTimestamp(), nodeMetric.getWindow(), nodeMetric.getAggregatedUsage());
+      } else {
+        PVMetric pvMetric = (PVMetric) message;
+        long weight = addSample(pvMetric.getTimestamp(), pvMetric.getWindow());
+        avgCapacityByteSum += (double) pvMetric.getAggregatedStorage().getAvgCapacityByte() * weight;
+        avgUsedByteSum += (double) pvMetric.getAggregatedStorage().getAvgUsedByte() * weight;
+      }
+    }
+
+    private void addUsage(Timestamp timestamp, Duration window, AggregatedUsage usage) {
+      long weight = addSample(timestamp, window);
+      avgCpuNanoSum += (double) usage.getAvgCpuNano() * weight;
+      avgMemoryByteSum += (double) usage.getAvgMemoryByte() * weight;
+      maxCpuNano = Math.max(maxCpuNano, usage.getMaxCpuNano());
+      maxMemoryByte = Math.max(maxMemoryByte, usage.getMaxMemoryByte());
+    }
+
+    private long addSample(Timestamp timestamp, Duration window) {
+      long sampleEnd = HTimestamps.toMillis(timestamp);
+      long sampleLength = Durations.toMillis(window);
+      start = Math.min(start, sampleEnd - sampleLength);
+      end = Math.max(end, sampleEnd);
+      // samples without a length still count
+      long weight = Math.max(sampleLength, 1);
+      totalWeight += weight;
+      return weight;
+    }
+
+    PublishedMessage toPublishedMessage() {
+      Timestamp timestamp = HTimestamps.fromMillis(end);
+      Duration window = Durations.fromMillis(end - start);
+      Message rolledUp;
+      if (latest instanceof PodMetric) {
+        rolledUp = ((PodMetric) latest)
+                       .toBuilder()
+                       .setTimestamp(timestamp)
+                       .setWindow(window)
+                       .setAggregatedUsage(usage())
+                       .build();
+      } else if (latest instanceof NodeMetric) {
+        rolledUp = ((NodeMetric) latest)
+                       .toBuilder()
+                       .setTimestamp(timestamp)
+                       .setWindow(window)
+                       .setAggregatedUsage(usage())
+                       .build();
+      } else {
+        rolledUp = ((PVMetric) latest)
+                       .toBuilder()
+                       .setTimestamp(timestamp)
+                       .setWindow(window)
+                       .setAggregatedStorage(AggregatedStorage.newBuilder()
+                                                 .setAvgCapacityByte(Math.round(avgCapacityByteSum / totalWeight))
+                                                 .setAvgUsedByte(Math.round(avgUsedByteSum / totalWeight))
+                                                 .build())
+                       .build();
+      }
+      return first.toBuilder()
+          .uuid(generateUuid())
+          .message(rolledUp)
+          .data(Any.pack(rolledUp).toByteArray())
+          .occurredAt(latestOccurredAt)
+          .build();
+    }
+
+    private AggregatedUsage usage() {
+      return AggregatedUsage.newBuilder()
+          .setAvgCpuNano(Math.round(avgCpuNanoSum / totalWeight))
+          .setMaxCpuNano(maxCpuNano)
+          .setAvgMemoryByte(Math.round(avgMemoryByteSum / totalWeight))
+          .setMaxMemoryByte(maxMemoryByte)
+          .build();
+    }
+  }
+}
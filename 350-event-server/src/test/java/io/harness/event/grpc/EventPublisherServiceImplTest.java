@@ -29,6 +29,7 @@ import io.harness.event.app.EventServiceConfig;
 import io.harness.event.config.EventDataBatchQueryConfig;
 import io.harness.event.payloads.Lifecycle;
 import io.harness.event.service.impl.EventPublisherServiceImpl;
+import io.harness.event.service.impl.UtilizationRollup;
 import io.harness.event.service.intfc.EventDataBulkWriteService;
 import io.harness.event.service.intfc.LastReceivedPublishedMessageRepository;
 import io.harness.grpc.auth.DelegateAuthServerInterceptor;
@@ -71,6 +72,7 @@ public class EventPublisherServiceImplTest extends CategoryTest {
   @Mock private LastReceivedPublishedMessageRepository lastReceivedPublishedMessageRepository;
   @Mock private MessageProcessorRegistry messageProcessorRegistry;
   @Mock private MetricService metricService;
+  @Mock private UtilizationRollup utilizationRollup;
 
   @InjectMocks private EventPublisherServiceImpl publisherService;
   @Test
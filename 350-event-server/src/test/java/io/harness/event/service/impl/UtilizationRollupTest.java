@@ -0,0 +1,317 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.event.service.impl;
+
+import static io.harness.rule.OwnerRule.AVMOHAN;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.ccm.commons.entities.events.PublishedMessage;
+import io.harness.event.app.EventServiceConfig;
+import io.harness.event.config.EventDataBatchQueryConfig;
+import io.harness.event.config.EventIngestConfig;
+import io.harness.event.grpc.EventWritePipeline;
+import io.harness.event.payloads.AggregatedUsage;
+import io.harness.event.payloads.Lifecycle;
+import io.harness.event.payloads.NodeMetric;
+import io.harness.event.payloads.PodMetric;
+import io.harness.event.service.intfc.EventDataBulkWriteService;
+import io.harness.grpc.utils.HTimestamps;
+import io.harness.persistence.HPersistence;
+import io.harness.rule.Owner;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ServiceManager;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.protobuf.Any;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.Durations;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+@Slf4j
+public class UtilizationRollupTest extends CategoryTest {
+  private static final String ACCOUNT_ID = "accountId";
+  private static final String CLUSTER_ID = "clusterId";
+  private static final long HOUR = Duration.ofHours(1).toMillis();
+  private static final long SAMPLE_LENGTH = Duration.ofMinutes(20).toMillis();
+  // start of an hour
+  private static final long START = 1000 * HOUR;
+
+  private HPersistence hPersistence;
+  private UtilizationRollup utilizationRollup;
+
+  @Before
+  public void setUp() {
+    hPersistence = mock(HPersistence.class);
+    EventServiceConfig eventServiceConfig = mock(EventServiceConfig.class);
+    when(eventServiceConfig.getEventIngestConfig())
+        .thenReturn(EventIngestConfig.builder().rollupUtilization(true).rollupWindowMinutes(60).build());
+    when(eventServiceConfig.getEventDataBatchQueryConfig())
+        .thenReturn(EventDataBatchQueryConfig.builder().enableBatchWrite(false).build());
+    utilizationRollup = new UtilizationRollup(hPersistence, eventServiceConfig,
+        mock(EventDataBulkWriteService.class), new EventWritePipeline(eventServiceConfig));
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldRollUpSamplesOfAnInstancePerWindow() {
+    assertThat(utilizationRollup.add(podSample("pod-1", START + SAMPLE_LENGTH, 100, 200))).isTrue();
+    assertThat(utilizationRollup.add(podSample("pod-1", START + 2 * SAMPLE_LENGTH, 200, 400))).isTrue();
+    assertThat(utilizationRollup.add(podSample("pod-1", START + 3 * SAMPLE_LENGTH, 300, 300))).isTrue();
+    assertThat(utilizationRollup.add(podSample("pod-2", START + SAMPLE_LENGTH, 50, 50))).isTrue();
+    // next window
+    assertThat(utilizationRollup.add(podSample("pod-1", START + 4 * SAMPLE_LENGTH, 100, 100))).isTrue();
+
+    // the window is kept open for late samples
+    utilizationRollup.flush(START + HOUR);
+    verify(hPersistence, never()).saveIgnoringDuplicateKeys(anyList());
+
+    utilizationRollup.flush(START + HOUR + Duration.ofMinutes(10).toMillis());
+    List<PodMetric> rolledUp = captureRolledUp(1);
+    assertThat(rolledUp).hasSize(2);
+    PodMetric pod1 = rolledUp.get(0);
+    assertThat(pod1.getName()).isEqualTo("pod-1");
+    assertThat(HTimestamps.toMillis(pod1.getTimestamp())).isEqualTo(START + HOUR);
+    assertThat(Durations.toMillis(pod1.getWindow())).isEqualTo(HOUR);
+    assertThat(pod1.getAggregatedUsage().getAvgCpuNano()).isEqualTo(200);
+    assertThat(pod1.getAggregatedUsage().getMaxCpuNano()).isEqualTo(400);
+    assertThat(pod1.getAggregatedUsage().getAvgMemoryByte()).isEqualTo(2000);
+    assertThat(pod1.getAggregatedUsage().getMaxMemoryByte()).isEqualTo(4000);
+    PodMetric pod2 = rolledUp.get(1);
+    assertThat(Durations.toMillis(pod2.getWindow())).isEqualTo(SAMPLE_LENGTH);
+    assertThat(pod2.getAggregatedUsage().getAvgCpuNano()).isEqualTo(50);
+
+    utilizationRollup.flush(Long.MAX_VALUE);
+    assertThat(captureRolledUp(2)).hasSize(1);
+    assertThat(utilizationRollup.getSamplesReceived()).isEqualTo(5);
+    assertThat(utilizationRollup.getDocumentsWritten()).isEqualTo(3);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldNotRollUpOtherMessages() {
+    Lifecycle lifecycle = Lifecycle.newBuilder().setInstanceId("instance-1").build();
+    assertThat(utilizationRollup.add(publishedMessage(lifecycle, START))).isFalse();
+    utilizationRollup.flush(Long.MAX_VALUE);
+    verify(hPersistence, never()).saveIgnoringDuplicateKeys(anyList());
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldRetryFailedWritesWithNextFlush() {
+    utilizationRollup.add(podSample("pod-1", START + SAMPLE_LENGTH, 100, 200));
+    utilizationRollup.add(podSample("pod-1", START + 2 * SAMPLE_LENGTH, 300, 200));
+    doThrow(new RuntimeException("Persistence error"))
+        .doNothing()
+        .when(hPersistence)
+        .saveIgnoringDuplicateKeys(anyList());
+
+    utilizationRollup.flush(Long.MAX_VALUE);
+    assertThat(utilizationRollup.getDocumentsWritten()).isZero();
+    utilizationRollup.add(podSample("pod-1", START + 3 * SAMPLE_LENGTH, 200, 200));
+    utilizationRollup.flush(Long.MAX_VALUE);
+
+    List<PodMetric> rolledUp = captureRolledUp(2);
+    assertThat(rolledUp).hasSize(1);
+    assertThat(Durations.toMillis(rolledUp.get(0).getWindow())).isEqualTo(HOUR);
+    assertThat(rolledUp.get(0).getAggregatedUsage().getAvgCpuNano()).isEqualTo(200);
+    assertThat(utilizationRollup.getSamplesReceived()).isEqualTo(3);
+    assertThat(utilizationRollup.getDocumentsWritten()).isEqualTo(1);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldRetryOnlyFailedMessagesOfBulkWrites() {
+    EventServiceConfig eventServiceConfig = mock(EventServiceConfig.class);
+    when(eventServiceConfig.getEventIngestConfig())
+        .thenReturn(EventIngestConfig.builder().rollupUtilization(true).rollupWindowMinutes(60).build());
+    when(eventServiceConfig.getEventDataBatchQueryConfig())
+        .thenReturn(EventDataBatchQueryConfig.builder().enableBatchWrite(true).queryBatchSize(100).build());
+    EventDataBulkWriteService eventDataBulkWriteService = mock(EventDataBulkWriteService.class);
+    utilizationRollup = new UtilizationRollup(
+        hPersistence, eventServiceConfig, eventDataBulkWriteService, new EventWritePipeline(eventServiceConfig));
+    for (String pod : new String[] {"pod-1", "pod-2", "pod-3"}) {
+      utilizationRollup.add(podSample(pod, START + SAMPLE_LENGTH, 100, 200));
+    }
+    BulkWriteException bulkWriteException = mock(BulkWriteException.class);
+    // the first message got inserted by an earlier attempt, the third one failed
+    when(bulkWriteException.getWriteErrors())
+        .thenReturn(Arrays.asList(new BulkWriteError(11000, "duplicate key", new BasicDBObject(), 0),
+            new BulkWriteError(2, "bad value", new BasicDBObject(), 2)));
+    when(eventDataBulkWriteService.bulkInsertPublishedMessages(anyList()))
+        .thenThrow(bulkWriteException)
+        .thenReturn(true);
+
+    utilizationRollup.flush(Long.MAX_VALUE);
+    assertThat(utilizationRollup.getDocumentsWritten()).isEqualTo(2);
+    utilizationRollup.flush(Long.MAX_VALUE);
+
+    @SuppressWarnings("unchecked") // Casting as we can't use List<PublishedMessage> as the class type.
+    ArgumentCaptor<List<PublishedMessage>> captor = ArgumentCaptor.forClass(List.class);
+    verify(eventDataBulkWriteService, times(2)).bulkInsertPublishedMessages(captor.capture());
+    List<PublishedMessage> firstBatch = captor.getAllValues().get(0);
+    List<PublishedMessage> retried = captor.getAllValues().get(1);
+    assertThat(retried).hasSize(1);
+    assertThat(podName(retried.get(0))).isEqualTo(podName(firstBatch.get(2)));
+    assertThat(utilizationRollup.getDocumentsWritten()).isEqualTo(3);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldReduceWriteVolumeOfClusterFeed() {
+    doNothing().when(hPersistence).saveIgnoringDuplicateKeys(anyList());
+    int nodes = 50;
+    int pods = 500;
+    long day = Duration.ofDays(1).toMillis();
+    // the delegate publishes a sample per instance every 20 minutes
+    for (long sampleEnd = START + SAMPLE_LENGTH; sampleEnd <= START + day; sampleEnd += SAMPLE_LENGTH) {
+      for (int i = 0; i < nodes; i++) {
+        utilizationRollup.add(nodeSample("node-" + i, sampleEnd));
+      }
+      for (int i = 0; i < pods; i++) {
+        utilizationRollup.add(podSample("pod-" + i, sampleEnd, 100, 200));
+      }
+      utilizationRollup.flush(sampleEnd);
+    }
+    utilizationRollup.flush(Long.MAX_VALUE);
+
+    long samples = utilizationRollup.getSamplesReceived();
+    long documents = utilizationRollup.getDocumentsWritten();
+    log.info("Rolled up {} samples into {} documents, {}x fewer writes", samples, documents, samples / documents);
+    assertThat(samples).isEqualTo((nodes + pods) * 72L);
+    assertThat(documents).isEqualTo((nodes + pods) * 24L);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldFlushSamplesOfQueuedWritesOnShutdown() throws Exception {
+    EventServiceConfig eventServiceConfig = mock(EventServiceConfig.class);
+    when(eventServiceConfig.getEventIngestConfig())
+        .thenReturn(EventIngestConfig.builder()
+                        .rollupUtilization(true)
+                        .rollupWindowMinutes(60)
+                        .asyncWrite(true)
+                        .writeThreads(1)
+                        .build());
+    when(eventServiceConfig.getEventDataBatchQueryConfig())
+        .thenReturn(EventDataBatchQueryConfig.builder().enableBatchWrite(false).build());
+    EventWritePipeline eventWritePipeline = new EventWritePipeline(eventServiceConfig);
+    utilizationRollup = new UtilizationRollup(
+        hPersistence, eventServiceConfig, mock(EventDataBulkWriteService.class), eventWritePipeline);
+    ServiceManager serviceManager = new ServiceManager(Arrays.asList(eventWritePipeline, utilizationRollup));
+    serviceManager.startAsync().awaitHealthy();
+    CountDownLatch writeStarted = new CountDownLatch(1);
+    CountDownLatch writeReleased = new CountDownLatch(1);
+    eventWritePipeline.submit(() -> {
+      writeStarted.countDown();
+      Uninterruptibles.awaitUninterruptibly(writeReleased);
+      utilizationRollup.add(podSample("pod-1", START + SAMPLE_LENGTH, 100, 200));
+    });
+    writeStarted.await();
+
+    serviceManager.stopAsync();
+    // the rollup would have been flushed by now if it didn't wait for the queued writes
+    Thread.sleep(200);
+    writeReleased.countDown();
+    serviceManager.awaitStopped(10, TimeUnit.SECONDS);
+
+    assertThat(captureRolledUp(1)).hasSize(1);
+    assertThatThrownBy(() -> eventWritePipeline.submit(() -> {})).isInstanceOf(RejectedExecutionException.class);
+  }
+
+  private List<PodMetric> captureRolledUp(int invocations) {
+    @SuppressWarnings("unchecked") // Casting as we can't use List<PublishedMessage> as the class type.
+    ArgumentCaptor<List<PublishedMessage>> captor = ArgumentCaptor.forClass(List.class);
+    verify(hPersistence, times(invocations)).saveIgnoringDuplicateKeys(captor.capture());
+    List<PodMetric> rolledUp = new ArrayList<>();
+    for (PublishedMessage publishedMessage : captor.getValue()) {
+      assertThat(publishedMessage.getType()).isEqualTo(PodMetric.class.getName());
+      assertThat(publishedMessage.getAccountId()).isEqualTo(ACCOUNT_ID);
+      // persisted documents are read back from the data
+      rolledUp.add((PodMetric) publishedMessage.toBuilder().message(null).build().getMessage());
+    }
+    rolledUp.sort(Comparator.comparing(PodMetric::getName));
+    return rolledUp;
+  }
+
+  private static String podName(PublishedMessage publishedMessage) {
+    return ((PodMetric) publishedMessage.toBuilder().message(null).build().getMessage()).getName();
+  }
+
+  private PublishedMessage podSample(String name, long sampleEnd, long avgCpuNano, long maxCpuNano) {
+    PodMetric podMetric = PodMetric.newBuilder()
+                              .setName(name)
+                              .setNamespace("default")
+                              .setClusterId(CLUSTER_ID)
+                              .setTimestamp(HTimestamps.fromMillis(sampleEnd))
+                              .setWindow(Durations.fromMillis(SAMPLE_LENGTH))
+                              .setAggregatedUsage(AggregatedUsage.newBuilder()
+                                                      .setAvgCpuNano(avgCpuNano)
+                                                      .setMaxCpuNano(maxCpuNano)
+                                                      .setAvgMemoryByte(avgCpuNano * 10)
+                                                      .setMaxMemoryByte(maxCpuNano * 10)
+                                                      .build())
+                              .build();
+    return publishedMessage(podMetric, sampleEnd);
+  }
+
+  private PublishedMessage nodeSample(String name, long sampleEnd) {
+    NodeMetric nodeMetric = NodeMetric.newBuilder()
+                                .setName(name)
+                                .setClusterId(CLUSTER_ID)
+                                .setTimestamp(HTimestamps.fromMillis(sampleEnd))
+                                .setWindow(Durations.fromMillis(SAMPLE_LENGTH))
+                                .build();
+    return publishedMessage(nodeMetric, sampleEnd);
+  }
+
+  private PublishedMessage publishedMessage(Message message, long occurredAt) {
+    return PublishedMessage.builder()
+        .uuid(UUID.randomUUID().toString())
+        .accountId(ACCOUNT_ID)
+        .type(message.getClass().getName())
+        .data(Any.pack(message).toByteArray())
+        .attributes(ImmutableMap.of("clusterId", CLUSTER_ID))
+        .category("")
+        .occurredAt(occurredAt)
+        .build();
+  }
+}
@@ -70,6 +70,7 @@ import io.harness.delegate.event.handler.DelegateProfileEventHandler;
 import io.harness.delegate.eventstream.EntityCRUDConsumer;
 import io.harness.delegate.heartbeat.polling.DelegatePollingHeartbeatService;
 import io.harness.delegate.heartbeat.stream.DelegateStreamHeartbeatService;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.delegate.queueservice.DelegateTaskQueueService;
 import io.harness.delegate.resources.DelegateTaskResource;
 import io.harness.delegate.resources.DelegateTaskResourceV2;
@@ -168,9 +169,11 @@ import io.harness.serializer.AnnotationAwareJsonSubtypeResolver;
 import io.harness.serializer.CurrentGenRegistrars;
 import io.harness.serializer.KryoRegistrar;
 import io.harness.service.impl.DelegateNgTokenServiceImpl;
+import io.harness.service.impl.DelegateSetupServiceImpl;
 import io.harness.service.impl.DelegateSyncServiceImpl;
 import io.harness.service.impl.DelegateTokenServiceImpl;
 import io.harness.service.intfc.DelegateProfileObserver;
+import io.harness.service.intfc.DelegateSetupService;
 import io.harness.service.intfc.DelegateTokenService;
 import io.harness.state.inspection.StateInspectionListener;
 import io.harness.state.inspection.StateInspectionServiceImpl;
@@ -257,6 +260,7 @@ import software.wings.service.impl.AuditServiceHelper;
 import software.wings.service.impl.AuditServiceImpl;
 import software.wings.service.impl.BarrierServiceImpl;
 import software.wings.service.impl.CloudProviderObserver;
+import software.wings.service.impl.DelegateEligibilityIndex;
 import software.wings.service.impl.DelegateObserver;
 import software.wings.service.impl.DelegateProfileServiceImpl;
 import software.wings.service.impl.DelegateServiceImpl;
@@ -393,6 +397,7 @@ import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.model.Resource;
 import org.hibernate.validator.parameternameprovider.ReflectionParameterNameProvider;
+import org.redisson.api.RedissonClient;
 import org.springframework.core.convert.converter.Converter;
 import ru.vyarus.guice.validator.ValidationModule;
 import ru.vyarus.guice.validator.aop.ValidationMethodInterceptor;
@@ -1388,6 +1393,11 @@ public class WingsApplication extends Application<MainConfiguration> {
 
   private void scheduleJobsDelegateService(
       Injector injector, MainConfiguration configuration, ScheduledExecutorService delegateExecutor) {
+    // every manager serves the delegates polling for task leases
+    delegateExecutor.scheduleWithFixedDelay(
+        new Schedulable("Failed to recheck waiting delegate task lease polls",
+            () -> injector.getInstance(DelegateTaskLeaseService.class).recheck()),
+        10L, 10L, TimeUnit.SECONDS);
     if (configuration.isRunScheduleJobsInManagerIteratorOnly()) {
       log.info("Initializing delegate service scheduled jobs ...");
       // delegate task broadcasting schedule job
@@ -1449,7 +1459,7 @@ public class WingsApplication extends Application<MainConfiguration> {
       }
 
       if (shouldEnableDelegateMgmt(configuration)) {
-        registerDelegateServiceObservers(injector, delegateServiceImpl);
+        registerDelegateServiceObservers(configuration, injector, delegateServiceImpl);
         DelegateStreamHeartbeatService delegateStreamHeartbeatService =
             injector.getInstance(DelegateStreamHeartbeatService.class);
         DelegatePollingHeartbeatService delegatePollingHeartbeatService =
@@ -1461,10 +1471,12 @@ public class WingsApplication extends Application<MainConfiguration> {
 
   /**
    * All the observers that belong to Delegate service app
+   * @param configuration
    * @param injector
    * @param delegateServiceImpl
    */
-  private void registerDelegateServiceObservers(Injector injector, DelegateServiceImpl delegateServiceImpl) {
+  private void registerDelegateServiceObservers(
+      MainConfiguration configuration, Injector injector, DelegateServiceImpl delegateServiceImpl) {
     DelegateProfileServiceImpl delegateProfileService =
         (DelegateProfileServiceImpl) injector.getInstance(Key.get(DelegateProfileService.class));
     DelegateProfileEventHandler delegateProfileEventHandler =
@@ -1493,6 +1505,21 @@ public class WingsApplication extends Application<MainConfiguration> {
         injector.getInstance(Key.get(DelegateTaskServiceClassicImpl.class));
     delegateServiceImpl.getSubject().register(delegateTaskServiceClassic);
 
+    DelegateEligibilityIndex delegateEligibilityIndex = injector.getInstance(Key.get(DelegateEligibilityIndex.class));
+    delegateServiceImpl.getSubject().register(delegateEligibilityIndex);
+    delegateServiceImpl.getDelegateProfileSubject().register(delegateEligibilityIndex);
+    delegateProfileService.getDelegateProfileSubject().register(delegateEligibilityIndex);
+    DelegateSetupServiceImpl delegateSetupService =
+        (DelegateSetupServiceImpl) injector.getInstance(Key.get(DelegateSetupService.class));
+    delegateSetupService.getSubject().register(delegateEligibilityIndex);
+    if (configuration.isEnableRedisForDelegateService()) {
+      RedissonClient redissonClient =
+          injector.getInstance(Key.get(RedissonClient.class, Names.named("redissonClient")));
+      String envNamespace = configuration.getDelegateServiceRedisConfig().getEnvNamespace();
+      delegateEligibilityIndex.subscribe(redissonClient, envNamespace);
+      injector.getInstance(DelegateTaskLeaseService.class).subscribe(redissonClient, envNamespace);
+    }
+
     CEPerpetualTaskHandler cePerpetualTaskHandler = injector.getInstance(Key.get(CEPerpetualTaskHandler.class));
     ClusterRecordServiceImpl clusterRecordService =
         (ClusterRecordServiceImpl) injector.getInstance(Key.get(ClusterRecordService.class));
@@ -1513,6 +1540,9 @@ public class WingsApplication extends Application<MainConfiguration> {
         (PerpetualTaskServiceImpl) injector.getInstance(Key.get(PerpetualTaskService.class));
     delegatePollingHeartbeatService.getSubject().register(perpetualTaskService);
     delegateStreamHeartbeatService.getSubject().register(perpetualTaskService);
+    DelegateEligibilityIndex delegateEligibilityIndex = injector.getInstance(Key.get(DelegateEligibilityIndex.class));
+    delegatePollingHeartbeatService.getSubject().register(delegateEligibilityIndex);
+    delegateStreamHeartbeatService.getSubject().register(delegateEligibilityIndex);
   }
 
   /**
@@ -0,0 +1,527 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.delegate.queueservice;
+
+import static io.harness.beans.FeatureName.DEL_TASK_LEASE_QUEUE;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.delegate.beans.DelegateTaskEvent.DelegateTaskEventBuilder.aDelegateTaskEvent;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.beans.DelegateTask;
+import io.harness.delegate.beans.Delegate;
+import io.harness.delegate.beans.DelegateInstanceStatus;
+import io.harness.delegate.beans.DelegateTaskEvent;
+import io.harness.delegate.beans.DelegateTaskLease;
+import io.harness.delegate.beans.DelegateTaskLease.DelegateTaskLeaseKeys;
+import io.harness.delegate.beans.DelegateTaskLeasePoller;
+import io.harness.delegate.beans.DelegateTaskLeasePoller.DelegateTaskLeasePollerKeys;
+import io.harness.ff.FeatureFlagService;
+import io.harness.persistence.HPersistence;
+import io.harness.queueservice.config.DelegateQueueServiceConfig;
+import io.harness.service.intfc.DelegateCache;
+
+import software.wings.app.MainConfiguration;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import dev.morphia.query.Query;
+import dev.morphia.query.Sort;
+import dev.morphia.query.UpdateOperations;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * Pull based alternative to broadcasting the queued tasks. Every queued task is kept in the queues of the delegate
+ * groups with eligible delegates polling for leases, and these delegates long poll for work, reporting how many tasks
+ * they can start. Delegates which do not poll keep getting the task broadcast. The polls are served in dispatch rounds
+ * which go over the accounts with waiting polls in weighted fair order and lease one task at a time, so a single
+ * account queueing a burst of tasks cannot starve the others and no two delegates are ever handed the same task.
+ *
+ * <p>A lease hands the task to one delegate until the delegate acquires it, which removes it from the queue. If the
+ * delegate does not acquire the task before the lease runs out, e.g. because it went away, the task is delivered again
+ * to the next polling delegate, up to {@link #MAX_DELIVERIES} times. After that the next time the task is queued its
+ * lease is dropped and the task is broadcast to all its eligible delegates, polling ones included.
+ *
+ * <p>Waiting polls are served when a task gets queued or given back. Once {@link #subscribe} is called this also
+ * covers the tasks queued on the other managers, otherwise and for the expired leases the waiting polls are checked
+ * every {@link #EMPTY_QUEUE_RECHECK_INTERVAL} by {@link #recheck}.
+ */
+@Singleton
+@Slf4j
+@OwnedBy(HarnessTeam.DEL)
+public class DelegateTaskLeaseService {
+  static final long LEASE_DURATION = TimeUnit.MINUTES.toMillis(1);
+  static final int MAX_DELIVERIES = 5;
+  static final int MAX_LEASES_PER_POLL = 10;
+  // lease attempts per dispatch round, so that the polls arriving meanwhile are not kept waiting
+  static final int LEASE_ATTEMPTS_PER_ROUND = 200;
+  // how long a queue found empty for a delegate is not asked again, unless a task was queued in it
+  static final long EMPTY_QUEUE_RECHECK_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+  // how long a delegate counts as polling for leases after its last poll
+  static final long POLLER_EXPIRY = TimeUnit.MINUTES.toMillis(2);
+  // how often the polls of a delegate are recorded, well within the expiry
+  static final long POLLER_REFRESH_INTERVAL = TimeUnit.SECONDS.toMillis(30);
+  static final String TOPIC_NAME = "delegateTaskLeases/queued";
+  private static final int MAX_TRACKED_QUEUES = 10000;
+  // separates the source id from the queue in the published messages
+  private static final String SEPARATOR = "|";
+
+  @Inject private HPersistence persistence;
+  @Inject private DelegateCache delegateCache;
+  @Inject private FeatureFlagService featureFlagService;
+  @Inject private MainConfiguration mainConfiguration;
+  @Inject private ExecutorService executorService;
+  @Inject private Clock clock;
+
+  private final WeightedFairScheduler<String> scheduler = new WeightedFairScheduler<>(this::accountWeight);
+  // polls waiting for tasks by account, guarded by itself
+  private final Map<String, Deque<PendingLease>> waiting = new LinkedHashMap<>();
+  // when a task was last queued or given back, by queue
+  private final Map<String, Long> queueChanges = new ConcurrentHashMap<>();
+  // when the queue was last found without tasks for the delegate, by queue and delegate
+  private final Map<String, Long> emptyChecks = new ConcurrentHashMap<>();
+  // when the polls of the delegate were last recorded, by delegate
+  private final Map<String, Long> recordedPolls = new ConcurrentHashMap<>();
+  private final ReentrantLock dispatching = new ReentrantLock();
+  private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+  private final String sourceId = generateUuid();
+  private volatile RTopic topic;
+
+  public boolean isEnabled(String accountId) {
+    return featureFlagService.isEnabled(DEL_TASK_LEASE_QUEUE, accountId);
+  }
+
+  /**
+   * Puts the task in the queues of its eligible delegates which poll for leases. Queueing the task again adds the
+   * delegates which started polling meanwhile.
+   *
+   * @return the eligible delegates polling for leases, the task has to be broadcast to the others. Empty once the task
+   *     was delivered {@link #MAX_DELIVERIES} times without being acquired, so that it is broadcast to all of them.
+   */
+  public Set<String> enqueue(DelegateTask task) {
+    if (isEmpty(task.getEligibleToExecuteDelegateIds())) {
+      log.info("No eligible delegates to queue task {} for", task.getUuid());
+      return Collections.emptySet();
+    }
+    Set<String> pollingDelegateIds = pollingDelegates(task.getAccountId(), task.getEligibleToExecuteDelegateIds());
+    if (pollingDelegateIds.isEmpty()) {
+      return pollingDelegateIds;
+    }
+    List<String> eligibleDelegateIds = new ArrayList<>(pollingDelegateIds);
+    List<String> queues = eligibleDelegateIds.stream()
+                              .map(delegateId -> delegateCache.get(task.getAccountId(), delegateId))
+                              .filter(Objects::nonNull)
+                              .map(DelegateTaskLeaseService::queueOf)
+                              .distinct()
+                              .collect(toList());
+    boolean async = task.getTaskDataV2() != null ? task.getTaskDataV2().isAsync() : task.getData().isAsync();
+    String taskType =
+        task.getTaskDataV2() != null ? task.getTaskDataV2().getTaskType() : task.getData().getTaskType();
+
+    Query<DelegateTaskLease> query = persistence.createQuery(DelegateTaskLease.class)
+                                         .filter(DelegateTaskLeaseKeys.accountId, task.getAccountId())
+                                         .filter(DelegateTaskLeaseKeys.uuid, task.getUuid());
+    UpdateOperations<DelegateTaskLease> updateOperations =
+        persistence.createUpdateOperations(DelegateTaskLease.class)
+            .setOnInsert(DelegateTaskLeaseKeys.taskType, taskType)
+            .setOnInsert(DelegateTaskLeaseKeys.sync, !async)
+            .addToSet(DelegateTaskLeaseKeys.queues, queues)
+            .addToSet(DelegateTaskLeaseKeys.eligibleDelegateIds, eligibleDelegateIds)
+            .setOnInsert(DelegateTaskLeaseKeys.enqueuedAt, clock.millis())
+            .setOnInsert(DelegateTaskLeaseKeys.leasedUntil, 0L)
+            .setOnInsert(DelegateTaskLeaseKeys.deliveries, 0)
+            .setOnInsert(DelegateTaskLeaseKeys.validUntil, new Date(task.getExpiry()));
+    DelegateTaskLease lease = persistence.upsert(query, updateOperations, HPersistence.upsertReturnNewOptions);
+    if (lease != null && lease.getDeliveries() >= MAX_DELIVERIES && lease.getLeasedUntil() < clock.millis()) {
+      log.info("Task {} was not acquired after {} deliveries, broadcasting it to all eligible delegates",
+          task.getUuid(), lease.getDeliveries());
+      persistence.delete(persistence.createQuery(DelegateTaskLease.class)
+                             .filter(DelegateTaskLeaseKeys.accountId, task.getAccountId())
+                             .filter(DelegateTaskLeaseKeys.uuid, task.getUuid())
+                             .field(DelegateTaskLeaseKeys.leasedUntil)
+                             .lessThan(clock.millis()));
+      return Collections.emptySet();
+    }
+    log.debug("Task {} queued for delegate groups {}", task.getUuid(), queues);
+
+    queued(task.getAccountId(), queues);
+    return pollingDelegateIds;
+  }
+
+  /**
+   * Polls for tasks of the delegate without blocking the caller. The result completes as soon as at least one task
+   * got leased, the caller completes it empty to give up waiting, and tasks leased meanwhile are given back.
+   *
+   * @param freeSlots number of tasks the delegate can start right now, null if the delegate does not report it
+   */
+  public CompletableFuture<List<DelegateTaskEvent>> lease(String accountId, String delegateId, Integer freeSlots) {
+    Delegate delegate = delegateCache.get(accountId, delegateId);
+    if (delegate == null || DelegateInstanceStatus.ENABLED != delegate.getStatus()) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+    recordPolling(accountId, delegateId);
+    int slots = Math.min(availableSlots(delegate, freeSlots), MAX_LEASES_PER_POLL);
+    if (slots <= 0) {
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+
+    PendingLease pending = new PendingLease(accountId, delegateId, queueOf(delegate), slots);
+    synchronized (waiting) {
+      waiting.computeIfAbsent(accountId, key -> new ArrayDeque<>()).add(pending);
+    }
+    pending.result.whenComplete((taskEvents, throwable) -> forget(pending));
+    requestDispatch();
+    return pending.result;
+  }
+
+  /**
+   * @return whether a delegate other than the given one holds an unexpired lease of the task
+   */
+  public boolean isLeasedToOther(String accountId, String taskId, String delegateId) {
+    return !leasedToOthers(accountId, delegateId, Collections.singletonList(taskId)).isEmpty();
+  }
+
+  /**
+   * @return the tasks out of the given ones a delegate other than the given one holds an unexpired lease of
+   */
+  public Set<String> leasedToOthers(String accountId, String delegateId, Collection<String> taskIds) {
+    if (isEmpty(taskIds)) {
+      return Collections.emptySet();
+    }
+    return persistence.createQuery(DelegateTaskLease.class)
+        .filter(DelegateTaskLeaseKeys.accountId, accountId)
+        .field(DelegateTaskLeaseKeys.uuid)
+        .in(taskIds)
+        .field(DelegateTaskLeaseKeys.leasedUntil)
+        .greaterThan(clock.millis())
+        .field(DelegateTaskLeaseKeys.leasedBy)
+        .notEqual(delegateId)
+        .project(DelegateTaskLeaseKeys.uuid, true)
+        .asList()
+        .stream()
+        .map(DelegateTaskLease::getUuid)
+        .collect(toSet());
+  }
+
+  /**
+   * Removes the task from the queues once a delegate acquired it.
+   */
+  public void acknowledge(String accountId, String taskId) {
+    persistence.delete(persistence.createQuery(DelegateTaskLease.class)
+                           .filter(DelegateTaskLeaseKeys.accountId, accountId)
+                           .filter(DelegateTaskLeaseKeys.uuid, taskId));
+  }
+
+  /**
+   * Gives the task back to the other delegates of its queues, when the delegate holding the lease cannot execute it.
+   */
+  public void release(String accountId, String taskId, String delegateId) {
+    giveBack(accountId, taskId, delegateId, true);
+  }
+
+  private void giveBack(String accountId, String taskId, String delegateId, boolean excludeDelegate) {
+    Query<DelegateTaskLease> query = persistence.createQuery(DelegateTaskLease.class)
+                                         .filter(DelegateTaskLeaseKeys.accountId, accountId)
+                                         .filter(DelegateTaskLeaseKeys.uuid, taskId)
+                                         .filter(DelegateTaskLeaseKeys.leasedBy, delegateId);
+    UpdateOperations<DelegateTaskLease> updateOperations =
+        persistence.createUpdateOperations(DelegateTaskLease.class).set(DelegateTaskLeaseKeys.leasedUntil, 0L);
+    if (excludeDelegate) {
+      updateOperations.removeAll(DelegateTaskLeaseKeys.eligibleDelegateIds, delegateId);
+    }
+    DelegateTaskLease lease = persistence.findAndModify(query, updateOperations, HPersistence.returnNewOptions);
+    if (lease != null) {
+      queued(accountId, lease.getQueues());
+    }
+  }
+
+  /**
+   * Serves the waiting polls again, picking up the expired leases and any queued task whose wake up got lost.
+   */
+  public void recheck() {
+    synchronized (waiting) {
+      if (waiting.isEmpty()) {
+        return;
+      }
+    }
+    requestDispatch();
+  }
+
+  /**
+   * Starts publishing the queued tasks to the other managers, so that their waiting polls are served right away.
+   */
+  public void subscribe(RedissonClient redissonClient, String envNamespace) {
+    RTopic queuedTasks = redissonClient.getTopic(
+        isEmpty(envNamespace) ? TOPIC_NAME : envNamespace.concat(":").concat(TOPIC_NAME), StringCodec.INSTANCE);
+    queuedTasks.addListener(String.class, (channel, message) -> onQueued(message));
+    queuedTasks.addListener(new BaseStatusListener() {
+      @Override
+      public void onSubscribe(String channel) {
+        // messages published while we were disconnected are lost
+        recheck();
+      }
+    });
+    topic = queuedTasks;
+  }
+
+  @VisibleForTesting
+  void onQueued(String message) {
+    int separator = message.indexOf(SEPARATOR);
+    if (separator < 0 || sourceId.equals(message.substring(0, separator))) {
+      return;
+    }
+    queueChanges.put(message.substring(separator + 1), clock.millis());
+    recheck();
+  }
+
+  private void queued(String accountId, List<String> queues) {
+    long now = clock.millis();
+    RTopic queuedTasks = topic;
+    for (String queue : queues) {
+      String queueKey = queueKey(accountId, queue);
+      queueChanges.put(queueKey, now);
+      if (queuedTasks != null) {
+        // the polls on the other managers are served by the next recheck if this gets lost
+        queuedTasks.publishAsync(sourceId + SEPARATOR + queueKey);
+      }
+    }
+    requestDispatch();
+  }
+
+  @VisibleForTesting
+  void recordPolling(String accountId, String delegateId) {
+    long now = clock.millis();
+    Long recordedAt = recordedPolls.get(delegateId);
+    if (recordedAt != null && now - recordedAt < POLLER_REFRESH_INTERVAL) {
+      return;
+    }
+    if (recordedPolls.size() > MAX_TRACKED_QUEUES) {
+      recordedPolls.values().removeIf(polledAt -> now - polledAt >= POLLER_REFRESH_INTERVAL);
+    }
+    recordedPolls.put(delegateId, now);
+    persistence.upsert(persistence.createQuery(DelegateTaskLeasePoller.class)
+                           .filter(DelegateTaskLeasePollerKeys.accountId, accountId)
+                           .filter(DelegateTaskLeasePollerKeys.uuid, delegateId),
+        persistence.createUpdateOperations(DelegateTaskLeasePoller.class)
+            .set(DelegateTaskLeasePollerKeys.lastPolledAt, now)
+            .set(DelegateTaskLeasePollerKeys.validUntil, new Date(now + POLLER_EXPIRY)),
+        HPersistence.upsertReturnNewOptions);
+  }
+
+  private Set<String> pollingDelegates(String accountId, Collection<String> delegateIds) {
+    return persistence.createQuery(DelegateTaskLeasePoller.class)
+        .filter(DelegateTaskLeasePollerKeys.accountId, accountId)
+        .field(DelegateTaskLeasePollerKeys.uuid)
+        .in(delegateIds)
+        .field(DelegateTaskLeasePollerKeys.lastPolledAt)
+        .greaterThan(clock.millis() - POLLER_EXPIRY)
+        .project(DelegateTaskLeasePollerKeys.uuid, true)
+        .asList()
+        .stream()
+        .map(DelegateTaskLeasePoller::getUuid)
+        .collect(toSet());
+  }
+
+  private void forget(PendingLease pending) {
+    synchronized (waiting) {
+      Deque<PendingLease> accountWaiting = waiting.get(pending.accountId);
+      if (accountWaiting != null) {
+        accountWaiting.remove(pending);
+        if (accountWaiting.isEmpty()) {
+          waiting.remove(pending.accountId);
+        }
+      }
+    }
+  }
+
+  private void requestDispatch() {
+    if (dispatchRequested.compareAndSet(false, true)) {
+      executorService.submit(this::dispatch);
+    }
+  }
+
+  @VisibleForTesting
+  void dispatch() {
+    dispatching.lock();
+    try {
+      dispatchRequested.set(false);
+      dispatchRound();
+    } catch (Exception e) {
+      log.error("Failed to dispatch delegate task leases", e);
+    } finally {
+      dispatching.unlock();
+    }
+  }
+
+  private void dispatchRound() {
+    Map<String, Deque<PendingLease>> round;
+    synchronized (waiting) {
+      round = new LinkedHashMap<>(waiting);
+      waiting.clear();
+    }
+    long now = clock.millis();
+    if (emptyChecks.size() + queueChanges.size() > MAX_TRACKED_QUEUES) {
+      // older entries do not keep any queue from being asked anyway
+      emptyChecks.values().removeIf(checkedAt -> now - checkedAt >= EMPTY_QUEUE_RECHECK_INTERVAL);
+      queueChanges.values().removeIf(changedAt -> now - changedAt >= EMPTY_QUEUE_RECHECK_INTERVAL);
+    }
+    Set<String> ready = new HashSet<>(round.keySet());
+    List<PendingLease> done = new ArrayList<>();
+    int attempts = LEASE_ATTEMPTS_PER_ROUND;
+    while (attempts > 0 && !ready.isEmpty()) {
+      String accountId = scheduler.next(ready);
+      Deque<PendingLease> accountRound = round.get(accountId);
+      PendingLease pending = accountRound.poll();
+      if (pending == null) {
+        ready.remove(accountId);
+        continue;
+      }
+      if (pending.result.isDone()) {
+        // the poll gave up meanwhile, tasks leased for it are given back below
+        done.add(pending);
+        continue;
+      }
+      String queueKey = queueKey(accountId, pending.queue);
+      String checkKey = queueKey + "/" + pending.delegateId;
+      Long checkedAt = emptyChecks.get(checkKey);
+      if (checkedAt != null && now - checkedAt < EMPTY_QUEUE_RECHECK_INTERVAL
+          && checkedAt > queueChanges.getOrDefault(queueKey, 0L)) {
+        done.add(pending);
+        continue;
+      }
+      attempts--;
+      DelegateTaskLease lease = leaseNext(pending, now);
+      if (lease == null) {
+        emptyChecks.put(checkKey, now);
+        done.add(pending);
+        continue;
+      }
+      scheduler.served(accountId);
+      pending.leases.add(lease);
+      // round robin over the polls of the account until they are full
+      if (pending.leases.size() < pending.slots) {
+        accountRound.addLast(pending);
+      } else {
+        done.add(pending);
+      }
+    }
+    round.values().forEach(done::addAll);
+
+    for (PendingLease pending : done) {
+      if (pending.leases.isEmpty()) {
+        if (!pending.result.isDone()) {
+          synchronized (waiting) {
+            waiting.computeIfAbsent(pending.accountId, key -> new ArrayDeque<>()).add(pending);
+          }
+        }
+      } else if (!pending.result.complete(toTaskEvents(pending.leases))) {
+        // nobody is waiting for these anymore
+        pending.leases.forEach(lease -> giveBack(pending.accountId, lease.getUuid(), pending.delegateId, false));
+      }
+    }
+    if (attempts == 0) {
+      requestDispatch();
+    }
+  }
+
+  private DelegateTaskLease leaseNext(PendingLease pending, long now) {
+    Query<DelegateTaskLease> query = persistence.createQuery(DelegateTaskLease.class)
+                                         .filter(DelegateTaskLeaseKeys.accountId, pending.accountId)
+                                         .filter(DelegateTaskLeaseKeys.queues, pending.queue)
+                                         .filter(DelegateTaskLeaseKeys.eligibleDelegateIds, pending.delegateId)
+                                         .field(DelegateTaskLeaseKeys.leasedUntil)
+                                         .lessThan(now)
+                                         .field(DelegateTaskLeaseKeys.deliveries)
+                                         .lessThan(MAX_DELIVERIES)
+                                         .order(Sort.ascending(DelegateTaskLeaseKeys.enqueuedAt));
+    UpdateOperations<DelegateTaskLease> updateOperations =
+        persistence.createUpdateOperations(DelegateTaskLease.class)
+            .set(DelegateTaskLeaseKeys.leasedBy, pending.delegateId)
+            .set(DelegateTaskLeaseKeys.leasedUntil, now + LEASE_DURATION)
+            .inc(DelegateTaskLeaseKeys.deliveries);
+    // another manager may lease the same task at the same time, only one of the updates matches
+    return persistence.findAndModify(query, updateOperations, HPersistence.returnNewOptions);
+  }
+
+  @VisibleForTesting
+  int accountWeight(String accountId) {
+    DelegateQueueServiceConfig queueServiceConfig = mainConfiguration.getQueueServiceConfig();
+    if (queueServiceConfig == null || isEmpty(queueServiceConfig.getAccountLeaseWeights())) {
+      return 1;
+    }
+    return queueServiceConfig.getAccountLeaseWeights().getOrDefault(accountId, 1);
+  }
+
+  private static int availableSlots(Delegate delegate, Integer freeSlots) {
+    int slots = freeSlots != null ? freeSlots : MAX_LEASES_PER_POLL;
+    if (delegate.getDelegateCapacity() != null && delegate.getDelegateCapacity().getMaximumNumberOfBuilds() > 0) {
+      slots = Math.min(slots, delegate.getDelegateCapacity().getMaximumNumberOfBuilds());
+    }
+    return slots;
+  }
+
+  private static String queueOf(Delegate delegate) {
+    return isNotEmpty(delegate.getDelegateGroupId()) ? delegate.getDelegateGroupId() : delegate.getUuid();
+  }
+
+  private static String queueKey(String accountId, String queue) {
+    return accountId + "/" + queue;
+  }
+
+  private static List<DelegateTaskEvent> toTaskEvents(List<DelegateTaskLease> leases) {
+    return leases.stream()
+        .map(lease
+            -> aDelegateTaskEvent()
+                   .withAccountId(lease.getAccountId())
+                   .withDelegateTaskId(lease.getUuid())
+                   .withSync(lease.isSync())
+                   .withTaskType(lease.getTaskType())
+                   .build())
+        .collect(toList());
+  }
+
+  @RequiredArgsConstructor
+  private static class PendingLease {
+    private final String accountId;
+    private final String delegateId;
+    private final String queue;
+    private final int slots;
+    private final List<DelegateTaskLease> leases = new ArrayList<>();
+    private final CompletableFuture<List<DelegateTaskEvent>> result = new CompletableFuture<>();
+  }
+}
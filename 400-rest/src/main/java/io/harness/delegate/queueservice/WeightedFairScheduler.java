@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.delegate.queueservice;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stride scheduler: every time a key is served its pass advances by the inverse of its weight and the ready key with
+ * the lowest pass goes next, so keys competing for the same turns are served in proportion to their weights. A key
+ * coming back after being idle starts from the current virtual time instead of cashing in the turns it did not use.
+ */
+@OwnedBy(HarnessTeam.DEL)
+public class WeightedFairScheduler<K> {
+  private static final int MAX_TRACKED_KEYS = 10000;
+
+  private final ToIntFunction<K> weights;
+  private final Map<K, Double> passes = new HashMap<>();
+  private double virtualTime;
+
+  public WeightedFairScheduler(ToIntFunction<K> weights) {
+    this.weights = weights;
+  }
+
+  /**
+   * @return the ready key to serve next, null if none is ready
+   */
+  public synchronized K next(Collection<K> ready) {
+    K next = null;
+    double lowest = Double.MAX_VALUE;
+    for (K key : ready) {
+      double pass = pass(key);
+      if (pass < lowest) {
+        next = key;
+        lowest = pass;
+      }
+    }
+    return next;
+  }
+
+  /**
+   * Charges the key for one turn.
+   */
+  public synchronized void served(K key) {
+    double pass = pass(key);
+    virtualTime = pass;
+    passes.put(key, pass + 1.0 / Math.max(1, weights.applyAsInt(key)));
+    if (passes.size() > MAX_TRACKED_KEYS) {
+      // keys behind the virtual time would restart from it anyway
+      passes.values().removeIf(value -> value <= virtualTime);
+    }
+  }
+
+  private double pass(K key) {
+    return Math.max(passes.getOrDefault(key, virtualTime), virtualTime);
+  }
+}
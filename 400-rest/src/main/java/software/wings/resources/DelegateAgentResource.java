@@ -42,6 +42,7 @@ import io.harness.delegate.beans.DelegateTaskPackage;
 import io.harness.delegate.beans.DelegateUnregisterRequest;
 import io.harness.delegate.beans.connector.ConnectorHeartbeatDelegateResponse;
 import io.harness.delegate.heartbeat.polling.DelegatePollingHeartbeatService;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.delegate.task.DelegateLogContext;
 import io.harness.delegate.task.tasklogging.TaskLogContext;
 import io.harness.delegate.task.validation.DelegateConnectionResultDetail;
@@ -98,12 +99,16 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import io.swagger.annotations.Api;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.NotEmpty;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
@@ -112,6 +117,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.MediaType;
@@ -129,6 +136,7 @@ import org.jetbrains.annotations.NotNull;
 @BreakDependencyOn("software.wings.service.impl.instance.InstanceHelper")
 public class DelegateAgentResource {
   private static final String PT_LOG_ERROR_TEMPLATE = "Failed to process results for perpetual task: [{}] due to [{}]";
+  private static final long MAX_TASK_LEASE_WAIT_SECONDS = 30;
   private final DelegateService delegateService;
   private final AccountService accountService;
   private final HPersistence persistence;
@@ -148,6 +156,7 @@ public class DelegateAgentResource {
   private final LoggingTokenCache loggingTokenCache;
 
   private final IPAllowListClient ipAllowListClient;
+  private final DelegateTaskLeaseService delegateTaskLeaseService;
 
   @Inject
   public DelegateAgentResource(DelegateService delegateService, AccountService accountService, HPersistence persistence,
@@ -158,7 +167,8 @@ public class DelegateAgentResource {
       PollingResourceClient pollingResourceClient, InstanceSyncResponsePublisher instanceSyncResponsePublisher,
       DelegatePollingHeartbeatService delegatePollingHeartbeatService,
       DelegateCapacityManagementService delegateCapacityManagementService, DelegateRingService delegateRingService,
-      final LoggingTokenCache loggingTokenCache, @Named("PRIVILEGED") IPAllowListClient ipAllowListClient) {
+      final LoggingTokenCache loggingTokenCache, @Named("PRIVILEGED") IPAllowListClient ipAllowListClient,
+      DelegateTaskLeaseService delegateTaskLeaseService) {
     this.instanceHelper = instanceHelper;
     this.delegateService = delegateService;
     this.accountService = accountService;
@@ -177,6 +187,7 @@ public class DelegateAgentResource {
     this.delegateRingService = delegateRingService;
     this.loggingTokenCache = loggingTokenCache;
     this.ipAllowListClient = ipAllowListClient;
+    this.delegateTaskLeaseService = delegateTaskLeaseService;
   }
 
   @DelegateAuth
@@ -509,6 +520,38 @@ public class DelegateAgentResource {
     }
   }
 
+  @DelegateAuth
+  @GET
+  @Path("{delegateId}/tasks/lease")
+  @Timed
+  @ExceptionMetered
+  public void leaseDelegateTasks(@PathParam("delegateId") @NotEmpty String delegateId,
+      @QueryParam("accountId") @NotEmpty String accountId, @QueryParam("freeSlots") Integer freeSlots,
+      @QueryParam("waitSeconds") @DefaultValue("20") long waitSeconds, @Suspended AsyncResponse asyncResponse) {
+    try (AutoLogContext ignore1 = new AccountLogContext(accountId, OVERRIDE_ERROR);
+         AutoLogContext ignore2 = new DelegateLogContext(delegateId, OVERRIDE_ERROR)) {
+      if (!delegateTaskLeaseService.isEnabled(accountId)) {
+        // the tasks of the account are broadcast, the delegate must not count as polling for leases
+        asyncResponse.resume(DelegateTaskEventsResponse.builder()
+                                 .delegateTaskEvents(Collections.emptyList())
+                                 .leasingDisabled(true)
+                                 .build());
+        return;
+      }
+      // the poll holds no request thread while waiting, it is resumed once tasks got leased or the wait is over
+      CompletableFuture<List<DelegateTaskEvent>> leased =
+          delegateTaskLeaseService.lease(accountId, delegateId, freeSlots);
+      asyncResponse.setTimeoutHandler(response -> {
+        leased.complete(Collections.emptyList());
+        response.resume(DelegateTaskEventsResponse.builder().delegateTaskEvents(leased.join()).build());
+      });
+      // at least a second, the first dispatch round serving the poll runs asynchronously
+      asyncResponse.setTimeout(Math.max(1, Math.min(waitSeconds, MAX_TASK_LEASE_WAIT_SECONDS)), TimeUnit.SECONDS);
+      leased.thenAccept(delegateTaskEvents
+          -> asyncResponse.resume(DelegateTaskEventsResponse.builder().delegateTaskEvents(delegateTaskEvents).build()));
+    }
+  }
+
   @DelegateAuth
   @POST
   @Path("heartbeat-with-polling")
@@ -20,4 +20,5 @@ public class BatchQueryConfig {
   private int instanceDataBatchSize;
   private boolean syncJobDisabled;
   private boolean disableBatchJobsInCG;
+  private boolean billingDataCopyEnabled;
 }
@@ -40,6 +40,7 @@ import io.harness.annotations.dev.TargetModule;
 import io.harness.beans.Cd1SetupFields;
 import io.harness.beans.DelegateTask;
 import io.harness.beans.DelegateTask.DelegateTaskKeys;
+import io.harness.beans.FeatureName;
 import io.harness.delegate.beans.Delegate;
 import io.harness.delegate.beans.Delegate.DelegateKeys;
 import io.harness.delegate.beans.DelegateActivity;
@@ -93,6 +94,7 @@ import io.dropwizard.util.Lists;
 import java.nio.channels.Selector;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -168,6 +170,7 @@ public class AssignDelegateServiceImpl implements AssignDelegateService, Delegat
   @Inject private DelegateTaskServiceClassic delegateTaskServiceClassic;
 
   @Inject private DelegateTaskMigrationHelper delegateTaskMigrationHelper;
+  @Inject private DelegateEligibilityIndex delegateEligibilityIndex;
 
   private LoadingCache<ImmutablePair<String, String>, Optional<DelegateConnectionResult>>
       delegateConnectionResultCache =
@@ -1056,12 +1059,14 @@ public class AssignDelegateServiceImpl implements AssignDelegateService, Delegat
         return eligibleDelegateIds;
       }
 
-      eligibleDelegateIds =
-          delegates.stream()
-              .filter(delegate
-                  -> delegate.getStatus() != DelegateInstanceStatus.DELETED && canAssignTask(delegate.getUuid(), task))
-              .map(Delegate::getUuid)
-              .collect(Collectors.toList());
+      eligibleDelegateIds = isEligibilityIndexEnabled(task)
+          ? getEligibleDelegatesByIndex(task, delegates, task.getData().getTaskType(), false)
+          : delegates.stream()
+                .filter(delegate
+                    -> delegate.getStatus() != DelegateInstanceStatus.DELETED
+                        && canAssignTask(delegate.getUuid(), task))
+                .map(Delegate::getUuid)
+                .collect(Collectors.toList());
       delegateSelectionLogsService.logNonSelectedDelegates(task, task.getNonAssignableDelegates());
       List<String> nonAssignables =
           task.getNonAssignableDelegates()
@@ -1102,12 +1107,14 @@ public class AssignDelegateServiceImpl implements AssignDelegateService, Delegat
         return List.of();
       }
 
-      eligibleDelegateIds = delegates.stream()
-                                .filter(delegate
-                                    -> delegate.getStatus() != DelegateInstanceStatus.DELETED
-                                        && canAssignTaskV2(delegate.getUuid(), task))
-                                .map(Delegate::getUuid)
-                                .collect(Collectors.toList());
+      eligibleDelegateIds = isEligibilityIndexEnabled(task)
+          ? getEligibleDelegatesByIndex(task, delegates, task.getTaskDataV2().getTaskType(), true)
+          : delegates.stream()
+                .filter(delegate
+                    -> delegate.getStatus() != DelegateInstanceStatus.DELETED
+                        && canAssignTaskV2(delegate.getUuid(), task))
+                .map(Delegate::getUuid)
+                .collect(Collectors.toList());
       delegateSelectionLogsService.logNonSelectedDelegates(task, task.getNonAssignableDelegates());
       List<String> nonAssignables =
           task.getNonAssignableDelegates()
@@ -1123,6 +1130,95 @@ public class AssignDelegateServiceImpl implements AssignDelegateService, Delegat
     return eligibleDelegateIds;
   }
 
+  private boolean isEligibilityIndexEnabled(DelegateTask task) {
+    return featureFlagService.isEnabled(FeatureName.DEL_ELIGIBILITY_INDEX, task.getAccountId());
+  }
+
+  /**
+   * Same checks and non assignable reasons as {@link #canAssignTask(String, DelegateTask)} and {@link
+   * #canAssignTaskV2(String, DelegateTask)}, but the task types and selectors of the delegates are matched through the
+   * {@link DelegateEligibilityIndex}. Only the delegates supporting the task type are checked for scopes, and the
+   * checks run in the same order as the full ones so that a delegate failing several of them gets the same reason.
+   * Delegates missing from the index, e.g. registered after it was built, go through the full checks.
+   */
+  private List<String> getEligibleDelegatesByIndex(
+      DelegateTask task, List<Delegate> delegates, String taskType, boolean v2) {
+    DelegateEligibilityIndex.AccountIndex index =
+        delegateEligibilityIndex.get(task.getAccountId(), () -> getAccountDelegates(task.getAccountId()));
+    List<SelectorCapability> selectorCapabilities =
+        isEmpty(task.getExecutionCapabilities())
+        ? emptyList()
+        : delegateTaskServiceClassic.fetchTaskSelectorCapabilities(task.getExecutionCapabilities());
+    Set<String> selectors = isEmpty(selectorCapabilities)
+        ? null
+        : selectorCapabilities.stream()
+              .flatMap(selectorCapability -> trimmedLowercaseSet(selectorCapability.getSelectors()).stream())
+              .collect(Collectors.toSet());
+    BitSet owning = index == null
+        ? null
+        : index.owning(task.isNGTask(task.getSetupAbstractions()),
+            task.getSetupAbstractions() == null ? null : task.getSetupAbstractions().get(NgSetupFields.OWNER));
+    BitSet supporting = index == null ? null : index.supporting(taskType);
+    BitSet selecting = index == null ? null : index.selecting(selectors);
+
+    List<String> eligibleDelegateIds = new ArrayList<>();
+    for (Delegate delegate : delegates) {
+      if (delegate.getStatus() == DelegateInstanceStatus.DELETED) {
+        continue;
+      }
+      int position = index == null ? -1 : index.position(delegate.getUuid());
+      if (position < 0) {
+        if (v2 ? canAssignTaskV2(delegate.getUuid(), task) : canAssignTask(delegate.getUuid(), task)) {
+          eligibleDelegateIds.add(delegate.getUuid());
+        }
+        continue;
+      }
+
+      String delegateName = isNotEmpty(delegate.getHostName()) ? delegate.getHostName() : delegate.getUuid();
+      if (!owning.get(position)) {
+        addNonAssignableDelegate(task, CAN_NOT_ASSIGN_OWNER, delegateName);
+        continue;
+      }
+      if (!supporting.get(position)) {
+        addNonAssignableDelegate(task,
+            v2 ? String.format("%s %s", taskType, CAN_NOT_ASSIGN_TASK_GROUP)
+               : CAN_NOT_ASSIGN_TASK_GROUP + " {" + taskType + "} ",
+            delegateName);
+        continue;
+      }
+
+      Delegate cachedDelegate = delegateCache.get(task.getAccountId(), delegate.getUuid());
+      if (cachedDelegate == null) {
+        continue;
+      }
+      if (!(v2 ? canAssignDelegateScopesV2(cachedDelegate, task) : canAssignDelegateScopes(cachedDelegate, task))) {
+        addNonAssignableDelegate(task, CAN_NOT_ASSIGN_DELEGATE_SCOPE_GROUP, delegateName);
+        continue;
+      }
+      if (!canAssignDelegateProfileScopes(cachedDelegate, task.getSetupAbstractions(), task.getUuid())) {
+        addNonAssignableDelegate(task, CAN_NOT_ASSIGN_PROFILE_SCOPE_GROUP, delegateName);
+        continue;
+      }
+      if (!selecting.get(position)) {
+        addNonAssignableDelegate(task,
+            v2 ? CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP + " "
+                    + selectorCapabilities.stream()
+                          .flatMap(selectorCapability -> selectorCapability.getSelectors().stream())
+                          .collect(Collectors.toSet())
+               : CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP,
+            delegateName);
+        continue;
+      }
+      eligibleDelegateIds.add(delegate.getUuid());
+    }
+    return eligibleDelegateIds;
+  }
+
+  private void addNonAssignableDelegate(DelegateTask task, String reason, String delegateName) {
+    task.getNonAssignableDelegates().putIfAbsent(reason, new ArrayList<>());
+    task.getNonAssignableDelegates().get(reason).add(delegateName);
+  }
+
   @Override
   public List<String> getConnectedDelegateList(List<String> delegates, DelegateTask delegateTask) {
     if (isEmpty(delegates)) {
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package software.wings.service.impl;
+
+import static io.harness.data.structure.CollectionUtils.trimmedLowercaseSet;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import io.harness.annotations.dev.HarnessModule;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.annotations.dev.TargetModule;
+import io.harness.delegate.beans.Delegate;
+import io.harness.delegate.beans.DelegateInstanceStatus;
+import io.harness.delegate.utils.DelegateEntityOwnerHelper;
+import io.harness.service.intfc.DelegateCache;
+import io.harness.service.intfc.DelegateProfileObserver;
+
+import software.wings.service.intfc.DelegateService;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+
+/**
+ * Precomputed per account map from the static capabilities of the delegates (cg/ng, owner, supported task types and
+ * selectors) to bitsets of the delegates which have them, so that finding the delegates for a task is a few bitset
+ * intersections. Checks depending on the task setup abstractions (delegate scopes, profile scoping rules) and the
+ * connectivity of the delegates are left to the callers.
+ *
+ * <p>The index of an account is rebuilt on the next lookup after a delegate of the account got added, disconnected,
+ * reconnected or had its tags or profile changed, and at least every {@link #INDEX_EXPIRY_SECONDS} seconds. Once
+ * {@link #subscribe} is called the invalidations are also published on a redis topic, so that the other manager pods
+ * drop their index of the account as well.
+ */
+@Singleton
+@Slf4j
+@TargetModule(HarnessModule._420_DELEGATE_SERVICE)
+@OwnedBy(HarnessTeam.DEL)
+public class DelegateEligibilityIndex implements DelegateObserver, DelegateProfileObserver {
+  static final String TOPIC_NAME = "delegateEligibilityIndex/invalidations";
+  static final long INDEX_EXPIRY_SECONDS = 30;
+  // separates the source id from the account id in the published invalidations
+  private static final String SEPARATOR = ":";
+
+  @Inject private DelegateCache delegateCache;
+  @Inject private DelegateService delegateService;
+
+  private final String sourceId = generateUuid();
+  private volatile RTopic topic;
+
+  private final Cache<String, AccountIndex> accountIndexes =
+      CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(INDEX_EXPIRY_SECONDS, TimeUnit.SECONDS).build();
+
+  /**
+   * @param accountDelegates loads the delegates of the account if the index has to be built
+   * @return the index of the account, null if it could not be built
+   */
+  public AccountIndex get(String accountId, Supplier<List<Delegate>> accountDelegates) {
+    try {
+      return accountIndexes.get(accountId, () -> build(accountId, accountDelegates.get()));
+    } catch (ExecutionException e) {
+      log.error("Unexpected error occurred while building the delegate eligibility index.", e);
+      return null;
+    }
+  }
+
+  public void invalidate(String accountId) {
+    accountIndexes.invalidate(accountId);
+    RTopic invalidations = topic;
+    if (invalidations != null) {
+      // the other pods pick the change up once their index expires if this gets lost
+      invalidations.publishAsync(sourceId + SEPARATOR + accountId);
+    }
+  }
+
+  /**
+   * Starts publishing the invalidations to the other manager pods and applying theirs.
+   */
+  public void subscribe(RedissonClient redissonClient, String envNamespace) {
+    RTopic invalidations = redissonClient.getTopic(
+        isEmpty(envNamespace) ? TOPIC_NAME : envNamespace.concat(":").concat(TOPIC_NAME), StringCodec.INSTANCE);
+    invalidations.addListener(String.class, (channel, invalidation) -> onInvalidation(invalidation));
+    invalidations.addListener(new BaseStatusListener() {
+      @Override
+      public void onSubscribe(String channel) {
+        // invalidations published while we were disconnected are lost
+        accountIndexes.invalidateAll();
+      }
+    });
+    topic = invalidations;
+  }
+
+  @VisibleForTesting
+  void onInvalidation(String invalidation) {
+    int separator = invalidation.indexOf(SEPARATOR);
+    if (separator < 0 || sourceId.equals(invalidation.substring(0, separator))) {
+      return;
+    }
+    accountIndexes.invalidate(invalidation.substring(separator + 1));
+  }
+
+  @VisibleForTesting
+  AccountIndex build(String accountId, List<Delegate> accountDelegates) {
+    AccountIndex index = new AccountIndex();
+    for (Delegate accountDelegate : accountDelegates) {
+      if (accountDelegate == null || accountDelegate.getStatus() == DelegateInstanceStatus.DELETED) {
+        continue;
+      }
+      // the account delegates are projected, the cached delegate has the capabilities
+      Delegate delegate = delegateCache.get(accountId, accountDelegate.getUuid());
+      if (delegate != null) {
+        index.add(delegate, trimmedLowercaseSet(delegateService.retrieveDelegateSelectors(delegate, true)));
+      }
+    }
+    return index;
+  }
+
+  @Override
+  public void onAdded(Delegate delegate) {
+    invalidate(delegate.getAccountId());
+  }
+
+  @Override
+  public void onDisconnected(String accountId, String delegateId) {
+    invalidate(accountId);
+  }
+
+  @Override
+  public void onReconnected(Delegate delegate) {
+    invalidate(delegate.getAccountId());
+  }
+
+  @Override
+  public void onDelegateTagsUpdated(String accountId) {
+    invalidate(accountId);
+  }
+
+  @Override
+  public void onProfileSelectorsUpdated(String accountId, String profileId) {
+    invalidate(accountId);
+  }
+
+  @Override
+  public void onProfileScopesUpdated(String accountId, String profileId) {
+    invalidate(accountId);
+  }
+
+  public static class AccountIndex {
+    private static final BitSet NONE = new BitSet();
+
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final BitSet ng = new BitSet();
+    private final BitSet accountOwned = new BitSet();
+    private final Map<String, BitSet> orgOwned = new HashMap<>();
+    private final Map<ImmutablePair<String, String>, BitSet> projectOwned = new HashMap<>();
+    private final Map<String, BitSet> byTaskType = new HashMap<>();
+    private final BitSet withSelectors = new BitSet();
+    private final Map<String, BitSet> bySelector = new HashMap<>();
+
+    void add(Delegate delegate, Set<String> selectors) {
+      int position = positions.size();
+      positions.put(delegate.getUuid(), position);
+      ng.set(position, delegate.isNg());
+
+      if (delegate.getOwner() == null) {
+        accountOwned.set(position);
+      } else {
+        String org = DelegateEntityOwnerHelper.extractOrgIdFromOwnerIdentifier(delegate.getOwner().getIdentifier());
+        String project =
+            DelegateEntityOwnerHelper.extractProjectIdFromOwnerIdentifier(delegate.getOwner().getIdentifier());
+        if (isBlank(project)) {
+          orgOwned.computeIfAbsent(org, key -> new BitSet()).set(position);
+        } else {
+          projectOwned.computeIfAbsent(ImmutablePair.of(org, project), key -> new BitSet()).set(position);
+        }
+      }
+
+      if (delegate.getSupportedTaskTypes() != null) {
+        for (String taskType : delegate.getSupportedTaskTypes()) {
+          byTaskType.computeIfAbsent(taskType, key -> new BitSet()).set(position);
+        }
+      }
+
+      if (!isEmpty(selectors)) {
+        withSelectors.set(position);
+        for (String selector : selectors) {
+          bySelector.computeIfAbsent(selector, key -> new BitSet()).set(position);
+        }
+      }
+    }
+
+    public int size() {
+      return positions.size();
+    }
+
+    /**
+     * @return the position of the delegate in the bitsets, -1 if it was not known when the index was built
+     */
+    public int position(String delegateId) {
+      Integer position = positions.get(delegateId);
+      return position == null ? -1 : position;
+    }
+
+    /**
+     * Same rules as the cg/ng isolation and owner checks of the assignment.
+     */
+    public BitSet owning(boolean ngTask, String taskOwner) {
+      BitSet owning = new BitSet();
+      owning.or(accountOwned);
+      if (taskOwner != null) {
+        String org = DelegateEntityOwnerHelper.extractOrgIdFromOwnerIdentifier(taskOwner);
+        String project = DelegateEntityOwnerHelper.extractProjectIdFromOwnerIdentifier(taskOwner);
+        owning.or(orgOwned.getOrDefault(org, NONE));
+        if (!isBlank(project)) {
+          owning.or(projectOwned.getOrDefault(ImmutablePair.of(org, project), NONE));
+        }
+      }
+      if (ngTask) {
+        owning.and(ng);
+      } else {
+        owning.andNot(ng);
+      }
+      return owning;
+    }
+
+    /**
+     * @return the delegates supporting the task type, shared by all the lookups so it must not be modified
+     */
+    public BitSet supporting(String taskType) {
+      return taskType == null ? NONE : byTaskType.getOrDefault(taskType, NONE);
+    }
+
+    /**
+     * @param selectors trimmed lowercase selectors of the task, null if the task has no selector capabilities
+     */
+    public BitSet selecting(Set<String> selectors) {
+      BitSet selecting = new BitSet();
+      if (selectors == null) {
+        selecting.set(0, size());
+        return selecting;
+      }
+      selecting.or(withSelectors);
+      for (String selector : selectors) {
+        selecting.and(bySelector.getOrDefault(selector, NONE));
+      }
+      return selecting;
+    }
+  }
+}
@@ -8,11 +8,13 @@
 package software.wings.service.impl;
 
 import static io.harness.annotations.dev.HarnessTeam.DEL;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
 
 import io.harness.annotations.dev.HarnessModule;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.annotations.dev.TargetModule;
 import io.harness.beans.DelegateTask;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.ff.FeatureFlagService;
 import io.harness.persistence.HPersistence;
 
@@ -21,7 +23,10 @@ import software.wings.service.intfc.AssignDelegateService;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.atmosphere.cpr.Broadcaster;
 import org.atmosphere.cpr.BroadcasterFactory;
@@ -37,6 +42,7 @@ public class DelegateTaskBroadcastHelper {
   @Inject private HPersistence persistence;
   @Inject private ExecutorService executorService;
   @Inject private FeatureFlagService featureFlagService;
+  @Inject private DelegateTaskLeaseService delegateTaskLeaseService;
 
   public void broadcastNewDelegateTaskAsync(DelegateTask task) {
     executorService.submit(() -> {
@@ -62,13 +68,21 @@ public class DelegateTaskBroadcastHelper {
     if (delegateTask == null) {
       return;
     }
+    List<String> broadcastToDelegateIds = delegateTask.getBroadcastToDelegateIds();
+    if (delegateTaskLeaseService.isEnabled(delegateTask.getAccountId())) {
+      // the delegates polling for leases get the task from their queue, the others still need the broadcast
+      broadcastToDelegateIds = withoutLeasingDelegates(delegateTask);
+      if (isEmpty(broadcastToDelegateIds)) {
+        return;
+      }
+    }
 
     DelegateTaskBroadcast delegateTaskBroadcast = DelegateTaskBroadcast.builder()
                                                       .version(delegateTask.getVersion())
                                                       .accountId(delegateTask.getAccountId())
                                                       .taskId(delegateTask.getUuid())
                                                       .async(delegateTask.getData().isAsync())
-                                                      .broadcastToDelegatesIds(delegateTask.getBroadcastToDelegateIds())
+                                                      .broadcastToDelegatesIds(broadcastToDelegateIds)
                                                       .taskType(delegateTask.getData().getTaskType())
                                                       .build();
 
@@ -80,17 +94,36 @@ public class DelegateTaskBroadcastHelper {
     if (delegateTask == null) {
       return;
     }
+    List<String> broadcastToDelegateIds = delegateTask.getBroadcastToDelegateIds();
+    if (delegateTaskLeaseService.isEnabled(delegateTask.getAccountId())) {
+      // the delegates polling for leases get the task from their queue, the others still need the broadcast
+      broadcastToDelegateIds = withoutLeasingDelegates(delegateTask);
+      if (isEmpty(broadcastToDelegateIds)) {
+        return;
+      }
+    }
 
     DelegateTaskBroadcast delegateTaskBroadcast = DelegateTaskBroadcast.builder()
                                                       .version(delegateTask.getVersion())
                                                       .accountId(delegateTask.getAccountId())
                                                       .taskId(delegateTask.getUuid())
                                                       .async(delegateTask.getTaskDataV2().isAsync())
-                                                      .broadcastToDelegatesIds(delegateTask.getBroadcastToDelegateIds())
+                                                      .broadcastToDelegatesIds(broadcastToDelegateIds)
                                                       .taskType(delegateTask.getTaskDataV2().getTaskType())
                                                       .build();
 
     Broadcaster broadcaster = broadcasterFactory.lookup(STREAM_DELEGATE_PATH + delegateTask.getAccountId(), true);
     broadcaster.broadcast(delegateTaskBroadcast);
   }
+
+  private List<String> withoutLeasingDelegates(DelegateTask delegateTask) {
+    Set<String> leasingDelegateIds = delegateTaskLeaseService.enqueue(delegateTask);
+    if (isEmpty(delegateTask.getBroadcastToDelegateIds())) {
+      return delegateTask.getBroadcastToDelegateIds();
+    }
+    return delegateTask.getBroadcastToDelegateIds()
+        .stream()
+        .filter(delegateId -> !leasingDelegateIds.contains(delegateId))
+        .collect(Collectors.toList());
+  }
 }
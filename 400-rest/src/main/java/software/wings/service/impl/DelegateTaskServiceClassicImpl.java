@@ -97,6 +97,7 @@ import io.harness.delegate.core.beans.AcquireTasksResponse;
 import io.harness.delegate.core.beans.InputData;
 import io.harness.delegate.core.beans.Secret;
 import io.harness.delegate.core.beans.TaskPayload;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.delegate.queueservice.DelegateTaskQueueService;
 import io.harness.delegate.secret.EncryptedDataDetailToSecretMapper;
 import io.harness.delegate.secret.ScopedSecretIdToIdentifierRefMapper;
@@ -267,6 +268,7 @@ public class DelegateTaskServiceClassicImpl implements DelegateTaskServiceClassi
   @Inject @Named(EXPRESSION_EVALUATOR_EXECUTOR) ExecutorService expressionEvaluatorExecutor;
   @Inject @Getter private Subject<DelegateObserver> subject = new Subject<>();
   @Inject private DelegateTaskQueueService delegateTaskQueueService;
+  @Inject private DelegateTaskLeaseService delegateTaskLeaseService;
   @Inject private DelegateTaskMigrationHelper delegateTaskMigrationHelper;
   @Inject private FailDelegateTaskIteratorHelper failDelegateTaskIteratorHelper;
   private static final SecureRandom random = new SecureRandom();
@@ -933,6 +935,12 @@ public class DelegateTaskServiceClassicImpl implements DelegateTaskServiceClassi
       }
 
       // Mark task as assigned
+      if (delegateTaskLeaseService.isEnabled(accountId)
+          && delegateTaskLeaseService.isLeasedToOther(accountId, taskId, delegateId)) {
+        log.info("Delegate rejected to acquire task {}, because it is leased to another delegate.", taskId);
+        return DelegateTaskPackage.builder().build();
+      }
+
       log.debug("Acquiring delegate task");
       DelegateTask delegateTask = getUnassignedDelegateTask(accountId, taskId, delegateInstanceId);
       if (delegateTask == null) {
@@ -1023,6 +1031,9 @@ public class DelegateTaskServiceClassicImpl implements DelegateTaskServiceClassi
           return assignTask(delegateId, taskId, delegateTask, delegateInstanceId);
         }
         log.info("Delegate {} is blacklisted for task {}", delegateId, taskId);
+        if (delegateTaskLeaseService.isEnabled(accountId)) {
+          delegateTaskLeaseService.release(accountId, taskId, delegateId);
+        }
         return DelegateTaskPackage.builder().build();
       }
     } finally {
@@ -1509,6 +1520,9 @@ public class DelegateTaskServiceClassicImpl implements DelegateTaskServiceClassi
       }
       task.getData().setParameters(delegateTask.getData().getParameters());
       delegateSelectionLogsService.logTaskAssigned(delegateId, task);
+      if (delegateTaskLeaseService.isEnabled(task.getAccountId())) {
+        delegateTaskLeaseService.acknowledge(task.getAccountId(), taskId);
+      }
 
       if (delegateTask.isEmitEvent()) {
         Map<String, String> eventData = new HashMap<>();
@@ -1702,11 +1716,21 @@ public class DelegateTaskServiceClassicImpl implements DelegateTaskServiceClassi
                                                 .doesNotExist()
                                                 .field(DelegateTaskKeys.expiry)
                                                 .greaterThan(currentTimeMillis());
-    return delegateTaskQuery.asList()
-        .stream()
-        .map(this::copyTaskDataV2ToTaskData)
-        .filter(delegateTask -> !sync == delegateTask.getData().isAsync())
-        .filter(delegateTask -> delegateTask.getEligibleToExecuteDelegateIds().contains(delegateId))
+    List<DelegateTask> delegateTasks =
+        delegateTaskQuery.asList()
+            .stream()
+            .map(this::copyTaskDataV2ToTaskData)
+            .filter(delegateTask -> !sync == delegateTask.getData().isAsync())
+            .filter(delegateTask -> delegateTask.getEligibleToExecuteDelegateIds().contains(delegateId))
+            .collect(toList());
+    if (delegateTasks.isEmpty() || !delegateTaskLeaseService.isEnabled(accountId)) {
+      return delegateTasks;
+    }
+    // the tasks leased to the other delegates are theirs to acquire until the lease runs out
+    Set<String> leasedToOthers = delegateTaskLeaseService.leasedToOthers(
+        accountId, delegateId, delegateTasks.stream().map(DelegateTask::getUuid).collect(toList()));
+    return delegateTasks.stream()
+        .filter(delegateTask -> !leasedToOthers.contains(delegateTask.getUuid()))
         .collect(toList());
   }
 
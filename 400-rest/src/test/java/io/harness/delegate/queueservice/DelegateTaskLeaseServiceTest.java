@@ -0,0 +1,265 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.delegate.queueservice;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.rule.OwnerRule.JENNY;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import io.harness.beans.DelegateTask;
+import io.harness.category.element.UnitTests;
+import io.harness.delegate.beans.Delegate;
+import io.harness.delegate.beans.DelegateCapacity;
+import io.harness.delegate.beans.DelegateInstanceStatus;
+import io.harness.delegate.beans.DelegateTaskEvent;
+import io.harness.delegate.beans.DelegateTaskLease;
+import io.harness.delegate.beans.TaskDataV2;
+import io.harness.persistence.HPersistence;
+import io.harness.rule.Owner;
+import io.harness.service.intfc.DelegateCache;
+
+import software.wings.WingsBaseTest;
+import software.wings.beans.TaskType;
+
+import com.google.inject.Inject;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+public class DelegateTaskLeaseServiceTest extends WingsBaseTest {
+  private static final String ACCOUNT_ID = "accountId";
+  private static final String GROUP_ID = "groupId";
+
+  @Inject @InjectMocks private DelegateTaskLeaseService delegateTaskLeaseService;
+  @Inject private HPersistence persistence;
+  @Mock private DelegateCache delegateCache;
+  // dispatch rounds run on the test thread only
+  @Mock private ExecutorService executorService;
+  @Mock private Clock clock;
+
+  private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+  private final Map<String, Delegate> delegates = new HashMap<>();
+
+  @Before
+  public void setUp() {
+    when(clock.millis()).thenAnswer(invocation -> now.get());
+    when(delegateCache.get(eq(ACCOUNT_ID), anyString()))
+        .thenAnswer(invocation -> delegates.get(invocation.getArgument(1)));
+    addDelegate("first", GROUP_ID);
+    addDelegate("second", GROUP_ID);
+    delegateTaskLeaseService.recordPolling(ACCOUNT_ID, "first");
+    delegateTaskLeaseService.recordPolling(ACCOUNT_ID, "second");
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testEachTaskIsLeasedToOneDelegate() {
+    String oldest = enqueue("first", "second");
+    String middle = enqueue("first", "second");
+    String newest = enqueue("first", "second");
+
+    assertThat(leasedTaskIds("first", 2)).containsExactly(oldest, middle);
+    assertThat(leasedTaskIds("second", 2)).containsExactly(newest);
+    now.addAndGet(DelegateTaskLeaseService.EMPTY_QUEUE_RECHECK_INTERVAL);
+    assertThat(leasedTaskIds("first", 2)).isEmpty();
+
+    DelegateTaskLease lease = persistence.get(DelegateTaskLease.class, newest);
+    assertThat(lease.getLeasedBy()).isEqualTo("second");
+    assertThat(lease.getDeliveries()).isEqualTo(1);
+    assertThat(lease.getQueues()).containsExactly(GROUP_ID);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testLeasesRespectFreeSlotsAndCapacity() {
+    enqueue("first");
+    enqueue("first");
+    enqueue("first");
+
+    assertThat(leasedTaskIds("first", 0)).isEmpty();
+    delegates.get("first").setDelegateCapacity(DelegateCapacity.builder().maximumNumberOfBuilds(1).build());
+    assertThat(leasedTaskIds("first", 5)).hasSize(1);
+    delegates.get("first").setDelegateCapacity(null);
+    assertThat(leasedTaskIds("first", null)).hasSize(2);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testExpiredLeaseIsDeliveredAgain() {
+    String taskId = enqueue("first", "second");
+    assertThat(leasedTaskIds("first", 1)).containsExactly(taskId);
+    assertThat(leasedTaskIds("second", 1)).isEmpty();
+
+    // first went away without acquiring the task
+    now.addAndGet(DelegateTaskLeaseService.LEASE_DURATION + 1);
+    assertThat(leasedTaskIds("second", 1)).containsExactly(taskId);
+    assertThat(persistence.get(DelegateTaskLease.class, taskId).getDeliveries()).isEqualTo(2);
+
+    delegateTaskLeaseService.acknowledge(ACCOUNT_ID, taskId);
+    assertThat(persistence.get(DelegateTaskLease.class, taskId)).isNull();
+    now.addAndGet(DelegateTaskLeaseService.LEASE_DURATION + 1);
+    assertThat(leasedTaskIds("first", 1)).isEmpty();
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testTaskIsBroadcastToAllDelegatesAfterMaxDeliveries() {
+    DelegateTask task = task("first", "second");
+    assertThat(delegateTaskLeaseService.enqueue(task)).containsExactlyInAnyOrder("first", "second");
+    for (int delivery = 0; delivery < DelegateTaskLeaseService.MAX_DELIVERIES; delivery++) {
+      now.addAndGet(DelegateTaskLeaseService.LEASE_DURATION + 1);
+      assertThat(leasedTaskIds(delivery % 2 == 0 ? "first" : "second", 1)).containsExactly(task.getUuid());
+    }
+    // the last delivery is still leased
+    assertThat(delegateTaskLeaseService.enqueue(task)).containsExactlyInAnyOrder("first", "second");
+
+    now.addAndGet(DelegateTaskLeaseService.LEASE_DURATION + 1);
+    assertThat(leasedTaskIds("first", 1)).isEmpty();
+    assertThat(delegateTaskLeaseService.enqueue(task)).isEmpty();
+    assertThat(persistence.get(DelegateTaskLease.class, task.getUuid())).isNull();
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testReleasedTaskGoesToOtherDelegates() {
+    String taskId = enqueue("first", "second");
+    assertThat(leasedTaskIds("first", 1)).containsExactly(taskId);
+
+    delegateTaskLeaseService.release(ACCOUNT_ID, taskId, "first");
+    assertThat(leasedTaskIds("first", 1)).isEmpty();
+    assertThat(leasedTaskIds("second", 1)).containsExactly(taskId);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testDelegatesOnlyLeaseTasksOfTheirQueues() {
+    addDelegate("ungrouped", null);
+    delegateTaskLeaseService.recordPolling(ACCOUNT_ID, "ungrouped");
+    String groupTask = enqueue("first");
+    String ungroupedTask = enqueue("ungrouped");
+
+    assertThat(leasedTaskIds("ungrouped", 5)).containsExactly(ungroupedTask);
+    assertThat(leasedTaskIds("second", 5)).isEmpty();
+    assertThat(leasedTaskIds("first", 5)).containsExactly(groupTask);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testTasksAreOnlyQueuedForPollingDelegates() {
+    addDelegate("broadcast", GROUP_ID);
+    DelegateTask task = task("first", "broadcast");
+    assertThat(delegateTaskLeaseService.enqueue(task)).containsExactly("first");
+    assertThat(persistence.get(DelegateTaskLease.class, task.getUuid()).getEligibleDelegateIds())
+        .containsExactly("first");
+
+    // first stopped polling
+    now.addAndGet(DelegateTaskLeaseService.POLLER_EXPIRY + 1);
+    assertThat(delegateTaskLeaseService.enqueue(task("first", "broadcast"))).isEmpty();
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testLeasedTasksCannotBeTakenByOtherDelegates() {
+    String taskId = enqueue("first", "second");
+    String otherTaskId = enqueue("first", "second");
+    assertThat(leasedTaskIds("first", 1)).containsExactly(taskId);
+
+    assertThat(delegateTaskLeaseService.isLeasedToOther(ACCOUNT_ID, taskId, "second")).isTrue();
+    assertThat(delegateTaskLeaseService.isLeasedToOther(ACCOUNT_ID, taskId, "first")).isFalse();
+    assertThat(delegateTaskLeaseService.leasedToOthers(ACCOUNT_ID, "second", Arrays.asList(taskId, otherTaskId)))
+        .containsExactly(taskId);
+
+    now.addAndGet(DelegateTaskLeaseService.LEASE_DURATION + 1);
+    assertThat(delegateTaskLeaseService.isLeasedToOther(ACCOUNT_ID, taskId, "second")).isFalse();
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testTasksQueuedOnOtherManagersWakeUpPolls() {
+    assertThat(leasedTaskIds("first", 1)).isEmpty();
+    // queued by another manager
+    String taskId = generateUuid();
+    persistence.save(DelegateTaskLease.builder()
+                         .uuid(taskId)
+                         .accountId(ACCOUNT_ID)
+                         .taskType(TaskType.HTTP.name())
+                         .queues(Collections.singletonList(GROUP_ID))
+                         .eligibleDelegateIds(Collections.singletonList("first"))
+                         .enqueuedAt(now.get())
+                         .validUntil(new Date(now.get() + TimeUnit.HOURS.toMillis(1)))
+                         .build());
+    assertThat(leasedTaskIds("first", 1)).isEmpty();
+
+    delegateTaskLeaseService.onQueued("otherManager|" + ACCOUNT_ID + "/" + GROUP_ID);
+    assertThat(leasedTaskIds("first", 1)).containsExactly(taskId);
+  }
+
+  private void addDelegate(String delegateId, String groupId) {
+    delegates.put(delegateId,
+        Delegate.builder()
+            .uuid(delegateId)
+            .accountId(ACCOUNT_ID)
+            .delegateGroupId(groupId)
+            .status(DelegateInstanceStatus.ENABLED)
+            .build());
+  }
+
+  private String enqueue(String... eligibleDelegateIds) {
+    DelegateTask task = task(eligibleDelegateIds);
+    delegateTaskLeaseService.enqueue(task);
+    now.incrementAndGet();
+    return task.getUuid();
+  }
+
+  private DelegateTask task(String... eligibleDelegateIds) {
+    return DelegateTask.builder()
+        .uuid(generateUuid())
+        .accountId(ACCOUNT_ID)
+        .taskDataV2(TaskDataV2.builder().taskType(TaskType.HTTP.name()).async(true).build())
+        .eligibleToExecuteDelegateIds(new LinkedList<>(Arrays.asList(eligibleDelegateIds)))
+        .expiry(now.get() + TimeUnit.HOURS.toMillis(1))
+        .build();
+  }
+
+  private List<String> leasedTaskIds(String delegateId, Integer freeSlots) {
+    CompletableFuture<List<DelegateTaskEvent>> leased =
+        delegateTaskLeaseService.lease(ACCOUNT_ID, delegateId, freeSlots);
+    delegateTaskLeaseService.dispatch();
+    // gives up waiting like a poll running out of time
+    leased.complete(Collections.emptyList());
+    return leased.join().stream().map(DelegateTaskEvent::getDelegateTaskId).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.delegate.queueservice;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.persistence.HQuery.excludeAuthority;
+import static io.harness.rule.OwnerRule.JENNY;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import io.harness.beans.DelegateTask;
+import io.harness.category.element.StressTests;
+import io.harness.delegate.beans.Delegate;
+import io.harness.delegate.beans.DelegateInstanceStatus;
+import io.harness.delegate.beans.DelegateTaskEvent;
+import io.harness.delegate.beans.DelegateTaskLease;
+import io.harness.delegate.beans.DelegateTaskLease.DelegateTaskLeaseKeys;
+import io.harness.delegate.beans.TaskDataV2;
+import io.harness.persistence.HPersistence;
+import io.harness.rule.Owner;
+import io.harness.service.intfc.DelegateCache;
+
+import software.wings.WingsBaseTest;
+import software.wings.beans.TaskType;
+
+import com.google.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+
+/**
+ * Runs in process fake delegates against the real queue persistence, once leasing the tasks by long polling and once
+ * racing for broadcast tasks like the delegates do today, and reports the acquire conflicts and the time it took the
+ * tasks of each account to start.
+ */
+@Slf4j
+public class DelegateTaskLeaseSimulationTest extends WingsBaseTest {
+  private static final String NOISY_ACCOUNT = "noisyAccount";
+  private static final String QUIET_ACCOUNT = "quietAccount";
+  private static final int GROUPS_PER_ACCOUNT = 2;
+  private static final int DELEGATES_PER_GROUP = 5;
+  private static final int SLOTS_PER_DELEGATE = 4;
+  private static final int NOISY_TASKS = 400;
+  private static final int QUIET_TASKS = 40;
+  private static final int BROADCAST_LIMIT = 10;
+
+  @Inject @InjectMocks private DelegateTaskLeaseService delegateTaskLeaseService;
+  @Inject private HPersistence persistence;
+  @Mock private DelegateCache delegateCache;
+
+  private final Map<String, List<Delegate>> delegatesByAccount = new HashMap<>();
+  private final Map<String, Delegate> delegates = new HashMap<>();
+
+  @Before
+  public void setUp() {
+    for (String accountId : new String[] {NOISY_ACCOUNT, QUIET_ACCOUNT}) {
+      for (int group = 0; group < GROUPS_PER_ACCOUNT; group++) {
+        for (int i = 0; i < DELEGATES_PER_GROUP; i++) {
+          Delegate delegate = Delegate.builder()
+                                  .uuid(accountId + "-group" + group + "-delegate" + i)
+                                  .accountId(accountId)
+                                  .delegateGroupId(accountId + "-group" + group)
+                                  .status(DelegateInstanceStatus.ENABLED)
+                                  .build();
+          delegates.put(delegate.getUuid(), delegate);
+          delegatesByAccount.computeIfAbsent(accountId, key -> new ArrayList<>()).add(delegate);
+        }
+      }
+    }
+    when(delegateCache.get(anyString(), anyString()))
+        .thenAnswer(invocation -> delegates.get(invocation.getArgument(1)));
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void compareLeasingWithBroadcasting() throws InterruptedException {
+    SimulationResult leasing = simulate(true);
+    SimulationResult broadcasting = simulate(false);
+
+    log.info("leasing: {}", leasing);
+    log.info("broadcasting: {}", broadcasting);
+    assertThat(leasing.conflicts.get()).isZero();
+    assertThat(leasing.started()).isEqualTo(NOISY_TASKS + QUIET_TASKS);
+  }
+
+  private SimulationResult simulate(boolean leasing) throws InterruptedException {
+    for (String accountId : delegatesByAccount.keySet()) {
+      persistence.delete(
+          persistence.createQuery(DelegateTaskLease.class).filter(DelegateTaskLeaseKeys.accountId, accountId));
+    }
+    SimulationResult result = new SimulationResult();
+    Map<String, BlockingQueue<String>> inboxes = new ConcurrentHashMap<>();
+    Map<String, Long> enqueuedAt = new ConcurrentHashMap<>();
+    AtomicBoolean stopped = new AtomicBoolean();
+    if (leasing) {
+      delegates.values().forEach(
+          delegate -> delegateTaskLeaseService.recordPolling(delegate.getAccountId(), delegate.getUuid()));
+    }
+    ExecutorService delegateThreads = Executors.newFixedThreadPool(delegates.size());
+    ScheduledExecutorService timers = Executors.newScheduledThreadPool(4);
+    Random random = new Random(0);
+
+    for (Delegate delegate : delegates.values()) {
+      BlockingQueue<String> inbox = new LinkedBlockingQueue<>();
+      inboxes.put(delegate.getUuid(), inbox);
+      Semaphore slots = new Semaphore(SLOTS_PER_DELEGATE);
+      delegateThreads.submit(() -> {
+        while (!stopped.get()) {
+          try {
+            List<String> taskIds = new ArrayList<>();
+            if (leasing) {
+              if (slots.availablePermits() == 0) {
+                Thread.sleep(5);
+                continue;
+              }
+              delegateTaskLeaseService.lease(delegate.getAccountId(), delegate.getUuid(), slots.availablePermits())
+                  .completeOnTimeout(Collections.emptyList(), 500, TimeUnit.MILLISECONDS)
+                  .join()
+                  .stream()
+                  .map(DelegateTaskEvent::getDelegateTaskId)
+                  .forEach(taskIds::add);
+            } else {
+              String taskId = inbox.poll(100, TimeUnit.MILLISECONDS);
+              // without a free slot the broadcast is ignored until the task gets broadcast again
+              if (taskId != null && slots.availablePermits() > 0) {
+                taskIds.add(taskId);
+              }
+            }
+            for (String taskId : taskIds) {
+              result.attempts.incrementAndGet();
+              if (!acquire(leasing, taskId, delegate.getUuid())) {
+                result.conflicts.incrementAndGet();
+                continue;
+              }
+              slots.acquire();
+              result.timesToStart.get(delegate.getAccountId())
+                  .add(System.currentTimeMillis() - enqueuedAt.get(taskId));
+              timers.schedule(slots::release, 20 + random.nextInt(80), TimeUnit.MILLISECONDS);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          } catch (Exception e) {
+            log.error("Fake delegate {} failed", delegate.getUuid(), e);
+          }
+        }
+      });
+    }
+
+    // the noisy account queues a burst while the quiet one keeps queueing a task now and then
+    long start = System.currentTimeMillis();
+    for (int i = 0; i < NOISY_TASKS; i++) {
+      queue(NOISY_ACCOUNT, leasing, enqueuedAt, inboxes);
+    }
+    for (int i = 0; i < QUIET_TASKS; i++) {
+      queue(QUIET_ACCOUNT, leasing, enqueuedAt, inboxes);
+      Thread.sleep(10);
+    }
+    while (result.started() < NOISY_TASKS + QUIET_TASKS && System.currentTimeMillis() - start < 120000) {
+      if (!leasing) {
+        rebroadcastUnassignedTasks(inboxes);
+      }
+      Thread.sleep(250);
+    }
+    result.elapsed = System.currentTimeMillis() - start;
+
+    stopped.set(true);
+    delegateThreads.shutdownNow();
+    timers.shutdownNow();
+    delegateThreads.awaitTermination(1, TimeUnit.MINUTES);
+    return result;
+  }
+
+  private void queue(
+      String accountId, boolean leasing, Map<String, Long> enqueuedAt, Map<String, BlockingQueue<String>> inboxes) {
+    List<String> eligibleDelegateIds =
+        delegatesByAccount.get(accountId).stream().map(Delegate::getUuid).collect(Collectors.toList());
+    DelegateTask task = DelegateTask.builder()
+                            .uuid(generateUuid())
+                            .accountId(accountId)
+                            .taskDataV2(TaskDataV2.builder().taskType(TaskType.HTTP.name()).async(true).build())
+                            .eligibleToExecuteDelegateIds(new LinkedList<>(eligibleDelegateIds))
+                            .expiry(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1))
+                            .build();
+    enqueuedAt.put(task.getUuid(), System.currentTimeMillis());
+    if (leasing) {
+      delegateTaskLeaseService.enqueue(task);
+    } else {
+      // the record the broadcast delegates race to acquire
+      persistence.save(DelegateTaskLease.builder()
+                           .uuid(task.getUuid())
+                           .accountId(accountId)
+                           .eligibleDelegateIds(eligibleDelegateIds)
+                           .validUntil(new Date(task.getExpiry()))
+                           .build());
+      Collections.shuffle(eligibleDelegateIds);
+      eligibleDelegateIds.stream().limit(BROADCAST_LIMIT).forEach(
+          delegateId -> inboxes.get(delegateId).add(task.getUuid()));
+    }
+  }
+
+  private void rebroadcastUnassignedTasks(Map<String, BlockingQueue<String>> inboxes) {
+    for (String accountId : delegatesByAccount.keySet()) {
+      List<DelegateTaskLease> unassigned = persistence.createQuery(DelegateTaskLease.class)
+                                               .filter(DelegateTaskLeaseKeys.accountId, accountId)
+                                               .field(DelegateTaskLeaseKeys.leasedBy)
+                                               .doesNotExist()
+                                               .asList();
+      for (DelegateTaskLease lease : unassigned) {
+        lease.getEligibleDelegateIds().forEach(delegateId -> inboxes.get(delegateId).add(lease.getUuid()));
+      }
+    }
+  }
+
+  // what assigning the task to the delegate boils down to, exactly one delegate wins
+  private boolean acquire(boolean leasing, String taskId, String delegateId) {
+    if (leasing) {
+      return persistence.delete(persistence.createQuery(DelegateTaskLease.class, excludeAuthority)
+                                    .filter(DelegateTaskLeaseKeys.uuid, taskId)
+                                    .filter(DelegateTaskLeaseKeys.leasedBy, delegateId));
+    }
+    return persistence.findAndModify(persistence.createQuery(DelegateTaskLease.class, excludeAuthority)
+                                         .filter(DelegateTaskLeaseKeys.uuid, taskId)
+                                         .field(DelegateTaskLeaseKeys.leasedBy)
+                                         .doesNotExist(),
+               persistence.createUpdateOperations(DelegateTaskLease.class)
+                   .set(DelegateTaskLeaseKeys.leasedBy, delegateId),
+               HPersistence.returnNewOptions)
+        != null;
+  }
+
+  private static class SimulationResult {
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final Map<String, Queue<Long>> timesToStart =
+        Map.of(NOISY_ACCOUNT, new ConcurrentLinkedQueue<>(), QUIET_ACCOUNT, new ConcurrentLinkedQueue<>());
+    private long elapsed;
+
+    int started() {
+      return timesToStart.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder builder = new StringBuilder()
+                                  .append(started())
+                                  .append(" tasks started in ")
+                                  .append(elapsed)
+                                  .append(" ms, ")
+                                  .append(attempts.get())
+                                  .append(" acquire attempts, ")
+                                  .append(conflicts.get())
+                                  .append(" conflicts");
+      timesToStart.forEach((accountId, times) -> {
+        List<Long> sorted = times.stream().sorted().collect(Collectors.toList());
+        if (!sorted.isEmpty()) {
+          builder.append(", ")
+              .append(accountId)
+              .append(" time to start p50 ")
+              .append(sorted.get(sorted.size() / 2))
+              .append(" ms p99 ")
+              .append(sorted.get(sorted.size() * 99 / 100))
+              .append(" ms");
+        }
+      });
+      return builder.toString();
+    }
+  }
+}
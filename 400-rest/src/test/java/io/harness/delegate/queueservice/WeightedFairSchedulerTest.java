@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.delegate.queueservice;
+
+import static io.harness.rule.OwnerRule.JENNY;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@OwnedBy(HarnessTeam.DEL)
+public class WeightedFairSchedulerTest extends CategoryTest {
+  private final Map<String, Integer> weights = ImmutableMap.of("heavy", 3, "light", 1);
+  private final WeightedFairScheduler<String> scheduler =
+      new WeightedFairScheduler<>(key -> weights.getOrDefault(key, 1));
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testKeysAreServedInProportionToWeights() {
+    Map<String, Integer> served = serve(ImmutableSet.of("heavy", "light"), 400);
+
+    assertThat(served.get("heavy")).isEqualTo(300);
+    assertThat(served.get("light")).isEqualTo(100);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testIdleKeyDoesNotBankTurns() {
+    serve(ImmutableSet.of("light"), 100);
+
+    // heavy was idle all along, it gets its share from now on but not the 100 turns it missed
+    Map<String, Integer> served = serve(ImmutableSet.of("heavy", "light"), 40);
+    assertThat(served.get("heavy")).isBetween(30, 31);
+    assertThat(served.get("light")).isBetween(9, 10);
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testNothingReady() {
+    assertThat(scheduler.next(ImmutableSet.of())).isNull();
+  }
+
+  private Map<String, Integer> serve(Set<String> ready, int turns) {
+    Map<String, Integer> served = new HashMap<>();
+    for (int i = 0; i < turns; i++) {
+      String next = scheduler.next(ready);
+      scheduler.served(next);
+      served.merge(next, 1, Integer::sum);
+    }
+    return served;
+  }
+}
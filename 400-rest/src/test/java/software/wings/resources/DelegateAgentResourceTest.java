@@ -32,6 +32,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,10 +53,12 @@ import io.harness.delegate.beans.DelegateParams;
 import io.harness.delegate.beans.DelegateProfileParams;
 import io.harness.delegate.beans.DelegateRegisterResponse;
 import io.harness.delegate.beans.DelegateScripts;
+import io.harness.delegate.beans.DelegateTaskEvent;
 import io.harness.delegate.beans.DelegateTaskPackage;
 import io.harness.delegate.beans.DelegateTaskResponse;
 import io.harness.delegate.beans.connector.ConnectorHeartbeatDelegateResponse;
 import io.harness.delegate.heartbeat.polling.DelegatePollingHeartbeatService;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.delegate.task.pcf.response.CfCommandExecutionResponse;
 import io.harness.exception.InvalidRequestException;
 import io.harness.ipallowlist.IPAllowListClient;
@@ -100,7 +103,9 @@ import com.google.protobuf.Any;
 import com.google.protobuf.TextFormat;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
@@ -151,6 +156,7 @@ public class DelegateAgentResourceTest extends JerseyTest {
   @Mock private LoggingTokenCache loggingTokenCache;
 
   @Mock private IPAllowListClient ipAllowListClient;
+  @Mock private DelegateTaskLeaseService delegateTaskLeaseService;
   private MockedStatic<NGRestUtils> ngRestUtilsMockedStatic;
 
   @Before
@@ -173,7 +179,8 @@ public class DelegateAgentResourceTest extends JerseyTest {
         subdomainUrlHelper, artifactCollectionResponseHandler, instanceSyncResponseHandler,
         manifestCollectionResponseHandler, connectorHearbeatPublisher, kryoSerializer, configurationController,
         delegateTaskServiceClassic, pollResourceClient, instanceSyncResponsePublisher, delegatePollingHeartbeatService,
-        delegateCapacityManagementService, delegateRingService, loggingTokenCache, ipAllowListClient));
+        delegateCapacityManagementService, delegateRingService, loggingTokenCache, ipAllowListClient,
+        delegateTaskLeaseService));
     resourceConfig.register(new AbstractBinder() {
       @Override
       protected void configure() {
@@ -323,6 +330,49 @@ public class DelegateAgentResourceTest extends JerseyTest {
     assertThat(actual).isInstanceOf(DelegateTaskEventsResponse.class).isNotNull();
   }
 
+  @Test
+  @Owner(developers = NIKOLA)
+  @Category(UnitTests.class)
+  public void shouldLeaseDelegateTasks() {
+    when(delegateTaskLeaseService.isEnabled(ACCOUNT_ID)).thenReturn(true);
+    when(delegateTaskLeaseService.lease(ACCOUNT_ID, DELEGATE_ID, 2))
+        .thenReturn(CompletableFuture.completedFuture(
+            singletonList(aDelegateTaskEvent().withDelegateTaskId("123").build())));
+    final var url =
+        String.format("/agent/delegates/%s/tasks/lease?accountId=%s&freeSlots=%s", DELEGATE_ID, ACCOUNT_ID, 2);
+    final DelegateTaskEventsResponse actual = client().target(url).request().get(new GenericType<>() {});
+
+    verify(delegateTaskLeaseService).lease(ACCOUNT_ID, DELEGATE_ID, 2);
+    assertThat(actual.getDelegateTaskEvents().get(0).getDelegateTaskId()).isEqualTo("123");
+  }
+
+  @Test
+  @Owner(developers = NIKOLA)
+  @Category(UnitTests.class)
+  public void shouldReturnNoTasksWhenNothingGotLeasedInTime() {
+    when(delegateTaskLeaseService.isEnabled(ACCOUNT_ID)).thenReturn(true);
+    CompletableFuture<List<DelegateTaskEvent>> leased = new CompletableFuture<>();
+    when(delegateTaskLeaseService.lease(ACCOUNT_ID, DELEGATE_ID, null)).thenReturn(leased);
+    final var url =
+        String.format("/agent/delegates/%s/tasks/lease?accountId=%s&waitSeconds=1", DELEGATE_ID, ACCOUNT_ID);
+    final DelegateTaskEventsResponse actual = client().target(url).request().get(new GenericType<>() {});
+
+    assertThat(actual.getDelegateTaskEvents()).isEmpty();
+    assertThat(leased).isCompletedWithValue(Collections.emptyList());
+  }
+
+  @Test
+  @Owner(developers = NIKOLA)
+  @Category(UnitTests.class)
+  public void shouldNotLeaseDelegateTasksWhenLeasingIsDisabled() {
+    final var url = String.format("/agent/delegates/%s/tasks/lease?accountId=%s", DELEGATE_ID, ACCOUNT_ID);
+    final DelegateTaskEventsResponse actual = client().target(url).request().get(new GenericType<>() {});
+
+    assertThat(actual.getLeasingDisabled()).isTrue();
+    assertThat(actual.getDelegateTaskEvents()).isEmpty();
+    verify(delegateTaskLeaseService, never()).lease(any(), any(), any());
+  }
+
   @Test
   @Owner(developers = NIKOLA)
   @Category(UnitTests.class)
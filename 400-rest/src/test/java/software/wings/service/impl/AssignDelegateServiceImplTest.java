@@ -39,6 +39,10 @@ import static software.wings.service.impl.AssignDelegateServiceImpl.SCOPE_WILDCA
 import static software.wings.service.impl.AssignDelegateServiceImpl.WHITELIST_TTL;
 import static software.wings.service.impl.AssignDelegateServiceImplTest.CriteriaType.MATCHING_CRITERIA;
 import static software.wings.service.impl.AssignDelegateServiceImplTest.CriteriaType.NOT_MATCHING_CRITERIA;
+import static software.wings.service.impl.DelegateSelectionLogsServiceImpl.CAN_NOT_ASSIGN_DELEGATE_SCOPE_GROUP;
+import static software.wings.service.impl.DelegateSelectionLogsServiceImpl.CAN_NOT_ASSIGN_PROFILE_SCOPE_GROUP;
+import static software.wings.service.impl.DelegateSelectionLogsServiceImpl.CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP;
+import static software.wings.service.impl.DelegateSelectionLogsServiceImpl.CAN_NOT_ASSIGN_TASK_GROUP;
 import static software.wings.service.impl.instance.InstanceSyncTestConstants.APP_ID;
 import static software.wings.utils.WingsTestConstants.ACCOUNT_ID;
 import static software.wings.utils.WingsTestConstants.DELEGATE_ID;
@@ -64,6 +68,7 @@ import io.harness.annotations.dev.TargetModule;
 import io.harness.beans.Cd1SetupFields;
 import io.harness.beans.DelegateTask;
 import io.harness.beans.DelegateTask.DelegateTaskBuilder;
+import io.harness.beans.FeatureName;
 import io.harness.category.element.UnitTests;
 import io.harness.common.NGTaskType;
 import io.harness.delegate.beans.Delegate;
@@ -75,6 +80,7 @@ import io.harness.delegate.beans.DelegateProfile;
 import io.harness.delegate.beans.DelegateProfileScopingRule;
 import io.harness.delegate.beans.DelegateScope;
 import io.harness.delegate.beans.TaskData;
+import io.harness.delegate.beans.TaskDataV2;
 import io.harness.delegate.beans.TaskGroup;
 import io.harness.delegate.beans.executioncapability.ExecutionCapability;
 import io.harness.delegate.beans.executioncapability.HttpConnectionExecutionCapability;
@@ -127,6 +133,7 @@ import java.util.stream.Stream;
 import lombok.Builder;
 import lombok.Value;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.assertj.core.util.Lists;
 import org.assertj.core.util.Sets;
@@ -2000,6 +2007,66 @@ public class AssignDelegateServiceImplTest extends WingsBaseTest {
     assertThat(assignDelegateService.getEligibleDelegatesToExecuteTask(task)).contains(delegate.getUuid());
   }
 
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testEligibleDelegatesThroughIndexMatchFullChecks() throws Exception {
+    List<Delegate> delegates = createEligibilityIndexDelegates();
+    DelegateTask task = constructDelegateTask(false, Collections.emptySet(), DelegateTask.Status.QUEUED);
+
+    assertSameEligibilityThroughIndex(task, false);
+    assertThat(assignDelegateService.getEligibleDelegatesToExecuteTask(task))
+        .containsExactly(delegates.get(0).getUuid(), delegates.get(4).getUuid(), delegates.get(5).getUuid());
+    assertThat(task.getNonAssignableDelegates())
+        .containsOnlyKeys(CAN_NOT_ASSIGN_TASK_GROUP + " {" + TaskType.HTTP.name() + "} ",
+            CAN_NOT_ASSIGN_DELEGATE_SCOPE_GROUP, CAN_NOT_ASSIGN_PROFILE_SCOPE_GROUP);
+    assertThat(task.getNonAssignableDelegates().get(CAN_NOT_ASSIGN_TASK_GROUP + " {" + TaskType.HTTP.name() + "} "))
+        .containsExactly("unsupported", "lateUnsupported");
+
+    task.setExecutionCapabilities(singletonList(
+        SelectorCapability.builder().selectors(ImmutableSet.of(" SEL1 ")).selectorOrigin("step").build()));
+    assertSameEligibilityThroughIndex(task, false);
+    assertThat(assignDelegateService.getEligibleDelegatesToExecuteTask(task))
+        .containsExactly(delegates.get(0).getUuid(), delegates.get(5).getUuid());
+    assertThat(task.getNonAssignableDelegates().get(CAN_NOT_ASSIGN_DELEGATE_SCOPE_GROUP)).containsExactly("excluded");
+    assertThat(task.getNonAssignableDelegates().get(CAN_NOT_ASSIGN_PROFILE_SCOPE_GROUP)).containsExactly("profiled");
+    assertThat(task.getNonAssignableDelegates().get(CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP)).containsExactly("untagged");
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testEligibleDelegatesV2ThroughIndexMatchFullChecks() throws Exception {
+    List<Delegate> delegates = createEligibilityIndexDelegates();
+    DelegateTask task = DelegateTask.builder()
+                            .uuid(generateUuid())
+                            .accountId(ACCOUNT_ID)
+                            .setupAbstraction(Cd1SetupFields.APP_ID_FIELD, "APP_ID")
+                            .taskDataV2(TaskDataV2.builder()
+                                            .async(true)
+                                            .taskType(TaskType.HTTP.name())
+                                            .timeout(DEFAULT_ASYNC_CALL_TIMEOUT)
+                                            .build())
+                            .build();
+
+    assertSameEligibilityThroughIndex(task, true);
+    assertThat(assignDelegateService.getEligibleDelegatesToExecuteTaskV2(task))
+        .containsExactly(delegates.get(0).getUuid(), delegates.get(4).getUuid(), delegates.get(5).getUuid());
+    assertThat(task.getNonAssignableDelegates().get(TaskType.HTTP.name() + " " + CAN_NOT_ASSIGN_TASK_GROUP))
+        .containsExactly("unsupported", "lateUnsupported");
+
+    task.setExecutionCapabilities(singletonList(
+        SelectorCapability.builder().selectors(ImmutableSet.of("sel1")).selectorOrigin("step").build()));
+    assertSameEligibilityThroughIndex(task, true);
+    assertThat(assignDelegateService.getEligibleDelegatesToExecuteTaskV2(task))
+        .containsExactly(delegates.get(0).getUuid(), delegates.get(5).getUuid());
+    assertThat(task.getNonAssignableDelegates())
+        .containsOnlyKeys(TaskType.HTTP.name() + " " + CAN_NOT_ASSIGN_TASK_GROUP, CAN_NOT_ASSIGN_DELEGATE_SCOPE_GROUP,
+            CAN_NOT_ASSIGN_PROFILE_SCOPE_GROUP, CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP + " [sel1]");
+    assertThat(task.getNonAssignableDelegates().get(CAN_NOT_ASSIGN_SELECTOR_TASK_GROUP + " [sel1]"))
+        .containsExactly("untagged");
+  }
+
   @Test
   @Owner(developers = JENNY)
   @Category(UnitTests.class)
@@ -2589,6 +2656,82 @@ public class AssignDelegateServiceImplTest extends WingsBaseTest {
             "There are no active delegates available for the account. The following delegates [HOSTNAME] are inactive.\n\n\n");
   }
 
+  /**
+   * Delegates failing one check each, the last two registered after the eligibility index of the account was built.
+   */
+  private List<Delegate> createEligibilityIndexDelegates() throws Exception {
+    DelegateProfile delegateProfile =
+        DelegateProfile.builder()
+            .uuid(generateUuid())
+            .accountId(ACCOUNT_ID)
+            .name("profile")
+            .scopingRules(singletonList(DelegateProfileScopingRule.builder()
+                                            .description("otherApp")
+                                            .scopingEntities(ImmutableMap.of(Cd1SetupFields.APP_ID_FIELD,
+                                                ImmutableSet.of("OTHER_APP_ID")))
+                                            .build()))
+            .build();
+    when(delegateCache.getDelegateProfile(ACCOUNT_ID, delegateProfile.getUuid())).thenReturn(delegateProfile);
+
+    List<Delegate> delegates = Lists.newArrayList(createAccountDelegate("eligible", supportedTasks, "sel1"),
+        createAccountDelegate("unsupported", singletonList(TaskType.JIRA.name()), "sel1"),
+        createAccountDelegate("excluded", supportedTasks, "sel2"), createAccountDelegate("untagged", supportedTasks),
+        createAccountDelegate("late", supportedTasks, "sel1"),
+        createAccountDelegate("lateUnsupported", singletonList(TaskType.JIRA.name())));
+    delegates.get(2).setExcludeScopes(
+        singletonList(DelegateScope.builder().applications(ImmutableList.of("APP_ID")).build()));
+    Delegate profiled = createAccountDelegate("profiled", supportedTasks, "sel1");
+    profiled.setDelegateProfileId(delegateProfile.getUuid());
+    delegates.add(3, profiled);
+
+    when(accountDelegatesCache.get(ACCOUNT_ID)).thenReturn(delegates);
+    for (Delegate delegate : delegates) {
+      when(delegateCache.get(ACCOUNT_ID, delegate.getUuid())).thenReturn(delegate);
+    }
+    when(delegateService.retrieveDelegateSelectors(any(Delegate.class), eq(true)))
+        .thenAnswer(invocation -> new HashSet<>(((Delegate) invocation.getArgument(0)).getTags()));
+
+    DelegateEligibilityIndex delegateEligibilityIndex = new DelegateEligibilityIndex();
+    FieldUtils.writeField(delegateEligibilityIndex, "delegateCache", delegateCache, true);
+    FieldUtils.writeField(delegateEligibilityIndex, "delegateService", delegateService, true);
+    FieldUtils.writeField(assignDelegateService, "delegateEligibilityIndex", delegateEligibilityIndex, true);
+    delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates.subList(0, 5));
+    return delegates;
+  }
+
+  private Delegate createAccountDelegate(String hostName, List<String> supportedTaskTypes, String... tags) {
+    Delegate delegate = Delegate.builder()
+                            .accountId(ACCOUNT_ID)
+                            .ip("127.0.0.1")
+                            .hostName(hostName)
+                            .delegateName(hostName)
+                            .version(VERSION)
+                            .status(DelegateInstanceStatus.ENABLED)
+                            .supportedTaskTypes(supportedTaskTypes)
+                            .tags(asList(tags))
+                            .lastHeartBeat(System.currentTimeMillis())
+                            .build();
+    persistence.save(delegate);
+    return delegate;
+  }
+
+  /**
+   * Looks the eligible delegates of the task up with the eligibility index off and on, expecting the same delegates
+   * and non assignable reasons.
+   */
+  private void assertSameEligibilityThroughIndex(DelegateTask task, boolean v2) {
+    when(featureFlagService.isEnabled(eq(FeatureName.DEL_ELIGIBILITY_INDEX), anyString())).thenReturn(false);
+    List<String> eligibleDelegateIds = v2 ? assignDelegateService.getEligibleDelegatesToExecuteTaskV2(task)
+                                          : assignDelegateService.getEligibleDelegatesToExecuteTask(task);
+    Map<String, List<String>> nonAssignableDelegates = task.getNonAssignableDelegates();
+
+    when(featureFlagService.isEnabled(eq(FeatureName.DEL_ELIGIBILITY_INDEX), anyString())).thenReturn(true);
+    assertThat(v2 ? assignDelegateService.getEligibleDelegatesToExecuteTaskV2(task)
+                  : assignDelegateService.getEligibleDelegatesToExecuteTask(task))
+        .containsExactlyElementsOf(eligibleDelegateIds);
+    assertThat(task.getNonAssignableDelegates()).isEqualTo(nonAssignableDelegates);
+  }
+
   private DelegateTask constructDelegateTask(boolean async, Set<String> validatingTaskIds, DelegateTask.Status status) {
     DelegateTask delegateTask =
         DelegateTask.builder()
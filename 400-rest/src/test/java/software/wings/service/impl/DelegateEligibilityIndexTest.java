@@ -0,0 +1,258 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package software.wings.service.impl;
+
+import static io.harness.rule.OwnerRule.MARKO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.delegate.beans.Delegate;
+import io.harness.delegate.beans.DelegateEntityOwner;
+import io.harness.delegate.beans.DelegateInstanceStatus;
+import io.harness.delegate.utils.DelegateEntityOwnerHelper;
+import io.harness.rule.Owner;
+import io.harness.service.intfc.DelegateCache;
+
+import software.wings.service.impl.DelegateEligibilityIndex.AccountIndex;
+import software.wings.service.intfc.DelegateService;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+@Slf4j
+@OwnedBy(HarnessTeam.DEL)
+public class DelegateEligibilityIndexTest extends CategoryTest {
+  private static final String ACCOUNT_ID = "accountId";
+
+  @Mock private DelegateCache delegateCache;
+  @Mock private DelegateService delegateService;
+  @InjectMocks private DelegateEligibilityIndex delegateEligibilityIndex;
+
+  private final List<Delegate> delegates = new ArrayList<>();
+  private final Map<String, Delegate> delegatesById = new HashMap<>();
+  private final Map<String, Set<String>> selectors = new HashMap<>();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(delegateCache.get(eq(ACCOUNT_ID), anyString()))
+        .thenAnswer(invocation -> delegatesById.get(invocation.getArgument(1)));
+    when(delegateService.retrieveDelegateSelectors(any(Delegate.class), eq(true)))
+        .thenAnswer(invocation -> selectors.get(((Delegate) invocation.getArgument(0)).getUuid()));
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testEligibleDelegates() {
+    addDelegate("cgAccount", false, null, Arrays.asList("HTTP", "SHELL"), ImmutableSet.of(" K8s "));
+    addDelegate("ngAccount", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s", "gpu"));
+    addDelegate("ngOrg", true, "org", Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    addDelegate("ngProject", true, "org/project", Collections.singletonList("HTTP"), Collections.emptySet());
+    addDelegate("ngOtherProject", true, "org/other", Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    addDelegate("deleted", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    delegates.get(5).setStatus(DelegateInstanceStatus.DELETED);
+
+    AccountIndex index = delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates);
+    assertThat(index.size()).isEqualTo(5);
+    assertThat(index.position("deleted")).isEqualTo(-1);
+
+    assertThat(ids(index, index.owning(false, null))).containsExactly("cgAccount");
+    assertThat(ids(index, index.owning(true, null))).containsExactly("ngAccount");
+    assertThat(ids(index, index.owning(true, "org"))).containsExactly("ngAccount", "ngOrg");
+    assertThat(ids(index, index.owning(true, "org/project"))).containsExactly("ngAccount", "ngOrg", "ngProject");
+    assertThat(ids(index, index.owning(true, "otherOrg/project"))).containsExactly("ngAccount");
+
+    assertThat(ids(index, index.supporting("SHELL"))).containsExactly("cgAccount");
+    assertThat(ids(index, index.supporting("JIRA"))).isEmpty();
+    assertThat(ids(index, index.supporting(null))).isEmpty();
+
+    assertThat(index.selecting(null).cardinality()).isEqualTo(5);
+    assertThat(ids(index, index.selecting(Collections.emptySet())))
+        .containsExactly("cgAccount", "ngAccount", "ngOrg", "ngOtherProject");
+    assertThat(ids(index, index.selecting(ImmutableSet.of("k8s"))))
+        .containsExactly("cgAccount", "ngAccount", "ngOrg", "ngOtherProject");
+    assertThat(ids(index, index.selecting(ImmutableSet.of("k8s", "gpu")))).containsExactly("ngAccount");
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testIndexIsRebuiltOnDelegateEvents() {
+    addDelegate("first", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(1);
+
+    addDelegate("second", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(1);
+    delegateEligibilityIndex.onAdded(delegates.get(1));
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(2);
+
+    selectors.put("second", ImmutableSet.of("gpu"));
+    delegateEligibilityIndex.onDelegateTagsUpdated(ACCOUNT_ID);
+    AccountIndex index = delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates);
+    assertThat(ids(index, index.selecting(ImmutableSet.of("gpu")))).containsExactly("second");
+    verify(delegateService, times(5)).retrieveDelegateSelectors(any(Delegate.class), eq(true));
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testInvalidationsAreBroadcastToOtherPods() {
+    RedissonClient redissonClient = mock(RedissonClient.class);
+    RTopic topic = mock(RTopic.class);
+    when(redissonClient.getTopic(eq("env:" + DelegateEligibilityIndex.TOPIC_NAME), any(Codec.class))).thenReturn(topic);
+    delegateEligibilityIndex.subscribe(redissonClient, "env");
+
+    addDelegate("first", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(1);
+    delegateEligibilityIndex.onDelegateTagsUpdated(ACCOUNT_ID);
+    ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+    verify(topic).publishAsync(published.capture());
+    assertThat(published.getValue()).endsWith(":" + ACCOUNT_ID);
+
+    addDelegate("second", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(2);
+    // own invalidations are applied already
+    addDelegate("third", true, null, Collections.singletonList("HTTP"), ImmutableSet.of("k8s"));
+    delegateEligibilityIndex.onInvalidation(published.getValue());
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(2);
+    delegateEligibilityIndex.onInvalidation("otherPod:" + ACCOUNT_ID);
+    assertThat(delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates).size()).isEqualTo(3);
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void measureEligibilityLatency() {
+    Random random = new Random(0);
+    List<String> taskTypes = Arrays.asList("HTTP", "SHELL", "K8S", "HELM", "TERRAFORM", "JIRA", "GIT", "DOCKER");
+    int tasks = 1000;
+    for (int fleetSize : new int[] {10, 100, 500, 1000, 2000}) {
+      delegates.clear();
+      delegatesById.clear();
+      selectors.clear();
+      for (int i = 0; i < fleetSize; i++) {
+        String owner = i % 4 == 0 ? null : "org" + (i % 3) + (i % 2 == 0 ? "" : "/project" + (i % 5));
+        addDelegate("delegate" + i, true, owner, taskTypes.subList(0, 1 + random.nextInt(taskTypes.size())),
+            ImmutableSet.of("group" + (i % 20), "region" + (i % 4)));
+      }
+      delegateEligibilityIndex.invalidate(ACCOUNT_ID);
+      long start = System.nanoTime();
+      AccountIndex index = delegateEligibilityIndex.get(ACCOUNT_ID, () -> delegates);
+      long buildMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+
+      int indexed = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < tasks; i++) {
+        String taskOwner = "org" + (i % 3) + "/project" + (i % 5);
+        BitSet eligible = index.owning(true, taskOwner);
+        eligible.and(index.supporting(taskTypes.get(i % taskTypes.size())));
+        eligible.and(index.selecting(ImmutableSet.of("group" + (i % 20))));
+        for (Delegate delegate : delegates) {
+          indexed += eligible.get(index.position(delegate.getUuid())) ? 1 : 0;
+        }
+      }
+      long indexedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / tasks;
+
+      int scanned = 0;
+      start = System.nanoTime();
+      for (int i = 0; i < tasks; i++) {
+        String taskOwner = "org" + (i % 3) + "/project" + (i % 5);
+        for (Delegate delegate : delegates) {
+          scanned += matches(delegate, taskOwner, taskTypes.get(i % taskTypes.size()), "group" + (i % 20)) ? 1 : 0;
+        }
+      }
+      long scannedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / tasks;
+
+      assertThat(indexed).isEqualTo(scanned);
+      log.info("{} delegates: index built in {} us, {} us per task with the index, {} us per task checking every "
+              + "delegate",
+          fleetSize, buildMicros, indexedMicros, scannedMicros);
+    }
+  }
+
+  // what the assignment checks for every delegate without the index
+  private boolean matches(Delegate delegate, String taskOwner, String taskType, String selector) {
+    if (delegate.getOwner() != null) {
+      String delegateOrg =
+          DelegateEntityOwnerHelper.extractOrgIdFromOwnerIdentifier(delegate.getOwner().getIdentifier());
+      String delegateProject =
+          DelegateEntityOwnerHelper.extractProjectIdFromOwnerIdentifier(delegate.getOwner().getIdentifier());
+      if (!StringUtils.equals(DelegateEntityOwnerHelper.extractOrgIdFromOwnerIdentifier(taskOwner), delegateOrg)
+          || !(StringUtils.isBlank(delegateProject)
+              || StringUtils.equals(
+                  DelegateEntityOwnerHelper.extractProjectIdFromOwnerIdentifier(taskOwner), delegateProject))) {
+        return false;
+      }
+    }
+    Delegate cached = delegateCache.get(ACCOUNT_ID, delegate.getUuid());
+    return cached.getSupportedTaskTypes().contains(taskType)
+        && delegateService.retrieveDelegateSelectors(cached, true).contains(selector);
+  }
+
+  private void addDelegate(
+      String uuid, boolean ng, String owner, List<String> supportedTaskTypes, Set<String> delegateSelectors) {
+    Delegate delegate = Delegate.builder()
+                            .uuid(uuid)
+                            .accountId(ACCOUNT_ID)
+                            .ng(ng)
+                            .owner(owner == null ? null : DelegateEntityOwner.builder().identifier(owner).build())
+                            .supportedTaskTypes(supportedTaskTypes)
+                            .status(DelegateInstanceStatus.ENABLED)
+                            .build();
+    delegates.add(delegate);
+    delegatesById.put(uuid, delegate);
+    selectors.put(uuid, delegateSelectors);
+  }
+
+  private List<String> ids(AccountIndex index, BitSet bitSet) {
+    List<String> ids = new ArrayList<>();
+    for (Delegate delegate : delegates) {
+      int position = index.position(delegate.getUuid());
+      if (position >= 0 && bitSet.get(position)) {
+        ids.add(delegate.getUuid());
+      }
+    }
+    return ids;
+  }
+}
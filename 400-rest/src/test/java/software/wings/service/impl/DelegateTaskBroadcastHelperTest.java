@@ -11,6 +11,7 @@ import static io.harness.data.structure.UUIDGenerator.generateUuid;
 import static io.harness.rule.OwnerRule.MARKO;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -21,13 +22,16 @@ import static org.mockito.Mockito.when;
 import io.harness.beans.DelegateTask;
 import io.harness.category.element.UnitTests;
 import io.harness.delegate.beans.TaskData;
+import io.harness.delegate.queueservice.DelegateTaskLeaseService;
 import io.harness.ff.FeatureFlagService;
 import io.harness.rule.Owner;
 
 import software.wings.WingsBaseTest;
 import software.wings.beans.DelegateTaskBroadcast;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
+import java.util.Arrays;
 import org.atmosphere.cpr.Broadcaster;
 import org.atmosphere.cpr.BroadcasterFactory;
 import org.junit.Test;
@@ -39,6 +43,7 @@ import org.mockito.Mock;
 public class DelegateTaskBroadcastHelperTest extends WingsBaseTest {
   @Mock private BroadcasterFactory broadcasterFactory;
   @Mock private FeatureFlagService featureFlagService;
+  @Mock private DelegateTaskLeaseService delegateTaskLeaseService;
   @InjectMocks @Inject private DelegateTaskBroadcastHelper broadcastHelper;
 
   @Test
@@ -71,4 +76,32 @@ public class DelegateTaskBroadcastHelperTest extends WingsBaseTest {
     assertThat(delegateTaskBroadcast.isAsync()).isEqualTo(delegateTask.getData().isAsync());
     assertThat(delegateTaskBroadcast.getPreAssignedDelegateId()).isEqualTo(delegateTask.getPreAssignedDelegateId());
   }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void testRebroadcastOnlyToDelegatesNotPollingForLeases() {
+    DelegateTask delegateTask = DelegateTask.builder()
+                                    .version(generateUuid())
+                                    .accountId(generateUuid())
+                                    .uuid(generateUuid())
+                                    .data(TaskData.builder().async(true).build())
+                                    .broadcastToDelegateIds(Arrays.asList("leasing", "broadcast"))
+                                    .build();
+
+    Broadcaster broadcaster = mock(Broadcaster.class);
+    when(broadcasterFactory.lookup(anyString(), eq(true))).thenReturn(broadcaster);
+    when(delegateTaskLeaseService.isEnabled(delegateTask.getAccountId())).thenReturn(true);
+    when(delegateTaskLeaseService.enqueue(delegateTask)).thenReturn(ImmutableSet.of("leasing"));
+
+    broadcastHelper.rebroadcastDelegateTask(delegateTask);
+
+    ArgumentCaptor<DelegateTaskBroadcast> argumentCaptor = ArgumentCaptor.forClass(DelegateTaskBroadcast.class);
+    verify(broadcaster, times(1)).broadcast(argumentCaptor.capture());
+    assertThat(argumentCaptor.getValue().getBroadcastToDelegatesIds()).containsExactly("broadcast");
+
+    when(delegateTaskLeaseService.enqueue(delegateTask)).thenReturn(ImmutableSet.of("leasing", "broadcast"));
+    broadcastHelper.rebroadcastDelegateTask(delegateTask);
+    verify(broadcaster, times(1)).broadcast(any());
+  }
 }
@@ -132,6 +132,11 @@ public interface DelegateAgentManagerClient {
   Call<DelegateTaskEventsResponse> pollTaskEvents(
       @Path("delegateId") String delegateId, @Query("accountId") String accountId);
 
+  @GET("agent/delegates/{delegateId}/tasks/lease")
+  Call<DelegateTaskEventsResponse> leaseTaskEvents(@Path("delegateId") String delegateId,
+      @Query("accountId") String accountId, @Query("freeSlots") Integer freeSlots,
+      @Query("waitSeconds") long waitSeconds);
+
   @POST("instancesync/instance-sync/{perpetualTaskId}")
   Call<RestResponse<Boolean>> publishInstanceSyncResult(@Path("perpetualTaskId") String perpetualTaskId,
       @Query("accountId") String accountId, @Body DelegateResponseData responseData);
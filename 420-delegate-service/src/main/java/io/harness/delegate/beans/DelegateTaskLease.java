@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.delegate.beans;
+
+import io.harness.annotation.HarnessEntity;
+import io.harness.annotations.StoreIn;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.mongo.index.FdTtlIndex;
+import io.harness.mongo.index.MongoIndex;
+import io.harness.mongo.index.SortCompoundMongoIndex;
+import io.harness.ng.DbAliases;
+import io.harness.persistence.AccountAccess;
+import io.harness.persistence.PersistentEntity;
+import io.harness.persistence.UuidAware;
+
+import com.google.common.collect.ImmutableList;
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import java.util.Date;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldNameConstants;
+
+/**
+ * Queued delegate task waiting to be leased by one of the delegates polling for work. The task sits in the queue of
+ * every delegate group with an eligible delegate polling for leases, a lease hands it to a single delegate until it is
+ * acquired or the lease runs out and the task is delivered again.
+ */
+@Data
+@Builder
+@FieldNameConstants(innerTypeName = "DelegateTaskLeaseKeys")
+@StoreIn(DbAliases.HARNESS)
+@Entity(value = "delegateTaskLeases", noClassnameStored = true)
+@HarnessEntity(exportable = false)
+@OwnedBy(HarnessTeam.DEL)
+public class DelegateTaskLease implements PersistentEntity, UuidAware, AccountAccess {
+  public static List<MongoIndex> mongoIndexes() {
+    return ImmutableList.<MongoIndex>builder()
+        .add(SortCompoundMongoIndex.builder()
+                 .name("byQueue")
+                 .field(DelegateTaskLeaseKeys.accountId)
+                 .field(DelegateTaskLeaseKeys.queues)
+                 .sortField(DelegateTaskLeaseKeys.enqueuedAt)
+                 .build())
+        .build();
+  }
+
+  // same as the delegate task id
+  @Id private String uuid;
+  private String accountId;
+  private String taskType;
+  private boolean sync;
+
+  // delegate group ids of the eligible polling delegates, delegate ids for the delegates outside of a group
+  private List<String> queues;
+  private List<String> eligibleDelegateIds;
+  private long enqueuedAt;
+
+  private String leasedBy;
+  private long leasedUntil;
+  private int deliveries;
+
+  @FdTtlIndex private Date validUntil;
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.delegate.beans;
+
+import io.harness.annotation.HarnessEntity;
+import io.harness.annotations.StoreIn;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.mongo.index.FdTtlIndex;
+import io.harness.ng.DbAliases;
+import io.harness.persistence.AccountAccess;
+import io.harness.persistence.PersistentEntity;
+import io.harness.persistence.UuidAware;
+
+import dev.morphia.annotations.Entity;
+import dev.morphia.annotations.Id;
+import java.util.Date;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldNameConstants;
+
+/**
+ * Delegate which polls for task leases. Queued tasks are leased to these delegates and broadcast to the others, until
+ * the delegate stops polling and the record runs out.
+ */
+@Data
+@Builder
+@FieldNameConstants(innerTypeName = "DelegateTaskLeasePollerKeys")
+@StoreIn(DbAliases.HARNESS)
+@Entity(value = "delegateTaskLeasePollers", noClassnameStored = true)
+@HarnessEntity(exportable = false)
+@OwnedBy(HarnessTeam.DEL)
+public class DelegateTaskLeasePoller implements PersistentEntity, UuidAware, AccountAccess {
+  // same as the delegate id
+  @Id private String uuid;
+  private String accountId;
+  private long lastPolledAt;
+
+  @FdTtlIndex private Date validUntil;
+}
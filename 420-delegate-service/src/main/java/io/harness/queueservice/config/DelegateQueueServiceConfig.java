@@ -8,6 +8,7 @@ package io.harness.queueservice.config;
 
 import io.harness.hsqs.client.model.QueueServiceClientConfig;
 
+import java.util.Map;
 import lombok.Builder;
 import lombok.Value;
 
@@ -17,4 +18,6 @@ public class DelegateQueueServiceConfig {
   boolean enableQueueAndDequeue;
   String topic;
   QueueServiceClientConfig queueServiceClientConfig;
+  // share of the task leases an account gets when accounts compete for them, 1 when not listed
+  Map<String, Integer> accountLeaseWeights;
 }
@@ -15,6 +15,8 @@ import io.harness.delegate.beans.Delegate;
 import io.harness.delegate.beans.DelegateFeedback;
 import io.harness.delegate.beans.DelegateGroup;
 import io.harness.delegate.beans.DelegateRing;
+import io.harness.delegate.beans.DelegateTaskLease;
+import io.harness.delegate.beans.DelegateTaskLeasePoller;
 import io.harness.delegate.beans.VersionOverride;
 import io.harness.executionInfra.ExecutionInfraLocation;
 import io.harness.morphia.MorphiaRegistrar;
@@ -44,6 +46,8 @@ public class DelegateServiceMorphiaRegistrar implements MorphiaRegistrar {
     set.add(DelegateConnectionResult.class);
     set.add(AgentMtlsEndpoint.class);
     set.add(TaskResponse.class);
+    set.add(DelegateTaskLease.class);
+    set.add(DelegateTaskLeasePoller.class);
   }
 
   @Override
@@ -52,6 +52,7 @@ import io.harness.exception.InvalidRequestException;
 import io.harness.filter.dto.FilterDTO;
 import io.harness.filter.service.FilterService;
 import io.harness.ng.beans.PageRequest;
+import io.harness.observer.Subject;
 import io.harness.outbox.api.OutboxService;
 import io.harness.persistence.HPersistence;
 import io.harness.service.intfc.DelegateCache;
@@ -60,6 +61,7 @@ import io.harness.version.VersionInfoManager;
 
 import software.wings.beans.SelectorType;
 import software.wings.service.impl.DelegateDao;
+import software.wings.service.impl.DelegateObserver;
 import software.wings.service.intfc.ownership.OwnedByAccount;
 
 import com.google.inject.Inject;
@@ -90,6 +92,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import javax.validation.executable.ValidateOnExecution;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 @Singleton
@@ -105,6 +108,7 @@ public class DelegateSetupServiceImpl implements DelegateSetupService, OwnedByAc
   @Inject private DelegateRbacHelper delegateRbacHelper;
 
   @Inject private VersionInfoManager versionInfoManager;
+  @Inject @Getter private Subject<DelegateObserver> subject = new Subject<>();
 
   // grpc heartbeat thread is scheduled at 5 mins, hence we are allowing a gap of 15 mins
   private static final long MAX_GRPC_HB_TIMEOUT = TimeUnit.MINUTES.toMillis(15);
@@ -877,6 +881,7 @@ public class DelegateSetupServiceImpl implements DelegateSetupService, OwnedByAc
                                                      .tags(updatedDelegateGroup.getTags())
                                                      .build())
                            .build());
+    subject.fireInform(DelegateObserver::onDelegateTagsUpdated, accountId);
     log.info("Updating tags for delegate group: {} tags:{}", delegateGroupName, String.valueOf(tags.toString()));
     return updatedDelegateGroup;
   }
@@ -949,6 +954,7 @@ public class DelegateSetupServiceImpl implements DelegateSetupService, OwnedByAc
                                                        .tags(updatedDelegateGroup.getTags())
                                                        .build())
                              .build());
+      subject.fireInform(DelegateObserver::onDelegateTagsUpdated, accountIdentifier);
       log.info("Updating tags for delegate group: {} tags: {}", groupIdentifier, delegateGroupTags.getTags());
       return Optional.of(DelegateGroupDTO.convertToDTO(updatedDelegateGroup, null));
     } catch (Exception e) {
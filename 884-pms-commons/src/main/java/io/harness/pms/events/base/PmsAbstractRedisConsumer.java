@@ -31,10 +31,15 @@ import io.harness.queue.QueueController;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -53,6 +58,10 @@ public abstract class PmsAbstractRedisConsumer<T extends PmsAbstractMessageListe
       EmptyPredicate.isNotEmpty(System.getenv("THREAD_SLEEP_MILLIS_WHEN_CONSUMER_IS_BUSY"))
       ? Integer.parseInt(System.getenv("THREAD_SLEEP_MILLIS_WHEN_CONSUMER_IS_BUSY"))
       : 0;
+  // In batch ack mode a batch is acknowledged in one call once all of its handlers have finished, and the blocking
+  // read timeout is used instead of sleeping when a batch comes back short.
+  private static final boolean BATCH_ACK_MODE_ENABLED =
+      Boolean.parseBoolean(System.getenv("PMS_CONSUMER_BATCH_ACK_MODE_ENABLED"));
 
   private static final Duration THRESHOLD_PROCESS_DURATION = Duration.ofMillis(100);
   private static final int SLEEP_SECONDS = 10;
@@ -116,15 +125,23 @@ public abstract class PmsAbstractRedisConsumer<T extends PmsAbstractMessageListe
     }
   }
 
+  protected boolean isBatchAckModeEnabled() {
+    return BATCH_ACK_MODE_ENABLED;
+  }
+
   @VisibleForTesting
   void pollAndProcessMessages() throws InterruptedException {
+    if (isBatchAckModeEnabled()) {
+      pollAndProcessMessagesInBatchAckMode();
+      return;
+    }
     List<Message> messages;
     String messageId;
     boolean messageProcessed;
     messages = redisConsumer.read(Duration.ofSeconds(WAIT_TIME_IN_SECONDS));
     List<Message> processableMessages =
         messages.stream().filter(messageListener::isProcessable).collect(Collectors.toList());
-    List<String> processableMessageIds = processableMessages.stream().map(Message::getId).collect(Collectors.toList());
+    Set<String> processableMessageIds = processableMessages.stream().map(Message::getId).collect(Collectors.toSet());
     if (processableMessages.size() > 0) {
       log.info("Read message with messages with ids [{}] from redis", processableMessageIds);
     }
@@ -152,25 +169,91 @@ public abstract class PmsAbstractRedisConsumer<T extends PmsAbstractMessageListe
     }
   }
 
+  /**
+   * Submits all the processable messages of the batch and waits for their handlers before reading the next batch, so
+   * the consumer never has more than one batch in flight. Messages are acknowledged together once their handlers
+   * succeeded, hence a crash in between leaves them pending to be claimed again. Messages whose handler failed, or
+   * which could not be submitted because the executor is saturated, are left unacknowledged for redelivery. A message
+   * is only recorded as processed in the events cache after its handler succeeded, so that the redelivered ones are
+   * not dropped as duplicates.
+   */
+  @VisibleForTesting
+  void pollAndProcessMessagesInBatchAckMode() throws InterruptedException {
+    List<Message> messages = redisConsumer.read(Duration.ofSeconds(WAIT_TIME_IN_SECONDS));
+    if (messages.isEmpty()) {
+      return;
+    }
+    List<String> messageIdsToAck = new ArrayList<>(messages.size());
+    List<Future<Boolean>> handlerFutures = new ArrayList<>();
+    List<Message> handlerMessages = new ArrayList<>();
+    long readTs = System.currentTimeMillis();
+    for (Message message : messages) {
+      if (!messageListener.isProcessable(message)) {
+        messageIdsToAck.add(message.getId());
+        continue;
+      }
+      if (isProcessed(message)) {
+        messageIdsToAck.add(message.getId());
+        continue;
+      }
+      try {
+        handlerFutures.add(executorService.submit(() -> executeHandler(message, readTs)));
+        handlerMessages.add(message);
+      } catch (RejectedExecutionException ex) {
+        log.warn("[PMS_MESSAGE_LISTENER] Executor is saturated, leaving {} event with messageId {} for redelivery",
+            messageListener.getClass().getSimpleName(), message.getId());
+      }
+    }
+    if (!handlerMessages.isEmpty()) {
+      log.info("Read message with messages with ids [{}] from redis",
+          handlerMessages.stream().map(Message::getId).collect(Collectors.toList()));
+    }
+
+    for (int i = 0; i < handlerFutures.size(); i++) {
+      Message message = handlerMessages.get(i);
+      boolean handled = false;
+      try {
+        handled = Boolean.TRUE.equals(handlerFutures.get(i).get());
+      } catch (ExecutionException ex) {
+        log.error("[PMS_MESSAGE_LISTENER] Exception occurred while processing event with messageId: {}",
+            message.getId(), ex);
+      }
+      if (handled) {
+        markProcessed(message);
+        messageIdsToAck.add(message.getId());
+      } else {
+        log.warn("[PMS_MESSAGE_LISTENER] Leaving {} event with messageId {} unacknowledged for redelivery",
+            messageListener.getClass().getSimpleName(), message.getId());
+      }
+    }
+    redisConsumer.acknowledge(messageIdsToAck.toArray(new String[0]));
+  }
+
   @Override
   protected boolean processMessage(Message message) {
     AtomicBoolean success = new AtomicBoolean(true);
     if (!isAlreadyProcessed(message)) {
       long readTs = System.currentTimeMillis();
-      executorService.submit(() -> {
-        try (AutoLogContext ignore = new MessageLogContext(message)) {
-          // Check and log for time taken to schedule the thread
-          checkAndLogSchedulingDelays(message.getId(), readTs);
-          messageListener.handleMessage(message, getMetricInfo(readTs));
-        } catch (Exception ex) {
-          log.error("[PMS_MESSAGE_LISTENER] Exception occurred while processing {} event with messageId: {}",
-              messageListener.getClass().getSimpleName(), message.getId(), ex);
-        }
-      });
+      executorService.submit(() -> executeHandler(message, readTs));
     }
     return success.get();
   }
 
+  /**
+   * @return whether the handler processed the message
+   */
+  private boolean executeHandler(Message message, long readTs) {
+    try (AutoLogContext ignore = new MessageLogContext(message)) {
+      // Check and log for time taken to schedule the thread
+      checkAndLogSchedulingDelays(message.getId(), readTs);
+      return messageListener.handleMessage(message, getMetricInfo(readTs));
+    } catch (Exception ex) {
+      log.error("[PMS_MESSAGE_LISTENER] Exception occurred while processing {} event with messageId: {}",
+          messageListener.getClass().getSimpleName(), message.getId(), ex);
+      return false;
+    }
+  }
+
   @NotNull
   private Map<String, Object> getMetricInfo(long readTs) {
     Map<String, Object> metricInfo = new HashMap<>();
@@ -195,6 +278,30 @@ public abstract class PmsAbstractRedisConsumer<T extends PmsAbstractMessageListe
     }
   }
 
+  private boolean isProcessed(Message message) {
+    try {
+      String uniqueIdForKey = getUniqueIdForKey(message);
+      boolean isProcessed =
+          eventsCache.containsKey(String.format(CACHE_KEY, this.getClass().getSimpleName(), uniqueIdForKey));
+      if (isProcessed) {
+        log.warn(String.format("Duplicate redis notification received to consumer [%s] with messageId [%s]",
+            this.getClass().getSimpleName(), uniqueIdForKey));
+      }
+      return isProcessed;
+    } catch (Exception ex) {
+      log.error("Exception occurred while checking for duplicate notification", ex);
+      return false;
+    }
+  }
+
+  private void markProcessed(Message message) {
+    try {
+      eventsCache.put(String.format(CACHE_KEY, this.getClass().getSimpleName(), getUniqueIdForKey(message)), 1);
+    } catch (Exception ex) {
+      log.error("Exception occurred while recording the notification in events cache", ex);
+    }
+  }
+
   private String getUniqueIdForKey(Message message) {
     if (message.getMessage().getMetadataMap() == null
         || isEmpty(message.getMessage().getMetadataMap().get(PIE_EVENT_ID))) {
@@ -38,6 +38,8 @@ import lombok.extern.slf4j.Slf4j;
 public abstract class PmsBaseEventHandler<T extends Message> implements PmsCommonsBaseEventHandler<T> {
   public static String EVENT_PROCESS_TIME = "event_process_time";
   public static String EVENT_QUEUED_TIME = "event_queued_time";
+  public static String EVENT_STREAM_LAG = "event_stream_lag";
+  public static String EVENT_HANDLER_LATENCY = "event_handler_latency";
 
   @Inject private PmsGitSyncHelper pmsGitSyncHelper;
   @Inject private EventMonitoringService eventMonitoringService;
@@ -65,12 +67,16 @@ public abstract class PmsBaseEventHandler<T extends Message> implements PmsCommo
          PmsMetricContextGuard metricContext = new PmsMetricContextGuard(extractMetricContext(
              metadataMap, event, (String) metricInfo.get(PmsEventMonitoringConstants.STREAM_NAME)))) {
       log.debug("[PMS_MESSAGE_LISTENER] Starting to process {} event ", event.getClass().getSimpleName());
-      eventMonitoringService.sendMetric(EVENT_QUEUED_TIME,
-          (Long) metricInfo.get(PmsEventMonitoringConstants.EVENT_RECEIVE_TS)
-              - (Long) metricInfo.get(PmsEventMonitoringConstants.EVENT_SEND_TS));
+      long sendTs = (Long) metricInfo.get(PmsEventMonitoringConstants.EVENT_SEND_TS);
+      eventMonitoringService.sendMetric(
+          EVENT_QUEUED_TIME, (Long) metricInfo.get(PmsEventMonitoringConstants.EVENT_RECEIVE_TS) - sendTs);
+      long handlerStartTs = System.currentTimeMillis();
+      // Unlike the queued time this also covers the wait for a consumer thread after the message was read
+      eventMonitoringService.sendMetric(EVENT_STREAM_LAG, handlerStartTs - sendTs);
       handleEventWithContext(event);
-      eventMonitoringService.sendMetric(EVENT_PROCESS_TIME,
-          System.currentTimeMillis() - (Long) metricInfo.get(PmsEventMonitoringConstants.EVENT_SEND_TS));
+      long handlerEndTs = System.currentTimeMillis();
+      eventMonitoringService.sendMetric(EVENT_HANDLER_LATENCY, handlerEndTs - handlerStartTs);
+      eventMonitoringService.sendMetric(EVENT_PROCESS_TIME, handlerEndTs - sendTs);
     } catch (Exception ex) {
       try (AutoLogContext autoLogContext = autoLogContext(event)) {
         log.error("Exception occurred while handling {}", event.getClass().getSimpleName(), ex);
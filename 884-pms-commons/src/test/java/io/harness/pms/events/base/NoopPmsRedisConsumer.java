@@ -17,6 +17,7 @@ import io.harness.eventsframework.api.Consumer;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import javax.cache.Cache;
 
 @OwnedBy(HarnessTeam.PIPELINE)
 @CodePulse(module = ProductModule.CDS, unitCoverageRequired = false, components = {HarnessModuleComponent.CDS_PIPELINE})
@@ -30,4 +31,9 @@ public class NoopPmsRedisConsumer extends PmsAbstractRedisConsumer<NoopPmsMessag
       Consumer redisConsumer, NoopPmsMessageListener messageListener, ExecutorService executorService) {
     super(redisConsumer, messageListener, new NoOpCache<>(), new NoopQueueController(), executorService);
   }
+
+  public NoopPmsRedisConsumer(Consumer redisConsumer, NoopPmsMessageListener messageListener,
+      Cache<String, Integer> eventsCache, ExecutorService executorService) {
+    super(redisConsumer, messageListener, eventsCache, new NoopQueueController(), executorService);
+  }
 }
@@ -13,20 +13,36 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.jooq.tools.reflect.Reflect.on;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.harness.PmsCommonsTestBase;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.category.element.UnitTests;
+import io.harness.eventsframework.consumer.Message;
 import io.harness.monitoring.EventMonitoringService;
 import io.harness.pms.gitsync.PmsGitSyncBranchContextGuard;
 import io.harness.pms.gitsync.PmsGitSyncHelper;
 import io.harness.rule.Owner;
 
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import javax.cache.Cache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -78,4 +94,131 @@ public class PmsAbstractRedisConsumerTest extends PmsCommonsTestBase {
     // Since batchSize was 2 and only 2 events were read. So thread will not sleep.
     assertThat(endTimeMillis - startTimeMillis).isLessThan(200L);
   }
+
+  @Test
+  @Owner(developers = GARVIT)
+  @Category(UnitTests.class)
+  public void shouldAckBatchOnceAfterHandlersInBatchAckMode() throws InterruptedException {
+    NoopPmsMessageListener messageListener = spy(new NoopPmsMessageListener("RANDOM_SERVICE", eventHandler));
+    doReturn(true).when(messageListener).handleMessage(any(), any());
+    NoopRedisConsumer noopRedisConsumer = spy(new NoopRedisConsumer("t", "g", mockClient(), 5));
+    doReturn(messages("1", "2")).when(noopRedisConsumer).read(any());
+    NoopPmsRedisConsumer redisConsumer =
+        new NoopPmsRedisConsumer(noopRedisConsumer, messageListener, MoreExecutors.newDirectExecutorService());
+
+    long startTimeMillis = System.currentTimeMillis();
+    redisConsumer.pollAndProcessMessagesInBatchAckMode();
+    long endTimeMillis = System.currentTimeMillis();
+
+    verify(messageListener, times(2)).handleMessage(any(), any());
+    verify(noopRedisConsumer, times(1)).acknowledge("1", "2");
+    // Relies on the blocking read timeout, so no sleep even if the batch is short
+    assertThat(endTimeMillis - startTimeMillis).isLessThan(200L);
+  }
+
+  @Test
+  @Owner(developers = GARVIT)
+  @Category(UnitTests.class)
+  public void shouldNotAckRejectedMessagesInBatchAckMode() throws InterruptedException {
+    NoopPmsMessageListener messageListener = spy(new NoopPmsMessageListener("RANDOM_SERVICE", eventHandler));
+    NoopRedisConsumer noopRedisConsumer = spy(new NoopRedisConsumer("t", "g", mockClient(), 5));
+    ExecutorService executorService = mock(ExecutorService.class);
+    when(executorService.submit(any(Callable.class))).thenThrow(new RejectedExecutionException());
+    NoopPmsRedisConsumer redisConsumer = new NoopPmsRedisConsumer(noopRedisConsumer, messageListener, executorService);
+
+    redisConsumer.pollAndProcessMessagesInBatchAckMode();
+
+    verify(noopRedisConsumer, times(1)).acknowledge();
+  }
+
+  @Test
+  @Owner(developers = GARVIT)
+  @Category(UnitTests.class)
+  public void shouldNotAckMessagesWhoseHandlerFailedInBatchAckMode() throws InterruptedException {
+    NoopPmsMessageListener messageListener = spy(new NoopPmsMessageListener("RANDOM_SERVICE", eventHandler));
+    doThrow(new IllegalStateException("handler failed"))
+        .doReturn(true)
+        .when(messageListener)
+        .handleMessage(any(), any());
+    NoopRedisConsumer noopRedisConsumer = spy(new NoopRedisConsumer("t", "g", mockClient(), 5));
+    doReturn(messages("1", "2")).when(noopRedisConsumer).read(any());
+    Map<String, Integer> processed = new HashMap<>();
+    NoopPmsRedisConsumer redisConsumer = new NoopPmsRedisConsumer(
+        noopRedisConsumer, messageListener, eventsCache(processed), MoreExecutors.newDirectExecutorService());
+
+    redisConsumer.pollAndProcessMessagesInBatchAckMode();
+
+    verify(noopRedisConsumer, times(1)).acknowledge("2");
+    assertThat(processed).containsOnlyKeys("NoopPmsRedisConsumer_2");
+
+    // the failed message stays pending and is processed once redelivered
+    doReturn(messages("1")).when(noopRedisConsumer).read(any());
+    redisConsumer.pollAndProcessMessagesInBatchAckMode();
+
+    verify(messageListener, times(3)).handleMessage(any(), any());
+    verify(noopRedisConsumer, times(1)).acknowledge("1");
+    assertThat(processed).containsOnlyKeys("NoopPmsRedisConsumer_1", "NoopPmsRedisConsumer_2");
+  }
+
+  @Test
+  @Owner(developers = GARVIT)
+  @Category(UnitTests.class)
+  public void shouldProcessMessagesRedeliveredAfterCrashInBatchAckMode() throws InterruptedException {
+    NoopPmsMessageListener messageListener = spy(new NoopPmsMessageListener("RANDOM_SERVICE", eventHandler));
+    doReturn(true).when(messageListener).handleMessage(any(), any());
+    Map<String, Integer> processed = new HashMap<>();
+    NoopRedisConsumer crashedRedisConsumer = spy(new NoopRedisConsumer("t", "g", mockClient(), 5));
+    doReturn(messages("1", "2")).when(crashedRedisConsumer).read(any());
+    // the handlers never finish, like a consumer going down before acknowledging the batch
+    CompletableFuture<Boolean> crashed = new CompletableFuture<>();
+    crashed.completeExceptionally(new InterruptedException("consumer went down"));
+    ExecutorService crashingExecutorService = mock(ExecutorService.class);
+    when(crashingExecutorService.submit(any(Callable.class))).thenReturn(crashed);
+    new NoopPmsRedisConsumer(crashedRedisConsumer, messageListener, eventsCache(processed), crashingExecutorService)
+        .pollAndProcessMessagesInBatchAckMode();
+
+    verify(crashedRedisConsumer, times(1)).acknowledge();
+    assertThat(processed).isEmpty();
+
+    // another consumer claims the pending messages
+    NoopRedisConsumer claimingRedisConsumer = spy(new NoopRedisConsumer("t", "g", mockClient(), 5));
+    doReturn(messages("1", "2")).when(claimingRedisConsumer).read(any());
+    new NoopPmsRedisConsumer(
+        claimingRedisConsumer, messageListener, eventsCache(processed), MoreExecutors.newDirectExecutorService())
+        .pollAndProcessMessagesInBatchAckMode();
+
+    verify(messageListener, times(2)).handleMessage(any(), any());
+    verify(claimingRedisConsumer, times(1)).acknowledge("1", "2");
+
+    // a duplicate of an already processed message is acknowledged without running the handler again
+    new NoopPmsRedisConsumer(
+        claimingRedisConsumer, messageListener, eventsCache(processed), MoreExecutors.newDirectExecutorService())
+        .pollAndProcessMessagesInBatchAckMode();
+
+    verify(messageListener, times(2)).handleMessage(any(), any());
+    verify(claimingRedisConsumer, times(2)).acknowledge("1", "2");
+  }
+
+  private RedissonClient mockClient() {
+    client = mock(RedissonClient.class);
+    stream = mock(RStream.class);
+    doReturn(stream).when(client).getStream(any(), any());
+    return client;
+  }
+
+  private List<Message> messages(String... ids) {
+    Message message = new NoopRedisConsumer("t", "g", mockClient(), 5).read(null).get(0);
+    return Arrays.stream(ids).map(id -> message.toBuilder().setId(id).build()).collect(Collectors.toList());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Cache<String, Integer> eventsCache(Map<String, Integer> entries) {
+    Cache<String, Integer> eventsCache = mock(Cache.class);
+    when(eventsCache.containsKey(any()))
+        .thenAnswer(invocation -> entries.containsKey(invocation.<String>getArgument(0)));
+    doAnswer(invocation -> entries.put(invocation.getArgument(0), invocation.getArgument(1)))
+        .when(eventsCache)
+        .put(any(), any());
+    return eventsCache;
+  }
 }
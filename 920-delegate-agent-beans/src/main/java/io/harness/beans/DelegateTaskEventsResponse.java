@@ -9,6 +9,8 @@ package io.harness.beans;
 
 import io.harness.delegate.beans.DelegateTaskEvent;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import java.util.List;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,4 +19,7 @@ import lombok.Getter;
 @Builder
 public class DelegateTaskEventsResponse {
   List<DelegateTaskEvent> delegateTaskEvents;
+  // set on the task lease polls when the account does not lease tasks, the delegate polls for leases again later.
+  // Left out otherwise, older delegates fail on unknown properties.
+  @JsonInclude(Include.NON_NULL) Boolean leasingDisabled;
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.delegate.task.helm.base;
+
+import static io.harness.annotations.dev.HarnessTeam.CDP;
+import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.filesystem.FileIo.deleteDirectoryAndItsContentIfExists;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Delegate wide cache of untarred helm charts, keyed by repo url, chart name, chart version and the digest of the chart
+ * archive listed in the repo index. A chart pushed again under the same version gets a new digest and is downloaded
+ * again. Concurrent misses for a chart download it once, every task gets its own copy of the chart. Least recently
+ * used charts are evicted once the cache uses more disk than allowed.
+ */
+@Singleton
+@Slf4j
+@OwnedBy(CDP)
+public class HelmChartCache {
+  private static final String ENABLED_ENV_VAR = "HELM_CHART_CACHE_ENABLED";
+  private static final String MAX_DISK_USAGE_ENV_VAR = "HELM_CHART_CACHE_MAX_DISK_USAGE_MB";
+  private static final long DEFAULT_MAX_DISK_USAGE_MB = 1024;
+  private static final String CHARTS_DIRECTORY = "./repository/helm/charts";
+  private static final String TEMP_DIRECTORY_SUFFIX = ".tmp";
+
+  private final boolean enabled;
+  private final File chartsDirectory;
+  private final long maxDiskUsageBytes;
+  private final ConcurrentMap<String, CachedChart> charts = new ConcurrentHashMap<>();
+  private final LoadingCache<String, ReentrantLock> lockObjects =
+      CacheBuilder.newBuilder().expireAfterAccess(30, TimeUnit.MINUTES).build(CacheLoader.from(ReentrantLock::new));
+
+  @FunctionalInterface
+  public interface ChartDownloader {
+    /**
+     * Downloads and untars the chart into the chart directory of the task.
+     */
+    void download();
+  }
+
+  @Inject
+  public HelmChartCache() {
+    this(Boolean.parseBoolean(System.getenv(ENABLED_ENV_VAR)), new File(CHARTS_DIRECTORY),
+        getMaxDiskUsageMb() * FileUtils.ONE_MB);
+  }
+
+  @VisibleForTesting
+  HelmChartCache(boolean enabled, File chartsDirectory, long maxDiskUsageBytes) {
+    this.enabled = enabled;
+    this.chartsDirectory = chartsDirectory;
+    this.maxDiskUsageBytes = maxDiskUsageBytes;
+    if (enabled) {
+      loadCachedCharts();
+    }
+  }
+
+  private static long getMaxDiskUsageMb() {
+    String maxDiskUsageMb = System.getenv(MAX_DISK_USAGE_ENV_VAR);
+    return StringUtils.isNumeric(maxDiskUsageMb) ? Long.parseLong(maxDiskUsageMb) : DEFAULT_MAX_DISK_USAGE_MB;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Looks up the digest of a chart version in a repo index file written by helm. The index is scanned line by line
+   * instead of being parsed, as indexes of big repos can be tens of megabytes.
+   *
+   * @return the digest, or null if the index doesn't list the chart version with a digest
+   */
+  @Nullable
+  public String findChartDigest(File indexFile, String chartName, String chartVersion) {
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), UTF_8)) {
+      boolean inEntries = false;
+      int chartIndent = -1;
+      int itemIndent = -1;
+      String version = null;
+      String digest = null;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+          continue;
+        }
+        int indent = line.indexOf(trimmed);
+        if (indent == 0) {
+          if (chartIndent >= 0) {
+            break;
+          }
+          inEntries = trimmed.equals("entries:");
+          continue;
+        }
+        if (!inEntries) {
+          continue;
+        }
+        if (chartIndent < 0) {
+          if (trimmed.equals(chartName + ":") || trimmed.equals("\"" + chartName + "\":")) {
+            chartIndent = indent;
+          }
+          continue;
+        }
+        if (indent <= chartIndent && !trimmed.startsWith("- ")) {
+          // the next chart of the index
+          break;
+        }
+        if (trimmed.startsWith("- ") && (itemIndent < 0 || indent == itemIndent)) {
+          // the next version of the chart
+          if (chartVersion.equals(version) && isNotEmpty(digest)) {
+            return digest;
+          }
+          itemIndent = indent;
+          version = null;
+          digest = null;
+          indent += 2;
+          trimmed = trimmed.substring(2).trim();
+        }
+        if (indent == itemIndent + 2) {
+          if (trimmed.startsWith("version:")) {
+            version = unquote(trimmed.substring("version:".length()));
+          } else if (trimmed.startsWith("digest:")) {
+            digest = unquote(trimmed.substring("digest:".length()));
+          }
+        }
+      }
+      return chartVersion.equals(version) && isNotEmpty(digest) ? digest : null;
+    } catch (IOException e) {
+      log.warn("Failed to read digest of chart {} from index {}", chartName, indexFile, e);
+      return null;
+    }
+  }
+
+  /**
+   * Copies the chart into {@code destinationDirectory/chartName}, downloading it first if it isn't cached yet.
+   */
+  public void fetchChart(String repoUrl, String chartName, String chartVersion, String digest, String fetchFlags,
+      String destinationDirectory, ChartDownloader downloader) {
+    String key = DigestUtils.sha256Hex(String.join("\n", repoUrl, chartName, chartVersion, digest, fetchFlags));
+    File chartDirectory = new File(destinationDirectory, chartName);
+    ReentrantLock lock = lockObjects.getUnchecked(key);
+    lock.lock();
+    try {
+      CachedChart cachedChart = charts.get(key);
+      if (cachedChart != null && copyCachedChart(cachedChart, chartDirectory)) {
+        log.info("Using cached chart {} version {} from repo {}", chartName, chartVersion, repoUrl);
+        return;
+      }
+
+      downloader.download();
+      cacheChart(key, chartDirectory);
+    } finally {
+      lock.unlock();
+    }
+    evictIfNeeded(key);
+  }
+
+  @VisibleForTesting
+  long getDiskUsageBytes() {
+    return charts.values().stream().mapToLong(cachedChart -> cachedChart.diskUsageBytes).sum();
+  }
+
+  @VisibleForTesting
+  int getChartCount() {
+    return charts.size();
+  }
+
+  private boolean copyCachedChart(CachedChart cachedChart, File chartDirectory) {
+    try {
+      cachedChart.lastAccessed = System.currentTimeMillis();
+      FileUtils.copyDirectory(cachedChart.directory, chartDirectory);
+      return true;
+    } catch (IOException e) {
+      log.warn("Failed to copy cached helm chart {}, downloading it again", cachedChart.directory, e);
+      charts.remove(cachedChart.key, cachedChart);
+      FileUtils.deleteQuietly(chartDirectory);
+      return false;
+    }
+  }
+
+  private void cacheChart(String key, File chartDirectory) {
+    // copied next to the cache entry first, so that an interrupted copy is never taken for a cached chart
+    File tempDirectory = new File(chartsDirectory, key + "-" + generateUuid() + TEMP_DIRECTORY_SUFFIX);
+    File directory = new File(chartsDirectory, key);
+    try {
+      FileUtils.copyDirectory(chartDirectory, tempDirectory);
+      deleteDirectoryAndItsContentIfExists(directory.getPath());
+      Files.move(tempDirectory.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      CachedChart cachedChart = new CachedChart(key, directory, FileUtils.sizeOfDirectory(directory));
+      cachedChart.lastAccessed = System.currentTimeMillis();
+      charts.put(key, cachedChart);
+    } catch (IOException e) {
+      log.warn("Failed to add helm chart {} to the helm chart cache", chartDirectory, e);
+      FileUtils.deleteQuietly(tempDirectory);
+    }
+  }
+
+  /**
+   * Deletes least recently used charts until the cache fits into the disk usage limit. Charts being copied are skipped,
+   * as well as the chart just fetched.
+   */
+  private synchronized void evictIfNeeded(String fetchedKey) {
+    long diskUsageBytes = getDiskUsageBytes();
+    if (diskUsageBytes <= maxDiskUsageBytes) {
+      return;
+    }
+
+    List<CachedChart> leastRecentlyUsed = charts.values()
+                                              .stream()
+                                              .filter(cachedChart -> !cachedChart.key.equals(fetchedKey))
+                                              .sorted(Comparator.comparingLong(cachedChart -> cachedChart.lastAccessed))
+                                              .collect(Collectors.toList());
+    for (CachedChart cachedChart : leastRecentlyUsed) {
+      if (diskUsageBytes <= maxDiskUsageBytes) {
+        return;
+      }
+      ReentrantLock lock = lockObjects.getUnchecked(cachedChart.key);
+      if (!lock.tryLock()) {
+        continue;
+      }
+      try {
+        charts.remove(cachedChart.key, cachedChart);
+        deleteDirectoryAndItsContentIfExists(cachedChart.directory.getPath());
+        diskUsageBytes -= cachedChart.diskUsageBytes;
+      } catch (IOException e) {
+        log.warn("Failed to delete evicted helm chart {}", cachedChart.directory, e);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Picks up the charts cached before the delegate restarted and drops copies left unfinished.
+   */
+  private void loadCachedCharts() {
+    File[] directories = chartsDirectory.listFiles(File::isDirectory);
+    if (directories == null) {
+      return;
+    }
+    for (File directory : directories) {
+      try {
+        if (directory.getName().endsWith(TEMP_DIRECTORY_SUFFIX)) {
+          deleteDirectoryAndItsContentIfExists(directory.getPath());
+          continue;
+        }
+        CachedChart cachedChart =
+            new CachedChart(directory.getName(), directory, FileUtils.sizeOfDirectory(directory));
+        cachedChart.lastAccessed = directory.lastModified();
+        charts.put(cachedChart.key, cachedChart);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Failed to load cached helm chart {}", directory, e);
+      }
+    }
+  }
+
+  private static String unquote(String value) {
+    return StringUtils.strip(value.trim(), "\"'");
+  }
+
+  private static class CachedChart {
+    private final String key;
+    private final File directory;
+    private final long diskUsageBytes;
+    private volatile long lastAccessed;
+
+    CachedChart(String key, File directory, long diskUsageBytes) {
+      this.key = key;
+      this.directory = directory;
+      this.diskUsageBytes = diskUsageBytes;
+    }
+  }
+}
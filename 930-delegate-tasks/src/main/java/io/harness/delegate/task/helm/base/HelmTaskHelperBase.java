@@ -167,6 +167,7 @@ public class HelmTaskHelperBase {
   @Inject private AwsClient awsClient;
   @Inject private AwsNgConfigMapper awsNgConfigMapper;
   @Inject private HelmCommandRunner helmCommandRunner;
+  @Inject private HelmChartCache helmChartCache;
   public static final String RESOURCE_DIR_BASE = "./repository/helm/resources/";
   public static final String VERSION_KEY = "version:";
   public static final String NAME_KEY = "name:";
@@ -760,9 +761,8 @@ public class HelmTaskHelperBase {
       addRepo(storeDelegateConfig.getRepoName(), storeDelegateConfig.getRepoDisplayName(),
           httpHelmConnector.getHelmRepoUrl(), username, password, destinationDirectory, manifest.getHelmVersion(),
           timeoutInMillis, cacheDir, manifest.getHelmCommandFlag());
-      fetchChartFromRepo(storeDelegateConfig.getRepoName(), storeDelegateConfig.getRepoDisplayName(),
-          manifest.getChartName(), manifest.getChartVersion(), destinationDirectory, manifest.getHelmVersion(),
-          manifest.getHelmCommandFlag(), timeoutInMillis, cacheDir, "");
+      fetchChartFromHttpRepo(httpHelmConnector.getHelmRepoUrl(), storeDelegateConfig, manifest, destinationDirectory,
+          timeoutInMillis, cacheDir);
     } finally {
       if (isNotEmpty(cacheDir) && !manifest.isUseCache()) {
         try {
@@ -775,6 +775,32 @@ public class HelmTaskHelperBase {
     }
   }
 
+  private void fetchChartFromHttpRepo(String repoUrl, HttpHelmStoreDelegateConfig storeDelegateConfig,
+      HelmChartManifestDelegateConfig manifest, String destinationDirectory, long timeoutInMillis, String cacheDir) {
+    HelmChartCache.ChartDownloader chartDownloader = ()
+        -> fetchChartFromRepo(storeDelegateConfig.getRepoName(), storeDelegateConfig.getRepoDisplayName(),
+            manifest.getChartName(), manifest.getChartVersion(), destinationDirectory, manifest.getHelmVersion(),
+            manifest.getHelmCommandFlag(), timeoutInMillis, cacheDir, "");
+    // charts are cached by the digest listed in the repo index, which is only known for a helm cache home
+    String chartDigest = null;
+    if (helmChartCache.isEnabled() && isNotEmpty(cacheDir) && isNotEmpty(manifest.getChartVersion())) {
+      File indexFile = getIndexFile(storeDelegateConfig.getRepoName(), cacheDir, destinationDirectory);
+      chartDigest = helmChartCache.findChartDigest(indexFile, manifest.getChartName(), manifest.getChartVersion());
+    }
+    if (isEmpty(chartDigest)) {
+      chartDownloader.download();
+      return;
+    }
+
+    Map<HelmSubCommandType, String> commandFlagValueMap =
+        manifest.getHelmCommandFlag() != null ? manifest.getHelmCommandFlag().getValueMap() : null;
+    String fetchFlags = commandFlagValueMap != null
+        ? commandFlagValueMap.getOrDefault(HelmSubCommandType.PULL, commandFlagValueMap.get(HelmSubCommandType.FETCH))
+        : null;
+    helmChartCache.fetchChart(repoUrl, manifest.getChartName(), manifest.getChartVersion(), chartDigest, fetchFlags,
+        destinationDirectory, chartDownloader);
+  }
+
   public void downloadChartFilesFromOciRepo(
       HelmChartManifestDelegateConfig manifest, String destinationDirectory, long timeoutInMillis) throws Exception {
     if (!(manifest.getStoreDelegateConfig() instanceof OciHelmStoreDelegateConfig)) {
@@ -1821,17 +1847,11 @@ public class HelmTaskHelperBase {
 
   @VisibleForTesting
   void checkIndexFile(String repoName, String cacheDir, String chartDirectory, String repoDisplayName) {
-    File indexFile;
     if (repoName.isEmpty() && repoDisplayName.isEmpty()) {
       return;
     }
-    if (!isEmpty(cacheDir)) {
-      indexFile =
-          new File(HELM_CACHE_INDEX_FILE.replace(REPO_NAME, repoName).replace(HELM_CACHE_HOME_PLACEHOLDER, cacheDir));
-    } else if (!isEmpty(chartDirectory)) {
-      indexFile = new File(HELM_CACHE_INDEX_FILE_FROM_CHART_DIRECTORY.replace(REPO_NAME, repoName)
-                               .replace(HELM_CACHE_HOME_PLACEHOLDER, chartDirectory));
-    } else {
+    File indexFile = getIndexFile(repoName, cacheDir, chartDirectory);
+    if (indexFile == null) {
       return;
     }
     if (indexFile.exists() && (indexFile.length() > SAFE_LIMIT_OF_INDEX_FILE)) {
@@ -1839,4 +1859,15 @@ public class HelmTaskHelperBase {
       log.warn(String.format(INDEX_FILE_WARN_LOG, repoDisplayName, megabytes));
     }
   }
-}
\ No newline at end of file
+
+  private File getIndexFile(String repoName, String cacheDir, String chartDirectory) {
+    if (!isEmpty(cacheDir)) {
+      return new File(
+          HELM_CACHE_INDEX_FILE.replace(REPO_NAME, repoName).replace(HELM_CACHE_HOME_PLACEHOLDER, cacheDir));
+    } else if (!isEmpty(chartDirectory)) {
+      return new File(HELM_CACHE_INDEX_FILE_FROM_CHART_DIRECTORY.replace(REPO_NAME, repoName)
+                          .replace(HELM_CACHE_HOME_PLACEHOLDER, chartDirectory));
+    }
+    return null;
+  }
+}
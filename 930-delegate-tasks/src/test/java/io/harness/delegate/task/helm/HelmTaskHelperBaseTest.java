@@ -79,6 +79,7 @@ import io.harness.delegate.beans.storeconfig.StoreDelegateConfig;
 import io.harness.delegate.beans.storeconfig.StoreDelegateConfigType;
 import io.harness.delegate.chartmuseum.NgChartmuseumClientFactory;
 import io.harness.delegate.task.aws.AwsNgConfigMapper;
+import io.harness.delegate.task.helm.base.HelmChartCache;
 import io.harness.delegate.task.k8s.HelmChartManifestDelegateConfig;
 import io.harness.delegate.task.k8s.HelmChartManifestDelegateConfig.HelmChartManifestDelegateConfigBuilder;
 import io.harness.encryption.SecretRefData;
@@ -146,6 +147,7 @@ public class HelmTaskHelperBaseTest extends CategoryTest {
   @Mock NgChartmuseumClientFactory ngChartmuseumClientFactory;
   @Mock ChartmuseumClient chartmuseumClient;
   @Mock HelmCommandRunner helmCommandRunner;
+  @Mock HelmChartCache helmChartCache;
 
   @InjectMocks @Spy HelmTaskHelperBase helmTaskHelperBase;
 
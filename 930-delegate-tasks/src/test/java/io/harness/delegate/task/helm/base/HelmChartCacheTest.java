@@ -0,0 +1,187 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.delegate.task.helm.base;
+
+import static io.harness.annotations.dev.HarnessTeam.CDP;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@OwnedBy(CDP)
+public class HelmChartCacheTest extends CategoryTest {
+  private static final String CHART_NAME = "nginx";
+  private static final String INDEX = "apiVersion: v1\n"
+      + "entries:\n"
+      + "  ingress:\n"
+      + "  - digest: 1111\n"
+      + "    name: ingress\n"
+      + "    version: 1.0.0\n"
+      + "  nginx:\n"
+      + "  - apiVersion: v2\n"
+      + "    dependencies:\n"
+      + "    - name: common\n"
+      + "      version: 1.0.0\n"
+      + "    digest: \"2222\"\n"
+      + "    name: nginx\n"
+      + "    urls:\n"
+      + "    - charts/nginx-1.1.0.tgz\n"
+      + "    version: 1.1.0\n"
+      + "  - apiVersion: v2\n"
+      + "    digest: 3333\n"
+      + "    name: nginx\n"
+      + "    urls:\n"
+      + "    - charts/nginx-1.0.0.tgz\n"
+      + "    version: 1.0.0\n"
+      + "generated: \"2023-06-01T00:00:00Z\"\n";
+
+  @Rule
+  public WireMockRule wireMockRule = new WireMockRule(WireMockConfiguration.wireMockConfig().port(0));
+
+  private File workDirectory;
+  private String repoUrl;
+
+  @Before
+  public void setUp() throws IOException {
+    workDirectory = Files.createTempDirectory("helmChartCacheTest").toFile();
+    repoUrl = String.format("http://localhost:%d", wireMockRule.port());
+    wireMockRule.stubFor(get(urlEqualTo("/index.yaml")).willReturn(aResponse().withStatus(200).withBody(INDEX)));
+    wireMockRule.stubFor(get(urlEqualTo("/charts/nginx/Chart.yaml"))
+                             .willReturn(aResponse().withStatus(200).withBody("name: nginx\nversion: 1.0.0\n")));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(workDirectory);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldFindDigestOfChartVersionInRepoIndex() throws IOException {
+    HelmChartCache helmChartCache = newHelmChartCache(Long.MAX_VALUE);
+    File indexFile = downloadIndex();
+
+    assertThat(helmChartCache.findChartDigest(indexFile, CHART_NAME, "1.1.0")).isEqualTo("2222");
+    assertThat(helmChartCache.findChartDigest(indexFile, CHART_NAME, "1.0.0")).isEqualTo("3333");
+    assertThat(helmChartCache.findChartDigest(indexFile, "ingress", "1.0.0")).isEqualTo("1111");
+    assertThat(helmChartCache.findChartDigest(indexFile, CHART_NAME, "2.0.0")).isNull();
+    assertThat(helmChartCache.findChartDigest(indexFile, "common", "1.0.0")).isNull();
+    assertThat(helmChartCache.findChartDigest(new File(workDirectory, "missing.yaml"), CHART_NAME, "1.0.0")).isNull();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldDownloadChartOnceForConcurrentTasks() throws Exception {
+    HelmChartCache helmChartCache = newHelmChartCache(Long.MAX_VALUE);
+    String digest = helmChartCache.findChartDigest(downloadIndex(), CHART_NAME, "1.0.0");
+
+    int tasks = 10;
+    ExecutorService executorService = Executors.newFixedThreadPool(tasks);
+    List<Future<File>> fetches = new ArrayList<>();
+    for (int i = 0; i < tasks; i++) {
+      File destinationDirectory = new File(workDirectory, "task" + i);
+      fetches.add(executorService.submit(() -> {
+        helmChartCache.fetchChart(repoUrl, CHART_NAME, "1.0.0", digest, null, destinationDirectory.getPath(),
+            () -> downloadChart(destinationDirectory));
+        return destinationDirectory;
+      }));
+    }
+    List<File> destinationDirectories = new ArrayList<>();
+    for (Future<File> fetch : fetches) {
+      destinationDirectories.add(fetch.get(30, TimeUnit.SECONDS));
+    }
+    executorService.shutdownNow();
+
+    wireMockRule.verify(1, getRequestedFor(urlEqualTo("/charts/nginx/Chart.yaml")));
+    for (File destinationDirectory : destinationDirectories) {
+      assertThat(new File(destinationDirectory, "nginx/Chart.yaml")).hasContent("name: nginx\nversion: 1.0.0\n");
+    }
+    // every task gets its own copy
+    FileUtils.writeStringToFile(new File(destinationDirectories.get(0), "nginx/Chart.yaml"), "changed", UTF_8);
+    assertThat(new File(destinationDirectories.get(1), "nginx/Chart.yaml")).hasContent("name: nginx\nversion: 1.0.0\n");
+    assertThat(helmChartCache.getChartCount()).isEqualTo(1);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldDownloadAgainForNewDigestAndEvictLeastRecentlyUsedCharts() {
+    HelmChartCache helmChartCache = newHelmChartCache(1);
+    fetchChart(helmChartCache, "3333", "task0");
+    fetchChart(helmChartCache, "3333", "task1");
+    wireMockRule.verify(1, getRequestedFor(urlEqualTo("/charts/nginx/Chart.yaml")));
+
+    // the chart got pushed again under the same version
+    fetchChart(helmChartCache, "4444", "task2");
+    wireMockRule.verify(2, getRequestedFor(urlEqualTo("/charts/nginx/Chart.yaml")));
+    // every chart is above the limit, only the one fetched last is kept
+    assertThat(helmChartCache.getChartCount()).isEqualTo(1);
+    assertThat(new File(workDirectory, "charts").list()).hasSize(1);
+
+    // charts cached before a restart are kept
+    assertThat(newHelmChartCache(Long.MAX_VALUE).getChartCount()).isEqualTo(1);
+  }
+
+  private HelmChartCache newHelmChartCache(long maxDiskUsageBytes) {
+    return new HelmChartCache(true, new File(workDirectory, "charts"), maxDiskUsageBytes);
+  }
+
+  private void fetchChart(HelmChartCache helmChartCache, String digest, String task) {
+    File destinationDirectory = new File(workDirectory, task);
+    helmChartCache.fetchChart(repoUrl, CHART_NAME, "1.0.0", digest, null, destinationDirectory.getPath(),
+        () -> downloadChart(destinationDirectory));
+    assertThat(new File(destinationDirectory, "nginx/Chart.yaml")).exists();
+  }
+
+  private File downloadIndex() throws IOException {
+    File indexFile = new File(workDirectory, "nginx-index.yaml");
+    FileUtils.copyURLToFile(new URL(repoUrl + "/index.yaml"), indexFile);
+    return indexFile;
+  }
+
+  // stands in for helm pull --untar
+  private void downloadChart(File destinationDirectory) {
+    try (InputStream chartYaml = new URL(repoUrl + "/charts/nginx/Chart.yaml").openStream()) {
+      FileUtils.copyInputStreamToFile(chartYaml, new File(destinationDirectory, "nginx/Chart.yaml"));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -11,8 +11,6 @@ import static io.harness.data.structure.EmptyPredicate.isEmpty;
 import static io.harness.expression.SecretString.SECRET_MASK;
 import static io.harness.windows.CmdUtils.WIN_RM_MARKER;
 
-import static org.apache.commons.lang3.StringUtils.replaceEach;
-
 import io.harness.annotations.dev.CodePulse;
 import io.harness.annotations.dev.HarnessModuleComponent;
 import io.harness.annotations.dev.ProductModule;
@@ -23,17 +21,23 @@ import io.harness.windows.CmdUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.Builder;
 
 @CodePulse(
     module = ProductModule.CDS, unitCoverageRequired = true, components = {HarnessModuleComponent.CDS_COMMON_STEPS})
-@Builder
 public class LogStreamingSanitizer {
   private final Set<String> secrets;
+  // secrets are fixed for the lifetime of the sanitizer, so the matchers are built once instead of once per line
+  private final SecretMatcher secretMatcher;
+  private volatile SecretMatcher winRmSecretMatcher;
+
+  @Builder
   public LogStreamingSanitizer(Set<String> secrets) {
     this.secrets = calculateSecretLines(secrets);
+    this.secretMatcher = buildSecretMatcher(this.secrets);
   }
 
   public void sanitizeLogMessage(LogLine logLine) {
@@ -49,21 +53,10 @@ public class LogStreamingSanitizer {
 
     if (!isEmpty(secrets)) {
       boolean isWinRm = markers != null && markers.contains(WIN_RM_MARKER);
-      Set<String> allSecrets = isWinRm ? new HashSet<>(secrets) : secrets;
-      if (isWinRm) {
-        secrets.stream().map(CmdUtils::escapeEnvValueSpecialChars).collect(Collectors.toCollection(() -> allSecrets));
+      SecretMatcher matcher = isWinRm ? getWinRmSecretMatcher() : secretMatcher;
+      if (matcher != null) {
+        sanitizedLogMessage = matcher.mask(sanitizedLogMessage, SECRET_MASK);
       }
-
-      ArrayList<String> secretMasks = new ArrayList<>();
-      ArrayList<String> secretValues = new ArrayList<>();
-      for (String secret : allSecrets) {
-        secretMasks.add(SECRET_MASK);
-        secretValues.add(secret);
-
-        addSecretMasksWithQuotesRemoved(secret, secretMasks, secretValues);
-      }
-      sanitizedLogMessage = replaceEach(
-          logLine.getMessage(), secretValues.toArray(new String[] {}), secretMasks.toArray(new String[] {}));
     }
 
     // JWT mask
@@ -71,6 +64,17 @@ public class LogStreamingSanitizer {
     logLine.setMessage(sanitizedLogMessage);
   }
 
+  private SecretMatcher getWinRmSecretMatcher() {
+    SecretMatcher matcher = winRmSecretMatcher;
+    if (matcher == null) {
+      Set<String> allSecrets = new HashSet<>(secrets);
+      secrets.stream().map(CmdUtils::escapeEnvValueSpecialChars).collect(Collectors.toCollection(() -> allSecrets));
+      matcher = buildSecretMatcher(allSecrets);
+      winRmSecretMatcher = matcher;
+    }
+    return matcher;
+  }
+
   private static Set<String> calculateSecretLines(Set<String> secrets) {
     if (isEmpty(secrets)) {
       return new HashSet<>();
@@ -83,16 +87,26 @@ public class LogStreamingSanitizer {
         .collect(Collectors.toSet());
   }
 
-  private void addSecretMasksWithQuotesRemoved(
-      String secret, ArrayList<String> secretMasks, ArrayList<String> secretValues) {
+  private static SecretMatcher buildSecretMatcher(Set<String> secrets) {
+    if (isEmpty(secrets)) {
+      return null;
+    }
+    // the order matters when secrets overlap, it is the order in which replaceEach used to get them
+    List<String> secretValues = new ArrayList<>();
+    for (String secret : secrets) {
+      secretValues.add(secret);
+      addSecretsWithQuotesRemoved(secret, secretValues);
+    }
+    return SecretMatcher.of(secretValues);
+  }
+
+  private static void addSecretsWithQuotesRemoved(String secret, List<String> secretValues) {
     String secretWithDoubleQuoteRemoved = secret.replaceAll("\"", "");
     if (!secretWithDoubleQuoteRemoved.equals(secret)) {
-      secretMasks.add(SECRET_MASK);
       secretValues.add(secretWithDoubleQuoteRemoved);
     }
     String secretWithSingleQuoteRemoved = secret.replaceAll("\'", "");
     if (!secretWithSingleQuoteRemoved.equals(secret)) {
-      secretMasks.add(SECRET_MASK);
       secretValues.add(secretWithSingleQuoteRemoved);
     }
   }
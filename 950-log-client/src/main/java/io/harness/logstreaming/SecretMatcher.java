@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.logstreaming;
+
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over a list of secrets which replaces every secret found in a text with a mask in a single
+ * pass. Matches are picked exactly like StringUtils.replaceEach does: the leftmost match wins, a tie at the same
+ * position goes to the secret which comes first in the list, and the search resumes right after the replaced match.
+ */
+final class SecretMatcher {
+  private static final int ROOT = 0;
+  private static final int NONE = -1;
+
+  private final char[][] transitionChars;
+  private final int[][] transitionStates;
+  private final int[] failure;
+  // closest state, this one included, which ends a secret, following failure links
+  private final int[] output;
+  // closest state, this one excluded, which ends a secret, following failure links
+  private final int[] nextOutput;
+  private final int[] depth;
+  private final int[] priority;
+
+  private SecretMatcher(List<Map<Character, Integer>> transitions, int[] depth, int[] priority) {
+    int states = transitions.size();
+    this.transitionChars = new char[states][];
+    this.transitionStates = new int[states][];
+    this.failure = new int[states];
+    this.output = new int[states];
+    this.nextOutput = new int[states];
+    this.depth = depth;
+    this.priority = priority;
+    for (int state = 0; state < states; state++) {
+      Map<Character, Integer> stateTransitions = transitions.get(state);
+      transitionChars[state] = new char[stateTransitions.size()];
+      transitionStates[state] = new int[stateTransitions.size()];
+      int i = 0;
+      // a TreeMap, so the chars come out sorted for the binary search in next
+      for (Map.Entry<Character, Integer> transition : stateTransitions.entrySet()) {
+        transitionChars[state][i] = transition.getKey();
+        transitionStates[state][i] = transition.getValue();
+        i++;
+      }
+    }
+    buildFailureLinks();
+  }
+
+  /**
+   * Builds a matcher for the given secrets, empty and duplicate secrets are ignored. Returns null if there is nothing
+   * to match.
+   */
+  static SecretMatcher of(List<String> secrets) {
+    List<Map<Character, Integer>> transitions = new ArrayList<>();
+    transitions.add(new TreeMap<>());
+    int[] depth = new int[16];
+    int[] priority = new int[16];
+    Arrays.fill(priority, NONE);
+    boolean hasSecrets = false;
+    for (int index = 0; index < secrets.size(); index++) {
+      String secret = secrets.get(index);
+      if (isEmpty(secret)) {
+        continue;
+      }
+      hasSecrets = true;
+      int state = ROOT;
+      for (int i = 0; i < secret.length(); i++) {
+        Integer nextState = transitions.get(state).get(secret.charAt(i));
+        if (nextState == null) {
+          nextState = transitions.size();
+          transitions.add(new TreeMap<>());
+          transitions.get(state).put(secret.charAt(i), nextState);
+          if (nextState == depth.length) {
+            depth = Arrays.copyOf(depth, depth.length * 2);
+            priority = Arrays.copyOf(priority, priority.length * 2);
+            Arrays.fill(priority, nextState, priority.length, NONE);
+          }
+          depth[nextState] = i + 1;
+        }
+        state = nextState;
+      }
+      if (priority[state] == NONE) {
+        priority[state] = index;
+      }
+    }
+    return hasSecrets ? new SecretMatcher(transitions, depth, priority) : null;
+  }
+
+  String mask(String text, String mask) {
+    StringBuilder masked = null;
+    int copied = 0;
+    int position = 0;
+    while (position < text.length()) {
+      int matchStart = NONE;
+      int matchEnd = NONE;
+      int matchPriority = Integer.MAX_VALUE;
+      int state = ROOT;
+      for (int i = position; i < text.length(); i++) {
+        state = next(state, text.charAt(i));
+        for (int found = output[state]; found != NONE; found = nextOutput[found]) {
+          int start = i + 1 - depth[found];
+          if (matchStart == NONE || start < matchStart || (start == matchStart && priority[found] < matchPriority)) {
+            matchStart = start;
+            matchEnd = i + 1;
+            matchPriority = priority[found];
+          }
+        }
+        if (matchStart != NONE && i + 1 - depth[state] > matchStart) {
+          // no partial match starting at or before the best match is alive anymore, so nothing can beat it
+          break;
+        }
+      }
+      if (matchStart == NONE) {
+        break;
+      }
+      if (masked == null) {
+        masked = new StringBuilder(text.length());
+      }
+      masked.append(text, copied, matchStart).append(mask);
+      copied = matchEnd;
+      position = matchEnd;
+    }
+    if (masked == null) {
+      return text;
+    }
+    return masked.append(text, copied, text.length()).toString();
+  }
+
+  private int next(int state, char c) {
+    while (true) {
+      int i = Arrays.binarySearch(transitionChars[state], c);
+      if (i >= 0) {
+        return transitionStates[state][i];
+      }
+      if (state == ROOT) {
+        return ROOT;
+      }
+      state = failure[state];
+    }
+  }
+
+  private void buildFailureLinks() {
+    Deque<Integer> queue = new ArrayDeque<>();
+    failure[ROOT] = ROOT;
+    output[ROOT] = NONE;
+    nextOutput[ROOT] = NONE;
+    queue.add(ROOT);
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (int i = 0; i < transitionChars[state].length; i++) {
+        int child = transitionStates[state][i];
+        failure[child] = state == ROOT ? ROOT : next(failure[state], transitionChars[state][i]);
+        nextOutput[child] = output[failure[child]];
+        output[child] = priority[child] == NONE ? nextOutput[child] : child;
+        queue.add(child);
+      }
+    }
+  }
+}
@@ -15,16 +15,25 @@ import static io.harness.rule.OwnerRule.VITALIE;
 import static io.harness.windows.CmdUtils.WIN_RM_MARKER;
 
 import io.harness.CategoryTest;
+import io.harness.category.element.StressTests;
 import io.harness.category.element.UnitTests;
 import io.harness.rule.Owner;
 
 import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.assertj.core.api.Assertions;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+@Slf4j
 public class LogStreamingSanitizerTest extends CategoryTest {
   @Test
   @Owner(developers = MARKO)
@@ -138,4 +147,88 @@ public class LogStreamingSanitizerTest extends CategoryTest {
     logStreamingSanitizer.sanitizeLogMessage(logLine, Set.of(WIN_RM_MARKER));
     Assertions.assertThat(logLine.getMessage()).isEqualTo(sanitizedMessage);
   }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldPreferLeftmostAndThenFirstSecretWhenSecretsOverlap() {
+    SecretMatcher matcher = SecretMatcher.of(Arrays.asList("abc", "ab", "bcd", "", "ab"));
+
+    Assertions.assertThat(matcher.mask("xabcdx", "*")).isEqualTo("x*dx");
+    Assertions.assertThat(matcher.mask("xbcdabx", "*")).isEqualTo("x**x");
+    Assertions.assertThat(matcher.mask("no match", "*")).isEqualTo("no match");
+    Assertions.assertThat(SecretMatcher.of(Arrays.asList("", null))).isNull();
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(UnitTests.class)
+  public void shouldMaskLikeReplaceEach() {
+    Random random = new Random(42);
+    String alphabet = "ab\"'c";
+    for (int i = 0; i < 10000; i++) {
+      List<String> secrets = new ArrayList<>();
+      for (int j = random.nextInt(6); j >= 0; j--) {
+        secrets.add(randomString(random, alphabet, random.nextInt(5)));
+      }
+      String text = randomString(random, alphabet, random.nextInt(30));
+
+      SecretMatcher matcher = SecretMatcher.of(secrets);
+
+      Assertions.assertThat(matcher == null ? text : matcher.mask(text, SECRET_MASK))
+          .describedAs("secrets %s in %s", secrets, text)
+          .isEqualTo(replaceEach(text, secrets));
+    }
+  }
+
+  @Test
+  @Owner(developers = MARKO)
+  @Category(StressTests.class)
+  @Ignore("This is a log sanitizer benchmark, we should ignore it to allow for simple run of unit tests")
+  public void sanitizePerformance() {
+    int lines = 20000;
+    for (int secretCount : new int[] {1, 10, 100, 1000}) {
+      for (int lineLength : new int[] {80, 1000, 10000}) {
+        List<String> secrets = new ArrayList<>();
+        for (int i = 0; i < secretCount; i++) {
+          secrets.add("secret-" + i + "-value");
+        }
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; line.length() < lineLength; i++) {
+          line.append("+ echo step ").append(i).append(i % 10 == 0 ? " secret-" + i + "-value " : " done ");
+        }
+        String message = line.substring(0, lineLength);
+        LogStreamingSanitizer sanitizer = LogStreamingSanitizer.builder().secrets(new HashSet<>(secrets)).build();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < lines; i++) {
+          replaceEach(message, secrets);
+        }
+        long replaceEach = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < lines; i++) {
+          sanitizer.sanitizeLogMessage(LogLine.builder().message(message).build());
+        }
+        long sanitizer = System.nanoTime() - start;
+
+        log.info("{} secrets, {} chars per line: replaceEach {} ms, sanitizer {} ms for {} lines", secretCount,
+            lineLength, replaceEach / 1000000, sanitizer / 1000000, lines);
+      }
+    }
+  }
+
+  private static String replaceEach(String text, List<String> secrets) {
+    String[] masks = new String[secrets.size()];
+    Arrays.fill(masks, SECRET_MASK);
+    return StringUtils.replaceEach(text, secrets.toArray(new String[] {}), masks);
+  }
+
+  private static String randomString(Random random, String alphabet, int length) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return builder.toString();
+  }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.waiter;
+
+import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.tasks.ResponseData;
+import io.harness.waiter.persistence.PersistenceWrapper;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of the wait instances created in this process and of the responses for them produced in this process
+ * too. Once the last response of such a wait instance arrives, its callback runs here with the response objects as they
+ * were handed to {@link WaitNotifyEngine#doneWith}, without going through the notify queue, fetching the wait instance
+ * again and inflating the stored responses.
+ *
+ * Mongo stays the source of truth. Responses are still stored and pulled from the wait instance before they get here,
+ * and the wait instance is claimed before its callback runs, so a response produced in another process, an evicted
+ * entry or a crash leave the wait instance to the notify queue and the notify response cleaner. Only the deletes of the
+ * processed wait instances are batched.
+ */
+@Singleton
+@Slf4j
+@OwnedBy(HarnessTeam.PIPELINE)
+public class CoLocatedWaitRegistry {
+  private static final long MAX_PENDING_WAITS = 100_000;
+  private static final long PENDING_WAIT_TTL_HOURS = 6;
+  private static final int MAX_QUEUED_CALLBACKS = 1000;
+  private static final long DELETE_FLUSH_INTERVAL_MILLIS = 50;
+  private static final int MAX_DELETE_BATCH_SIZE = 500;
+
+  private final PersistenceWrapper persistenceWrapper;
+  private final NotifyEventListenerHelper notifyEventListenerHelper;
+  private final boolean enabled;
+  private final Cache<String, PendingWait> pendingWaits;
+  private final LinkedBlockingQueue<WaitInstance> pendingDeletes = new LinkedBlockingQueue<>();
+  private final ExecutorService callbackExecutor;
+
+  @Inject
+  public CoLocatedWaitRegistry(WaiterConfiguration waiterConfiguration, PersistenceWrapper persistenceWrapper,
+      NotifyEventListenerHelper notifyEventListenerHelper) {
+    this.persistenceWrapper = persistenceWrapper;
+    this.notifyEventListenerHelper = notifyEventListenerHelper;
+    this.enabled = waiterConfiguration.isCoLocatedCallbacksEnabled();
+    this.pendingWaits = CacheBuilder.newBuilder()
+                            .maximumSize(MAX_PENDING_WAITS)
+                            .expireAfterWrite(PENDING_WAIT_TTL_HOURS, TimeUnit.HOURS)
+                            .build();
+    if (enabled) {
+      int threads = waiterConfiguration.getCoLocatedCallbackThreads();
+      callbackExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<>(MAX_QUEUED_CALLBACKS),
+          new ThreadFactoryBuilder().setNameFormat("co-located-callback-%d").setDaemon(true).build());
+      ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("co-located-wait-delete").setDaemon(true).build());
+      flushExecutor.scheduleWithFixedDelay(
+          this::flushDeletes, DELETE_FLUSH_INTERVAL_MILLIS, DELETE_FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    } else {
+      callbackExecutor = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  void register(String waitInstanceId) {
+    if (enabled) {
+      pendingWaits.put(waitInstanceId, new PendingWait());
+    }
+  }
+
+  void forget(String waitInstanceId) {
+    if (enabled) {
+      pendingWaits.invalidate(waitInstanceId);
+    }
+  }
+
+  /**
+   * Records a response for a wait instance, as returned by the pull of its correlation id.
+   *
+   * @return true if the wait instance is taken care of here, false if it has to go through the notify queue once it is
+   *     not waiting anymore
+   */
+  boolean onResponse(WaitInstance waitInstance, String correlationId, ResponseData response, boolean error) {
+    if (!enabled) {
+      return false;
+    }
+    final PendingWait pendingWait = pendingWaits.getIfPresent(waitInstance.getUuid());
+    if (pendingWait == null) {
+      return false;
+    }
+
+    final ProcessedMessageResponse processedMessageResponse;
+    synchronized (pendingWait) {
+      pendingWait.responses.put(correlationId, response);
+      pendingWait.error = pendingWait.error || error;
+      if (isNotEmpty(waitInstance.getWaitingOnCorrelationIds())) {
+        return true;
+      }
+
+      // Only the pull which took the last correlation id gets here
+      pendingWaits.invalidate(waitInstance.getUuid());
+      if (!pendingWait.responses.keySet().containsAll(waitInstance.getCorrelationIds())) {
+        // Some of the responses were produced in another process, or before the wait instance was registered
+        return false;
+      }
+      processedMessageResponse = ProcessedMessageResponse.builder()
+                                     .isError(pendingWait.error)
+                                     .responseDataMap(new HashMap<>(pendingWait.responses))
+                                     .build();
+    }
+
+    try {
+      callbackExecutor.execute(() -> process(waitInstance.getUuid(), processedMessageResponse));
+      return true;
+    } catch (RejectedExecutionException exception) {
+      log.warn("Too many co-located callbacks queued, WaitInstance {} goes through the notify queue",
+          waitInstance.getUuid());
+      return false;
+    }
+  }
+
+  private void process(String waitInstanceId, ProcessedMessageResponse response) {
+    try {
+      WaitInstance waitInstance = notifyEventListenerHelper.onCoLocatedMessage(waitInstanceId, response);
+      if (waitInstance != null) {
+        scheduleDelete(waitInstance);
+      }
+    } catch (Exception exception) {
+      log.error("Failed to process co-located callback for WaitInstance {}", waitInstanceId, exception);
+    }
+  }
+
+  @VisibleForTesting
+  void scheduleDelete(WaitInstance waitInstance) {
+    pendingDeletes.add(waitInstance);
+  }
+
+  /**
+   * Deletes the processed wait instances in batches. A batch which fails to delete goes back to the queue and is retried
+   * with the next flush, a processed wait instance left behind would have its callback run again once its processing
+   * time is over.
+   */
+  @VisibleForTesting
+  void flushDeletes() {
+    List<WaitInstance> batch = new ArrayList<>();
+    while (pendingDeletes.drainTo(batch, MAX_DELETE_BATCH_SIZE) > 0) {
+      try {
+        persistenceWrapper.deleteWaitInstances(batch);
+      } catch (Exception exception) {
+        log.error("Failed to delete {} processed WaitInstances, retrying with the next flush", batch.size(), exception);
+        pendingDeletes.addAll(batch);
+        return;
+      }
+      batch.clear();
+    }
+  }
+
+  private static class PendingWait {
+    private final Map<String, ResponseData> responses = new HashMap<>();
+    private boolean error;
+  }
+}
@@ -50,11 +50,7 @@ public class NotifyEventListenerHelper {
 
       ProcessedMessageResponse response = persistenceWrapper.processMessage(waitInstance);
 
-      NotifyCallback callback = waitInstance.getCallback();
-      if (callback != null) {
-        injector.injectMembers(callback);
-        processCallback(callback, response.getResponseDataMap(), response.isError());
-      }
+      runCallback(waitInstance, response);
 
       persistenceWrapper.deleteWaitInstance(waitInstance);
 
@@ -62,6 +58,35 @@ public class NotifyEventListenerHelper {
     }
   }
 
+  /**
+   * Same as {@link #onMessage} for a wait instance whose responses are already at hand. The processed wait instance is
+   * returned for the caller to delete, null if it was already handled.
+   */
+  WaitInstance onCoLocatedMessage(String waitInstanceId, ProcessedMessageResponse response) {
+    try (AutoLogContext ignore = new WaitInstanceLogContext(waitInstanceId, OVERRIDE_ERROR)) {
+      final long now = System.currentTimeMillis();
+      WaitInstance waitInstance = waitInstanceService.fetchForProcessingWaitInstance(waitInstanceId, now);
+
+      if (waitInstance == null) {
+        log.warn("WaitInstance was already handled!");
+        return null;
+      }
+
+      runCallback(waitInstance, response);
+
+      waitInstanceService.checkProcessingTime(now);
+      return waitInstance;
+    }
+  }
+
+  private void runCallback(WaitInstance waitInstance, ProcessedMessageResponse response) {
+    NotifyCallback callback = waitInstance.getCallback();
+    if (callback != null) {
+      injector.injectMembers(callback);
+      processCallback(callback, response.getResponseDataMap(), response.isError());
+    }
+  }
+
   private void processCallback(NotifyCallback notifyCallback, Map<String, ResponseData> responseMap, boolean isError) {
     try {
       if (notifyCallback instanceof OldNotifyCallback) {
@@ -57,6 +57,7 @@ public class WaitNotifyEngine {
   @Inject private KryoSerializer kryoSerializer;
   @Inject @Named("referenceFalseKryoSerializer") private KryoSerializer referenceFalseKryoSerializer;
   @Inject private NotifyQueuePublisherRegister publisherRegister;
+  @Inject private CoLocatedWaitRegistry coLocatedWaitRegistry;
 
   public String waitForAllOn(String publisherName, NotifyCallback notifyCallback, String... correlationIds) {
     return waitForAllOn(publisherName, notifyCallback, null, correlationIds);
@@ -103,13 +104,16 @@ public class WaitNotifyEngine {
     waitInstanceBuilder.correlationIds(list).waitingOnCorrelationIds(list);
 
     final String waitInstanceId = persistenceWrapper.saveWithTimeout(waitInstanceBuilder.build(), timeout);
+    coLocatedWaitRegistry.register(waitInstanceId);
 
     WaitInstance waitInstance;
     if ((waitInstance = persistenceWrapper.modifyAndFetchWaitInstanceForExistingResponse(waitInstanceId, list))
         != null) {
-      if (isEmpty(waitInstance.getWaitingOnCorrelationIds())
-          && waitInstance.getCallbackProcessingAt() < System.currentTimeMillis()) {
-        sendNotification(waitInstance);
+      if (isEmpty(waitInstance.getWaitingOnCorrelationIds())) {
+        coLocatedWaitRegistry.forget(waitInstanceId);
+        if (waitInstance.getCallbackProcessingAt() < System.currentTimeMillis()) {
+          sendNotification(waitInstance);
+        }
       }
     }
 
@@ -156,19 +160,24 @@ public class WaitNotifyEngine {
     try {
       final Stopwatch stopwatch = Stopwatch.createStarted();
       long doneWithStartTime = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+      final boolean isError = error || response instanceof ErrorResponseData;
       persistenceWrapper.save(NotifyResponse.builder()
                                   .uuid(correlationId)
                                   .createdAt(currentTimeMillis())
                                   .usingKryoWithoutReference(true)
                                   .responseData(referenceFalseKryoSerializer.asDeflatedBytes(response))
-                                  .error(error || response instanceof ErrorResponseData)
+                                  .error(isError)
                                   .build());
       long queryEndTime = stopwatch.elapsed(TimeUnit.MILLISECONDS);
 
       if (log.isDebugEnabled()) {
         log.debug("Process NotifyResponse mongo queryTime {}", queryEndTime - doneWithStartTime);
       }
-      handleNotifyResponse(correlationId);
+      if (coLocatedWaitRegistry.isEnabled()) {
+        handleNotifyResponse(correlationId, response, isError);
+      } else {
+        handleNotifyResponse(correlationId);
+      }
       return correlationId;
     } catch (DuplicateKeyException | org.springframework.dao.DuplicateKeyException exception) {
       log.warn("Unexpected rate of DuplicateKeyException per correlation", exception);
@@ -204,6 +213,16 @@ public class WaitNotifyEngine {
     }
   }
 
+  private void handleNotifyResponse(String correlationId, ResponseData response, boolean error) {
+    WaitInstance waitInstance;
+    while ((waitInstance = persistenceWrapper.modifyAndFetchWaitInstance(correlationId)) != null) {
+      if (!coLocatedWaitRegistry.onResponse(waitInstance, correlationId, response, error)
+          && isEmpty(waitInstance.getWaitingOnCorrelationIds())) {
+        sendNotification(waitInstance);
+      }
+    }
+  }
+
   public boolean doneWithWithoutCallback(@NonNull String correlationId) {
     try {
       WaitInstance waitInstance;
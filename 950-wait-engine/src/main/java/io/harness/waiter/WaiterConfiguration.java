@@ -21,4 +21,7 @@ public class WaiterConfiguration {
   public enum PersistenceLayer { SPRING, MORPHIA }
   public boolean versioningDisabled;
   @Default PersistenceLayer persistenceLayer = PersistenceLayer.MORPHIA;
+  // runs callbacks of wait instances created in this process directly, without going through the notify queue
+  boolean coLocatedCallbacksEnabled;
+  @Default int coLocatedCallbackThreads = 10;
 }
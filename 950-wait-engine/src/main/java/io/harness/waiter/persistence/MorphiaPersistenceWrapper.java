@@ -74,6 +74,16 @@ public class MorphiaPersistenceWrapper implements PersistenceWrapper {
     delete(entity);
   }
 
+  @Override
+  public void deleteWaitInstances(List<WaitInstance> entities) {
+    if (isEmpty(entities)) {
+      return;
+    }
+    hPersistence.delete(hPersistence.createQuery(WaitInstance.class, excludeAuthority)
+                            .field(WaitInstanceKeys.uuid)
+                            .in(entities.stream().map(WaitInstance::getUuid).collect(toList())));
+  }
+
   @Override
   public ProcessedMessageResponse processMessage(WaitInstance waitInstance) {
     boolean isError = false;
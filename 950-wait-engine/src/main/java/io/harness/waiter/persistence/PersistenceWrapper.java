@@ -26,6 +26,8 @@ public interface PersistenceWrapper {
 
   void deleteWaitInstance(WaitInstance entity);
 
+  void deleteWaitInstances(List<WaitInstance> entities);
+
   WaitInstance modifyAndFetchWaitInstance(String waitingOnCorrelationId);
 
   WaitInstance modifyAndFetchWaitInstanceForExistingResponse(String waitInstanceId, List<String> notifyResponseIds);
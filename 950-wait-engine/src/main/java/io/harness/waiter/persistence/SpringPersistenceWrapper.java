@@ -19,6 +19,7 @@ import static org.springframework.data.mongodb.core.query.Query.query;
 
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.data.structure.EmptyPredicate;
 import io.harness.exception.GeneralException;
 import io.harness.exception.InvalidArgumentsException;
 import io.harness.mongo.helper.SecondaryMongoTemplateHolder;
@@ -125,6 +126,24 @@ public class SpringPersistenceWrapper implements PersistenceWrapper {
     }));
   }
 
+  @Override
+  public void deleteWaitInstances(List<WaitInstance> waitInstances) {
+    if (isEmpty(waitInstances)) {
+      return;
+    }
+    List<String> waitInstanceIds = waitInstances.stream().map(WaitInstance::getUuid).collect(toList());
+    List<String> timeoutInstanceIds = waitInstances.stream()
+                                          .map(WaitInstance::getTimeoutInstanceId)
+                                          .filter(EmptyPredicate::isNotEmpty)
+                                          .collect(toList());
+    Failsafe.with(DEFAULT_RETRY_POLICY).get(() -> transactionTemplate.execute(transactionStatus -> {
+      timeoutEngine.deleteTimeouts(timeoutInstanceIds);
+      // Uses - id index
+      mongoTemplate.remove(query(where(WaitInstanceKeys.uuid).in(waitInstanceIds)), WaitInstance.class);
+      return null;
+    }));
+  }
+
   @Override
   public void delete(WaitEngineEntity entity) {
     DeleteResult remove = mongoTemplate.remove(entity);
@@ -11,6 +11,7 @@ import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.serializer.KryoRegistrar;
 import io.harness.waiter.NotifyEventListenerTest;
+import io.harness.waiter.StressTest;
 import io.harness.waiter.TestNotifyCallback;
 import io.harness.waiter.TestProgressCallback;
 import io.harness.waiter.TestResponseData;
@@ -30,5 +31,6 @@ public class WaitEngineTestRegistrar implements KryoRegistrar {
     kryo.register(NotifyEventListenerTest.TestProgressCallback.class, index++);
     kryo.register(WaitNotifyEngineTest.TestNotifyCallback.class, index++);
     kryo.register(WaitNotifyEngineTest.TestProgressCallback.class, index++);
+    kryo.register(StressTest.LatencyCallback.class, index++);
   }
 }
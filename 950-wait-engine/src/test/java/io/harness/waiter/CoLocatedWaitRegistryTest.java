@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.waiter;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.exception.GeneralException;
+import io.harness.rule.Owner;
+import io.harness.waiter.persistence.PersistenceWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@OwnedBy(HarnessTeam.PIPELINE)
+public class CoLocatedWaitRegistryTest extends CategoryTest {
+  private PersistenceWrapper persistenceWrapper;
+  private CoLocatedWaitRegistry coLocatedWaitRegistry;
+
+  @Before
+  public void setUp() {
+    persistenceWrapper = mock(PersistenceWrapper.class);
+    // disabled so no flusher runs in the background, the test flushes the deletes itself
+    coLocatedWaitRegistry = new CoLocatedWaitRegistry(
+        WaiterConfiguration.builder().build(), persistenceWrapper, mock(NotifyEventListenerHelper.class));
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldRetryBatchWhichFailedToDeleteWithTheNextFlush() {
+    List<String> waitInstanceIds = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      WaitInstance waitInstance = WaitInstance.builder().uuid(generateUuid()).build();
+      waitInstanceIds.add(waitInstance.getUuid());
+      coLocatedWaitRegistry.scheduleDelete(waitInstance);
+    }
+
+    List<String> deletedIds = new ArrayList<>();
+    AtomicInteger calls = new AtomicInteger();
+    doAnswer(invocation -> {
+      if (calls.incrementAndGet() == 2) {
+        throw new GeneralException("Not able to delete wait instances");
+      }
+      List<WaitInstance> batch = invocation.getArgument(0);
+      deletedIds.addAll(batch.stream().map(WaitInstance::getUuid).collect(Collectors.toList()));
+      return null;
+    })
+        .when(persistenceWrapper)
+        .deleteWaitInstances(anyList());
+
+    coLocatedWaitRegistry.flushDeletes();
+
+    // the flush stops at the failed batch, nothing of it counts as deleted
+    assertThat(calls.get()).isEqualTo(2);
+    assertThat(deletedIds).hasSize(500).containsExactlyElementsOf(waitInstanceIds.subList(0, 500));
+
+    coLocatedWaitRegistry.flushDeletes();
+
+    assertThat(deletedIds).hasSize(1200).containsExactlyInAnyOrderElementsOf(waitInstanceIds);
+  }
+}
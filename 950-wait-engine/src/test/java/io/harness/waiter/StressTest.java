@@ -9,13 +9,16 @@ package io.harness.waiter;
 
 import static io.harness.data.structure.UUIDGenerator.generateUuid;
 import static io.harness.rule.OwnerRule.GEORGE;
+import static io.harness.rule.OwnerRule.PRASHANT;
 import static io.harness.waiter.TestNotifyEventListener.TEST_PUBLISHER;
 
 import io.harness.WaitEngineTestBase;
 import io.harness.category.element.StressTests;
 import io.harness.maintenance.MaintenanceGuard;
 import io.harness.persistence.HPersistence;
+import io.harness.queue.QueueListenerController;
 import io.harness.rule.Owner;
+import io.harness.tasks.ResponseData;
 import io.harness.threading.Concurrent;
 import io.harness.threading.Morpheus;
 
@@ -25,6 +28,8 @@ import java.security.SecureRandom;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -37,6 +42,8 @@ public class StressTest extends WaitEngineTestBase {
   @Inject private HPersistence persistence;
   @Inject private WaitNotifyEngine waitNotifyEngine;
   @Inject private NotifyResponseCleanupHelper notifyResponseCleaner;
+  @Inject private TestNotifyEventListener notifyEventListener;
+  @Inject private QueueListenerController queueListenerController;
 
   @Test
   @Owner(developers = GEORGE)
@@ -98,4 +105,59 @@ public class StressTest extends WaitEngineTestBase {
       }
     }
   }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void callbackLatency() throws IOException, InterruptedException {
+    measureCallbackLatency();
+  }
+
+  @Test
+  @CoLocatedCallbacks
+  @Owner(developers = PRASHANT)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void coLocatedCallbackLatency() throws IOException, InterruptedException {
+    measureCallbackLatency();
+  }
+
+  // Time from a step reporting its response to the callback of the step waiting for it
+  private void measureCallbackLatency() throws IOException, InterruptedException {
+    persistence.ensureIndexForTesting(NotifyEvent.class);
+    persistence.ensureIndexForTesting(WaitInstance.class);
+    persistence.ensureIndexForTesting(NotifyResponse.class);
+    queueListenerController.register(notifyEventListener, 1);
+
+    try (MaintenanceGuard guard = new MaintenanceGuard(false)) {
+      final int rounds = 1000;
+      long time = 0;
+      for (int i = 0; i < rounds; i++) {
+        final String correlationId = generateUuid();
+        LatencyCallback.latch = new CountDownLatch(1);
+        waitNotifyEngine.waitForAllOn(TEST_PUBLISHER, new LatencyCallback(), correlationId);
+
+        time -= System.nanoTime();
+        waitNotifyEngine.doneWith(correlationId, StringNotifyResponseData.builder().data(correlationId).build());
+        LatencyCallback.latch.await();
+        time += System.nanoTime();
+      }
+      log.info("avg doneWith to callback latency: {} us", time / rounds / 1000);
+    }
+  }
+
+  public static class LatencyCallback implements OldNotifyCallback {
+    private static volatile CountDownLatch latch;
+
+    @Override
+    public void notify(Map<String, ResponseData> response) {
+      latch.countDown();
+    }
+
+    @Override
+    public void notifyError(Map<String, ResponseData> response) {
+      latch.countDown();
+    }
+  }
 }
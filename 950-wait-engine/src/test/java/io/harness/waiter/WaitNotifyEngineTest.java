@@ -383,6 +383,33 @@ public class WaitNotifyEngineTest extends WaitEngineTestBase {
     }
   }
 
+  @Test
+  @CoLocatedCallbacks
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldRunCoLocatedCallbackWithoutNotifyQueue() throws IOException {
+    String uuid1 = generateUuid();
+    String uuid2 = generateUuid();
+    try (MaintenanceGuard guard = new MaintenanceGuard(false)) {
+      String waitInstanceId = waitNotifyEngine.waitForAllOn(TEST_PUBLISHER, new TestNotifyCallback(), uuid1, uuid2);
+
+      ResponseData data1 = StringNotifyResponseData.builder().data("response-" + uuid1).build();
+      ResponseData data2 = StringNotifyResponseData.builder().data("response-" + uuid2).build();
+      waitNotifyEngine.doneWith(uuid1, data1);
+      waitNotifyEngine.doneWith(uuid2, data2);
+
+      Poller.pollFor(
+          Duration.ofSeconds(10), ofMillis(100), () -> persistence.get(WaitInstance.class, waitInstanceId) == null);
+
+      assertThat(callCount.get()).isEqualTo(1);
+      assertThat(responseMap).hasSize(2).containsAllEntriesOf(of(uuid1, data1, uuid2, data2));
+      // the callback got the very same objects, they were not read back from the stored responses
+      assertThat(responseMap.get(uuid1)).isSameAs(data1);
+      assertThat(notifyConsumer.count(Filter.ALL)).isZero();
+      assertThat(persistence.get(NotifyResponse.class, uuid1)).isNotNull();
+    }
+  }
+
   /**
    * Should wait for progress on correlation id.
    */
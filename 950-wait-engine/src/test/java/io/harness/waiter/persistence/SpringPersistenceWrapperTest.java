@@ -14,6 +14,7 @@ import static io.harness.waiter.TestNotifyEventListener.TEST_PUBLISHER;
 import static io.harness.waiter.WaitInstanceService.MAX_CALLBACK_PROCESSING_TIME;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
 import static org.springframework.data.mongodb.core.query.Query.query;
 
@@ -21,6 +22,7 @@ import io.harness.WaitEngineTestBase;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.category.element.UnitTests;
+import io.harness.exception.GeneralException;
 import io.harness.rule.Owner;
 import io.harness.timeout.TimeoutEngine;
 import io.harness.waiter.NotifyResponse;
@@ -42,15 +44,19 @@ import java.util.stream.Collectors;
 import org.joor.Reflect;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @OwnedBy(HarnessTeam.PIPELINE)
 public class SpringPersistenceWrapperTest extends WaitEngineTestBase {
   @Mock TimeoutEngine timeoutEngine;
   @Mock MongoTemplate mongoTemplateMock;
+  @Mock TransactionTemplate transactionTemplate;
   @Inject MongoTemplate mongoTemplate;
   @Inject SpringPersistenceWrapper persistenceWrapper;
 
@@ -87,6 +93,38 @@ public class SpringPersistenceWrapperTest extends WaitEngineTestBase {
   @Owner(developers = PRASHANT)
   @Category(UnitTests.class)
 
+  public void testDeleteWaitInstancesRunsBatchInOneTransaction() {
+    Reflect.on(persistenceWrapper).set("timeoutEngine", timeoutEngine);
+    Reflect.on(persistenceWrapper).set("mongoTemplate", mongoTemplateMock);
+    Reflect.on(persistenceWrapper).set("transactionTemplate", transactionTemplate);
+    List<TransactionCallback<?>> transactions = new ArrayList<>();
+    Mockito.doAnswer(invocation -> {
+             TransactionCallback<?> callback = invocation.getArgument(0);
+             transactions.add(callback);
+             return callback.doInTransaction(null);
+           })
+        .when(transactionTemplate)
+        .execute(ArgumentMatchers.any());
+    Mockito.doThrow(new GeneralException("Not able to Delete wait instance"))
+        .when(mongoTemplateMock)
+        .remove(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(WaitInstance.class));
+
+    List<WaitInstance> waitInstances =
+        Arrays.asList(WaitInstance.builder().uuid(generateUuid()).timeoutInstanceId(generateUuid()).build(),
+            WaitInstance.builder().uuid(generateUuid()).build());
+
+    // the timeouts are deleted before the wait instances fail to, both have to roll back together
+    assertThatThrownBy(() -> persistenceWrapper.deleteWaitInstances(waitInstances))
+        .isInstanceOf(GeneralException.class);
+    assertThat(transactions).hasSize(1);
+    Mockito.verify(timeoutEngine)
+        .deleteTimeouts(Collections.singletonList(waitInstances.get(0).getTimeoutInstanceId()));
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+
   public void testSave() {
     String waitInstanceId = generateUuid();
     String correlationId = generateUuid();
@@ -24,4 +24,6 @@ public class ChangeConsumerConfig {
   int redisStreamSize;
   // Mode of consumer can be either one of snapshot or streaming
   ConsumerMode consumerMode;
+  // Max messages published per pipelined batch, 0 publishes one message at a time
+  int sinkWindowSize;
 }
@@ -37,7 +37,8 @@ public class DebeziumProducerFactory {
       topicName = DEBEZIUM_PREFIX + "SNAPSHOT_" + collection;
     }
     Producer producer = redisProducerFactory.createRedisProducer(topicName, redissonClient, redisStreamSize,
-        DEBEZIUM_SERVICE.getServiceId(), configuration.getRedisConfig().getEnvNamespace());
+        DEBEZIUM_SERVICE.getServiceId(), configuration.getRedisConfig().getEnvNamespace(),
+        configuration.isBinaryBatchPayload());
     producerMap.put(collection + "-" + mode, producer);
     return producer;
   }
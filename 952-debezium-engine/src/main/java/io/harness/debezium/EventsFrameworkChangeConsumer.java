@@ -15,13 +15,15 @@ import io.harness.eventsframework.api.Producer;
 import io.harness.eventsframework.producer.Message;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import io.debezium.embedded.EmbeddedEngineChangeEvent;
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.Header;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -41,6 +43,8 @@ public abstract class EventsFrameworkChangeConsumer implements MongoCollectionCh
   CfClient cfClient;
   EventsFrameworkConfiguration configuration;
   ConsumerMode mode;
+  // Max messages per pipelined sendBatch, 0 keeps sending one message at a time
+  int sinkWindowSize;
 
   public EventsFrameworkChangeConsumer(ChangeConsumerConfig changeConsumerConfig, CfClient cfClient, String collection,
       DebeziumProducerFactory debeziumProducerFactory) {
@@ -50,6 +54,7 @@ public abstract class EventsFrameworkChangeConsumer implements MongoCollectionCh
     this.producerFactory = debeziumProducerFactory;
     this.redisStreamSize = changeConsumerConfig.getRedisStreamSize();
     this.cfClient = cfClient;
+    this.sinkWindowSize = changeConsumerConfig.getSinkWindowSize();
   }
 
   @Override
@@ -57,11 +62,20 @@ public abstract class EventsFrameworkChangeConsumer implements MongoCollectionCh
       DebeziumEngine.RecordCommitter<ChangeEvent<String, String>> recordCommitter) throws InterruptedException {
     log.info("Handling a batch of {} records for collection {}", records.size(), collectionName);
     Collections.reverse(records);
-    final Map<String, ChangeEvent<String, String>> recordsMap = new HashMap<>();
+    final Map<String, ChangeEvent<String, String>> recordsMap = new LinkedHashMap<>();
     records.forEach(r -> recordsMap.putIfAbsent(r.key(), r));
 
     final boolean debeziumEnabled = isDebeziumEnabled(collectionName);
 
+    if (sinkWindowSize > 0) {
+      // back to the order the changes happened in
+      List<ChangeEvent<String, String>> latestRecords = new ArrayList<>(recordsMap.values());
+      Collections.reverse(latestRecords);
+      handleInWindows(latestRecords, debeziumEnabled, recordCommitter);
+      recordCommitter.markBatchFinished();
+      return;
+    }
+
     // Add the batch records to the stream(s)
     for (ChangeEvent<String, String> record : recordsMap.values()) {
       cnt++;
@@ -77,21 +91,61 @@ public abstract class EventsFrameworkChangeConsumer implements MongoCollectionCh
     recordCommitter.markBatchFinished();
   }
 
+  /**
+   * Publishes the records of every destination in windows of at most sinkWindowSize messages, each window being one
+   * pipelined sendBatch. A key shows up at most once per batch and windows go out in order, so per key ordering is
+   * kept. Records are only marked processed once their whole window is acknowledged, hence the offsets flushed to the
+   * offset store never run ahead of what was published; a failed window stops the batch before its records are marked.
+   */
+  private void handleInWindows(List<ChangeEvent<String, String>> records, boolean debeziumEnabled,
+      DebeziumEngine.RecordCommitter<ChangeEvent<String, String>> recordCommitter) throws InterruptedException {
+    Map<String, List<ChangeEvent<String, String>>> recordsByDestination = new LinkedHashMap<>();
+    for (ChangeEvent<String, String> record : records) {
+      recordsByDestination.computeIfAbsent(record.destination(), destination -> new ArrayList<>()).add(record);
+    }
+
+    for (Map.Entry<String, List<ChangeEvent<String, String>>> entry : recordsByDestination.entrySet()) {
+      // routing is resolved once per destination instead of once per record
+      Producer producer =
+          debeziumEnabled ? producerFactory.get(entry.getKey(), redisStreamSize, mode, configuration) : null;
+      for (List<ChangeEvent<String, String>> window : Lists.partition(entry.getValue(), sinkWindowSize)) {
+        if (producer != null) {
+          long timestamp = System.currentTimeMillis();
+          List<Message> messages = new ArrayList<>(window.size());
+          for (ChangeEvent<String, String> record : window) {
+            toChangeEvent(record, timestamp)
+                .ifPresent(event -> messages.add(Message.newBuilder().setData(event.toByteString()).build()));
+          }
+          producer.sendBatch(messages);
+        }
+        for (ChangeEvent<String, String> record : window) {
+          cnt++;
+          recordCommitter.markProcessed(record);
+        }
+      }
+    }
+  }
+
   private void process(ChangeEvent<String, String> record) {
-    Optional<OpType> opType =
-        getOperationType(((EmbeddedEngineChangeEvent<String, String, List<Header>>) record).sourceRecord());
-    if (opType.isPresent()) {
-      DebeziumChangeEvent debeziumChangeEvent = DebeziumChangeEvent.newBuilder()
-                                                    .setKey(getKeyOrDefault(record))
-                                                    .setValue(getValueOrDefault(record))
-                                                    .setOptype(opType.get().toString())
-                                                    .setTimestamp(System.currentTimeMillis())
-                                                    .build();
+    Optional<DebeziumChangeEvent> debeziumChangeEvent = toChangeEvent(record, System.currentTimeMillis());
+    if (debeziumChangeEvent.isPresent()) {
       Producer producer = producerFactory.get(record.destination(), redisStreamSize, mode, configuration);
-      producer.send(Message.newBuilder().setData(debeziumChangeEvent.toByteString()).build());
+      producer.send(Message.newBuilder().setData(debeziumChangeEvent.get().toByteString()).build());
     }
   }
 
+  private Optional<DebeziumChangeEvent> toChangeEvent(ChangeEvent<String, String> record, long timestamp) {
+    Optional<OpType> opType =
+        getOperationType(((EmbeddedEngineChangeEvent<String, String, List<Header>>) record).sourceRecord());
+    return opType.map(type
+        -> DebeziumChangeEvent.newBuilder()
+               .setKey(getKeyOrDefault(record))
+               .setValue(getValueOrDefault(record))
+               .setOptype(type.toString())
+               .setTimestamp(timestamp)
+               .build());
+  }
+
   private boolean isDebeziumEnabled(String collectionName) {
     String collection = Arrays.stream(collectionName.split("\\.")).collect(Collectors.toList()).get(1);
     return cfClient.boolVariation(
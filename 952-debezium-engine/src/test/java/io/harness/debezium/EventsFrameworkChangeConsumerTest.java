@@ -7,24 +7,29 @@
 
 package io.harness.debezium;
 
+import static io.harness.rule.OwnerRule.JENNY;
 import static io.harness.rule.OwnerRule.SHALINI;
 
 import static junit.framework.TestCase.assertEquals;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.harness.CategoryTest;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.StressTests;
 import io.harness.category.element.UnitTests;
 import io.harness.cf.client.api.CfClient;
 import io.harness.cf.client.dto.Target;
+import io.harness.eventsframework.api.EventsFrameworkDownException;
 import io.harness.eventsframework.api.Producer;
 import io.harness.eventsframework.producer.Message;
 import io.harness.rule.Owner;
@@ -34,20 +39,27 @@ import io.debezium.embedded.EmbeddedEngineChangeEvent;
 import io.debezium.engine.ChangeEvent;
 import io.debezium.engine.DebeziumEngine;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.header.ConnectHeaders;
 import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
+@Slf4j
 @OwnedBy(HarnessTeam.PIPELINE)
 @RunWith(MockitoJUnitRunner.class)
 public class EventsFrameworkChangeConsumerTest extends CategoryTest {
@@ -170,4 +182,150 @@ public class EventsFrameworkChangeConsumerTest extends CategoryTest {
     // verify FF service called once per batch
     verify(cfClient, times(1)).boolVariation(anyString(), any(Target.class), anyBoolean());
   }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testHandleBatchInWindows() throws InterruptedException, InvalidProtocolBufferException {
+    EventsFrameworkChangeConsumerStreaming consumer = windowedConsumer(2);
+    List<ChangeEvent<String, String>> records = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      records.add(changeEvent("key" + i, "value" + i));
+    }
+    // only the latest change of key0 is published, after the others
+    ChangeEvent<String, String> latest = changeEvent("key0", "latest");
+    records.add(latest);
+    doReturn(producer).when(producerFactory).get("topic", 10, ConsumerMode.SNAPSHOT, null);
+    doReturn(true).when(cfClient).boolVariation(anyString(), any(), anyBoolean());
+
+    consumer.handleBatch(new ArrayList<>(records), recordCommitter);
+
+    ArgumentCaptor<List<Message>> captor = ArgumentCaptor.forClass(List.class);
+    verify(producer, times(3)).sendBatch(captor.capture());
+    verify(producer, never()).send(any());
+    verify(producerFactory, times(1)).get("topic", 10, ConsumerMode.SNAPSHOT, null);
+    List<String> keys = new ArrayList<>();
+    for (List<Message> window : captor.getAllValues()) {
+      assertThat(window.size()).isLessThanOrEqualTo(2);
+      for (Message message : window) {
+        keys.add(DebeziumChangeEvent.parseFrom(message.getData()).getKey());
+      }
+    }
+    assertThat(keys).containsExactly("key1", "key2", "key3", "key4", "key0");
+    assertThat(DebeziumChangeEvent.parseFrom(captor.getValue().get(0).getData()).getValue()).isEqualTo("latest");
+
+    InOrder inOrder = Mockito.inOrder(producer, recordCommitter);
+    inOrder.verify(producer).sendBatch(any());
+    inOrder.verify(recordCommitter).markProcessed(records.get(1));
+    inOrder.verify(recordCommitter).markProcessed(records.get(2));
+    inOrder.verify(producer).sendBatch(any());
+    inOrder.verify(recordCommitter).markProcessed(records.get(3));
+    inOrder.verify(recordCommitter).markProcessed(records.get(4));
+    inOrder.verify(producer).sendBatch(any());
+    inOrder.verify(recordCommitter).markProcessed(latest);
+    inOrder.verify(recordCommitter).markBatchFinished();
+    verify(recordCommitter, never()).markProcessed(records.get(0));
+    verify(cfClient, times(1)).boolVariation(anyString(), any(Target.class), anyBoolean());
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(UnitTests.class)
+  public void testFailedWindowIsNotMarkedProcessed() throws InterruptedException {
+    EventsFrameworkChangeConsumerStreaming consumer = windowedConsumer(2);
+    List<ChangeEvent<String, String>> records = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      records.add(changeEvent("key" + i, "value" + i));
+    }
+    doReturn(producer).when(producerFactory).get("topic", 10, ConsumerMode.SNAPSHOT, null);
+    doReturn(true).when(cfClient).boolVariation(anyString(), any(), anyBoolean());
+    doReturn(Collections.emptyList())
+        .doThrow(new EventsFrameworkDownException("redis is down"))
+        .when(producer)
+        .sendBatch(any());
+
+    assertThatThrownBy(() -> consumer.handleBatch(new ArrayList<>(records), recordCommitter))
+        .isInstanceOf(EventsFrameworkDownException.class);
+
+    verify(recordCommitter).markProcessed(records.get(0));
+    verify(recordCommitter).markProcessed(records.get(1));
+    verify(recordCommitter, never()).markProcessed(records.get(2));
+    verify(recordCommitter, never()).markProcessed(records.get(3));
+    verify(recordCommitter, never()).markBatchFinished();
+  }
+
+  @Test
+  @Owner(developers = JENNY)
+  @Category(StressTests.class)
+  @Ignore("Debezium sink throughput comparison, ignored to keep unit test runs fast")
+  public void testSinkThroughput() throws InterruptedException {
+    int batchSize = 2048;
+    int batches = 10;
+    // recorded-like change events of a planExecutionsSummary update
+    String value = "{\"_id\":\"%s\",\"accountId\":\"kmpySmUISimoRrJL6NL73w\",\"status\":\"RUNNING\","
+        + "\"layoutNodeMap\":null,\"lastUpdatedAt\":1681211223000}";
+    List<List<ChangeEvent<String, String>>> recorded = new ArrayList<>();
+    for (int b = 0; b < batches; b++) {
+      List<ChangeEvent<String, String>> records = new ArrayList<>();
+      for (int i = 0; i < batchSize; i++) {
+        String id = b + "-" + i;
+        records.add(changeEvent("{\"id\":\"" + id + "\"}", String.format(value, id)));
+      }
+      recorded.add(records);
+    }
+    // every call to the producer pays a redis round trip
+    long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(300);
+    doReturn(true).when(cfClient).boolVariation(anyString(), any(), anyBoolean());
+    doReturn(producer).when(producerFactory).get("topic", 10, ConsumerMode.SNAPSHOT, null);
+    Mockito.doAnswer(invocation -> {
+             spin(roundTripNanos);
+             return "id";
+           })
+        .when(producer)
+        .send(any());
+    Mockito.doAnswer(invocation -> {
+             List<Message> messages = invocation.getArgument(0);
+             spin(roundTripNanos + messages.size() * 1000L);
+             return Collections.nCopies(messages.size(), "id");
+           })
+        .when(producer)
+        .sendBatch(any());
+
+    for (int windowSize : new int[] {0, 64, 256, 1024}) {
+      EventsFrameworkChangeConsumerStreaming consumer = windowedConsumer(windowSize);
+      long start = System.nanoTime();
+      for (List<ChangeEvent<String, String>> records : recorded) {
+        consumer.handleBatch(new ArrayList<>(records), recordCommitter);
+      }
+      long elapsed = System.nanoTime() - start;
+      log.info("window {}: {} events/s", windowSize,
+          (long) batchSize * batches * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed));
+    }
+  }
+
+  private EventsFrameworkChangeConsumerStreaming windowedConsumer(int sinkWindowSize) {
+    return new EventsFrameworkChangeConsumerStreaming(ChangeConsumerConfig.builder()
+                                                          .redisStreamSize(10)
+                                                          .consumerType(ConsumerType.EVENTS_FRAMEWORK)
+                                                          .eventsFrameworkConfiguration(null)
+                                                          .consumerMode(mode)
+                                                          .sinkWindowSize(sinkWindowSize)
+                                                          .build(),
+        cfClient, "coll.mode", producerFactory);
+  }
+
+  private ChangeEvent<String, String> changeEvent(String key, String value) {
+    ConnectHeaders headers = new ConnectHeaders();
+    headers.add("__op", "u", Schema.STRING_SCHEMA);
+    return new EmbeddedEngineChangeEvent<>(key, value, null,
+        new SourceRecord(new HashMap<>(), new HashMap<>(), "topic", 0, Schema.BOOLEAN_SCHEMA, "", Schema.BOOLEAN_SCHEMA,
+            "", 0L, headers));
+  }
+
+  private static void spin(long nanos) {
+    long end = System.nanoTime() + nanos;
+    while (System.nanoTime() < end) {
+      Thread.onSpinWait();
+    }
+  }
 }
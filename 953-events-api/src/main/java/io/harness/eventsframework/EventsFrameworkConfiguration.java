@@ -26,4 +26,6 @@ import lombok.Data;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class EventsFrameworkConfiguration {
   @JsonProperty("redis") @ConfigSecret RedisConfig redisConfig;
+  // Batch producers write raw payloads once all the consumers read the binary field, base64 until then
+  @JsonProperty("binaryBatchPayload") boolean binaryBatchPayload;
 }
@@ -10,7 +10,10 @@ package io.harness.eventsframework.api;
 import static io.harness.annotations.dev.HarnessTeam.PL;
 
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.eventsframework.producer.Message;
 
+import java.util.ArrayList;
+import java.util.List;
 import lombok.Getter;
 
 @OwnedBy(PL)
@@ -22,4 +25,13 @@ public abstract class AbstractProducer implements Producer {
     this.topicName = topicName;
     this.producerName = producerName;
   }
+
+  @Override
+  public List<String> sendBatch(List<Message> messages) {
+    List<String> messageIds = new ArrayList<>(messages.size());
+    for (Message message : messages) {
+      messageIds.add(send(message));
+    }
+    return messageIds;
+  }
 }
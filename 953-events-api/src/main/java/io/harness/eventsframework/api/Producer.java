@@ -9,7 +9,16 @@ package io.harness.eventsframework.api;
 
 import io.harness.eventsframework.producer.Message;
 
+import java.util.List;
+
 public interface Producer {
   String send(Message message);
+
+  /**
+   * Publishes all the messages in one go and returns the message ids in the same order as the input. Delivery is
+   * at-least-once, a retried batch may publish some of the messages twice.
+   */
+  List<String> sendBatch(List<Message> messages);
+
   void shutdown();
 }
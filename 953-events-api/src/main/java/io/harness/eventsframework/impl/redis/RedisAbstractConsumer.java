@@ -9,6 +9,8 @@ package io.harness.eventsframework.impl.redis;
 
 import static io.harness.annotations.dev.HarnessTeam.PL;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import io.harness.annotations.dev.CodePulse;
 import io.harness.annotations.dev.HarnessModuleComponent;
 import io.harness.annotations.dev.OwnedBy;
@@ -51,8 +53,9 @@ import org.redisson.client.RedisException;
 @Slf4j
 public abstract class RedisAbstractConsumer extends AbstractConsumer {
   private static final String REDIS_CONSUMER_EVENT_METRIC = "redis_consumer_event_metric";
-  protected RStream<String, String> stream;
-  protected RStream<String, String> deadLetterQueue;
+  // Values are read as raw bytes so that both base64 and binary payloads can be decoded, see RedisUtils
+  protected RStream<String, byte[]> stream;
+  protected RStream<String, byte[]> deadLetterQueue;
   protected RedissonClient redissonClient;
   protected Duration maxProcessingTime;
   protected Set<String> consumerGroupNames;
@@ -83,8 +86,8 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
   private void initConsumerGroup(
       String topicName, RedissonClient redissonClient, Duration maxProcessingTime, int batchSize, String envNamespace) {
     this.redissonClient = redissonClient;
-    this.stream = RedisUtils.getStream(getTopicName(), redissonClient, envNamespace);
-    this.deadLetterQueue = RedisUtils.getDeadLetterStream(getTopicName(), redissonClient, envNamespace);
+    this.stream = RedisUtils.getBinaryStream(getTopicName(), redissonClient, envNamespace);
+    this.deadLetterQueue = RedisUtils.getBinaryDeadLetterStream(getTopicName(), redissonClient, envNamespace);
     this.maxProcessingTime = maxProcessingTime;
     this.batchSize = batchSize;
     RetryConfig retryConfig =
@@ -112,9 +115,9 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
   }
 
   private void moveMessageToDeadLetterQueue(
-      StreamMessageId messageId, String groupName, Map<StreamMessageId, Map<String, String>> messages) {
-    Map<String, String> messageData = messages.getOrDefault(messageId, new HashMap<>());
-    messageData.put("prevMessageId", messageId.toString());
+      StreamMessageId messageId, String groupName, Map<StreamMessageId, Map<String, byte[]>> messages) {
+    Map<String, byte[]> messageData = messages.getOrDefault(messageId, new HashMap<>());
+    messageData.put("prevMessageId", messageId.toString().getBytes(UTF_8));
     deadLetterQueue.addAll(messageData, RedisUtils.MAX_DEAD_LETTER_QUEUE_SIZE, false);
     stream.ack(groupName, messageId);
     log.warn("Pushed {} to dead letter queue as max retries exceeded. Message data: {}", messageId, messageData);
@@ -161,7 +164,7 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
       if (pendingEntries.isEmpty()) {
         return Collections.emptyList();
       } else {
-        Map<StreamMessageId, Map<String, String>> messages = executeClaimCommand(pendingEntries);
+        Map<StreamMessageId, Map<String, byte[]>> messages = executeClaimCommand(pendingEntries);
         for (PendingEntry entry : pendingEntries) {
           StreamMessageId messageId = entry.getId();
           // If the message has been delivered breach our redelivery threshold then move this to deadLetterQueue
@@ -169,7 +172,7 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
             moveMessageToDeadLetterQueue(messageId, groupName, messages);
           }
         }
-        return RedisUtils.getMessageObject(messages);
+        return RedisUtils.getMessageObjectFromBinary(messages);
       }
     } catch (Exception ex) {
       log.warn("Exception occurred while claiming entries", ex);
@@ -177,9 +180,9 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
     }
   }
 
-  private Map<StreamMessageId, Map<String, String>> executeClaimCommand(List<PendingEntry> pendingEntries) {
+  private Map<StreamMessageId, Map<String, byte[]>> executeClaimCommand(List<PendingEntry> pendingEntries) {
     StreamMessageId[] messageIds = pendingEntries.stream().map(PendingEntry::getId).toArray(StreamMessageId[] ::new);
-    Map<StreamMessageId, Map<String, String>> messages = Collections.emptyMap();
+    Map<StreamMessageId, Map<String, byte[]>> messages = Collections.emptyMap();
     try {
       // Try to claim the pending messages from the group that are pending over max max processing time
       messages =
@@ -207,7 +210,7 @@ public abstract class RedisAbstractConsumer extends AbstractConsumer {
 
   private List<Message> getNewMessagesInternal(Duration maxWaitTime) {
     try {
-      return RedisUtils.getMessageObject(
+      return RedisUtils.getMessageObjectFromBinary(
           stream.readGroup(getGroupName(), getName(), batchSize, maxWaitTime.toMillis(), TimeUnit.MILLISECONDS));
     } catch (Exception ex) {
       log.warn("Exception occurred while getting new messages", ex);
@@ -8,6 +8,7 @@
 package io.harness.eventsframework.impl.redis;
 
 import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
 import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_INTERNAL_KEY;
 import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_TRACE_ID_KEY;
 
@@ -24,13 +25,21 @@ import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import io.opentelemetry.api.trace.Span;
 import io.vavr.control.Try;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import javax.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
 import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.StreamMessageId;
 import org.slf4j.MDC;
@@ -42,20 +51,30 @@ public class RedisProducer extends AbstractProducer {
   private static final String REDIS_PRODUCER_EVENT_METRIC = "redis_producer_event_metric";
   private RStream<String, String> stream;
   private RedissonClient redissonClient;
+  private String envNamespace;
   @Inject private RedisEventMetricPublisher redisEventMetricPublisher;
   // This is used when the consumer for the event are no longer accepting due to some failure and
   // the messages are continuously being accumulated in Redis. To come up with this number, it is
   // very important to understand the alerting on the consumers and the scale estimations of a
   // particular use-case which is pushing to the topic
   private int maxTopicSize;
+  // Batches write the payload as raw bytes instead of base64, only to be turned on once all the consumers of the
+  // topic read the binary field
+  private boolean binaryBatchPayload;
 
   private Retry retry;
 
   public RedisProducer(String topicName, @NotNull RedissonClient redissonClient, int maxTopicSize, String producerName,
       String envNamespace, RedisEventMetricPublisher redisEventMetricPublisher) {
+    this(topicName, redissonClient, maxTopicSize, producerName, envNamespace, redisEventMetricPublisher, false);
+  }
+
+  public RedisProducer(String topicName, @NotNull RedissonClient redissonClient, int maxTopicSize, String producerName,
+      String envNamespace, RedisEventMetricPublisher redisEventMetricPublisher, boolean binaryBatchPayload) {
     super(topicName, producerName);
     initProducer(topicName, redissonClient, maxTopicSize, envNamespace);
     this.redisEventMetricPublisher = redisEventMetricPublisher;
+    this.binaryBatchPayload = binaryBatchPayload;
   }
 
   public RedisProducer(String topicName, @NotNull RedissonClient redissonClient, int maxTopicSize, String producerName,
@@ -68,6 +87,7 @@ public class RedisProducer extends AbstractProducer {
       String topicName, @NotNull RedissonClient redissonClient, int maxTopicSize, String envNamespace) {
     this.maxTopicSize = maxTopicSize;
     this.redissonClient = redissonClient;
+    this.envNamespace = envNamespace;
     this.stream = RedisUtils.getStream(topicName, redissonClient, envNamespace);
     RetryConfig retryConfig =
         RetryConfig.custom().intervalFunction(IntervalFunction.ofExponentialBackoff(1000, 1.5)).maxAttempts(6).build();
@@ -98,6 +118,83 @@ public class RedisProducer extends AbstractProducer {
     }
   }
 
+  /**
+   * Pipelines the XADDs of all the messages in a single redis batch. Payloads are written base64 encoded like {@link
+   * #send}, unless binary batch payloads are enabled, in which case they are written as raw bytes under the binary
+   * field. That should only be enabled for topics whose consumers are all on a version which reads the binary field.
+   *
+   * <p>Delivery is at-least-once. Retries only re-send the entries whose XADD was not acknowledged, but an entry
+   * whose reply was lost after redis appended it is sent again, so consumers must tolerate duplicates.
+   */
+  @Override
+  public List<String> sendBatch(List<Message> messages) {
+    if (isEmpty(messages)) {
+      return Collections.emptyList();
+    }
+    String[] messageIds = new String[messages.size()];
+    Supplier<List<String>> sendBatchSupplier = () -> sendBatchInternal(messages, messageIds);
+
+    Supplier<List<String>> retryingSendBatch = Retry.decorateSupplier(retry, sendBatchSupplier);
+
+    return Try.ofSupplier(retryingSendBatch)
+        .recover(throwable -> {
+          // Exhausted exponential backoff to try operating on redis
+          throw new EventsFrameworkDownException(throwable.getMessage());
+        })
+        .get();
+  }
+
+  /**
+   * Sends the messages which don't have an id yet and fills in the ids of the ones redis acknowledged, so that a retry
+   * after a partial failure only re-sends the rest.
+   */
+  List<String> sendBatchInternal(List<Message> messages, String[] messageIds) {
+    RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+    RStreamAsync<String, byte[]> batchStream = RedisUtils.getBinaryStream(getTopicName(), batch, envNamespace);
+    Map<String, String> producerData = new HashMap<>();
+    addTraceId(producerData);
+    populateOtherProducerSpecificData(producerData);
+    Map<Integer, RFuture<StreamMessageId>> pending = new LinkedHashMap<>();
+    for (int i = 0; i < messages.size(); i++) {
+      if (messageIds[i] != null) {
+        continue;
+      }
+      Message message = messages.get(i);
+      Map<String, String> metadata = new HashMap<>(message.getMetadataMap());
+      metadata.putAll(producerData);
+      pending.put(i,
+          batchStream.addAllAsync(
+              RedisUtils.toBinaryMessageData(metadata, message.getData(), binaryBatchPayload), maxTopicSize, false));
+    }
+
+    try {
+      batch.execute();
+    } catch (Exception ex) {
+      log.warn("Exception occurred in sendBatchInternal", ex);
+    }
+
+    Throwable failure = null;
+    int failed = 0;
+    for (Map.Entry<Integer, RFuture<StreamMessageId>> entry : pending.entrySet()) {
+      RFuture<StreamMessageId> future = entry.getValue();
+      if (future.isSuccess()) {
+        messageIds[entry.getKey()] = future.getNow().toString();
+      } else {
+        failed++;
+        failure = future.cause();
+      }
+    }
+    if (failed > 0) {
+      throw new IllegalStateException(
+          String.format("%d of %d messages were not inserted in the topic: %s", failed, pending.size(), getTopicName()),
+          failure);
+    }
+
+    log.info("Events framework batch inserted - size: {}, first messageId: {}, last messageId: {} in the topic: {}",
+        messageIds.length, messageIds[0], messageIds[messageIds.length - 1], this.getTopicName());
+    return Arrays.asList(messageIds);
+  }
+
   protected void populateOtherProducerSpecificData(Map<String, String> redisData) {
     redisData.put(PRODUCER, this.getProducerName());
   }
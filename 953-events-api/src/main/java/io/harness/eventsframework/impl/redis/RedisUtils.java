@@ -12,6 +12,7 @@ import static io.harness.data.structure.EmptyPredicate.isEmpty;
 
 import static com.google.protobuf.util.Timestamps.fromMillis;
 import static java.lang.Long.parseLong;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.eventsframework.consumer.Message;
@@ -21,23 +22,36 @@ import com.google.protobuf.Timestamp;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.experimental.UtilityClass;
+import org.redisson.api.RBatch;
 import org.redisson.api.RStream;
+import org.redisson.api.RStreamAsync;
 import org.redisson.api.RedissonClient;
 import org.redisson.api.StreamMessageId;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.redisson.client.codec.Codec;
 import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
 
 @OwnedBy(PL)
 @UtilityClass
 public class RedisUtils {
   // Keeping this as small as possible to save on memory for redis instance
   public static final String REDIS_STREAM_INTERNAL_KEY = "o";
+  // Raw protobuf payload written by batch producers with binary payloads enabled, consumers read both this and the
+  // base64 encoded field above
+  public static final String REDIS_STREAM_BINARY_KEY = "b";
   public static final String REDIS_STREAM_TRACE_ID_KEY = "trace_id";
   public static final int MAX_DEAD_LETTER_QUEUE_SIZE = 50000;
   public static final int UNACKED_RETRY_COUNT = 10;
 
+  // Field names are kept as strings while values are left as raw bytes. String values written with the UTF-8 string
+  // codec are byte to byte identical, so both codecs can operate on the same stream.
+  private static final Codec BINARY_VALUE_CODEC = new CompositeCodec(new StringCodec("UTF-8"), ByteArrayCodec.INSTANCE);
+
   public Timestamp getMessageTimestamp(String messageId) {
     return fromMillis(parseLong(messageId.split("-")[0]));
   }
@@ -51,6 +65,20 @@ public class RedisUtils {
     return getStream(deadLetterStreamName, client, envNamespace);
   }
 
+  public RStream<String, byte[]> getBinaryStream(String topicName, RedissonClient client, String envNamespace) {
+    return client.getStream(getStreamName(envNamespace, topicName), BINARY_VALUE_CODEC);
+  }
+
+  public RStreamAsync<String, byte[]> getBinaryStream(String topicName, RBatch batch, String envNamespace) {
+    return batch.getStream(getStreamName(envNamespace, topicName), BINARY_VALUE_CODEC);
+  }
+
+  public RStream<String, byte[]> getBinaryDeadLetterStream(
+      String topicName, RedissonClient client, String envNamespace) {
+    String deadLetterStreamName = "deadletter_queue:" + topicName;
+    return getBinaryStream(deadLetterStreamName, client, envNamespace);
+  }
+
   public String getStreamName(String envNamespace, String topicName) {
     return (envNamespace.isEmpty() ? "" : envNamespace + ":") + "streams:" + topicName;
   }
@@ -98,4 +126,54 @@ public class RedisUtils {
         .setTimestamp(RedisUtils.getMessageTimestamp(messageId.toString()))
         .build();
   }
+
+  public List<Message> getMessageObjectFromBinary(Map<StreamMessageId, Map<String, byte[]>> result) {
+    if (isEmpty(result)) {
+      return Collections.emptyList();
+    } else {
+      List<Message> messages = new ArrayList<>();
+      for (Map.Entry<StreamMessageId, Map<String, byte[]>> entry : result.entrySet()) {
+        messages.add(getConsumerMessageObjectFromBinary(entry.getKey(), entry.getValue()));
+      }
+
+      return messages;
+    }
+  }
+
+  public Message getConsumerMessageObjectFromBinary(StreamMessageId messageId, Map<String, byte[]> messageMap) {
+    ByteString data = ByteString.EMPTY;
+    Map<String, String> metadata = new HashMap<>();
+    for (Map.Entry<String, byte[]> entry : messageMap.entrySet()) {
+      if (REDIS_STREAM_BINARY_KEY.equals(entry.getKey())) {
+        data = ByteString.copyFrom(entry.getValue());
+      } else if (REDIS_STREAM_INTERNAL_KEY.equals(entry.getKey())) {
+        data = ByteString.copyFrom(Base64.getDecoder().decode(entry.getValue()));
+      } else {
+        metadata.put(entry.getKey(), new String(entry.getValue(), UTF_8));
+      }
+    }
+
+    return Message.newBuilder()
+        .setId(messageId.toString())
+        .setMessage(io.harness.eventsframework.producer.Message.newBuilder().setData(data).putAllMetadata(metadata))
+        .setTimestamp(RedisUtils.getMessageTimestamp(messageId.toString()))
+        .build();
+  }
+
+  /**
+   * Writes the payload as raw bytes under the binary field, or base64 encoded under the string field for consumers
+   * which don't read the binary field yet.
+   */
+  public Map<String, byte[]> toBinaryMessageData(Map<String, String> metadata, ByteString data, boolean binaryPayload) {
+    Map<String, byte[]> messageData = new HashMap<>(metadata.size() + 1);
+    for (Map.Entry<String, String> entry : metadata.entrySet()) {
+      messageData.put(entry.getKey(), entry.getValue().getBytes(UTF_8));
+    }
+    if (binaryPayload) {
+      messageData.put(REDIS_STREAM_BINARY_KEY, data.toByteArray());
+    } else {
+      messageData.put(REDIS_STREAM_INTERNAL_KEY, Base64.getEncoder().encode(data.toByteArray()));
+    }
+    return messageData;
+  }
 }
@@ -91,6 +91,9 @@ public class EventsClientApplication extends Application<EventsClientApplication
     new Thread(new MessageProducer(redisProducer, ColorConstants.TEXT_YELLOW, false)).start();
     new Thread(new MessageProducer(gitAwareRedisProducer, ColorConstants.TEXT_GREEN, true)).start();
 
+    /* Publish throughput of single sends vs pipelined batches */
+    //    new Thread(new MessageBatchProducer(redisProducer, ColorConstants.TEXT_CYAN)).start();
+
     /* Read via Consumer groups - order is important - Sync processing usecase (Gitsync) */
     //    new Thread(new MessageConsumer(
     //                   redisLocker, redisConfig, "serialConsumerGroups", channel, "group1", 3000,
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness;
+
+import io.harness.eventsframework.entity_crud.project.ProjectEntityChangeDTO;
+import io.harness.eventsframework.impl.redis.RedisProducer;
+import io.harness.eventsframework.producer.Message;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the publish throughput of one XADD per message against pipelined batches on a local redis.
+ */
+@Slf4j
+public class MessageBatchProducer implements Runnable {
+  private static final int MESSAGE_COUNT = 100000;
+  private static final int BATCH_SIZE = 500;
+
+  private final RedisProducer client;
+  private final String color;
+
+  public MessageBatchProducer(RedisProducer client, String color) {
+    this.client = client;
+    this.color = color;
+  }
+
+  @Override
+  public void run() {
+    List<Message> messages = new ArrayList<>(MESSAGE_COUNT);
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      messages.add(Message.newBuilder()
+                       .putAllMetadata(ImmutableMap.of("accountId", String.valueOf(i), "action", "update"))
+                       .setData(ProjectEntityChangeDTO.newBuilder()
+                                    .setIdentifier(String.valueOf(i))
+                                    .setOrgIdentifier("org")
+                                    .setAccountIdentifier("account")
+                                    .build()
+                                    .toByteString())
+                       .build());
+    }
+
+    long start = System.currentTimeMillis();
+    messages.forEach(client::send);
+    long singleSendMillis = System.currentTimeMillis() - start;
+
+    start = System.currentTimeMillis();
+    for (int i = 0; i < MESSAGE_COUNT; i += BATCH_SIZE) {
+      client.sendBatch(messages.subList(i, Math.min(i + BATCH_SIZE, MESSAGE_COUNT)));
+    }
+    long batchSendMillis = System.currentTimeMillis() - start;
+
+    log.info("{}Published {} messages - single send: {} msg/s, batch send of {}: {} msg/s{}", color, MESSAGE_COUNT,
+        MESSAGE_COUNT * 1000L / Math.max(singleSendMillis, 1), BATCH_SIZE,
+        MESSAGE_COUNT * 1000L / Math.max(batchSendMillis, 1), ColorConstants.TEXT_RESET);
+  }
+}
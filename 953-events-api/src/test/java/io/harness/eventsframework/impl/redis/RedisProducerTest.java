@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.eventsframework.impl.redis;
+
+import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_BINARY_KEY;
+import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_INTERNAL_KEY;
+import static io.harness.rule.OwnerRule.ANKUSH;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.eventsframework.producer.Message;
+import io.harness.rule.Owner;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.client.RedisException;
+
+public class RedisProducerTest extends CategoryTest {
+  private static final String TOPIC = "topic";
+
+  private RedissonClient redissonClient;
+  private RBatch batch;
+  private RStreamAsync<String, byte[]> batchStream;
+  private List<Message> messages;
+
+  @Before
+  public void setUp() {
+    redissonClient = mock(RedissonClient.class);
+    batch = mock(RBatch.class);
+    batchStream = mock(RStreamAsync.class);
+    when(redissonClient.createBatch(any(BatchOptions.class))).thenReturn(batch);
+    doReturn(batchStream).when(batch).getStream(anyString(), any());
+    messages = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      messages.add(Message.newBuilder().setData(ByteString.copyFromUtf8("message-" + i)).build());
+    }
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldRetryOnlyUnacknowledgedMessages() {
+    RedisProducer producer = producer(true);
+    String[] messageIds = new String[messages.size()];
+    RedisException cause = new RedisException("OOM command not allowed");
+    stubAddAll(acknowledged(1), failed(cause), acknowledged(3), acknowledged(2));
+
+    assertThatThrownBy(() -> producer.sendBatchInternal(messages, messageIds))
+        .isInstanceOf(IllegalStateException.class)
+        .hasCause(cause);
+    assertThat(messageIds).containsExactly("1-0", null, "3-0");
+
+    assertThat(producer.sendBatchInternal(messages, messageIds)).containsExactly("1-0", "2-0", "3-0");
+    ArgumentCaptor<Map<String, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(batchStream, times(4)).addAllAsync(captor.capture(), anyInt(), anyBoolean());
+    assertThat(captor.getAllValues().get(3).get(REDIS_STREAM_BINARY_KEY))
+        .isEqualTo(messages.get(1).getData().toByteArray());
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldRetryAllMessagesWhenBatchExecutionFails() {
+    RedisProducer producer = producer(true);
+    String[] messageIds = new String[messages.size()];
+    when(batch.execute()).thenThrow(new RedisException("Connection closed")).thenReturn(null);
+    // futures are never completed and have no cause when the batch fails before sending them
+    stubAddAll(incomplete(), incomplete(), incomplete(), acknowledged(1), acknowledged(2), acknowledged(3));
+
+    assertThatThrownBy(() -> producer.sendBatchInternal(messages, messageIds))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("3 of 3 messages were not inserted")
+        .hasNoCause();
+    assertThat(messageIds).containsOnlyNulls();
+
+    assertThat(producer.sendBatchInternal(messages, messageIds)).containsExactly("1-0", "2-0", "3-0");
+    verify(batchStream, times(6)).addAllAsync(anyMap(), anyInt(), anyBoolean());
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldWriteBase64PayloadUnlessBinaryBatchPayloadIsEnabled() {
+    stubAddAll(acknowledged(1), acknowledged(2), acknowledged(3));
+
+    producer(false).sendBatchInternal(messages, new String[messages.size()]);
+
+    ArgumentCaptor<Map<String, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+    verify(batchStream, times(3)).addAllAsync(captor.capture(), anyInt(), anyBoolean());
+    for (int i = 0; i < messages.size(); i++) {
+      Map<String, byte[]> messageData = captor.getAllValues().get(i);
+      assertThat(messageData).doesNotContainKey(REDIS_STREAM_BINARY_KEY);
+      assertThat(Base64.getDecoder().decode(messageData.get(REDIS_STREAM_INTERNAL_KEY)))
+          .isEqualTo(messages.get(i).getData().toByteArray());
+    }
+  }
+
+  private void stubAddAll(RFuture<StreamMessageId> first, RFuture<StreamMessageId>... rest) {
+    when(batchStream.addAllAsync(anyMap(), anyInt(), anyBoolean())).thenReturn(first, rest);
+  }
+
+  private RedisProducer producer(boolean binaryBatchPayload) {
+    return new RedisProducer(TOPIC, redissonClient, 1000, "producer", "", null, binaryBatchPayload);
+  }
+
+  private static RFuture<StreamMessageId> acknowledged(long id) {
+    RFuture<StreamMessageId> future = mock(RFuture.class);
+    when(future.isSuccess()).thenReturn(true);
+    when(future.getNow()).thenReturn(new StreamMessageId(id, 0));
+    return future;
+  }
+
+  private static RFuture<StreamMessageId> failed(Throwable cause) {
+    RFuture<StreamMessageId> future = mock(RFuture.class);
+    when(future.cause()).thenReturn(cause);
+    return future;
+  }
+
+  private static RFuture<StreamMessageId> incomplete() {
+    return mock(RFuture.class);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.eventsframework.impl.redis;
+
+import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_BINARY_KEY;
+import static io.harness.eventsframework.impl.redis.RedisUtils.REDIS_STREAM_INTERNAL_KEY;
+import static io.harness.rule.OwnerRule.ANKUSH;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.eventsframework.consumer.Message;
+import io.harness.rule.Owner;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.redisson.api.StreamMessageId;
+
+public class RedisUtilsTest extends CategoryTest {
+  private static final StreamMessageId MESSAGE_ID = new StreamMessageId(1690000000000L, 1);
+  private static final ByteString DATA = ByteString.copyFrom(new byte[] {0, 1, 2, (byte) 0xFF, 'o'});
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldDecodeBase64Payload() {
+    Map<String, byte[]> messageMap = new HashMap<>();
+    messageMap.put(REDIS_STREAM_INTERNAL_KEY, Base64.getEncoder().encode(DATA.toByteArray()));
+    messageMap.put("accountId", "account".getBytes(UTF_8));
+
+    Message message = RedisUtils.getConsumerMessageObjectFromBinary(MESSAGE_ID, messageMap);
+
+    assertThat(message.getId()).isEqualTo(MESSAGE_ID.toString());
+    assertThat(message.getMessage().getData()).isEqualTo(DATA);
+    assertThat(message.getMessage().getMetadataMap()).containsExactly(entry("accountId", "account"));
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldDecodeBinaryPayload() {
+    Map<String, byte[]> messageMap = new HashMap<>();
+    messageMap.put(REDIS_STREAM_BINARY_KEY, DATA.toByteArray());
+    messageMap.put("accountId", "account".getBytes(UTF_8));
+
+    Message message = RedisUtils.getConsumerMessageObjectFromBinary(MESSAGE_ID, messageMap);
+
+    assertThat(message.getId()).isEqualTo(MESSAGE_ID.toString());
+    assertThat(message.getMessage().getData()).isEqualTo(DATA);
+    assertThat(message.getMessage().getMetadataMap()).containsExactly(entry("accountId", "account"));
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldWriteBase64PayloadUnlessBinaryIsEnabled() {
+    Map<String, byte[]> messageData =
+        RedisUtils.toBinaryMessageData(ImmutableMap.of("accountId", "account"), DATA, false);
+
+    assertThat(messageData).containsOnlyKeys(REDIS_STREAM_INTERNAL_KEY, "accountId");
+    // readable by consumers on the string codec
+    assertThat(new String(messageData.get(REDIS_STREAM_INTERNAL_KEY), UTF_8))
+        .isEqualTo(Base64.getEncoder().encodeToString(DATA.toByteArray()));
+    assertThat(RedisUtils.getConsumerMessageObjectFromBinary(MESSAGE_ID, messageData).getMessage().getData())
+        .isEqualTo(DATA);
+  }
+
+  @Test
+  @Owner(developers = ANKUSH)
+  @Category(UnitTests.class)
+  public void shouldWriteBinaryPayloadWhenEnabled() {
+    Map<String, byte[]> messageData =
+        RedisUtils.toBinaryMessageData(ImmutableMap.of("accountId", "account"), DATA, true);
+
+    assertThat(messageData).containsOnlyKeys(REDIS_STREAM_BINARY_KEY, "accountId");
+    assertThat(messageData.get(REDIS_STREAM_BINARY_KEY)).isEqualTo(DATA.toByteArray());
+    assertThat(RedisUtils.getConsumerMessageObjectFromBinary(MESSAGE_ID, messageData).getMessage().getData())
+        .isEqualTo(DATA);
+  }
+}
@@ -60,6 +60,7 @@ public class OutboxEvent implements PersistentEntity {
   @CreatedDate Long createdAt;
   @Setter @Builder.Default Boolean blocked = Boolean.FALSE;
   @Setter Instant nextUnblockAttemptAt;
+  @Setter Integer retryAttempts;
 
   GlobalContext globalContext;
 
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.outbox;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.outbox.OutboxSDKConstants.DEFAULT_DISPATCH_PARTITIONS;
+import static io.harness.outbox.OutboxSDKConstants.DEFAULT_RETRY_DELAY_IN_SECONDS;
+import static io.harness.outbox.OutboxSDKConstants.DEFAULT_UNBLOCK_RETRY_INTERVAL_IN_MINUTES;
+import static io.harness.outbox.OutboxSDKConstants.OUTBOX_EVENT_PROCESSING_TIME_METRIC_NAME;
+import static io.harness.outbox.OutboxSDKConstants.OUTBOX_EVENT_WAITING_TIME_METRIC_NAME;
+
+import static java.time.Duration.ofMillis;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.outbox.api.OutboxEventHandler;
+import io.harness.outbox.api.OutboxService;
+import io.harness.outbox.monitor.OutboxMetricsServiceImpl;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Handles a page of outbox events in parallel. Events are hash partitioned by their resource, each partition is
+ * handled in order on a bounded pool, so events of the same resource are still handled in the order they were
+ * created.
+ *
+ * Events are handled once per poll. A failed event goes to a delayed retry, it is blocked until an exponentially
+ * growing delay passes, and the later events of its resource are parked until the same time, so they are not handled
+ * before it. Successful events are deleted with a single query at the end of the poll.
+ *
+ * Parked resources are worked out at the start of each poll from the persisted blocked events, so they hold whichever
+ * instance polls next, not just the one that saw the failure.
+ */
+@OwnedBy(PL)
+@Slf4j
+class OutboxEventDispatcher {
+  private final OutboxService outboxService;
+  private final OutboxEventHandler outboxEventHandler;
+  private final OutboxPollConfiguration outboxPollConfiguration;
+  private final OutboxMetricsServiceImpl outboxMetricsService;
+  private final String serviceId;
+  private final int partitions;
+  private final Duration retryDelay;
+  private final ExecutorService executorService;
+
+  OutboxEventDispatcher(OutboxService outboxService, OutboxEventHandler outboxEventHandler,
+      OutboxPollConfiguration outboxPollConfiguration, OutboxMetricsServiceImpl outboxMetricsService,
+      String serviceId) {
+    this.outboxService = outboxService;
+    this.outboxEventHandler = outboxEventHandler;
+    this.outboxPollConfiguration = outboxPollConfiguration;
+    this.outboxMetricsService = outboxMetricsService;
+    this.serviceId = serviceId;
+    this.partitions = outboxPollConfiguration.getDispatchPartitions() > 0
+        ? outboxPollConfiguration.getDispatchPartitions()
+        : DEFAULT_DISPATCH_PARTITIONS;
+    this.retryDelay = Duration.ofSeconds(outboxPollConfiguration.getRetryDelayInSeconds() > 0
+            ? outboxPollConfiguration.getRetryDelayInSeconds()
+            : DEFAULT_RETRY_DELAY_IN_SECONDS);
+    this.executorService = Executors.newFixedThreadPool(partitions,
+        new ThreadFactoryBuilder()
+            .setNameFormat("outbox-dispatcher-" + outboxPollConfiguration.getLockId() + "-%d")
+            .build());
+  }
+
+  void dispatch(List<OutboxEvent> outboxEvents) {
+    if (outboxEvents.isEmpty()) {
+      return;
+    }
+    long startTime = System.currentTimeMillis();
+    Instant now = Instant.ofEpochMilli(startTime);
+    Map<List<Object>, Instant> delayedResources;
+    try {
+      delayedResources = delayedResources(now);
+    } catch (Exception exception) {
+      log.error("Error occurred while listing blocked outbox events, the events will be picked by the next poll",
+          exception);
+      return;
+    }
+
+    List<List<OutboxEvent>> eventsPerPartition = new ArrayList<>();
+    for (int i = 0; i < partitions; i++) {
+      eventsPerPartition.add(new ArrayList<>());
+    }
+    long oldestCreatedAt = startTime;
+    for (OutboxEvent outboxEvent : outboxEvents) {
+      eventsPerPartition.get(Math.floorMod(resourceKey(outboxEvent).hashCode(), partitions)).add(outboxEvent);
+      oldestCreatedAt = Math.min(oldestCreatedAt, outboxEvent.getCreatedAt());
+    }
+    List<Future<PartitionResult>> futures = new ArrayList<>();
+    for (List<OutboxEvent> partitionEvents : eventsPerPartition) {
+      if (!partitionEvents.isEmpty()) {
+        futures.add(executorService.submit(() -> handlePartition(partitionEvents, delayedResources, now)));
+      }
+    }
+    boolean interrupted = awaitPartitions(futures);
+
+    // partitions that failed or were cancelled are picked by the next poll, the work of the others is kept
+    List<String> succeededIds = new ArrayList<>();
+    List<OutboxEvent> delayedEvents = new ArrayList<>();
+    long handledEvents = 0;
+    for (Future<PartitionResult> future : futures) {
+      PartitionResult result = partitionResult(future);
+      if (result != null) {
+        succeededIds.addAll(result.succeededIds);
+        delayedEvents.addAll(result.delayedEvents);
+        handledEvents += result.handledEvents;
+      }
+    }
+
+    try {
+      outboxService.deleteAll(succeededIds);
+    } catch (Exception exception) {
+      log.error(
+          String.format("Error occurred while deleting %d handled outbox events", succeededIds.size()), exception);
+    }
+    for (OutboxEvent outboxEvent : delayedEvents) {
+      try {
+        outboxService.update(outboxEvent);
+      } catch (Exception exception) {
+        log.error(String.format("Error occurred in post handling of outbox event with id %s and type %s",
+                      outboxEvent.getId(), outboxEvent.getEventType()),
+            exception);
+      }
+    }
+    if (outboxPollConfiguration.isEnableMetrics()) {
+      outboxMetricsService.recordDispatchMetrics(serviceId, ofMillis(startTime - oldestCreatedAt), handledEvents,
+          ofMillis(System.currentTimeMillis() - startTime));
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  void shutdown() {
+    executorService.shutdownNow();
+  }
+
+  /**
+   * Waits for all partitions, on interruption the unfinished ones are cancelled. Returns whether the thread was
+   * interrupted, the flag is restored by the caller once the finished partitions are persisted.
+   */
+  private boolean awaitPartitions(List<Future<PartitionResult>> futures) {
+    try {
+      for (Future<PartitionResult> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException | CancellationException exception) {
+          // reported when the partition results are collected
+        }
+      }
+      return false;
+    } catch (InterruptedException exception) {
+      log.warn("Interrupted while dispatching outbox events, unfinished events will be picked by the next poll");
+      futures.forEach(future -> future.cancel(true));
+      return true;
+    }
+  }
+
+  private static PartitionResult partitionResult(Future<PartitionResult> future) {
+    if (!future.isDone() || future.isCancelled()) {
+      return null;
+    }
+    try {
+      return Futures.getDone(future);
+    } catch (ExecutionException exception) {
+      log.error("Unexpected error occurred while dispatching outbox events", exception.getCause());
+      return null;
+    }
+  }
+
+  /**
+   * Resources with an event waiting for a delayed retry, and when that retry is due.
+   */
+  private Map<List<Object>, Instant> delayedResources(Instant now) {
+    Map<List<Object>, Instant> delayedResources = new ConcurrentHashMap<>();
+    for (OutboxEvent blockedEvent : outboxService.listBlockedAfter(now)) {
+      delayedResources.merge(
+          resourceKey(blockedEvent), blockedEvent.getNextUnblockAttemptAt(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+    return delayedResources;
+  }
+
+  private PartitionResult handlePartition(
+      List<OutboxEvent> outboxEvents, Map<List<Object>, Instant> delayedResources, Instant now) {
+    PartitionResult result = new PartitionResult();
+    for (OutboxEvent outboxEvent : outboxEvents) {
+      if (Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      List<Object> resourceKey = resourceKey(outboxEvent);
+      Instant retryAt = delayedResources.get(resourceKey);
+      if (retryAt != null && retryAt.isAfter(now)) {
+        outboxEvent.setBlocked(true);
+        outboxEvent.setNextUnblockAttemptAt(retryAt);
+        result.delayedEvents.add(outboxEvent);
+        continue;
+      }
+
+      long startTime = System.currentTimeMillis();
+      long outboxEventWaitingTime = startTime - outboxEvent.getCreatedAt();
+      boolean success = handle(outboxEvent);
+      long outboxEventProcessingTime = System.currentTimeMillis() - startTime;
+      log.info(String.format(
+          "[OutboxEventDispatcher] id: %s, eventType: %s, resourceType: %s, waitingTime: %d, processingTime: %d",
+          outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getResource().getType(), outboxEventWaitingTime,
+          outboxEventProcessingTime));
+      if (outboxPollConfiguration.isEnableMetrics()) {
+        outboxMetricsService.recordMetricsWithDuration(serviceId, outboxEvent.getEventType(),
+            outboxEvent.getResource().getType(), ofMillis(outboxEventProcessingTime),
+            OUTBOX_EVENT_PROCESSING_TIME_METRIC_NAME);
+        outboxMetricsService.recordMetricsWithDuration(serviceId, outboxEvent.getEventType(),
+            outboxEvent.getResource().getType(), ofMillis(outboxEventWaitingTime),
+            OUTBOX_EVENT_WAITING_TIME_METRIC_NAME);
+      }
+      result.handledEvents++;
+
+      if (success) {
+        result.succeededIds.add(outboxEvent.getId());
+      } else {
+        int retryAttempts = outboxEvent.getRetryAttempts() == null ? 1 : outboxEvent.getRetryAttempts() + 1;
+        Instant nextRetryAt = now.plus(retryDelay(retryAttempts));
+        outboxEvent.setRetryAttempts(retryAttempts);
+        outboxEvent.setBlocked(true);
+        outboxEvent.setNextUnblockAttemptAt(nextRetryAt);
+        delayedResources.put(resourceKey, nextRetryAt);
+        result.delayedEvents.add(outboxEvent);
+      }
+    }
+    return result;
+  }
+
+  private boolean handle(OutboxEvent outboxEvent) {
+    try {
+      return outboxEventHandler.handle(outboxEvent);
+    } catch (Exception exception) {
+      log.error(String.format("Error occurred while handling outbox event with id %s and type %s", outboxEvent.getId(),
+                    outboxEvent.getEventType()),
+          exception);
+      return false;
+    }
+  }
+
+  private Duration retryDelay(int retryAttempts) {
+    Duration maximumDelay = Duration.ofMinutes(DEFAULT_UNBLOCK_RETRY_INTERVAL_IN_MINUTES);
+    if (retryAttempts >= outboxPollConfiguration.getMaximumRetryAttemptsForAnEvent()) {
+      // out of quick retries, fall back to the interval blocked events are retried with
+      return maximumDelay;
+    }
+    Duration delay = retryDelay.multipliedBy(1L << Math.min(retryAttempts - 1, 20));
+    return delay.compareTo(maximumDelay) < 0 ? delay : maximumDelay;
+  }
+
+  private static List<Object> resourceKey(OutboxEvent outboxEvent) {
+    return Arrays.asList(
+        outboxEvent.getResourceScope(), outboxEvent.getResource().getType(), outboxEvent.getResource().getIdentifier());
+  }
+
+  private static class PartitionResult {
+    private final List<String> succeededIds = new ArrayList<>();
+    private final List<OutboxEvent> delayedEvents = new ArrayList<>();
+    private long handledEvents;
+  }
+}
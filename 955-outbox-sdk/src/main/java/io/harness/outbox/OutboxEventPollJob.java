@@ -50,6 +50,7 @@ public class OutboxEventPollJob implements Runnable {
   private final String outboxLockId;
   private final OutboxMetricsServiceImpl outboxMetricsService;
   private final String serviceId;
+  private final OutboxEventDispatcher outboxEventDispatcher;
 
   @Inject
   public OutboxEventPollJob(OutboxService outboxService, OutboxEventHandler outboxEventHandler,
@@ -68,6 +69,10 @@ public class OutboxEventPollJob implements Runnable {
                                   .maxAttempts(this.outboxPollConfiguration.getMaximumRetryAttemptsForAnEvent())
                                   .build();
     this.retry = Retry.of("outboxEventHandleRetry", retryConfig);
+    this.outboxEventDispatcher = this.outboxPollConfiguration.isParallelDispatch()
+        ? new OutboxEventDispatcher(
+            outboxService, outboxEventHandler, outboxPollConfiguration, outboxMetricsService, serviceId)
+        : null;
   }
 
   @Override
@@ -81,6 +86,12 @@ public class OutboxEventPollJob implements Runnable {
     }
   }
 
+  public void stop() {
+    if (outboxEventDispatcher != null) {
+      outboxEventDispatcher.shutdown();
+    }
+  }
+
   private void pollAndHandleOutboxEvents() {
     try (AcquiredLock<?> lock = persistentLocker.tryToAcquireLock(outboxLockId, Duration.ofMinutes(2))) {
       if (lock == null) {
@@ -95,6 +106,11 @@ public class OutboxEventPollJob implements Runnable {
         return;
       }
 
+      if (outboxEventDispatcher != null) {
+        outboxEventDispatcher.dispatch(outboxEvents);
+        return;
+      }
+
       for (int i = 0; i < outboxEvents.size() && !Thread.currentThread().isInterrupted(); i++) {
         OutboxEvent outbox = outboxEvents.get(i);
         long startTime = System.currentTimeMillis();
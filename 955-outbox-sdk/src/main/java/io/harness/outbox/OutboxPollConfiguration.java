@@ -28,4 +28,8 @@ public class OutboxPollConfiguration {
   int maximumRetryAttemptsForAnEvent;
   String lockId;
   boolean enableMetrics;
+  // handles events of different resources in parallel, the event handler has to be thread safe
+  boolean parallelDispatch;
+  int dispatchPartitions;
+  int retryDelayInSeconds;
 }
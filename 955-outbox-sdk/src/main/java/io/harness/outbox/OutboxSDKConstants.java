@@ -31,6 +31,10 @@ public class OutboxSDKConstants {
 
   public static final int DEFAULT_UNBLOCK_RETRY_INTERVAL_IN_MINUTES = 10;
 
+  public static final int DEFAULT_DISPATCH_PARTITIONS = 8;
+
+  public static final int DEFAULT_RETRY_DELAY_IN_SECONDS = 5;
+
   public static final OutboxPollConfiguration DEFAULT_OUTBOX_POLL_CONFIGURATION =
       OutboxPollConfiguration.builder()
           .maximumRetryAttemptsForAnEvent(DEFAULT_MAX_ATTEMPTS)
@@ -50,5 +54,9 @@ public class OutboxSDKConstants {
 
   public static final String OUTBOX_EVENT_WAITING_TIME_METRIC_NAME = "outbox_event_waiting_time";
 
+  public static final String OUTBOX_DISPATCH_LAG_METRIC_NAME = "outbox_dispatch_lag";
+
+  public static final String OUTBOX_DISPATCH_THROUGHPUT_METRIC_NAME = "outbox_dispatch_throughput";
+
   public static final String ALL_EVENT_TYPES = "AllEventTypes";
 }
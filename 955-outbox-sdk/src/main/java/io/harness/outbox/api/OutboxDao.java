@@ -14,6 +14,7 @@ import io.harness.outbox.OutboxEvent;
 import io.harness.outbox.filter.OutboxEventFilter;
 import io.harness.outbox.filter.OutboxMetricsFilter;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -23,9 +24,13 @@ public interface OutboxDao {
 
   List<OutboxEvent> list(OutboxEventFilter outboxEventFilter);
 
+  List<OutboxEvent> listBlockedAfter(Instant time);
+
   long count(OutboxMetricsFilter outboxMetricsFilter);
 
   Map<String, Long> countPerEventType(OutboxMetricsFilter outboxMetricsFilter);
 
   boolean delete(String outboxEventId);
+
+  long deleteAll(List<String> outboxEventIds);
 }
@@ -14,6 +14,7 @@ import io.harness.event.Event;
 import io.harness.outbox.OutboxEvent;
 import io.harness.outbox.filter.OutboxEventFilter;
 
+import java.time.Instant;
 import java.util.List;
 
 @OwnedBy(PL)
@@ -24,5 +25,12 @@ public interface OutboxService {
 
   List<OutboxEvent> list(OutboxEventFilter outboxEventFilter);
 
+  /**
+   * Lists the events blocked until after the given time, only with their resource and next unblock attempt.
+   */
+  List<OutboxEvent> listBlockedAfter(Instant time);
+
   boolean delete(String outboxEventId);
+
+  long deleteAll(List<String> outboxEventIds);
 }
@@ -30,6 +30,7 @@ import io.harness.repositories.outbox.OutboxEventRepository;
 
 import com.google.inject.Inject;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +68,14 @@ public class OutboxDaoImpl implements OutboxDao {
                            .build()));
   }
 
+  @Override
+  public List<OutboxEvent> listBlockedAfter(Instant time) {
+    Criteria criteria =
+        Criteria.where(OutboxEventKeys.blocked).is(Boolean.TRUE).and(OutboxEventKeys.nextUnblockAttemptAt).gt(time);
+    return outboxRepository.findAllWithFields(criteria,
+        Arrays.asList(OutboxEventKeys.resourceScope, OutboxEventKeys.resource, OutboxEventKeys.nextUnblockAttemptAt));
+  }
+
   @Override
   public long count(OutboxMetricsFilter outboxMetricsFilter) {
     Criteria criteria = new Criteria();
@@ -114,4 +123,12 @@ public class OutboxDaoImpl implements OutboxDao {
     outboxRepository.deleteById(outboxEventId);
     return true;
   }
+
+  @Override
+  public long deleteAll(List<String> outboxEventIds) {
+    if (outboxEventIds.isEmpty()) {
+      return 0;
+    }
+    return outboxRepository.bulkDelete(outboxEventIds);
+  }
 }
@@ -26,6 +26,7 @@ import software.wings.jersey.JsonViews;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
+import java.time.Instant;
 import java.util.List;
 import javax.annotation.Nullable;
 
@@ -72,9 +73,19 @@ public class OutboxServiceImpl implements OutboxService {
     return outboxDao.list(outboxEventFilter);
   }
 
+  @Override
+  public List<OutboxEvent> listBlockedAfter(Instant time) {
+    return outboxDao.listBlockedAfter(time);
+  }
+
   @Override
   public boolean delete(String outboxEventId) {
     outboxDao.delete(outboxEventId);
     return true;
   }
+
+  @Override
+  public long deleteAll(List<String> outboxEventIds) {
+    return outboxDao.deleteAll(outboxEventIds);
+  }
 }
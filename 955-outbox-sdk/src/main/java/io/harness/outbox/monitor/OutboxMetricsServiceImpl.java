@@ -7,6 +7,10 @@
 
 package io.harness.outbox.monitor;
 
+import static io.harness.outbox.OutboxSDKConstants.ALL_EVENT_TYPES;
+import static io.harness.outbox.OutboxSDKConstants.OUTBOX_DISPATCH_LAG_METRIC_NAME;
+import static io.harness.outbox.OutboxSDKConstants.OUTBOX_DISPATCH_THROUGHPUT_METRIC_NAME;
+
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.metrics.service.api.MetricService;
@@ -31,4 +35,16 @@ public class OutboxMetricsServiceImpl {
       metricService.recordDuration(metricName, duration);
     }
   }
+
+  /**
+   * Records how long the oldest event of a poll was waiting in the outbox, and how many events per second the poll
+   * handled.
+   */
+  public void recordDispatchMetrics(String serviceId, Duration lag, long handledEvents, Duration dispatchDuration) {
+    try (OutboxContext ignore = new OutboxContext(serviceId, ALL_EVENT_TYPES)) {
+      metricService.recordMetric(OUTBOX_DISPATCH_LAG_METRIC_NAME, lag.toMillis());
+      metricService.recordMetric(
+          OUTBOX_DISPATCH_THROUGHPUT_METRIC_NAME, handledEvents * 1000.0 / Math.max(1, dispatchDuration.toMillis()));
+    }
+  }
 }
@@ -21,6 +21,8 @@ import org.springframework.data.mongodb.core.query.Criteria;
 @OwnedBy(PL)
 public interface OutboxEventCustomRepository {
   List<OutboxEvent> findAll(Criteria criteria, Pageable pageable);
+  List<OutboxEvent> findAllWithFields(Criteria criteria, List<String> fields);
   long count(Criteria criteria);
   <T> AggregationResults<T> aggregate(Aggregation aggregation, Class<T> classToFillResultIn);
+  long bulkDelete(List<String> ids);
 }
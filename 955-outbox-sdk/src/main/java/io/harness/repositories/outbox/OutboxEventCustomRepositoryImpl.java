@@ -11,6 +11,7 @@ import static io.harness.annotations.dev.HarnessTeam.PL;
 
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.outbox.OutboxEvent;
+import io.harness.outbox.OutboxEvent.OutboxEventKeys;
 
 import com.google.inject.Inject;
 import java.util.List;
@@ -34,6 +35,13 @@ public class OutboxEventCustomRepositoryImpl implements OutboxEventCustomReposit
     return mongoTemplate.find(query, OutboxEvent.class);
   }
 
+  @Override
+  public List<OutboxEvent> findAllWithFields(Criteria criteria, List<String> fields) {
+    Query query = new Query(criteria);
+    fields.forEach(field -> query.fields().include(field));
+    return mongoTemplate.find(query, OutboxEvent.class);
+  }
+
   @Override
   public long count(Criteria criteria) {
     return mongoTemplate.count(new Query(criteria), OutboxEvent.class);
@@ -43,4 +51,10 @@ public class OutboxEventCustomRepositoryImpl implements OutboxEventCustomReposit
   public <T> AggregationResults<T> aggregate(Aggregation aggregation, Class<T> classToFillResultIn) {
     return mongoTemplate.aggregate(aggregation, OutboxEvent.class, classToFillResultIn);
   }
+
+  @Override
+  public long bulkDelete(List<String> ids) {
+    Query query = new Query(Criteria.where(OutboxEventKeys.id).in(ids));
+    return mongoTemplate.remove(query, OutboxEvent.class).getDeletedCount();
+  }
 }
@@ -15,9 +15,11 @@ import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertTrue;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -28,12 +30,17 @@ import io.harness.category.element.UnitTests;
 import io.harness.lock.AcquiredLock;
 import io.harness.lock.PersistentLocker;
 import io.harness.maintenance.MaintenanceController;
+import io.harness.ng.core.AccountScope;
 import io.harness.ng.core.Resource;
 import io.harness.outbox.api.OutboxEventHandler;
 import io.harness.outbox.api.OutboxService;
 import io.harness.outbox.monitor.OutboxMetricsServiceImpl;
 import io.harness.rule.Owner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -114,4 +121,119 @@ public class OutboxPollJobTest extends CategoryTest {
     assertTrue(updateOutboxEvent.getBlocked());
     assertNotNull(updateOutboxEvent.getNextUnblockAttemptAt());
   }
+
+  @Test
+  @Owner(developers = KARAN)
+  @Category(UnitTests.class)
+  public void testParallelDispatchDeletesHandledEventsInBulk() {
+    OutboxEventPollJob parallelPollJob = parallelPollJob();
+    OutboxEvent first = outboxEvent("first");
+    OutboxEvent second = outboxEvent("second");
+    OutboxEvent third = outboxEvent("third");
+    when(outboxService.list(any())).thenReturn(Arrays.asList(first, second, third));
+    when(outboxEventHandler.handle(any())).thenReturn(true);
+    final ArgumentCaptor<List<String>> deletedIdsCaptor = ArgumentCaptor.forClass(List.class);
+
+    parallelPollJob.run();
+    parallelPollJob.stop();
+
+    verify(outboxEventHandler, times(3)).handle(any());
+    verify(outboxService, times(1)).deleteAll(deletedIdsCaptor.capture());
+    assertThat(deletedIdsCaptor.getValue()).containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+    verify(outboxService, never()).delete(any());
+    verify(outboxService, never()).update(any());
+  }
+
+  @Test
+  @Owner(developers = KARAN)
+  @Category(UnitTests.class)
+  public void testParallelDispatchDelaysFailedEventAndLaterEventsOfItsResource() {
+    OutboxEventPollJob parallelPollJob = parallelPollJob();
+    OutboxEvent failing = outboxEvent("first");
+    OutboxEvent parked = outboxEvent("first");
+    OutboxEvent other = outboxEvent("second");
+    when(outboxService.list(any())).thenReturn(Arrays.asList(failing, parked, other));
+    when(outboxEventHandler.handle(failing)).thenReturn(false);
+    when(outboxEventHandler.handle(other)).thenReturn(true);
+    final ArgumentCaptor<OutboxEvent> outboxEventArgumentCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+    parallelPollJob.run();
+    parallelPollJob.stop();
+
+    verify(outboxEventHandler, times(1)).handle(failing);
+    verify(outboxEventHandler, never()).handle(parked);
+    verify(outboxService, times(1)).deleteAll(singletonList(other.getId()));
+    verify(outboxService, times(2)).update(outboxEventArgumentCaptor.capture());
+    assertThat(outboxEventArgumentCaptor.getAllValues()).containsExactly(failing, parked);
+    assertTrue(failing.getBlocked());
+    assertTrue(parked.getBlocked());
+    assertEquals(1, (int) failing.getRetryAttempts());
+    assertNotNull(failing.getNextUnblockAttemptAt());
+    assertEquals(failing.getNextUnblockAttemptAt(), parked.getNextUnblockAttemptAt());
+  }
+
+  @Test
+  @Owner(developers = KARAN)
+  @Category(UnitTests.class)
+  public void testParallelDispatchParksResourceBlockedByAnotherDispatcher() {
+    // blocked events as persisted by both dispatchers
+    List<OutboxEvent> blockedEvents = new ArrayList<>();
+    when(outboxService.update(any())).thenAnswer(invocation -> {
+      blockedEvents.add(invocation.getArgument(0));
+      return invocation.getArgument(0);
+    });
+    when(outboxService.listBlockedAfter(any()))
+        .thenAnswer(invocation
+            -> blockedEvents.stream()
+                   .filter(event -> event.getNextUnblockAttemptAt().isAfter(invocation.getArgument(0)))
+                   .collect(Collectors.toList()));
+    OutboxEventPollJob firstPollJob = parallelPollJob();
+    OutboxEventPollJob secondPollJob = parallelPollJob();
+    OutboxEvent failing = outboxEvent("first");
+    OutboxEvent later = outboxEvent("first");
+    OutboxEvent other = outboxEvent("second");
+    when(outboxEventHandler.handle(failing)).thenReturn(false);
+    when(outboxEventHandler.handle(other)).thenReturn(true);
+
+    when(outboxService.list(any())).thenReturn(singletonList(failing));
+    firstPollJob.run();
+    // the failed event is blocked, so the next poll only lists the events created after it
+    when(outboxService.list(any())).thenReturn(Arrays.asList(later, other));
+    secondPollJob.run();
+    firstPollJob.stop();
+    secondPollJob.stop();
+
+    verify(outboxEventHandler, times(1)).handle(failing);
+    verify(outboxEventHandler, never()).handle(later);
+    verify(outboxService, times(1)).deleteAll(singletonList(other.getId()));
+    assertThat(blockedEvents).containsExactly(failing, later);
+    assertTrue(later.getBlocked());
+    assertEquals(failing.getNextUnblockAttemptAt(), later.getNextUnblockAttemptAt());
+  }
+
+  private OutboxEventPollJob parallelPollJob() {
+    when(persistentLocker.tryToAcquireLock(eq(OUTBOX_POLL_JOB_LOCK + "_"
+                                               + "LOCK_ID"),
+             any()))
+        .thenReturn(mock(AcquiredLock.class));
+    return new OutboxEventPollJob(outboxService, outboxEventHandler, persistentLocker,
+        OutboxPollConfiguration.builder()
+            .maximumRetryAttemptsForAnEvent(2)
+            .lockId("LOCK_ID")
+            .parallelDispatch(true)
+            .dispatchPartitions(4)
+            .build(),
+        outboxMetricsServiceImpl, "service-id");
+  }
+
+  private static OutboxEvent outboxEvent(String resourceIdentifier) {
+    return OutboxEvent.builder()
+        .eventType("emptyEvent")
+        .blocked(false)
+        .id(randomAlphabetic(10))
+        .resourceScope(new AccountScope("account"))
+        .resource(Resource.builder().type("resource").identifier(resourceIdentifier).build())
+        .createdAt(123456789L)
+        .build();
+  }
 }
@@ -302,10 +302,14 @@ public enum FeatureName {
   DEFAULT_ARTIFACT,
   DELEGATE_TASK_CAPACITY_CHECK("Enable delegate task capacity check", HarnessTeam.DEL),
   DELEGATE_TASK_LOAD_DISTRIBUTION("Delegate task load distribution among delegates", HarnessTeam.DEL),
+  DEL_ELIGIBILITY_INDEX("Match delegates to tasks through the precomputed eligibility index", HarnessTeam.DEL),
   DEL_FETCH_TASK_LOG_API("FF to enable fetch delegate task logs from stackdriver", HarnessTeam.DEL),
   DEL_NOTIFICATION("FF to enable notifications for delegate events", HarnessTeam.DEL),
   DEL_SELECTION_LOGS_READ_FROM_GOOGLE_DATA_STORE(
       "Enables the fetching of delegate selection records from google data store instead of mongo", HarnessTeam.DEL),
+  DEL_TASK_LEASE_QUEUE(
+      "Queue tasks for the delegates to lease by polling instead of broadcasting them, only for polling delegates",
+      HarnessTeam.DEL),
   DEPLOYMENT_RECONCILIATION_LOGIC_QUERY_OPTIMIZATIONS(
       "Used to modify logic for reconciliation queries", HarnessTeam.CDC),
   DEPLOYMENT_SUBFORMIK_APPLICATION_DROPDOWN,
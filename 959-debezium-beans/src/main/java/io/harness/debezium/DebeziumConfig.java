@@ -60,6 +60,11 @@ public class DebeziumConfig {
    * Specifies maximum topic size for redis stream
    */
   @JsonProperty("redisStreamSize") private int redisStreamSize;
+  /**
+   * Max number of change events published to the redis stream in one pipelined batch. Offsets are only committed
+   * once the whole batch is acknowledged. 0 (the default) publishes events one at a time.
+   */
+  @JsonProperty("sinkWindowSize") private int sinkWindowSize;
   /**
    * Specifies the criteria for running a snapshot upon startup of the connector. The value can be one of these: ("all"
    * - both snapshot and streaming, "initial" - only snapshot, "never" - only streaming)
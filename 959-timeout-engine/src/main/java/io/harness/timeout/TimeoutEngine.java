@@ -23,6 +23,7 @@ import io.harness.data.structure.EmptyPredicate;
 import io.harness.iterator.IteratorExecutionHandler;
 import io.harness.iterator.IteratorLoopModeHandler;
 import io.harness.iterator.PersistenceIteratorFactory;
+import io.harness.lock.PersistentLocker;
 import io.harness.mongo.iterator.MongoPersistenceIterator;
 import io.harness.mongo.iterator.MongoPersistenceIterator.Handler;
 import io.harness.mongo.iterator.filter.SpringFilterExpander;
@@ -34,6 +35,7 @@ import io.harness.timeout.TimeoutInstance.TimeoutInstanceKeys;
 import io.harness.timeout.contracts.Dimension;
 import io.harness.timeout.trackers.absolute.AbsoluteTimeoutParameters;
 import io.harness.timeout.trackers.absolute.AbsoluteTimeoutTrackerFactory;
+import io.harness.timeout.wheel.TimeoutWheelOptions;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
@@ -42,6 +44,7 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Singleton;
 import java.time.Duration;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -66,6 +69,8 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
   @Inject private Injector injector;
   @Inject private TimeoutRegistry timeoutRegistry;
 
+  private volatile TimeoutWheelScheduler timeoutWheelScheduler;
+
   public TimeoutInstance registerTimeout(@NotNull Dimension dimension, @NotNull TimeoutParameters timeoutParameters,
       @NotNull TimeoutCallback timeoutCallback) {
     TimeoutTrackerFactory timeoutTrackerFactory = timeoutRegistry.obtain(dimension);
@@ -83,7 +88,9 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
     TimeoutInstance timeoutInstance =
         TimeoutInstance.builder().uuid(generateUuid()).tracker(timeoutTracker).callback(timeoutCallback).build();
     timeoutInstance.resetNextIteration();
-    TimeoutInstance savedTimeoutInstance = timeoutInstanceRepository.save(timeoutInstance);
+    TimeoutWheelScheduler scheduler = timeoutWheelScheduler;
+    TimeoutInstance savedTimeoutInstance = scheduler != null ? scheduler.register(timeoutInstance)
+                                                             : timeoutInstanceRepository.save(timeoutInstance);
     log.info(format("Registered timeout with uuid: %s, currentTime: %d, expiryTime: %d, diff: %d",
         timeoutInstance.getUuid(), System.currentTimeMillis(), timeoutInstance.getNextIteration(),
         timeoutInstance.getNextIteration() - System.currentTimeMillis()));
@@ -97,6 +104,9 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
     if (EmptyPredicate.isEmpty(timeoutInstanceIds)) {
       return;
     }
+    if (timeoutWheelScheduler != null) {
+      timeoutWheelScheduler.forget(timeoutInstanceIds);
+    }
     List<List<String>> partition = Lists.partition(timeoutInstanceIds, MAX_BATCH_SIZE);
     for (List<String> batchTimeInstanceIds : partition) {
       timeoutInstanceRepository.deleteByUuidIn(batchTimeInstanceIds);
@@ -104,11 +114,18 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
   }
 
   public void deleteTimeout(@NonNull String timeoutInstanceId) {
+    if (timeoutWheelScheduler != null) {
+      timeoutWheelScheduler.forget(Collections.singletonList(timeoutInstanceId));
+    }
     // equal operator is better than in operator
     timeoutInstanceRepository.deleteById(timeoutInstanceId);
   }
 
   public void onEvent(List<String> timeoutInstanceIds, TimeoutEvent event) {
+    if (timeoutWheelScheduler != null && EmptyPredicate.isNotEmpty(timeoutInstanceIds)) {
+      // timeouts kept in the wheel of this pod are updated in memory, the rest directly in mongo
+      timeoutInstanceIds = timeoutWheelScheduler.onEvent(timeoutInstanceIds, event);
+    }
     if (EmptyPredicate.isEmpty(timeoutInstanceIds)) {
       return;
     }
@@ -124,6 +141,27 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
     }
   }
 
+  /**
+   * Starts firing timeouts from an in-memory timer wheel instead of an iterator. Every pod keeps the near term
+   * timeouts of the shards it owns in memory, mongo stays the durable store.
+   */
+  public synchronized void startTimerWheel(TimeoutWheelOptions options) {
+    if (timeoutWheelScheduler != null) {
+      return;
+    }
+    TimeoutWheelScheduler scheduler = new TimeoutWheelScheduler(
+        this, timeoutInstanceRepository, mongoTemplate, injector.getInstance(PersistentLocker.class), options);
+    scheduler.start();
+    timeoutWheelScheduler = scheduler;
+  }
+
+  public synchronized void stopTimerWheel() {
+    if (timeoutWheelScheduler != null) {
+      timeoutWheelScheduler.stop();
+      timeoutWheelScheduler = null;
+    }
+  }
+
   @Override
   public void createAndStartRedisBatchIterator(
       PersistenceIteratorFactory.RedisBatchExecutorOptions executorOptions, Duration targetInterval) {
@@ -180,15 +218,7 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
       final long now = System.currentTimeMillis();
       log.info("TimeoutInstance handle started");
 
-      TimeoutCallback callback = timeoutInstance.getCallback();
-      injector.injectMembers(callback);
-      try {
-        callback.onTimeout(timeoutInstance);
-        log.info("TimeoutInstance callback finished");
-      } catch (Exception ex) {
-        // TODO(gpahal): What to do in case callback throws an exception. Should we retry?
-        log.error("TimeoutInstance callback failed", ex);
-      }
+      invokeCallback(timeoutInstance);
 
       try {
         timeoutInstanceRepository.deleteById(timeoutInstance.getUuid());
@@ -196,12 +226,37 @@ public class TimeoutEngine extends IteratorLoopModeHandler implements Handler<Ti
         log.error("TimeoutInstance delete failed", ex);
       }
 
-      final long passed = System.currentTimeMillis() - now;
-      if (passed > MAX_CALLBACK_PROCESSING_TIME.toMillis()) {
-        log.error(
-            "TimeoutInstanceHandler: It took more than {} ms before we processed the callback. THIS IS VERY BAD!!!",
-            MAX_CALLBACK_PROCESSING_TIME.toMillis());
-      }
+      checkProcessingTime(now);
+    }
+  }
+
+  // the timer wheel deletes fired timeouts in batches, so it only needs the callback
+  void fireTimeout(TimeoutInstance timeoutInstance) {
+    try (TimeoutInstanceLogContext ignore0 = new TimeoutInstanceLogContext(timeoutInstance.getUuid(), OVERRIDE_ERROR)) {
+      final long now = System.currentTimeMillis();
+      log.info("TimeoutInstance fire started, delay: {}", now - timeoutInstance.getNextIteration());
+      invokeCallback(timeoutInstance);
+      checkProcessingTime(now);
+    }
+  }
+
+  private void invokeCallback(TimeoutInstance timeoutInstance) {
+    TimeoutCallback callback = timeoutInstance.getCallback();
+    injector.injectMembers(callback);
+    try {
+      callback.onTimeout(timeoutInstance);
+      log.info("TimeoutInstance callback finished");
+    } catch (Exception ex) {
+      // TODO(gpahal): What to do in case callback throws an exception. Should we retry?
+      log.error("TimeoutInstance callback failed", ex);
+    }
+  }
+
+  private void checkProcessingTime(long startTime) {
+    final long passed = System.currentTimeMillis() - startTime;
+    if (passed > MAX_CALLBACK_PROCESSING_TIME.toMillis()) {
+      log.error("TimeoutInstanceHandler: It took more than {} ms before we processed the callback. THIS IS VERY BAD!!!",
+          MAX_CALLBACK_PROCESSING_TIME.toMillis());
     }
   }
 }
@@ -14,15 +14,19 @@ import static java.time.Duration.ofDays;
 import io.harness.annotations.StoreIn;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.iterator.PersistentRegularIterable;
+import io.harness.mongo.index.CompoundMongoIndex;
 import io.harness.mongo.index.FdIndex;
 import io.harness.mongo.index.FdTtlIndex;
+import io.harness.mongo.index.MongoIndex;
 import io.harness.ng.DbAliases;
 import io.harness.persistence.UuidAccess;
 
+import com.google.common.collect.ImmutableList;
 import dev.morphia.annotations.Entity;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Date;
+import java.util.List;
 import javax.validation.constraints.NotNull;
 import lombok.Builder;
 import lombok.Data;
@@ -60,6 +64,19 @@ public class TimeoutInstance implements PersistentRegularIterable, UuidAccess {
   // iterator.
   @FdIndex long nextIteration;
 
+  // shard of the pod which keeps this timeout in its timer wheel, null for timeouts registered in the iterator modes
+  Integer shard;
+
+  public static List<MongoIndex> mongoIndexes() {
+    return ImmutableList.<MongoIndex>builder()
+        .add(CompoundMongoIndex.builder()
+                 .name("shard_nextIteration_idx")
+                 .field(TimeoutInstanceKeys.shard)
+                 .field(TimeoutInstanceKeys.nextIteration)
+                 .build())
+        .build();
+  }
+
   public void resetNextIteration() {
     Long expiryTime = tracker.getExpiryTime();
     nextIteration = expiryTime == null ? Long.MAX_VALUE : expiryTime;
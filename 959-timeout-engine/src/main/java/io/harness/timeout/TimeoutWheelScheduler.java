@@ -0,0 +1,437 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.timeout;
+
+import static io.harness.annotations.dev.HarnessTeam.CDC;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.lock.AcquiredLock;
+import io.harness.lock.PersistentLocker;
+import io.harness.repositories.TimeoutInstanceRepository;
+import io.harness.timeout.TimeoutInstance.TimeoutInstanceKeys;
+import io.harness.timeout.wheel.TimeoutWheelOptions;
+import io.harness.timeout.wheel.TimerWheel;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Keeps the timeouts of the shards owned by this pod which expire within the horizon in a {@link TimerWheel}, so
+ * they fire within milliseconds of their expiry without polling mongo. A pod owns a shard for as long as it holds the
+ * shard lock, and rebuilds the shard from mongo when it acquires it and on every scan. Unless maxOwnedShards is set,
+ * every pod owns at most its fair share of the shards, counted from the pods which sent a heartbeat within the last
+ * two scans, and releases the surplus when more pods join. A shard whose lock was lost stops firing until it is
+ * acquired again.
+ *
+ * Mongo stays the source of truth. New timeouts are saved before they are registered, tracker updates are saved in
+ * batches every flushIntervalMillis, and expired timeouts are read back from mongo before they fire, so timeouts
+ * deleted or changed by other pods are not fired. Changes made by other pods to timeouts of this shard are picked by
+ * the next scan, except for new timeouts expiring before it, which the registering pod fires itself. Timeouts are
+ * fired at least once, a tracker update made less than flushIntervalMillis before a pod crash is lost.
+ */
+@OwnedBy(CDC)
+@Slf4j
+class TimeoutWheelScheduler {
+  private static final String SHARD_LOCK_PREFIX = "TIMEOUT_ENGINE_SHARD_";
+  private static final Duration SHARD_LOCK_WAIT_TIME = Duration.ofMillis(100);
+  private static final int MAX_BATCH_SIZE = 500;
+  private static final String PODS_COLLECTION = "timeoutWheelPods";
+  private static final String POD_HEARTBEAT_KEY = "heartbeatAt";
+  private static final int POD_EXPIRY_SCANS = 2;
+
+  private final TimeoutEngine timeoutEngine;
+  private final TimeoutInstanceRepository timeoutInstanceRepository;
+  private final MongoTemplate mongoTemplate;
+  private final PersistentLocker persistentLocker;
+  private final TimeoutWheelOptions options;
+  private final String podId = generateUuid();
+
+  // all the fields below are guarded by this
+  private final TimerWheel<String> wheel;
+  private final Map<String, TimerWheel.Timer<String>> timers = new HashMap<>();
+  private final Map<String, TimeoutInstance> instances = new HashMap<>();
+  private final Map<String, TimeoutInstance> pendingSaves = new LinkedHashMap<>();
+  // timeouts of shards owned by other pods, registered here and expiring before the owner scans them
+  private final Set<String> foreignIds = new HashSet<>();
+
+  // held while a batch is written, so instances are not changed or deleted while they are being saved
+  private final Object persistenceLock = new Object();
+  private final Map<Integer, AcquiredLock<?>> ownedShards = new ConcurrentHashMap<>();
+  private volatile int[] ownedShardIds = new int[0];
+
+  private final ScheduledExecutorService wheelExecutor;
+  // shard locks are owned by the thread which acquired them, so they are only touched from this thread
+  private final ScheduledExecutorService shardExecutor;
+  private final ExecutorService handlerExecutor;
+
+  TimeoutWheelScheduler(TimeoutEngine timeoutEngine, TimeoutInstanceRepository timeoutInstanceRepository,
+      MongoTemplate mongoTemplate, PersistentLocker persistentLocker, TimeoutWheelOptions options) {
+    this.timeoutEngine = timeoutEngine;
+    this.timeoutInstanceRepository = timeoutInstanceRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.persistentLocker = persistentLocker;
+    this.options = options;
+    this.wheel = new TimerWheel<>(options.getTickMillis(), System.currentTimeMillis());
+    this.wheelExecutor = Executors.newScheduledThreadPool(
+        2, new ThreadFactoryBuilder().setNameFormat("timeout-wheel-%d").build());
+    this.shardExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("timeout-wheel-shards").build());
+    this.handlerExecutor = Executors.newFixedThreadPool(
+        options.getHandlerThreads(), new ThreadFactoryBuilder().setNameFormat("TimeoutWheelHandler-%d").build());
+  }
+
+  void start() {
+    shardExecutor.scheduleWithFixedDelay(
+        this::rebalanceAndScan, 0, options.getScanInterval().toMillis(), TimeUnit.MILLISECONDS);
+    wheelExecutor.scheduleAtFixedRate(this::tick, 0, options.getTickMillis(), TimeUnit.MILLISECONDS);
+    wheelExecutor.scheduleWithFixedDelay(
+        this::flush, options.getFlushIntervalMillis(), options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  void stop() {
+    wheelExecutor.shutdownNow();
+    handlerExecutor.shutdown();
+    flush();
+    shardExecutor.execute(() -> {
+      ownedShards.values().forEach(AcquiredLock::release);
+      ownedShards.clear();
+      ownedShardIds = new int[0];
+      try {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(podId)), PODS_COLLECTION);
+      } catch (Exception ex) {
+        log.warn("Removing the timeout wheel heartbeat failed, it expires with the next scans", ex);
+      }
+    });
+    shardExecutor.shutdown();
+  }
+
+  /**
+   * Assigns the timeout to one of the shards owned by this pod, or to the shard its id hashes to if this pod owns
+   * none, and saves it. The timeout is kept in memory if this pod owns the shard, or if it expires before the owner
+   * scans the shard again.
+   */
+  TimeoutInstance register(TimeoutInstance timeoutInstance) {
+    int[] shardIds = ownedShardIds;
+    int hash = Math.floorMod(timeoutInstance.getUuid().hashCode(), Integer.MAX_VALUE);
+    boolean owned = shardIds.length > 0;
+    timeoutInstance.setShard(owned ? shardIds[hash % shardIds.length] : hash % options.getShards());
+    TimeoutInstance savedTimeoutInstance = timeoutInstanceRepository.save(timeoutInstance);
+    long nextScan = System.currentTimeMillis() + options.getScanInterval().toMillis();
+    if (owned || savedTimeoutInstance.getNextIteration() < nextScan) {
+      synchronized (this) {
+        if (!owned) {
+          foreignIds.add(savedTimeoutInstance.getUuid());
+        }
+        track(savedTimeoutInstance);
+      }
+    }
+    return savedTimeoutInstance;
+  }
+
+  /**
+   * Applies the event to the timeouts kept in memory, and returns the ids of the other timeouts.
+   */
+  List<String> onEvent(List<String> timeoutInstanceIds, TimeoutEvent event) {
+    List<String> remainingIds = new ArrayList<>();
+    synchronized (persistenceLock) {
+      synchronized (this) {
+        for (String timeoutInstanceId : timeoutInstanceIds) {
+          TimeoutInstance timeoutInstance = pendingSaves.get(timeoutInstanceId);
+          if (timeoutInstance == null) {
+            timeoutInstance = instances.get(timeoutInstanceId);
+          }
+          if (timeoutInstance == null) {
+            remainingIds.add(timeoutInstanceId);
+          } else if (timeoutInstance.getTracker().onEvent(event)) {
+            timeoutInstance.resetNextIteration();
+            pendingSaves.put(timeoutInstanceId, timeoutInstance);
+            track(timeoutInstance);
+          }
+        }
+      }
+    }
+    return remainingIds;
+  }
+
+  /**
+   * Drops the timeouts from memory, the caller deletes them from mongo afterwards.
+   */
+  void forget(List<String> timeoutInstanceIds) {
+    synchronized (persistenceLock) {
+      synchronized (this) {
+        for (String timeoutInstanceId : timeoutInstanceIds) {
+          pendingSaves.remove(timeoutInstanceId);
+          untrack(timeoutInstanceId);
+        }
+      }
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int size() {
+    return instances.size();
+  }
+
+  @VisibleForTesting
+  void tick() {
+    List<String> expiredIds = new ArrayList<>();
+    try {
+      synchronized (this) {
+        wheel.advance(System.currentTimeMillis(), timeoutInstanceId -> {
+          timers.remove(timeoutInstanceId);
+          expiredIds.add(timeoutInstanceId);
+        });
+      }
+      for (List<String> batch : Lists.partition(expiredIds, MAX_BATCH_SIZE)) {
+        handlerExecutor.execute(() -> fire(batch));
+      }
+    } catch (Exception ex) {
+      log.error("Timeout wheel tick failed", ex);
+    }
+  }
+
+  @VisibleForTesting
+  void flush() {
+    synchronized (persistenceLock) {
+      List<TimeoutInstance> batch;
+      synchronized (this) {
+        if (pendingSaves.isEmpty()) {
+          return;
+        }
+        batch = new ArrayList<>(pendingSaves.values());
+        pendingSaves.clear();
+      }
+      try {
+        timeoutInstanceRepository.saveAll(batch);
+      } catch (Exception ex) {
+        log.warn("Saving a batch of {} timeout instances failed, saving them one by one", batch.size(), ex);
+        for (TimeoutInstance timeoutInstance : batch) {
+          try {
+            timeoutInstanceRepository.save(timeoutInstance);
+          } catch (Exception saveException) {
+            // most likely the instance was updated by another pod, the next scan loads it back from mongo
+            log.error("Saving timeout instance {} failed", timeoutInstance.getUuid(), saveException);
+            synchronized (this) {
+              untrack(timeoutInstance.getUuid());
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void fire(List<String> expiredIds) {
+    try {
+      long now = System.currentTimeMillis();
+      Map<String, TimeoutInstance> currentInstances = new HashMap<>();
+      List<String> savedIds = new ArrayList<>();
+      synchronized (this) {
+        for (String timeoutInstanceId : expiredIds) {
+          TimeoutInstance pending = pendingSaves.get(timeoutInstanceId);
+          if (pending != null) {
+            currentInstances.put(timeoutInstanceId, pending);
+          } else {
+            savedIds.add(timeoutInstanceId);
+          }
+        }
+      }
+      if (!savedIds.isEmpty()) {
+        timeoutInstanceRepository.findAllById(savedIds).forEach(
+            timeoutInstance -> currentInstances.put(timeoutInstance.getUuid(), timeoutInstance));
+      }
+
+      List<TimeoutInstance> expiredInstances = new ArrayList<>();
+      synchronized (this) {
+        for (String timeoutInstanceId : expiredIds) {
+          TimeoutInstance timeoutInstance = currentInstances.get(timeoutInstanceId);
+          if (timeoutInstance == null) {
+            // deleted in the meantime
+            untrack(timeoutInstanceId);
+          } else if (!isOwned(timeoutInstance) && !foreignIds.contains(timeoutInstanceId)) {
+            // the shard lock was lost in the meantime, the new owner fires it
+            untrack(timeoutInstanceId);
+          } else if (timeoutInstance.getNextIteration() > now) {
+            // paused or extended in the meantime
+            track(timeoutInstance);
+          } else {
+            expiredInstances.add(timeoutInstance);
+          }
+        }
+      }
+
+      List<String> firedIds = new ArrayList<>();
+      for (TimeoutInstance timeoutInstance : expiredInstances) {
+        timeoutEngine.fireTimeout(timeoutInstance);
+        firedIds.add(timeoutInstance.getUuid());
+      }
+      timeoutEngine.deleteTimeouts(firedIds);
+    } catch (Exception ex) {
+      log.error("Firing {} expired timeouts failed, they are fired again with the next scan", expiredIds.size(), ex);
+    }
+  }
+
+  @VisibleForTesting
+  void rebalanceAndScan() {
+    try {
+      int maxOwnedShards = maxOwnedShards();
+      for (Map.Entry<Integer, AcquiredLock<?>> entry : new ArrayList<>(ownedShards.entrySet())) {
+        if (!isHeld(entry.getValue())) {
+          log.warn("Lost the lock of timeout shard {}", entry.getKey());
+          dropShard(entry.getKey());
+        }
+      }
+      int[] surplus = ownedShards.keySet().stream().mapToInt(Integer::intValue).sorted().skip(maxOwnedShards).toArray();
+      for (int shard : surplus) {
+        log.info("Releasing timeout shard {}, owning at most {} shards", shard, maxOwnedShards);
+        dropShard(shard).release();
+      }
+      for (int shard = 0; shard < options.getShards() && ownedShards.size() < maxOwnedShards; shard++) {
+        if (ownedShards.containsKey(shard)) {
+          continue;
+        }
+        AcquiredLock<?> lock = tryToAcquireShard(shard);
+        if (lock != null) {
+          log.info("Acquired timeout shard {}", shard);
+          ownedShards.put(shard, lock);
+        }
+      }
+      ownedShardIds = ownedShards.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+      for (int shard : ownedShardIds) {
+        AcquiredLock<?> lock = ownedShards.get(shard);
+        if (lock != null && isHeld(lock)) {
+          loadShard(shard);
+        } else {
+          log.warn("Lost the lock of timeout shard {}", shard);
+          dropShard(shard);
+        }
+      }
+    } catch (Exception ex) {
+      log.error("Timeout wheel scan failed", ex);
+    }
+  }
+
+  private int maxOwnedShards() {
+    if (options.getMaxOwnedShards() > 0) {
+      return options.getMaxOwnedShards();
+    }
+    long now = System.currentTimeMillis();
+    long expiry = now - POD_EXPIRY_SCANS * options.getScanInterval().toMillis();
+    mongoTemplate.upsert(
+        new Query(Criteria.where("_id").is(podId)), new Update().set(POD_HEARTBEAT_KEY, now), PODS_COLLECTION);
+    mongoTemplate.remove(new Query(Criteria.where(POD_HEARTBEAT_KEY).lt(expiry)), PODS_COLLECTION);
+    long livePods = Math.max(1, mongoTemplate.count(new Query(), PODS_COLLECTION));
+    return (int) ((options.getShards() + livePods - 1) / livePods);
+  }
+
+  // redis locks are refreshed in the background and are lost if the refresh fails, other locks are kept until released
+  private static boolean isHeld(AcquiredLock<?> lock) {
+    return !(lock.getLock() instanceof RLock) || ((RLock) lock.getLock()).isHeldByCurrentThread();
+  }
+
+  // stops tracking the timeouts of the shard, tracker updates which are not saved yet are still saved with the batch
+  private AcquiredLock<?> dropShard(int shard) {
+    AcquiredLock<?> lock = ownedShards.remove(shard);
+    ownedShardIds = ownedShards.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    synchronized (this) {
+      List<String> droppedIds = new ArrayList<>();
+      for (TimeoutInstance timeoutInstance : instances.values()) {
+        if (shardOf(timeoutInstance) == shard) {
+          droppedIds.add(timeoutInstance.getUuid());
+        }
+      }
+      droppedIds.forEach(this::untrack);
+    }
+    return lock;
+  }
+
+  private boolean isOwned(TimeoutInstance timeoutInstance) {
+    return ownedShards.containsKey(shardOf(timeoutInstance));
+  }
+
+  // timeouts registered before the wheel was enabled belong to the first shard
+  private static int shardOf(TimeoutInstance timeoutInstance) {
+    return timeoutInstance.getShard() == null ? 0 : timeoutInstance.getShard();
+  }
+
+  private AcquiredLock<?> tryToAcquireShard(int shard) {
+    try {
+      return persistentLocker.tryToAcquireInfiniteLockWithPeriodicRefresh(
+          SHARD_LOCK_PREFIX + shard, SHARD_LOCK_WAIT_TIME);
+    } catch (Exception ex) {
+      // owned by another pod
+      return null;
+    }
+  }
+
+  private void loadShard(int shard) {
+    Criteria shardCriteria = Criteria.where(TimeoutInstanceKeys.shard).is(shard);
+    if (shard == 0) {
+      // timeouts registered before the wheel was enabled belong to the first shard
+      shardCriteria = new Criteria().orOperator(shardCriteria, Criteria.where(TimeoutInstanceKeys.shard).is(null));
+    }
+    Query query = new Query(new Criteria().andOperator(shardCriteria,
+        Criteria.where(TimeoutInstanceKeys.nextIteration)
+            .lt(System.currentTimeMillis() + options.getHorizon().toMillis())));
+    List<TimeoutInstance> timeoutInstances = mongoTemplate.find(query, TimeoutInstance.class);
+    synchronized (this) {
+      for (TimeoutInstance timeoutInstance : timeoutInstances) {
+        // a pending save is newer than what is in mongo
+        if (!pendingSaves.containsKey(timeoutInstance.getUuid())) {
+          track(timeoutInstance);
+        }
+      }
+    }
+  }
+
+  // callers hold the monitor of this
+  private void track(TimeoutInstance timeoutInstance) {
+    String timeoutInstanceId = timeoutInstance.getUuid();
+    if (timeoutInstance.getNextIteration() - System.currentTimeMillis() > options.getHorizon().toMillis()) {
+      untrack(timeoutInstanceId);
+      return;
+    }
+    instances.put(timeoutInstanceId, timeoutInstance);
+    TimerWheel.Timer<String> timer = timers.get(timeoutInstanceId);
+    if (timer == null) {
+      timers.put(timeoutInstanceId, wheel.schedule(timeoutInstanceId, timeoutInstance.getNextIteration()));
+    } else {
+      wheel.reschedule(timer, timeoutInstance.getNextIteration());
+    }
+  }
+
+  // callers hold the monitor of this
+  private void untrack(String timeoutInstanceId) {
+    instances.remove(timeoutInstanceId);
+    foreignIds.remove(timeoutInstanceId);
+    TimerWheel.Timer<String> timer = timers.remove(timeoutInstanceId);
+    if (timer != null) {
+      wheel.cancel(timer);
+    }
+  }
+}
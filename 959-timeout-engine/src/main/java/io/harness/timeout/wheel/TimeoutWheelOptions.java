@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.timeout.wheel;
+
+import static io.harness.annotations.dev.HarnessTeam.CDC;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Value;
+
+@OwnedBy(CDC)
+@Value
+@Builder
+public class TimeoutWheelOptions {
+  // timeouts are spread over this many shards, each shard is owned by a single pod at a time
+  @Builder.Default int shards = 16;
+  // 0 spreads the shards evenly over the live pods
+  @Builder.Default int maxOwnedShards = 0;
+  @Builder.Default long tickMillis = 10;
+  // only timeouts expiring within the horizon are kept in memory, the rest stay in mongo until they get closer
+  @Builder.Default Duration horizon = Duration.ofMinutes(10);
+  @Builder.Default Duration scanInterval = Duration.ofSeconds(30);
+  @Builder.Default long flushIntervalMillis = 50;
+  @Builder.Default int handlerThreads = 5;
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.timeout.wheel;
+
+import static io.harness.annotations.dev.HarnessTeam.CDC;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel, four levels of 256 slots each. With a tick of 10 ms the first level covers 2.5 seconds,
+ * the second 11 minutes, the third 46 hours and the last 497 days. Timers further away are parked in the last level
+ * and moved down once they get closer.
+ *
+ * Scheduling, cancelling and rescheduling a timer are O(1), every slot is a doubly linked list of timers. Advancing
+ * the wheel is O(1) per tick plus the timers which expire or move to a lower level. A timer never fires before its
+ * deadline, and at most one tick after the first advance past it.
+ *
+ * Not thread safe, callers have to guard the wheel and its timers.
+ */
+@OwnedBy(CDC)
+public class TimerWheel<T> {
+  private static final int SLOT_BITS = 8;
+  private static final int SLOTS = 1 << SLOT_BITS;
+  private static final int SLOT_MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+  private static final long MAX_TICKS_AHEAD = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+  private final long tickMillis;
+  private final Timer<T>[][] slots;
+  // next tick to be processed, every tick before it was processed already
+  private long currentTick;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  public TimerWheel(long tickMillis, long startMillis) {
+    if (tickMillis <= 0) {
+      throw new IllegalArgumentException("Tick must be positive");
+    }
+    this.tickMillis = tickMillis;
+    this.slots = new Timer[LEVELS][SLOTS];
+    this.currentTick = startMillis / tickMillis;
+  }
+
+  public Timer<T> schedule(T value, long deadlineMillis) {
+    Timer<T> timer = new Timer<>(value);
+    timer.deadlineMillis = deadlineMillis;
+    place(timer);
+    size++;
+    return timer;
+  }
+
+  public void cancel(Timer<T> timer) {
+    if (timer.level < 0) {
+      return;
+    }
+    unlink(timer);
+    size--;
+  }
+
+  public void reschedule(Timer<T> timer, long deadlineMillis) {
+    if (timer.level < 0) {
+      size++;
+    } else {
+      unlink(timer);
+    }
+    timer.deadlineMillis = deadlineMillis;
+    place(timer);
+  }
+
+  /**
+   * Moves the wheel to the given time and passes the value of every timer which expired on the way to the consumer,
+   * in the order of their ticks.
+   *
+   * @return number of expired timers
+   */
+  public int advance(long nowMillis, Consumer<T> expired) {
+    long targetTick = nowMillis / tickMillis;
+    int fired = 0;
+    while (currentTick <= targetTick) {
+      if (size == 0) {
+        currentTick = targetTick + 1;
+        break;
+      }
+      cascade(currentTick);
+      int slot = (int) (currentTick & SLOT_MASK);
+      Timer<T> timer = slots[0][slot];
+      slots[0][slot] = null;
+      while (timer != null) {
+        Timer<T> next = timer.next;
+        timer.level = -1;
+        timer.prev = null;
+        timer.next = null;
+        size--;
+        fired++;
+        expired.accept(timer.value);
+        timer = next;
+      }
+      currentTick++;
+    }
+    return fired;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private void cascade(long tick) {
+    // whenever a lower level wraps around, the timers of the next slot of the level above move down
+    for (int level = 1; level < LEVELS && ((tick >>> (SLOT_BITS * (level - 1))) & SLOT_MASK) == 0; level++) {
+      int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+      Timer<T> timer = slots[level][slot];
+      slots[level][slot] = null;
+      while (timer != null) {
+        Timer<T> next = timer.next;
+        timer.prev = null;
+        timer.next = null;
+        place(timer);
+        timer = next;
+      }
+    }
+  }
+
+  private void place(Timer<T> timer) {
+    long expiryTick = Math.floorDiv(timer.deadlineMillis + tickMillis - 1, tickMillis);
+    long ticksAhead = expiryTick - currentTick;
+    if (ticksAhead < 0) {
+      // already expired, fires with the next processed tick
+      expiryTick = currentTick;
+      ticksAhead = 0;
+    } else if (ticksAhead > MAX_TICKS_AHEAD) {
+      expiryTick = currentTick + MAX_TICKS_AHEAD;
+      ticksAhead = MAX_TICKS_AHEAD;
+    }
+    int level = 0;
+    while (ticksAhead >= (1L << (SLOT_BITS * (level + 1)))) {
+      level++;
+    }
+    int slot = (int) ((expiryTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    timer.level = level;
+    timer.slot = slot;
+    timer.prev = null;
+    timer.next = slots[level][slot];
+    if (timer.next != null) {
+      timer.next.prev = timer;
+    }
+    slots[level][slot] = timer;
+  }
+
+  private void unlink(Timer<T> timer) {
+    if (timer.prev == null) {
+      slots[timer.level][timer.slot] = timer.next;
+    } else {
+      timer.prev.next = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.prev = timer.prev;
+    }
+    timer.level = -1;
+    timer.prev = null;
+    timer.next = null;
+  }
+
+  public static class Timer<T> {
+    private final T value;
+    private long deadlineMillis;
+    private int level = -1;
+    private int slot;
+    private Timer<T> prev;
+    private Timer<T> next;
+
+    private Timer(T value) {
+      this.value = value;
+    }
+
+    public T getValue() {
+      return value;
+    }
+
+    public long getDeadlineMillis() {
+      return deadlineMillis;
+    }
+
+    public boolean isScheduled() {
+      return level >= 0;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.timeout;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.lock.AcquiredLock;
+import io.harness.lock.PersistentLocker;
+import io.harness.repositories.TimeoutInstanceRepository;
+import io.harness.rule.Owner;
+import io.harness.timeout.TimeoutEngineUnitTest.TestTimeoutCallback;
+import io.harness.timeout.trackers.absolute.AbsoluteTimeoutTracker;
+import io.harness.timeout.wheel.TimeoutWheelOptions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RLock;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+public class TimeoutWheelSchedulerTest extends CategoryTest {
+  private TimeoutEngine timeoutEngine;
+  private TimeoutInstanceRepository timeoutInstanceRepository;
+  private MongoTemplate mongoTemplate;
+  private PersistentLocker persistentLocker;
+  private AcquiredLock firstLock;
+  private AcquiredLock secondLock;
+  private RLock redisLock;
+  private TimeoutWheelScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    timeoutEngine = mock(TimeoutEngine.class);
+    timeoutInstanceRepository = mock(TimeoutInstanceRepository.class);
+    mongoTemplate = mock(MongoTemplate.class);
+    when(timeoutInstanceRepository.save(any())).then(returnsFirstArg());
+    persistentLocker = mock(PersistentLocker.class);
+    redisLock = mock(RLock.class);
+    when(redisLock.isHeldByCurrentThread()).thenReturn(true);
+    firstLock = mock(AcquiredLock.class);
+    when(firstLock.getLock()).thenReturn(redisLock);
+    secondLock = mock(AcquiredLock.class);
+    when(persistentLocker.tryToAcquireInfiniteLockWithPeriodicRefresh(eq("TIMEOUT_ENGINE_SHARD_3"), any()))
+        .thenReturn(firstLock);
+    when(persistentLocker.tryToAcquireInfiniteLockWithPeriodicRefresh(eq("TIMEOUT_ENGINE_SHARD_5"), any()))
+        .thenReturn(secondLock);
+    scheduler = new TimeoutWheelScheduler(timeoutEngine, timeoutInstanceRepository, mongoTemplate, persistentLocker,
+        TimeoutWheelOptions.builder().shards(8).build());
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldSaveBeforeRegisteringAndFireInMemory() throws InterruptedException {
+    TimeoutInstance notOwned = timeoutInstance(TimeUnit.MINUTES.toMillis(5));
+    assertThat(scheduler.register(notOwned)).isSameAs(notOwned);
+    assertThat(notOwned.getShard()).isBetween(0, 7);
+    assertThat(scheduler.size()).isZero();
+
+    scheduler.rebalanceAndScan();
+    TimeoutInstance first = timeoutInstance(20);
+    TimeoutInstance second = timeoutInstance(20);
+    scheduler.register(first);
+    scheduler.register(second);
+    assertThat(first.getShard()).isIn(3, 5);
+    verify(timeoutInstanceRepository).save(first);
+    verify(timeoutInstanceRepository).save(second);
+    scheduler.flush();
+    verify(timeoutInstanceRepository, never()).saveAll(anyList());
+    when(timeoutInstanceRepository.findAllById(anyList())).thenReturn(Arrays.asList(first, second));
+
+    Thread.sleep(50);
+    scheduler.tick();
+
+    verify(timeoutEngine, timeout(5000)).fireTimeout(first);
+    verify(timeoutEngine, timeout(5000)).fireTimeout(second);
+    ArgumentCaptor<List<String>> deleted = ArgumentCaptor.forClass(List.class);
+    verify(timeoutEngine, timeout(5000)).deleteTimeouts(deleted.capture());
+    assertThat(deleted.getValue()).containsExactlyInAnyOrder(first.getUuid(), second.getUuid());
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldNotFireForgottenOrDeletedTimeouts() throws InterruptedException {
+    scheduler.rebalanceAndScan();
+    TimeoutInstance forgotten = timeoutInstance(20);
+    TimeoutInstance deletedElsewhere = timeoutInstance(20);
+    scheduler.register(forgotten);
+    when(mongoTemplate.find(any(Query.class), eq(TimeoutInstance.class)))
+        .thenReturn(Collections.singletonList(deletedElsewhere));
+    scheduler.rebalanceAndScan();
+    assertThat(scheduler.size()).isEqualTo(2);
+
+    scheduler.forget(Collections.singletonList(forgotten.getUuid()));
+    when(timeoutInstanceRepository.findAllById(anyList())).thenReturn(Collections.emptyList());
+    Thread.sleep(50);
+    scheduler.tick();
+
+    verify(timeoutEngine, timeout(5000)).deleteTimeouts(Collections.emptyList());
+    verify(timeoutInstanceRepository).findAllById(Collections.singletonList(deletedElsewhere.getUuid()));
+    verify(timeoutEngine, never()).fireTimeout(any());
+    assertThat(scheduler.size()).isZero();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldFireTimeoutsOfOtherShardsExpiringBeforeTheNextScan() throws InterruptedException {
+    TimeoutInstance soon = timeoutInstance(20);
+    TimeoutInstance later = timeoutInstance(TimeUnit.MINUTES.toMillis(5));
+    scheduler.register(soon);
+    scheduler.register(later);
+    assertThat(scheduler.size()).isEqualTo(1);
+
+    when(timeoutInstanceRepository.findAllById(anyList())).thenReturn(Collections.singletonList(soon));
+    Thread.sleep(50);
+    scheduler.tick();
+
+    verify(timeoutEngine, timeout(5000)).fireTimeout(soon);
+    verify(timeoutEngine, never()).fireTimeout(later);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldReleaseSurplusShardsAndDropLostLocks() {
+    scheduler.rebalanceAndScan();
+    int kept = 0;
+    for (int i = 0; i < 10; i++) {
+      TimeoutInstance timeoutInstance = timeoutInstance(TimeUnit.MINUTES.toMillis(1));
+      scheduler.register(timeoutInstance);
+      kept += timeoutInstance.getShard() == 3 ? 1 : 0;
+    }
+    assertThat(scheduler.size()).isEqualTo(10);
+
+    // eight live pods share eight shards
+    when(mongoTemplate.count(any(Query.class), eq("timeoutWheelPods"))).thenReturn(8L);
+    scheduler.rebalanceAndScan();
+    verify(secondLock).release();
+    verify(firstLock, never()).release();
+    assertThat(scheduler.size()).isEqualTo(kept);
+    TimeoutInstance owned = timeoutInstance(TimeUnit.MINUTES.toMillis(1));
+    scheduler.register(owned);
+    assertThat(owned.getShard()).isEqualTo(3);
+
+    when(redisLock.isHeldByCurrentThread()).thenReturn(false);
+    scheduler.rebalanceAndScan();
+    verify(redisLock, atLeastOnce()).isHeldByCurrentThread();
+    assertThat(scheduler.size()).isZero();
+  }
+
+  private static TimeoutInstance timeoutInstance(long timeoutMillis) {
+    TimeoutInstance timeoutInstance = TimeoutInstance.builder()
+                                          .uuid(generateUuid())
+                                          .tracker(new AbsoluteTimeoutTracker(timeoutMillis))
+                                          .callback(new TestTimeoutCallback())
+                                          .build();
+    timeoutInstance.resetNextIteration();
+    return timeoutInstance;
+  }
+}
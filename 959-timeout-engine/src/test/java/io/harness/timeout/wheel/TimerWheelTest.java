@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.timeout.wheel;
+
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class TimerWheelTest extends CategoryTest {
+  private static final long TICK_MILLIS = 10;
+  private static final long START_MILLIS = 1_700_000_000_005L;
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldFireOnlyOnceDeadlinePassed() {
+    TimerWheel<String> wheel = new TimerWheel<>(TICK_MILLIS, START_MILLIS);
+    List<String> fired = new ArrayList<>();
+    wheel.schedule("expired", START_MILLIS - 1000);
+    wheel.schedule("soon", START_MILLIS + 15);
+    wheel.schedule("later", START_MILLIS + TimeUnit.HOURS.toMillis(3));
+
+    wheel.advance(START_MILLIS + 14, fired::add);
+    assertThat(fired).containsExactly("expired");
+
+    wheel.advance(START_MILLIS + 20, fired::add);
+    assertThat(fired).containsExactly("expired", "soon");
+
+    wheel.advance(START_MILLIS + TimeUnit.HOURS.toMillis(3) - 1, fired::add);
+    assertThat(fired).containsExactly("expired", "soon");
+    assertThat(wheel.size()).isEqualTo(1);
+
+    wheel.advance(START_MILLIS + TimeUnit.HOURS.toMillis(3) + TICK_MILLIS, fired::add);
+    assertThat(fired).containsExactly("expired", "soon", "later");
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldNotFireCancelledAndMoveRescheduledTimers() {
+    TimerWheel<String> wheel = new TimerWheel<>(TICK_MILLIS, START_MILLIS);
+    List<String> fired = new ArrayList<>();
+    TimerWheel.Timer<String> cancelled = wheel.schedule("cancelled", START_MILLIS + 100);
+    TimerWheel.Timer<String> postponed = wheel.schedule("postponed", START_MILLIS + 100);
+    TimerWheel.Timer<String> advanced = wheel.schedule("advanced", START_MILLIS + TimeUnit.MINUTES.toMillis(30));
+
+    wheel.cancel(cancelled);
+    wheel.reschedule(postponed, START_MILLIS + TimeUnit.MINUTES.toMillis(20));
+    wheel.reschedule(advanced, START_MILLIS + 50);
+    wheel.advance(START_MILLIS + 1000, fired::add);
+
+    assertThat(fired).containsExactly("advanced");
+    assertThat(cancelled.isScheduled()).isFalse();
+    assertThat(postponed.isScheduled()).isTrue();
+    assertThat(wheel.size()).isEqualTo(1);
+  }
+
+  /**
+   * Simulates a million timeouts, spread from already expired to a few days ahead, with a share of them cancelled or
+   * rescheduled while the clock moves on in random steps.
+   */
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldFireMillionTimersExactlyOnceAndInTime() {
+    int timerCount = 1_000_000;
+    long[] spans = {TimeUnit.SECONDS.toMillis(3), TimeUnit.MINUTES.toMillis(10), TimeUnit.HOURS.toMillis(2),
+        TimeUnit.DAYS.toMillis(3)};
+    Random random = new Random(42);
+    TimerWheel<Integer> wheel = new TimerWheel<>(TICK_MILLIS, START_MILLIS);
+    List<TimerWheel.Timer<Integer>> timers = new ArrayList<>(timerCount);
+    long[] deadlines = new long[timerCount];
+    long[] firedAt = new long[timerCount];
+    boolean[] cancelled = new boolean[timerCount];
+    Arrays.fill(firedAt, -1);
+    for (int i = 0; i < timerCount; i++) {
+      deadlines[i] = START_MILLIS - 1000 + (long) (random.nextDouble() * spans[i % spans.length]);
+      timers.add(wheel.schedule(i, deadlines[i]));
+    }
+
+    long now = START_MILLIS;
+    long maxStep = 0;
+    int changes = 0;
+    while (wheel.size() > 0) {
+      // small steps while most timers expire, then large ones to get through the far away timers quickly
+      long step =
+          now - START_MILLIS < TimeUnit.HOURS.toMillis(3) ? 1 + random.nextInt(200) : TimeUnit.MINUTES.toMillis(1);
+      maxStep = Math.max(maxStep, step);
+      now += step;
+      long firedTime = now;
+      wheel.advance(now, i -> {
+        assertThat(firedAt[i]).isEqualTo(-1);
+        firedAt[i] = firedTime;
+      });
+      for (int j = 0; j < 4 && changes < 100_000; j++, changes++) {
+        int i = random.nextInt(timerCount);
+        if (!timers.get(i).isScheduled()) {
+          continue;
+        }
+        if (random.nextBoolean()) {
+          wheel.cancel(timers.get(i));
+          cancelled[i] = true;
+        } else {
+          deadlines[i] = now + random.nextInt((int) TimeUnit.MINUTES.toMillis(30));
+          wheel.reschedule(timers.get(i), deadlines[i]);
+        }
+      }
+    }
+
+    int firedCount = 0;
+    for (int i = 0; i < timerCount; i++) {
+      if (cancelled[i]) {
+        assertThat(firedAt[i]).isEqualTo(-1);
+        continue;
+      }
+      firedCount++;
+      assertThat(firedAt[i]).isGreaterThanOrEqualTo(deadlines[i]);
+      assertThat(firedAt[i] - Math.max(deadlines[i], START_MILLIS)).isLessThan(maxStep + TICK_MILLIS);
+    }
+    assertThat(firedCount).isGreaterThan(timerCount - 100_000);
+  }
+}
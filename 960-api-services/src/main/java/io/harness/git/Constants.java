@@ -29,6 +29,7 @@ public interface Constants {
   String REPOSITORY_GIT_FILE_DOWNLOADS_BASE = "./repository/gitFileDownloads/{ACCOUNT_ID}/{CONNECTOR_ID}";
   String REPOSITORY_GIT_FILE_DOWNLOADS_REPO_BASE_DIR = REPOSITORY_GIT_FILE_DOWNLOADS_BASE + "/{REPO_NAME}";
   String REPOSITORY_GIT_FILE_DOWNLOADS_REPO_DIR = REPOSITORY_GIT_FILE_DOWNLOADS_REPO_BASE_DIR + "/{REPO_URL_HASH}";
+  String REPOSITORY_GIT_MIRRORS = "./repository/gitMirrors";
   String PATH_DELIMITER = "/";
   String HARNESS_IO_KEY_ = "Harness.io";
   String HARNESS_SUPPORT_EMAIL_KEY = "support@harness.io";
@@ -54,6 +54,7 @@ import io.harness.exception.YamlException;
 import io.harness.exception.runtime.JGitRuntimeException;
 import io.harness.exception.runtime.SCMRuntimeException;
 import io.harness.filesystem.FileIo;
+import io.harness.git.GitMirrorCache.MirrorFiles;
 import io.harness.git.model.AuthInfo;
 import io.harness.git.model.ChangeType;
 import io.harness.git.model.CommitAndPushRequest;
@@ -176,6 +177,7 @@ public class GitClientV2Impl implements GitClientV2 {
   private static final String INVALID_PRIVATE_KEY = "invalid privatekey";
 
   @Inject private GitClientHelper gitClientHelper;
+  @Inject private GitMirrorCache gitMirrorCache;
 
   private final RetryPolicy<Object> retryPolicyForGitClone = CLONE_RETRY_POLICY;
   /**
@@ -1230,6 +1232,9 @@ public class GitClientV2Impl implements GitClientV2 {
   public FetchFilesResult fetchFilesByPath(String identifier, FetchFilesByPathRequest request) throws IOException {
     cleanup(request);
     validateRequiredArgs(request);
+    if (gitMirrorCache.isEnabled() && !request.isCloneWithCheckout()) {
+      return fetchFilesByPathFromMirror(identifier, request);
+    }
     File lockFile = gitClientHelper.getLockObject(request.getConnectorId());
     synchronized (lockFile) {
       log.info("Trying to acquire lock on {}", lockFile);
@@ -1260,6 +1265,51 @@ public class GitClientV2Impl implements GitClientV2 {
     }
   }
 
+  /**
+   * Reads the files from the mirror of the repo kept by {@link GitMirrorCache}, without the connector lock, so that
+   * requests for different branches and commits of the same repo run in parallel.
+   */
+  private FetchFilesResult fetchFilesByPathFromMirror(String identifier, FetchFilesByPathRequest request) {
+    try {
+      MirrorFiles mirrorFiles = gitMirrorCache.fetchFilesByPath(request, mirror -> fetchIntoMirror(request, mirror));
+      GitFetchMetadataLocalThread.putCommitId(identifier, mirrorFiles.getCommitId());
+      List<GitFile> gitFiles = mirrorFiles.getFiles();
+      if (isNotEmpty(gitFiles)) {
+        gitFiles.forEach(gitFile -> log.info("File fetched : " + gitFile.getFilePath()));
+      }
+
+      return FetchFilesResult.builder()
+          .files(gitFiles)
+          .commitResult(CommitResult.builder().commitId(request.useBranch() ? "latest" : request.getCommitId()).build())
+          .build();
+    } catch (Exception e) {
+      log.error(gitClientHelper.getGitLogMessagePrefix(request.getRepoType()) + EXCEPTION_STRING, e);
+      throw e;
+    }
+  }
+
+  private void fetchIntoMirror(FetchFilesByPathRequest request, Git mirror) {
+    FetchCommand fetchCommand = ((FetchCommand) getAuthConfiguredCommand(mirror.fetch(), request))
+                                    .setRemote(request.getRepoUrl())
+                                    .setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*"),
+                                        new RefSpec("+refs/tags/*:refs/tags/*"))
+                                    .setRemoveDeletedRefs(true)
+                                    .setTagOpt(TagOpt.NO_TAGS);
+    try {
+      FetchResult fetchResult = Failsafe.with(retryPolicyForGitClone).get(fetchCommand::call);
+      log.info(gitClientHelper.getGitLogMessagePrefix(request.getRepoType()) + "result fetched into mirror: {}",
+          fetchResult.toString());
+    } catch (Exception exception) {
+      Throwable cause = exception instanceof FailsafeException ? exception.getCause() : exception;
+      log.error(gitClientHelper.getGitLogMessagePrefix(request.getRepoType()) + "Error in fetching repo: "
+          + ExceptionSanitizer.sanitizeForLogging(cause));
+      if (cause instanceof Exception) {
+        gitClientHelper.checkIfGitConnectivityIssue((Exception) cause);
+      }
+      throw new YamlException("Error in fetching repo", USER);
+    }
+  }
+
   @VisibleForTesting
   List<GitFile> getFilteredGitFiles(FetchFilesByPathRequest request) {
     List<GitFile> gitFiles = new ArrayList<>();
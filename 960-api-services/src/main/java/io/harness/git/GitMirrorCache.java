@@ -0,0 +1,389 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.git;
+
+import static io.harness.annotations.dev.HarnessTeam.CDP;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
+import static io.harness.git.Constants.REPOSITORY_GIT_MIRRORS;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.exception.runtime.JGitRuntimeException;
+import io.harness.filesystem.FileIo;
+import io.harness.git.model.FetchFilesByPathRequest;
+import io.harness.git.model.GitFile;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.treewalk.TreeWalk;
+
+/**
+ * Keeps one bare mirror per repo of a connector and reads the files of a branch or commit straight from its object
+ * database, without checking them out. Fetches into a mirror are coalesced, requests arriving while a fetch is running
+ * wait for it instead of fetching again. Reads hold the read lock of the mirror and run in parallel, fetches and
+ * eviction hold its write lock. Least recently used mirrors are evicted once the mirrors use more disk than allowed.
+ */
+@Singleton
+@Slf4j
+@OwnedBy(CDP)
+public class GitMirrorCache {
+  private static final String ENABLED_ENV_VAR = "GIT_MIRROR_CACHE_ENABLED";
+  private static final String MAX_DISK_USAGE_ENV_VAR = "GIT_MIRROR_CACHE_MAX_DISK_USAGE_MB";
+  private static final long DEFAULT_MAX_DISK_USAGE_MB = 2048;
+  private static final String REFS_HEADS = "refs/heads/";
+
+  private final boolean enabled;
+  private final String mirrorsDirectory;
+  private final long maxDiskUsageBytes;
+  private final ConcurrentMap<String, Mirror> mirrors = new ConcurrentHashMap<>();
+
+  @FunctionalInterface
+  public interface MirrorFetcher {
+    /**
+     * Fetches all branches and tags of the remote into the given bare mirror.
+     */
+    void fetch(Git mirror) throws GitAPIException;
+  }
+
+  @Value
+  public static class MirrorFiles {
+    String commitId;
+    List<GitFile> files;
+  }
+
+  @Inject
+  public GitMirrorCache() {
+    this(Boolean.parseBoolean(System.getenv(ENABLED_ENV_VAR)), REPOSITORY_GIT_MIRRORS,
+        getMaxDiskUsageMb() * FileUtils.ONE_MB);
+  }
+
+  @VisibleForTesting
+  GitMirrorCache(boolean enabled, String mirrorsDirectory, long maxDiskUsageBytes) {
+    this.enabled = enabled;
+    this.mirrorsDirectory = mirrorsDirectory;
+    this.maxDiskUsageBytes = maxDiskUsageBytes;
+  }
+
+  private static long getMaxDiskUsageMb() {
+    String maxDiskUsageMb = System.getenv(MAX_DISK_USAGE_ENV_VAR);
+    return StringUtils.isNumeric(maxDiskUsageMb) ? Long.parseLong(maxDiskUsageMb) : DEFAULT_MAX_DISK_USAGE_MB;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public MirrorFiles fetchFilesByPath(FetchFilesByPathRequest request, MirrorFetcher fetcher) {
+    while (true) {
+      Mirror mirror = mirrors.computeIfAbsent(getMirrorKey(request), this::newMirror);
+      mirror.lastAccessed = System.currentTimeMillis();
+      // commits never change, a branch has to be fetched to see its latest commit
+      if (request.useBranch() || !hasCommit(mirror, request.getCommitId())) {
+        fetch(mirror, fetcher);
+      }
+
+      mirror.lock.readLock().lock();
+      try {
+        if (!mirror.evicted) {
+          return readFiles(mirror, request);
+        }
+      } finally {
+        mirror.lock.readLock().unlock();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  long getDiskUsageBytes() {
+    return mirrors.values().stream().mapToLong(mirror -> mirror.diskUsageBytes).sum();
+  }
+
+  @VisibleForTesting
+  int getMirrorCount() {
+    return mirrors.size();
+  }
+
+  private String getMirrorKey(FetchFilesByPathRequest request) {
+    return DigestUtils.sha256Hex(request.getAccountId() + ":" + request.getConnectorId() + ":" + request.getRepoUrl());
+  }
+
+  private Mirror newMirror(String key) {
+    Mirror mirror = new Mirror(key, new File(mirrorsDirectory, key));
+    if (mirror.directory.exists()) {
+      // left behind by an earlier run of the delegate
+      mirror.diskUsageBytes = FileUtils.sizeOfDirectory(mirror.directory);
+    }
+    return mirror;
+  }
+
+  private boolean hasCommit(Mirror mirror, String commitId) {
+    if (!ObjectId.isId(commitId)) {
+      return false;
+    }
+    mirror.lock.readLock().lock();
+    try {
+      if (mirror.evicted || !isInitialized(mirror)) {
+        return false;
+      }
+      try (Repository repository = openRepository(mirror)) {
+        return repository.getObjectDatabase().has(ObjectId.fromString(commitId));
+      }
+    } catch (IOException e) {
+      log.warn("Failed to look up commit {} in git mirror {}", commitId, mirror.directory, e);
+      return false;
+    } finally {
+      mirror.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Fetches into the mirror, or waits for the fetch started by another request if there is one.
+   */
+  private void fetch(Mirror mirror, MirrorFetcher fetcher) {
+    CompletableFuture<Void> fetch;
+    boolean fetchOwner = false;
+    synchronized (mirror) {
+      if (mirror.inFlightFetch == null) {
+        mirror.inFlightFetch = new CompletableFuture<>();
+        fetchOwner = true;
+      }
+      fetch = mirror.inFlightFetch;
+    }
+
+    if (fetchOwner) {
+      try {
+        fetchUnderWriteLock(mirror, fetcher);
+        fetch.complete(null);
+      } catch (Exception e) {
+        fetch.completeExceptionally(e);
+      } finally {
+        synchronized (mirror) {
+          mirror.inFlightFetch = null;
+        }
+      }
+      evictIfNeeded(mirror);
+    }
+
+    try {
+      fetch.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw(RuntimeException) e.getCause();
+      }
+      throw new JGitRuntimeException("Failed to fetch into git mirror", e.getCause());
+    }
+  }
+
+  private void fetchUnderWriteLock(Mirror mirror, MirrorFetcher fetcher) throws IOException, GitAPIException {
+    mirror.lock.writeLock().lock();
+    try {
+      if (mirror.evicted) {
+        return;
+      }
+      if (!isInitialized(mirror)) {
+        FileUtils.forceMkdir(mirror.directory);
+        Git.init().setBare(true).setDirectory(mirror.directory).call().close();
+      }
+      try (Git git = Git.open(mirror.directory)) {
+        fetcher.fetch(git);
+      }
+      mirror.diskUsageBytes = FileUtils.sizeOfDirectory(mirror.directory);
+    } finally {
+      mirror.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Deletes least recently used mirrors until the mirrors fit into the disk usage limit. Mirrors being read or fetched
+   * into are skipped, as well as the mirror just fetched into.
+   */
+  private synchronized void evictIfNeeded(Mirror fetchedMirror) {
+    long diskUsageBytes = getDiskUsageBytes();
+    if (diskUsageBytes <= maxDiskUsageBytes) {
+      return;
+    }
+
+    List<Mirror> leastRecentlyUsed = mirrors.values()
+                                         .stream()
+                                         .filter(mirror -> mirror != fetchedMirror)
+                                         .sorted(Comparator.comparingLong(mirror -> mirror.lastAccessed))
+                                         .collect(Collectors.toList());
+    for (Mirror mirror : leastRecentlyUsed) {
+      if (diskUsageBytes <= maxDiskUsageBytes) {
+        return;
+      }
+      if (!mirror.lock.writeLock().tryLock()) {
+        continue;
+      }
+      try {
+        mirror.evicted = true;
+        mirrors.remove(mirror.key, mirror);
+        FileIo.deleteDirectoryAndItsContentIfExists(mirror.directory.getAbsolutePath());
+        diskUsageBytes -= mirror.diskUsageBytes;
+        log.info("Evicted git mirror {} using {} bytes", mirror.directory, mirror.diskUsageBytes);
+      } catch (IOException e) {
+        log.warn("Failed to delete evicted git mirror {}", mirror.directory, e);
+      } finally {
+        mirror.lock.writeLock().unlock();
+      }
+    }
+  }
+
+  private MirrorFiles readFiles(Mirror mirror, FetchFilesByPathRequest request) {
+    try (Repository repository = openRepository(mirror); RevWalk revWalk = new RevWalk(repository)) {
+      ObjectId commitId = repository.resolve(
+          request.useBranch() ? REFS_HEADS + request.getBranch() : request.getCommitId() + "^{commit}");
+      if (commitId == null) {
+        throw JGitRuntimeException.builder()
+            .message(request.useBranch() ? "Unable to find branch " + request.getBranch()
+                                         : "Unable to find commit id " + request.getCommitId())
+            .branch(request.getBranch())
+            .commitId(request.getCommitId())
+            .build();
+      }
+      RevCommit commit = revWalk.parseCommit(commitId);
+
+      List<GitFile> gitFiles = new ArrayList<>();
+      for (String filePath : request.getFilePaths()) {
+        try {
+          addFiles(repository, commit, filePath, request, gitFiles);
+        } catch (NoSuchFileException e) {
+          if (request.isOptionalFiles()) {
+            log.debug("Unable to fetch optional file: {}", filePath);
+            continue;
+          }
+          // GitFetchFilesTask relies on the NoSuchFileException cause, same as for files checked out
+          throw JGitRuntimeException.builder()
+              .message("Unable to checkout file: " + filePath)
+              .cause(e)
+              .branch(request.getBranch())
+              .commitId(request.getCommitId())
+              .build();
+        }
+      }
+      return new MirrorFiles(request.useBranch() ? commit.getName() : request.getCommitId(), gitFiles);
+    } catch (IOException e) {
+      throw JGitRuntimeException.builder()
+          .message("Failed to read files from git mirror")
+          .cause(e)
+          .branch(request.getBranch())
+          .commitId(request.getCommitId())
+          .build();
+    }
+  }
+
+  private void addFiles(Repository repository, RevCommit commit, String filePath, FetchFilesByPathRequest request,
+      List<GitFile> gitFiles) throws IOException {
+    String path = normalizePath(filePath);
+    ObjectId treeId = commit.getTree();
+    String pathPrefix = "";
+    if (isNotEmpty(path)) {
+      try (TreeWalk pathWalk = TreeWalk.forPath(repository, path, commit.getTree())) {
+        if (pathWalk == null) {
+          throw new NoSuchFileException(filePath);
+        }
+        if (!isTree(pathWalk.getFileMode(0))) {
+          addFile(repository, path, pathWalk.getObjectId(0), pathWalk.getFileMode(0), request, gitFiles);
+          return;
+        }
+        treeId = pathWalk.getObjectId(0);
+        pathPrefix = path + "/";
+      }
+    }
+
+    try (TreeWalk treeWalk = new TreeWalk(repository)) {
+      treeWalk.addTree(treeId);
+      treeWalk.setRecursive(request.isRecursive());
+      while (treeWalk.next()) {
+        addFile(repository, pathPrefix + treeWalk.getPathString(), treeWalk.getObjectId(0), treeWalk.getFileMode(0),
+            request, gitFiles);
+      }
+    }
+  }
+
+  private void addFile(Repository repository, String path, ObjectId blobId, FileMode fileMode,
+      FetchFilesByPathRequest request, List<GitFile> gitFiles) throws IOException {
+    if ((fileMode.getBits() & FileMode.TYPE_MASK) != FileMode.TYPE_FILE || path.contains(".git")
+        || !matchesFileExtensions(path, request.getFileExtensions())) {
+      return;
+    }
+    String content = new String(repository.open(blobId).getBytes(Integer.MAX_VALUE), UTF_8);
+    // same content as read line by line from a checked out file
+    String fileContent =
+        new BufferedReader(new StringReader(content)).lines().map(line -> line + "\n").collect(Collectors.joining());
+    gitFiles.add(GitFile.builder().filePath(path).fileContent(fileContent).build());
+  }
+
+  private boolean matchesFileExtensions(String path, List<String> fileExtensions) {
+    return isEmpty(fileExtensions) || fileExtensions.stream().anyMatch(path::endsWith);
+  }
+
+  private boolean isTree(FileMode fileMode) {
+    return (fileMode.getBits() & FileMode.TYPE_MASK) == FileMode.TYPE_TREE;
+  }
+
+  private String normalizePath(String filePath) {
+    return Paths.get(StringUtils.stripStart(filePath, "/")).normalize().toString();
+  }
+
+  private boolean isInitialized(Mirror mirror) {
+    return new File(mirror.directory, "HEAD").exists();
+  }
+
+  private Repository openRepository(Mirror mirror) throws IOException {
+    return new FileRepositoryBuilder().setGitDir(mirror.directory).setMustExist(true).build();
+  }
+
+  private static class Mirror {
+    private final String key;
+    private final File directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile long lastAccessed;
+    private volatile long diskUsageBytes;
+    // guarded by the write lock
+    private boolean evicted;
+    // guarded by the mirror
+    private CompletableFuture<Void> inFlightFetch;
+
+    Mirror(String key, File directory) {
+      this.key = key;
+      this.directory = directory;
+    }
+  }
+}
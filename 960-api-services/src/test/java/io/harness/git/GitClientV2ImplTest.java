@@ -138,6 +138,7 @@ public class GitClientV2ImplTest extends CategoryTest {
           });
   @Rule public MockitoRule mockitoRule = MockitoJUnit.rule();
   @Mock GitClientHelper gitClientHelper;
+  @Mock GitMirrorCache gitMirrorCache;
   @InjectMocks @Spy GitClientV2Impl gitClient;
   private Git git;
   private String repoPath;
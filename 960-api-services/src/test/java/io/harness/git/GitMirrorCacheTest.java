@@ -0,0 +1,292 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.git;
+
+import static io.harness.annotations.dev.HarnessTeam.CDP;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.exception.runtime.JGitRuntimeException;
+import io.harness.git.GitMirrorCache.MirrorFetcher;
+import io.harness.git.GitMirrorCache.MirrorFiles;
+import io.harness.git.model.FetchFilesByPathRequest;
+import io.harness.git.model.GitFile;
+import io.harness.rule.Owner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.transport.RefSpec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Slf4j
+@OwnedBy(CDP)
+public class GitMirrorCacheTest extends CategoryTest {
+  private File workDirectory;
+  private AtomicInteger fetchCount;
+
+  @Before
+  public void setUp() throws Exception {
+    workDirectory = Files.createTempDirectory("gitMirrorCacheTest").toFile();
+    fetchCount = new AtomicInteger();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    FileUtils.deleteDirectory(workDirectory);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldReadFilesOfBranchAndCommitFromMirror() throws Exception {
+    GitMirrorCache gitMirrorCache = newGitMirrorCache(Long.MAX_VALUE);
+    File remote = new File(workDirectory, "remote");
+    RevCommit firstCommit;
+    try (Git git = Git.init().setDirectory(remote).setInitialBranch("master").call()) {
+      firstCommit = commitFile(git, "manifests/deployment.yaml", "kind: Deployment");
+      commitFile(git, "manifests/values/values.yaml", "replicas: 1");
+      commitFile(git, "README.md", "readme");
+    }
+
+    FetchFilesByPathRequest request = branchRequest(remote, "master", "manifests/");
+    request.setFileExtensions(Collections.singletonList(".yaml"));
+    MirrorFiles mirrorFiles = fetchFiles(gitMirrorCache, request);
+    assertThat(mirrorFiles.getFiles())
+        .extracting(GitFile::getFilePath, GitFile::getFileContent)
+        .containsExactly(tuple("manifests/deployment.yaml", "kind: Deployment\n"));
+
+    request.setRecursive(true);
+    assertThat(fetchFiles(gitMirrorCache, request).getFiles())
+        .extracting(GitFile::getFilePath)
+        .containsExactlyInAnyOrder("manifests/deployment.yaml", "manifests/values/values.yaml");
+    assertThat(fetchCount.get()).isEqualTo(2);
+
+    // new commits on the branch are fetched, commits already in the mirror are read without fetching
+    try (Git git = Git.open(remote)) {
+      commitFile(git, "manifests/deployment.yaml", "kind: StatefulSet");
+    }
+    assertThat(fetchFiles(gitMirrorCache, branchRequest(remote, "master", "manifests/deployment.yaml")).getFiles())
+        .extracting(GitFile::getFileContent)
+        .containsExactly("kind: StatefulSet\n");
+    MirrorFiles commitFiles =
+        fetchFiles(gitMirrorCache, commitRequest(remote, firstCommit.getName(), "manifests/deployment.yaml"));
+    assertThat(commitFiles.getCommitId()).isEqualTo(firstCommit.getName());
+    assertThat(commitFiles.getFiles()).extracting(GitFile::getFileContent).containsExactly("kind: Deployment\n");
+    assertThat(fetchCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldFailForMissingFileUnlessOptional() throws Exception {
+    GitMirrorCache gitMirrorCache = newGitMirrorCache(Long.MAX_VALUE);
+    File remote = new File(workDirectory, "remote");
+    try (Git git = Git.init().setDirectory(remote).setInitialBranch("master").call()) {
+      commitFile(git, "values.yaml", "replicas: 1");
+    }
+
+    FetchFilesByPathRequest request = branchRequest(remote, "master", "missing.yaml");
+    assertThatThrownBy(() -> fetchFiles(gitMirrorCache, request))
+        .isInstanceOf(JGitRuntimeException.class)
+        .hasCauseInstanceOf(NoSuchFileException.class);
+
+    request.setOptionalFiles(true);
+    request.setFilePaths(Arrays.asList("missing.yaml", "values.yaml"));
+    assertThat(fetchFiles(gitMirrorCache, request).getFiles()).extracting(GitFile::getFilePath).containsExactly(
+        "values.yaml");
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldCoalesceConcurrentFetches() throws Exception {
+    GitMirrorCache gitMirrorCache = newGitMirrorCache(Long.MAX_VALUE);
+    File remote = new File(workDirectory, "remote");
+    try (Git git = Git.init().setDirectory(remote).setInitialBranch("master").call()) {
+      commitFile(git, "values.yaml", "replicas: 1");
+    }
+
+    ExecutorService executorService = Executors.newSingleThreadExecutor();
+    List<Future<MirrorFiles>> waitingFetches = new ArrayList<>();
+    MirrorFetcher blockingFetcher = mirror -> {
+      fetchCount.incrementAndGet();
+      // the second request arrives while the first one is fetching
+      waitingFetches.add(
+          executorService.submit(() -> fetchFiles(gitMirrorCache, branchRequest(remote, "master", "values.yaml"))));
+      awaitWaitingThread();
+      fetchAll(mirror, remote.toURI().toString());
+    };
+
+    MirrorFiles mirrorFiles =
+        gitMirrorCache.fetchFilesByPath(branchRequest(remote, "master", "values.yaml"), blockingFetcher);
+    assertThat(mirrorFiles.getFiles()).hasSize(1);
+    assertThat(waitingFetches.get(0).get(30, TimeUnit.SECONDS).getFiles()).isEqualTo(mirrorFiles.getFiles());
+    assertThat(fetchCount.get()).isEqualTo(1);
+    executorService.shutdownNow();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldEvictLeastRecentlyUsedMirrors() throws Exception {
+    GitMirrorCache gitMirrorCache = newGitMirrorCache(1);
+    List<File> remotes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      File remote = new File(workDirectory, "remote" + i);
+      try (Git git = Git.init().setDirectory(remote).setInitialBranch("master").call()) {
+        commitFile(git, "values.yaml", "replicas: " + i);
+      }
+      remotes.add(remote);
+    }
+
+    for (File remote : remotes) {
+      fetchFiles(gitMirrorCache, branchRequest(remote, "master", "values.yaml"));
+    }
+
+    // every mirror is above the limit, only the one fetched last is kept
+    assertThat(gitMirrorCache.getMirrorCount()).isEqualTo(1);
+    File[] mirrorDirectories = new File(workDirectory, "mirrors").listFiles();
+    assertThat(mirrorDirectories).hasSize(1);
+    assertThat(fetchFiles(gitMirrorCache, branchRequest(remotes.get(2), "master", "values.yaml")).getFiles())
+        .extracting(GitFile::getFileContent)
+        .containsExactly("replicas: 2\n");
+    assertThat(fetchFiles(gitMirrorCache, branchRequest(remotes.get(0), "master", "values.yaml")).getFiles())
+        .extracting(GitFile::getFileContent)
+        .containsExactly("replicas: 0\n");
+  }
+
+  /**
+   * 50 concurrent fetches of different branches and commits of one file:// repo, served from a single mirror.
+   */
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void concurrentFetchesFromSharedMirror() throws Exception {
+    GitMirrorCache gitMirrorCache = newGitMirrorCache(Long.MAX_VALUE);
+    File remote = new File(workDirectory, "remote");
+    List<String> commitIds = new ArrayList<>();
+    try (Git git = Git.init().setDirectory(remote).setInitialBranch("master").call()) {
+      commitFile(git, "README.md", "readme");
+      for (int i = 0; i < 10; i++) {
+        git.branchCreate().setName("branch" + i).call();
+        git.checkout().setName("branch" + i).call();
+        for (int j = 0; j < 50; j++) {
+          commitIds.add(commitFile(git, "manifests/file" + j + ".yaml", "branch: " + i + "\nfile: " + j).getName());
+        }
+      }
+    }
+
+    int concurrentFetches = 50;
+    ExecutorService executorService = Executors.newFixedThreadPool(concurrentFetches);
+    List<Future<MirrorFiles>> fetches = new ArrayList<>();
+    long startTime = System.nanoTime();
+    for (int i = 0; i < concurrentFetches; i++) {
+      FetchFilesByPathRequest request = i % 2 == 0
+          ? branchRequest(remote, "branch" + (i % 10), "manifests/")
+          : commitRequest(remote, commitIds.get(i * 10), "manifests/");
+      fetches.add(executorService.submit(() -> fetchFiles(gitMirrorCache, request)));
+    }
+    for (Future<MirrorFiles> fetch : fetches) {
+      assertThat(fetch.get(5, TimeUnit.MINUTES).getFiles()).isNotEmpty();
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    executorService.shutdownNow();
+
+    log.info("{} concurrent fetches took {} ms with {} fetches into the mirror", concurrentFetches, elapsedMillis,
+        fetchCount.get());
+    assertThat(fetchCount.get()).isLessThan(concurrentFetches);
+  }
+
+  private GitMirrorCache newGitMirrorCache(long maxDiskUsageBytes) {
+    return new GitMirrorCache(true, new File(workDirectory, "mirrors").getPath(), maxDiskUsageBytes);
+  }
+
+  private MirrorFiles fetchFiles(GitMirrorCache gitMirrorCache, FetchFilesByPathRequest request) {
+    return gitMirrorCache.fetchFilesByPath(request, mirror -> {
+      fetchCount.incrementAndGet();
+      fetchAll(mirror, request.getRepoUrl());
+    });
+  }
+
+  private static void fetchAll(Git mirror, String repoUrl) throws GitAPIException {
+    mirror.fetch()
+        .setRemote(repoUrl)
+        .setRefSpecs(new RefSpec("+refs/heads/*:refs/heads/*"), new RefSpec("+refs/tags/*:refs/tags/*"))
+        .setRemoveDeletedRefs(true)
+        .call();
+  }
+
+  private static void awaitWaitingThread() {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while (System.currentTimeMillis() < deadline) {
+      boolean waiting = Thread.getAllStackTraces().keySet().stream().anyMatch(thread
+          -> thread.getState() == Thread.State.WAITING && Arrays.stream(thread.getStackTrace())
+                                                              .anyMatch(frame -> frame.getMethodName().equals("join")));
+      if (waiting) {
+        return;
+      }
+      Thread.yield();
+    }
+  }
+
+  private static RevCommit commitFile(Git git, String path, String content) throws Exception {
+    File file = new File(git.getRepository().getWorkTree(), path);
+    FileUtils.writeStringToFile(file, content, UTF_8);
+    git.add().addFilepattern(".").call();
+    return git.commit().setMessage("update " + path).setSign(false).call();
+  }
+
+  private static FetchFilesByPathRequest branchRequest(File remote, String branch, String filePath) {
+    FetchFilesByPathRequest request = baseRequest(remote, filePath);
+    request.setBranch(branch);
+    return request;
+  }
+
+  private static FetchFilesByPathRequest commitRequest(File remote, String commitId, String filePath) {
+    FetchFilesByPathRequest request = baseRequest(remote, filePath);
+    request.setCommitId(commitId);
+    return request;
+  }
+
+  private static FetchFilesByPathRequest baseRequest(File remote, String filePath) {
+    return FetchFilesByPathRequest.builder()
+        .repoUrl(remote.toURI().toString())
+        .accountId("ACCOUNT_ID")
+        .connectorId("CONNECTOR_ID")
+        .filePaths(Collections.singletonList(filePath))
+        .build();
+  }
+}
@@ -24,4 +24,7 @@ public class CacheConfig {
   String cacheNamespace;
   Set<String> disabledCaches;
   @JsonProperty(defaultValue = "false") boolean enterpriseCacheEnabled;
+  // local tier of the REDIS_NEAR_CACHE backend, per cache
+  @JsonProperty(defaultValue = "64") int nearCacheMaxSizeMb;
+  @JsonProperty(defaultValue = "30") int nearCacheTtlSeconds;
 }
@@ -9,17 +9,22 @@ package io.harness.cache;
 
 import static io.harness.annotations.dev.HarnessTeam.PL;
 import static io.harness.cache.CacheBackend.REDIS;
+import static io.harness.cache.CacheBackend.REDIS_NEAR_CACHE;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
 
 import static javax.cache.Caching.getCachingProvider;
 
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.govern.ProviderMethodInterceptor;
 import io.harness.govern.ServersModule;
+import io.harness.metrics.HarnessMetricRegistry;
 import io.harness.redis.RedissonKryoCodec;
 
 import com.google.common.io.Files;
 import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
@@ -31,6 +36,7 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
@@ -57,7 +63,10 @@ import org.jsr107.ri.annotations.guice.CachePutInterceptor;
 import org.jsr107.ri.annotations.guice.CacheRemoveAllInterceptor;
 import org.jsr107.ri.annotations.guice.CacheRemoveEntryInterceptor;
 import org.jsr107.ri.annotations.guice.CacheResultInterceptor;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.redisson.jcache.JCachingProvider;
 
 /**
  * Created by peeyushaggarwal on 1/11/17.
@@ -122,6 +131,7 @@ import org.redisson.config.Config;
 public class CacheModule extends AbstractModule implements ServersModule {
   private static final String CACHING_PROVIDER_CLASSPATH = "javax.cache.spi.CachingProvider";
   private CacheManager cacheManager;
+  private RedissonClient nearCacheRedissonClient;
   private Optional<CacheManager> enterpriseRedisCacheManagerOptional;
   private CacheConfig cacheConfig;
 
@@ -144,6 +154,27 @@ public class CacheModule extends AbstractModule implements ServersModule {
     return provider.getCacheManager(uri, provider.getDefaultClassLoader(), new Properties());
   }
 
+  /**
+   * Loads the redisson config the same way {@link #getCacheManagerFromYAML} resolves it, so that the near cache
+   * invalidations go to the redis holding the cached data: the file in the working directory if present, otherwise
+   * the default config of the redisson caching provider from the classpath.
+   */
+  private Config getRedissonConfig(String filePath) throws IOException {
+    File file = new File(filePath);
+    if (file.exists()) {
+      return Config.fromYAML(file);
+    }
+    URL jsonUrl = JCachingProvider.class.getResource("/redisson-jcache.json");
+    if (jsonUrl != null) {
+      return Config.fromJSON(jsonUrl);
+    }
+    URL yamlUrl = JCachingProvider.class.getResource("/redisson-jcache.yaml");
+    if (yamlUrl != null) {
+      return Config.fromYAML(yamlUrl);
+    }
+    throw new IllegalStateException("No redisson config found for the near cache, expected " + filePath);
+  }
+
   @Provides
   @Named("Redis")
   @Singleton
@@ -176,7 +207,7 @@ public class CacheModule extends AbstractModule implements ServersModule {
   @Singleton
   public HarnessCacheManager getHarnessCacheManager(@Named("Redis") Provider<CacheManager> redisProvider,
       @Named("EnterpriseRedis") Provider<Optional<CacheManager>> enterpriseRedisProvider,
-      @Named("Caffeine") Provider<CacheManager> caffeineProvider) {
+      @Named("Caffeine") Provider<CacheManager> caffeineProvider, Injector injector) throws IOException {
     CacheBackend cacheBackend = cacheConfig.getCacheBackend();
     switch (cacheBackend) {
       case NOOP:
@@ -189,19 +220,38 @@ public class CacheModule extends AbstractModule implements ServersModule {
       case CAFFEINE:
         this.cacheManager = caffeineProvider.get();
         break;
+      case REDIS_NEAR_CACHE:
+        this.cacheManager = redisProvider.get();
+        this.enterpriseRedisCacheManagerOptional = enterpriseRedisProvider.get();
+        return new HarnessCacheManagerImpl(cacheManager, enterpriseRedisCacheManagerOptional, cacheConfig,
+            getNearCacheInvalidator(injector), injector.getInstance(RedissonKryoCodec.class));
       default:
         throw new UnsupportedOperationException();
     }
     return new HarnessCacheManagerImpl(cacheManager, enterpriseRedisCacheManagerOptional, cacheConfig);
   }
 
+  private NearCacheInvalidator getNearCacheInvalidator(Injector injector) throws IOException {
+    Config config = getRedissonConfig("redisson-jcache.yaml");
+    config.setCodec(injector.getInstance(RedissonKryoCodec.class));
+    this.nearCacheRedissonClient = Redisson.create(config);
+
+    String topicName = isEmpty(cacheConfig.getCacheNamespace())
+        ? NearCacheInvalidator.TOPIC_NAME
+        : cacheConfig.getCacheNamespace().concat("/").concat(NearCacheInvalidator.TOPIC_NAME);
+    Binding<HarnessMetricRegistry> metricRegistryBinding =
+        injector.getExistingBinding(Key.get(HarnessMetricRegistry.class));
+    return new NearCacheInvalidator(nearCacheRedissonClient.getTopic(topicName),
+        metricRegistryBinding == null ? null : metricRegistryBinding.getProvider().get());
+  }
+
   public static <T, R> Supplier<R> bind(Function<T, R> fn, T val) {
     return () -> fn.apply(val);
   }
 
   @Override
   protected void configure() {
-    if (cacheConfig.getCacheBackend() == REDIS) {
+    if (cacheConfig.getCacheBackend() == REDIS || cacheConfig.getCacheBackend() == REDIS_NEAR_CACHE) {
       bind(RedissonKryoCodec.class).toInstance(new RedissonKryoCodec());
     }
     MapBinder.newMapBinder(binder(), TypeLiteral.get(String.class), new TypeLiteral<Cache<?, ?>>() {});
@@ -237,6 +287,9 @@ public class CacheModule extends AbstractModule implements ServersModule {
       if (cacheManager != null) {
         cacheManager.close();
       }
+      if (nearCacheRedissonClient != null) {
+        nearCacheRedissonClient.shutdown();
+      }
     });
   }
 
@@ -9,6 +9,7 @@ package io.harness.cache;
 
 import static io.harness.annotations.dev.HarnessTeam.PL;
 import static io.harness.cache.CacheBackend.CAFFEINE;
+import static io.harness.cache.CacheBackend.REDIS_NEAR_CACHE;
 import static io.harness.data.structure.EmptyPredicate.isEmpty;
 import static io.harness.threading.Morpheus.sleep;
 
@@ -16,6 +17,7 @@ import static java.time.Duration.ofMillis;
 
 import io.harness.annotations.dev.OwnedBy;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.stream.Stream;
 import javax.cache.Cache;
@@ -25,6 +27,7 @@ import javax.cache.configuration.Factory;
 import javax.cache.configuration.MutableConfiguration;
 import javax.cache.expiry.ExpiryPolicy;
 import lombok.extern.slf4j.Slf4j;
+import org.redisson.client.codec.Codec;
 
 @OwnedBy(PL)
 @Slf4j
@@ -35,12 +38,24 @@ public class HarnessCacheManagerImpl implements HarnessCacheManager {
   static final String CACHE_PREFIX = "hCache";
   private static final int NUM_OF_RETRIES = 3;
   private static final int WAIT_TIME_BETWEEN_RETRIES = 1000;
+  private static final int DEFAULT_NEAR_CACHE_MAX_SIZE_MB = 64;
+  private static final int DEFAULT_NEAR_CACHE_TTL_SECONDS = 30;
+
+  private final NearCacheInvalidator nearCacheInvalidator;
+  private final Codec nearCacheCodec;
 
   HarnessCacheManagerImpl(
       CacheManager cacheManager, Optional<CacheManager> enterpriseRedisCacheManagerOptional, CacheConfig cacheConfig) {
+    this(cacheManager, enterpriseRedisCacheManagerOptional, cacheConfig, null, null);
+  }
+
+  HarnessCacheManagerImpl(CacheManager cacheManager, Optional<CacheManager> enterpriseRedisCacheManagerOptional,
+      CacheConfig cacheConfig, NearCacheInvalidator nearCacheInvalidator, Codec nearCacheCodec) {
     this.cacheManager = cacheManager;
     this.enterpriseRedisCacheManagerOptional = enterpriseRedisCacheManagerOptional;
     this.cacheConfig = cacheConfig;
+    this.nearCacheInvalidator = nearCacheInvalidator;
+    this.nearCacheCodec = nearCacheCodec;
   }
 
   @Override
@@ -95,8 +110,9 @@ public class HarnessCacheManagerImpl implements HarnessCacheManager {
     int failedAttempts = 0;
     while (true) {
       try {
-        return Optional.ofNullable(manager.getCache(internalCacheName, keyType, valueType))
-            .orElseGet(() -> manager.createCache(internalCacheName, jCacheConfiguration));
+        Cache<K, V> jCache = Optional.ofNullable(manager.getCache(internalCacheName, keyType, valueType))
+                                 .orElseGet(() -> manager.createCache(internalCacheName, jCacheConfiguration));
+        return isNearCacheEnabled(enterpriseRedis) ? nearCache(jCache, cacheName, expiryPolicy) : jCache;
       } catch (Exception e) {
         failedAttempts++;
         if (failedAttempts == NUM_OF_RETRIES) {
@@ -109,6 +125,22 @@ public class HarnessCacheManagerImpl implements HarnessCacheManager {
     }
   }
 
+  private boolean isNearCacheEnabled(boolean enterpriseRedis) {
+    return cacheConfig.getCacheBackend() == REDIS_NEAR_CACHE && nearCacheInvalidator != null
+        && !(enterpriseRedis && enterpriseRedisCacheManagerOptional.isPresent());
+  }
+
+  private <K, V> Cache<K, V> nearCache(Cache<K, V> jCache, String cacheName, Factory<ExpiryPolicy> expiryPolicy) {
+    int maxSizeMb = cacheConfig.getNearCacheMaxSizeMb() > 0 ? cacheConfig.getNearCacheMaxSizeMb()
+                                                             : DEFAULT_NEAR_CACHE_MAX_SIZE_MB;
+    int ttlSeconds = cacheConfig.getNearCacheTtlSeconds() > 0 ? cacheConfig.getNearCacheTtlSeconds()
+                                                              : DEFAULT_NEAR_CACHE_TTL_SECONDS;
+    // the metric label drops the per key suffix of the cache name
+    return nearCacheInvalidator.getOrCreate(jCache.getName(),
+        () -> new NearCache<>(jCache, nearCacheCodec, nearCacheInvalidator, cacheName.split(":")[0],
+            maxSizeMb * 1024L * 1024L, NearCache.localTtl(expiryPolicy, Duration.ofSeconds(ttlSeconds))));
+  }
+
   private boolean isCacheExistsError(CacheException ce, String cacheName) {
     return ce.getMessage().equalsIgnoreCase("Cache " + cacheName + " already exists")
         || ce.getMessage().equalsIgnoreCase("A cache named " + cacheName + " already exists.");
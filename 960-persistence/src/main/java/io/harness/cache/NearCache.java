@@ -0,0 +1,433 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.cache;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.CacheEntryListenerConfiguration;
+import javax.cache.configuration.Configuration;
+import javax.cache.configuration.Factory;
+import javax.cache.expiry.ExpiryPolicy;
+import javax.cache.integration.CompletionListener;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.EntryProcessorException;
+import javax.cache.processor.EntryProcessorResult;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.client.codec.Codec;
+
+/**
+ * A jCache with a bounded in-process tier in front of a remote (redis) cache.
+ *
+ * <p>Reads are served from the local tier when possible, misses are read from the remote cache and kept locally. Every
+ * write goes to the remote cache first and then drops the local copies of this pod and, through the {@link
+ * NearCacheInvalidator}, of all the other pods. The local tier keeps the values serialized, so callers get their own
+ * copy the same way they do from redis.
+ *
+ * <p>Every read of the remote cache takes a stamp from a local sequence before it starts, every invalidation bumps the
+ * sequence and leaves a tombstone with the new number for its key. A value read from redis is kept only if no tombstone
+ * for its key is newer than the stamp of the read, so an invalidation that overtakes a slow read can not be undone by
+ * it. The local copies live at most for the local ttl, which bounds the staleness if an invalidation gets lost.
+ */
+@OwnedBy(PL)
+@Slf4j
+public class NearCache<K, V> implements Cache<K, V> {
+  private static final Duration TOMBSTONE_TTL = Duration.ofMinutes(1);
+  private static final long MAX_TOMBSTONES = 100_000;
+
+  private final Cache<K, V> remote;
+  private final Codec codec;
+  private final NearCacheInvalidator invalidator;
+  private final String metricLabel;
+  private final com.github.benmanes.caffeine.cache.Cache<K, byte[]> local;
+  private final com.github.benmanes.caffeine.cache.Cache<K, Long> tombstones;
+  private final AtomicLong sequence = new AtomicLong();
+  private volatile long clearedAt;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  NearCache(Cache<K, V> remote, Codec codec, NearCacheInvalidator invalidator, String metricLabel, long maxSizeBytes,
+      Duration localTtl) {
+    this.remote = remote;
+    this.codec = codec;
+    this.invalidator = invalidator;
+    this.metricLabel = metricLabel;
+    this.local = Caffeine.newBuilder()
+                     .maximumWeight(maxSizeBytes)
+                     .<K, byte[]>weigher((key, value) -> value.length)
+                     .expireAfterWrite(localTtl)
+                     .build();
+    this.tombstones = Caffeine.newBuilder().maximumSize(MAX_TOMBSTONES).expireAfterWrite(TOMBSTONE_TTL).build();
+  }
+
+  /**
+   * The local copies must not outlive the remote entries by more than the near cache ttl, the remote expiry policy is
+   * still applied by redis.
+   */
+  static Duration localTtl(Factory<ExpiryPolicy> expiryPolicyFactory, Duration nearCacheTtl) {
+    Duration localTtl = nearCacheTtl;
+    ExpiryPolicy expiryPolicy = expiryPolicyFactory == null ? null : expiryPolicyFactory.create();
+    if (expiryPolicy != null) {
+      localTtl = min(localTtl, expiryPolicy.getExpiryForCreation());
+      localTtl = min(localTtl, expiryPolicy.getExpiryForAccess());
+    }
+    return localTtl;
+  }
+
+  private static Duration min(Duration duration, javax.cache.expiry.Duration expiry) {
+    if (expiry == null || expiry.isEternal()) {
+      return duration;
+    }
+    Duration other = Duration.ofMillis(expiry.getTimeUnit().toMillis(expiry.getDurationAmount()));
+    return other.compareTo(duration) < 0 ? other : duration;
+  }
+
+  String getMetricLabel() {
+    return metricLabel;
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public long getInvalidationCount() {
+    return invalidations.sum();
+  }
+
+  public long getLocalSize() {
+    return local.estimatedSize();
+  }
+
+  @SuppressWarnings("unchecked")
+  void invalidateLocally(Collection<?> keys) {
+    for (Object key : keys) {
+      // remove after the tombstone, so that a concurrent fill either sees it or gets removed
+      tombstones.put((K) key, sequence.incrementAndGet());
+      local.invalidate(key);
+    }
+    invalidations.add(keys.size());
+  }
+
+  void invalidateLocally() {
+    clearedAt = sequence.incrementAndGet();
+    local.invalidateAll();
+    invalidations.increment();
+  }
+
+  private void invalidate(K key) {
+    invalidate(Collections.singleton(key));
+  }
+
+  private void invalidate(Collection<? extends K> keys) {
+    invalidateLocally(keys);
+    invalidator.publish(getName(), keys);
+  }
+
+  private void invalidateAll() {
+    invalidateLocally();
+    invalidator.publish(getName(), null);
+  }
+
+  private boolean isStale(K key, long stamp) {
+    if (clearedAt > stamp) {
+      return true;
+    }
+    Long invalidatedAt = tombstones.getIfPresent(key);
+    return invalidatedAt != null && invalidatedAt > stamp;
+  }
+
+  private void fill(K key, V value, long stamp) {
+    if (value == null || isStale(key, stamp)) {
+      return;
+    }
+    byte[] bytes = encode(value);
+    if (bytes == null) {
+      return;
+    }
+    local.put(key, bytes);
+    if (isStale(key, stamp)) {
+      local.invalidate(key);
+    }
+  }
+
+  private V lookup(K key) {
+    byte[] bytes = local.getIfPresent(key);
+    boolean hit = bytes != null;
+    V value = hit ? decode(bytes) : null;
+    if (hit && value == null) {
+      local.invalidate(key);
+      hit = false;
+    }
+    if (hit) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    invalidator.recordLookup(metricLabel, hit);
+    return value;
+  }
+
+  private byte[] encode(V value) {
+    ByteBuf buf = null;
+    try {
+      buf = codec.getValueEncoder().encode(value);
+      return ByteBufUtil.getBytes(buf);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to encode a value of the near cache {}, it will not be kept locally", getName(), e);
+      return null;
+    } finally {
+      if (buf != null) {
+        buf.release();
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private V decode(byte[] bytes) {
+    try {
+      return (V) codec.getValueDecoder().decode(Unpooled.wrappedBuffer(bytes), null);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to decode a value of the near cache {}", getName(), e);
+      return null;
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    V value = lookup(key);
+    if (value != null) {
+      return value;
+    }
+    long stamp = sequence.get();
+    value = remote.get(key);
+    fill(key, value, stamp);
+    return value;
+  }
+
+  @Override
+  public Map<K, V> getAll(Set<? extends K> keys) {
+    Map<K, V> result = new HashMap<>();
+    Set<K> missing = new HashSet<>();
+    for (K key : keys) {
+      V value = lookup(key);
+      if (value == null) {
+        missing.add(key);
+      } else {
+        result.put(key, value);
+      }
+    }
+    if (!missing.isEmpty()) {
+      long stamp = sequence.get();
+      Map<K, V> loaded = remote.getAll(missing);
+      loaded.forEach((key, value) -> fill(key, value, stamp));
+      result.putAll(loaded);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return local.getIfPresent(key) != null || remote.containsKey(key);
+  }
+
+  @Override
+  public void loadAll(Set<? extends K> keys, boolean replaceExistingValues, CompletionListener completionListener) {
+    remote.loadAll(keys, replaceExistingValues, completionListener);
+    invalidate(keys);
+  }
+
+  @Override
+  public void put(K key, V value) {
+    remote.put(key, value);
+    invalidate(key);
+  }
+
+  @Override
+  public V getAndPut(K key, V value) {
+    V previous = remote.getAndPut(key, value);
+    invalidate(key);
+    return previous;
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> map) {
+    remote.putAll(map);
+    invalidate(map.keySet());
+  }
+
+  @Override
+  public boolean putIfAbsent(K key, V value) {
+    boolean put = remote.putIfAbsent(key, value);
+    if (put) {
+      invalidate(key);
+    }
+    return put;
+  }
+
+  @Override
+  public boolean remove(K key) {
+    boolean removed = remote.remove(key);
+    invalidate(key);
+    return removed;
+  }
+
+  @Override
+  public boolean remove(K key, V oldValue) {
+    boolean removed = remote.remove(key, oldValue);
+    if (removed) {
+      invalidate(key);
+    }
+    return removed;
+  }
+
+  @Override
+  public V getAndRemove(K key) {
+    V previous = remote.getAndRemove(key);
+    invalidate(key);
+    return previous;
+  }
+
+  @Override
+  public boolean replace(K key, V oldValue, V newValue) {
+    boolean replaced = remote.replace(key, oldValue, newValue);
+    if (replaced) {
+      invalidate(key);
+    }
+    return replaced;
+  }
+
+  @Override
+  public boolean replace(K key, V value) {
+    boolean replaced = remote.replace(key, value);
+    if (replaced) {
+      invalidate(key);
+    }
+    return replaced;
+  }
+
+  @Override
+  public V getAndReplace(K key, V value) {
+    V previous = remote.getAndReplace(key, value);
+    if (previous != null) {
+      invalidate(key);
+    }
+    return previous;
+  }
+
+  @Override
+  public void removeAll(Set<? extends K> keys) {
+    remote.removeAll(keys);
+    invalidate(keys);
+  }
+
+  @Override
+  public void removeAll() {
+    remote.removeAll();
+    invalidateAll();
+  }
+
+  @Override
+  public void clear() {
+    remote.clear();
+    invalidateAll();
+  }
+
+  @Override
+  public <T> T invoke(K key, EntryProcessor<K, V, T> entryProcessor, Object... arguments)
+      throws EntryProcessorException {
+    try {
+      return remote.invoke(key, entryProcessor, arguments);
+    } finally {
+      invalidate(key);
+    }
+  }
+
+  @Override
+  public <T> Map<K, EntryProcessorResult<T>> invokeAll(
+      Set<? extends K> keys, EntryProcessor<K, V, T> entryProcessor, Object... arguments) {
+    try {
+      return remote.invokeAll(keys, entryProcessor, arguments);
+    } finally {
+      invalidate(keys);
+    }
+  }
+
+  @Override
+  public <C extends Configuration<K, V>> C getConfiguration(Class<C> clazz) {
+    return remote.getConfiguration(clazz);
+  }
+
+  @Override
+  public String getName() {
+    return remote.getName();
+  }
+
+  @Override
+  public CacheManager getCacheManager() {
+    return remote.getCacheManager();
+  }
+
+  @Override
+  public void close() {
+    invalidator.deregister(this);
+    local.invalidateAll();
+    remote.close();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return remote.isClosed();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> clazz) {
+    if (clazz.isAssignableFrom(getClass())) {
+      return clazz.cast(this);
+    }
+    return remote.unwrap(clazz);
+  }
+
+  @Override
+  public void registerCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+    remote.registerCacheEntryListener(cacheEntryListenerConfiguration);
+  }
+
+  @Override
+  public void deregisterCacheEntryListener(CacheEntryListenerConfiguration<K, V> cacheEntryListenerConfiguration) {
+    remote.deregisterCacheEntryListener(cacheEntryListenerConfiguration);
+  }
+
+  @Override
+  public Iterator<Entry<K, V>> iterator() {
+    return remote.iterator();
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.cache;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import java.util.List;
+import lombok.Value;
+
+/**
+ * Published after a write to a near cached cache, so that the other pods drop their local copies.
+ */
+@OwnedBy(PL)
+@Value
+public class NearCacheInvalidation {
+  String cacheName;
+  // identifies the publishing pod, which dropped its local copies already
+  String sourceId;
+  long publishedAt;
+  // null if the whole cache got cleared
+  List<Object> keys;
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.cache;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.metrics.HarnessMetricRegistry;
+
+import io.prometheus.client.Histogram;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.BaseStatusListener;
+
+/**
+ * Keeps the local tiers of the near caches of one pod in sync with the writes of the other pods. Every write publishes
+ * the changed keys on a redis topic shared by all the pods of the cache namespace, the receivers drop their copies.
+ */
+@OwnedBy(PL)
+@Slf4j
+public class NearCacheInvalidator {
+  static final String TOPIC_NAME = "hNearCache/invalidations";
+
+  private static final String HIT_METRIC = "near_cache_hit";
+  private static final String MISS_METRIC = "near_cache_miss";
+  private static final String INVALIDATION_METRIC = "near_cache_invalidation";
+  private static final String INVALIDATION_LAG_METRIC = "near_cache_invalidation_lag_ms";
+  private static final String[] METRIC_LABELS = {"cache"};
+
+  private final RTopic topic;
+  private final HarnessMetricRegistry harnessMetricRegistry;
+  private final String sourceId = generateUuid();
+  private final Map<String, NearCache<?, ?>> nearCaches = new ConcurrentHashMap<>();
+
+  NearCacheInvalidator(RTopic topic, HarnessMetricRegistry harnessMetricRegistry) {
+    this.topic = topic;
+    this.harnessMetricRegistry = harnessMetricRegistry;
+    if (harnessMetricRegistry != null) {
+      registerMetrics(harnessMetricRegistry);
+    }
+    topic.addListener(NearCacheInvalidation.class, (channel, invalidation) -> onInvalidation(invalidation));
+    topic.addListener(new BaseStatusListener() {
+      @Override
+      public void onSubscribe(String channel) {
+        // invalidations published while we were disconnected are lost
+        nearCaches.values().forEach(NearCache::invalidateLocally);
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  <K, V> NearCache<K, V> getOrCreate(String cacheName, Supplier<NearCache<K, V>> nearCacheSupplier) {
+    return (NearCache<K, V>) nearCaches.computeIfAbsent(cacheName, name -> nearCacheSupplier.get());
+  }
+
+  void deregister(NearCache<?, ?> nearCache) {
+    nearCaches.remove(nearCache.getName(), nearCache);
+  }
+
+  void publish(String cacheName, Collection<?> keys) {
+    List<Object> published = keys == null ? null : new ArrayList<>(keys);
+    try {
+      topic.publish(new NearCacheInvalidation(cacheName, sourceId, System.currentTimeMillis(), published));
+    } catch (Exception e) {
+      // the other pods will pick the change up once their local copies expire
+      log.error("Failed to publish the near cache invalidation for {}", cacheName, e);
+    }
+  }
+
+  void recordLookup(String metricLabel, boolean hit) {
+    if (harnessMetricRegistry != null) {
+      harnessMetricRegistry.recordCounterInc(hit ? HIT_METRIC : MISS_METRIC, metricLabel);
+    }
+  }
+
+  void onInvalidation(NearCacheInvalidation invalidation) {
+    if (sourceId.equals(invalidation.getSourceId())) {
+      return;
+    }
+    NearCache<?, ?> nearCache = nearCaches.get(invalidation.getCacheName());
+    if (nearCache == null) {
+      return;
+    }
+    if (invalidation.getKeys() == null) {
+      nearCache.invalidateLocally();
+    } else {
+      nearCache.invalidateLocally(invalidation.getKeys());
+    }
+    if (harnessMetricRegistry != null) {
+      harnessMetricRegistry.recordCounterInc(INVALIDATION_METRIC, nearCache.getMetricLabel());
+      harnessMetricRegistry.recordHistogram(INVALIDATION_LAG_METRIC, null,
+          Math.max(0, System.currentTimeMillis() - invalidation.getPublishedAt()));
+    }
+  }
+
+  private static void registerMetrics(HarnessMetricRegistry harnessMetricRegistry) {
+    try {
+      harnessMetricRegistry.registerCounterMetric(HIT_METRIC, METRIC_LABELS, "Near cache local tier hits");
+      harnessMetricRegistry.registerCounterMetric(MISS_METRIC, METRIC_LABELS, "Near cache local tier misses");
+      harnessMetricRegistry.registerCounterMetric(
+          INVALIDATION_METRIC, METRIC_LABELS, "Near cache invalidations received from other pods");
+      harnessMetricRegistry.registerHistogramMetric(INVALIDATION_LAG_METRIC,
+          Histogram.build()
+              .name(HarnessMetricRegistry.getAbsoluteMetricName(INVALIDATION_LAG_METRIC))
+              .help("Time between a write on another pod and the local invalidation")
+              .buckets(1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000));
+    } catch (IllegalArgumentException e) {
+      log.debug("Near cache metrics are registered already", e);
+    }
+  }
+}
@@ -9,6 +9,7 @@ package io.harness.serializer.kryo;
 
 import io.harness.beans.EmbeddedUser;
 import io.harness.beans.TriggeredBy;
+import io.harness.cache.NearCacheInvalidation;
 import io.harness.cache.VersionedKey;
 import io.harness.serializer.KryoRegistrar;
 
@@ -19,6 +20,7 @@ public class PersistenceKryoRegistrar implements KryoRegistrar {
   public void register(Kryo kryo) {
     kryo.register(EmbeddedUser.class, 5021);
     kryo.register(VersionedKey.class, 5015);
+    kryo.register(NearCacheInvalidation.class, 5019);
     kryo.register(TriggeredBy.class, 40074);
   }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.cache;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.rule.OwnerRule.UTKARSH;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.redis.RedissonKryoCodec;
+import io.harness.rule.Owner;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.AccessedExpiryPolicy;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.EternalExpiryPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.redisson.Redisson;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.api.listener.StatusListener;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.SerializationCodec;
+import org.redisson.config.Config;
+import org.redisson.jcache.JCacheManager;
+
+@OwnedBy(PL)
+public class NearCacheTest extends CategoryTest {
+  private static final String CACHE_NAME = "test/hCache/nearCacheTest";
+  private static final long MAX_SIZE_BYTES = 1024 * 1024;
+  private static final Duration LOCAL_TTL = Duration.ofMinutes(1);
+
+  private final Codec codec = new SerializationCodec();
+  private CacheManager remoteCacheManager;
+  private Cache<String, String> remote;
+  // two pods sharing the remote cache and the invalidation topic
+  private NearCacheInvalidator firstInvalidator;
+  private NearCacheInvalidator secondInvalidator;
+  private NearCache<String, String> first;
+  private NearCache<String, String> second;
+  private final List<MessageListener<NearCacheInvalidation>> messageListeners = new ArrayList<>();
+  private final List<StatusListener> statusListeners = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    remoteCacheManager =
+        Caching.getCachingProvider("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider")
+            .getCacheManager();
+    remote = remoteCacheManager.createCache(
+        CACHE_NAME, new MutableConfiguration<String, String>().setTypes(String.class, String.class));
+    RTopic topic = inMemoryTopic();
+    firstInvalidator = new NearCacheInvalidator(topic, null);
+    secondInvalidator = new NearCacheInvalidator(topic, null);
+    first = nearCache(remote, firstInvalidator);
+    second = nearCache(remote, secondInvalidator);
+  }
+
+  @After
+  public void tearDown() {
+    remoteCacheManager.destroyCache(CACHE_NAME);
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testGetServesRepeatedReadsLocally() {
+    remote.put("key", "value");
+
+    assertThat(first.get("key")).isEqualTo("value");
+    assertThat(first.get("key")).isEqualTo("value");
+    assertThat(first.get("missing")).isNull();
+    assertThat(first.get("missing")).isNull();
+
+    assertThat(first.getHitCount()).isEqualTo(1);
+    assertThat(first.getMissCount()).isEqualTo(3);
+    assertThat(first.getLocalSize()).isEqualTo(1);
+    // every caller gets its own copy, like from redis
+    assertThat(first.get("key")).isNotSameAs(first.get("key"));
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testWritesInvalidateOtherPods() {
+    first.put("key", "v1");
+    assertThat(second.get("key")).isEqualTo("v1");
+    assertThat(first.get("key")).isEqualTo("v1");
+
+    first.put("key", "v2");
+    assertThat(second.get("key")).isEqualTo("v2");
+    assertThat(second.getInvalidationCount()).isEqualTo(2);
+
+    second.remove("key");
+    assertThat(first.get("key")).isNull();
+
+    first.putAll(Collections.singletonMap("other", "v3"));
+    assertThat(second.getAll(Collections.singleton("other"))).containsEntry("other", "v3");
+    second.clear();
+    assertThat(first.get("other")).isNull();
+    assertThat(first.getLocalSize()).isZero();
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testInvalidationsAreDeliveredThroughTopicSubscription() {
+    assertThat(messageListeners).hasSize(2);
+    first.put("key", "v1");
+    // the publisher dropped its copy on write, it gets its own message back from the topic and skips it
+    assertThat(first.getInvalidationCount()).isEqualTo(1);
+    assertThat(second.getInvalidationCount()).isEqualTo(1);
+    assertThat(first.get("key")).isEqualTo("v1");
+    assertThat(second.get("key")).isEqualTo("v1");
+
+    second.put("key", "v2");
+
+    assertThat(first.getInvalidationCount()).isEqualTo(2);
+    assertThat(second.getInvalidationCount()).isEqualTo(2);
+    assertThat(first.getLocalSize()).isZero();
+    assertThat(first.get("key")).isEqualTo("v2");
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testResubscribeDropsLocalCopies() {
+    first.put("key", "v1");
+    assertThat(first.get("key")).isEqualTo("v1");
+    assertThat(first.getLocalSize()).isEqualTo(1);
+
+    // invalidations published while the connection was down are lost
+    remote.put("key", "v2");
+    statusListeners.forEach(listener -> listener.onSubscribe(NearCacheInvalidator.TOPIC_NAME));
+
+    assertThat(first.getLocalSize()).isZero();
+    assertThat(first.get("key")).isEqualTo("v2");
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testInvalidationDuringReadDoesNotKeepStaleValue() {
+    Cache<String, String> slowRemote = mock(Cache.class);
+    when(slowRemote.getName()).thenReturn(CACHE_NAME);
+    NearCacheInvalidator invalidator = new NearCacheInvalidator(mock(RTopic.class), null);
+    NearCache<String, String> nearCache = nearCache(slowRemote, invalidator);
+    when(slowRemote.get("key")).thenAnswer(invocation -> {
+      // another pod writes and its invalidation arrives before the stale value does
+      invalidator.onInvalidation(new NearCacheInvalidation(
+          CACHE_NAME, UUID.randomUUID().toString(), System.currentTimeMillis(), Collections.singletonList("key")));
+      return "stale";
+    });
+
+    assertThat(nearCache.get("key")).isEqualTo("stale");
+    when(slowRemote.get("key")).thenReturn("fresh");
+    assertThat(nearCache.get("key")).isEqualTo("fresh");
+    assertThat(nearCache.get("key")).isEqualTo("fresh");
+    verify(slowRemote, times(2)).get("key");
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  public void testLocalTtl() {
+    Duration nearCacheTtl = Duration.ofSeconds(30);
+    assertThat(NearCache.localTtl(EternalExpiryPolicy.factoryOf(), nearCacheTtl)).isEqualTo(nearCacheTtl);
+    assertThat(NearCache.localTtl(
+                   AccessedExpiryPolicy.factoryOf(javax.cache.expiry.Duration.ONE_MINUTE), nearCacheTtl))
+        .isEqualTo(nearCacheTtl);
+    assertThat(NearCache.localTtl(
+                   CreatedExpiryPolicy.factoryOf(new javax.cache.expiry.Duration(TimeUnit.SECONDS, 5)), nearCacheTtl))
+        .isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  @Owner(developers = UTKARSH)
+  @Category(UnitTests.class)
+  @Ignore("Needs a redis server on localhost:6379")
+  public void testConsistencyAcrossTwoRedisClientsInOneJvm() throws Exception {
+    RedissonKryoCodec kryoCodec = new RedissonKryoCodec();
+    RedissonClient firstClient = redisson(kryoCodec);
+    RedissonClient secondClient = redisson(kryoCodec);
+    String cacheName = "test/hCache/nearCacheConsistency" + UUID.randomUUID();
+    try {
+      NearCache<String, String> firstPod = redisNearCache(firstClient, kryoCodec, cacheName);
+      NearCache<String, String> secondPod = redisNearCache(secondClient, kryoCodec, cacheName);
+
+      for (int version = 0; version < 1000; version++) {
+        firstPod.put("key", "v" + version);
+        // the invalidation reaches the other pod asynchronously, it has to see the write within a second
+        String expected = "v" + version;
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!expected.equals(secondPod.get("key")) && System.currentTimeMillis() < deadline) {
+          Thread.sleep(1);
+        }
+        assertThat(secondPod.get("key")).isEqualTo(expected);
+      }
+      assertThat(secondPod.getHitCount()).isPositive();
+      assertThat(secondPod.getInvalidationCount()).isPositive();
+    } finally {
+      firstClient.shutdown();
+      secondClient.shutdown();
+    }
+  }
+
+  /**
+   * A topic which delivers every published message to all the subscribed listeners, the publishing pod's included, as
+   * redis pub/sub does.
+   */
+  @SuppressWarnings("unchecked")
+  private RTopic inMemoryTopic() {
+    RTopic topic = mock(RTopic.class);
+    when(topic.addListener(eq(NearCacheInvalidation.class), any(MessageListener.class))).thenAnswer(invocation -> {
+      messageListeners.add(invocation.getArgument(1));
+      return messageListeners.size();
+    });
+    when(topic.addListener(any(StatusListener.class))).thenAnswer(invocation -> {
+      statusListeners.add(invocation.getArgument(0));
+      return statusListeners.size();
+    });
+    when(topic.publish(any())).thenAnswer(invocation -> {
+      NearCacheInvalidation invalidation = invocation.getArgument(0);
+      messageListeners.forEach(listener -> listener.onMessage(NearCacheInvalidator.TOPIC_NAME, invalidation));
+      return (long) messageListeners.size();
+    });
+    return topic;
+  }
+
+  private RedissonClient redisson(Codec codec) {
+    Config config = new Config();
+    config.useSingleServer().setAddress("redis://127.0.0.1:6379");
+    config.setCodec(codec);
+    return Redisson.create(config);
+  }
+
+  private NearCache<String, String> redisNearCache(RedissonClient client, Codec codec, String cacheName) {
+    CacheManager cacheManager = new JCacheManager((Redisson) client, getClass().getClassLoader(), null,
+        new Properties(), URI.create(UUID.randomUUID().toString()));
+    Cache<String, String> cache = cacheManager.createCache(cacheName,
+        new MutableConfiguration<String, String>()
+            .setTypes(String.class, String.class)
+            .setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(javax.cache.expiry.Duration.FIVE_MINUTES)));
+    NearCacheInvalidator invalidator = new NearCacheInvalidator(client.getTopic(cacheName + "/invalidations"), null);
+    return invalidator.getOrCreate(cacheName,
+        () -> new NearCache<>(cache, codec, invalidator, "nearCacheConsistency", MAX_SIZE_BYTES, LOCAL_TTL));
+  }
+
+  private NearCache<String, String> nearCache(Cache<String, String> remoteCache, NearCacheInvalidator invalidator) {
+    return invalidator.getOrCreate(CACHE_NAME,
+        () -> new NearCache<>(remoteCache, codec, invalidator, "nearCacheTest", MAX_SIZE_BYTES, LOCAL_TTL));
+  }
+}
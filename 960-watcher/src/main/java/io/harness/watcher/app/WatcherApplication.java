@@ -155,6 +155,8 @@ public class WatcherApplication {
                                          .queueFilePath(configuration.getQueueFilePath())
                                          .publishTarget(publishTarget)
                                          .publishAuthority(publishAuthority)
+                                         .streamingPublishEnabled(Boolean.parseBoolean(
+                                             System.getenv("EVENT_PUBLISHER_STREAMING_ENABLED")))
                                          .build()));
       } else {
         log.warn("Unable to configure event publisher configs. Event publisher will be disabled");
@@ -14,6 +14,7 @@ import io.harness.annotations.dev.OwnedBy;
 import io.harness.exception.InvalidRequestException;
 import io.harness.exception.ngexception.beans.yamlschema.YamlSchemaErrorDTO;
 import io.harness.exception.ngexception.beans.yamlschema.YamlSchemaErrorWrapperDTO;
+import io.harness.metrics.HarnessMetricRegistry;
 import io.harness.utils.YamlPipelineUtils;
 import io.harness.yaml.schema.beans.YamlSchemaRootClass;
 import io.harness.yaml.utils.SchemaValidationUtils;
@@ -21,14 +22,21 @@ import io.harness.yaml.utils.SchemaValidationUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import com.networknt.schema.JsonSchema;
 import com.networknt.schema.JsonSchemaFactory;
 import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import com.networknt.schema.ValidatorTypeCode;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -37,7 +45,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 @Singleton
@@ -47,10 +57,25 @@ public class YamlSchemaValidator {
   public static Map<EntityType, JsonSchema> schemas = new HashMap<>();
   public static final String ENUM_SCHEMA_ERROR_CODE = ValidatorTypeCode.ENUM.getErrorCode();
   public static final String REQUIRED_SCHEMA_ERROR_CODE = ValidatorTypeCode.REQUIRED.getErrorCode();
+  // name of the optional binding enabling the cache of validation results, with its maximum size
+  public static final String VALIDATION_CACHE_SIZE = "yamlSchemaValidationCacheSize";
+  private static final int MAX_COMPILED_SCHEMAS = 100;
+  private static final String CACHE_HIT_METRIC = "yaml_schema_validator_cache_hit";
+  private static final String CACHE_MISS_METRIC = "yaml_schema_validator_cache_miss";
+  private static final String[] CACHE_METRIC_LABELS = {"cache"};
+  private static final String SCHEMA_CACHE = "schema";
+  private static final String VALIDATION_CACHE = "validation";
+
   ObjectMapper mapper;
   List<YamlSchemaRootClass> yamlSchemaRootClasses;
   EnumCodeSchemaHandler enumCodeSchemaHandler;
   RequiredCodeSchemaHandler requiredCodeSchemaHandler;
+  // compiled schemas by hash of the schema string, callers usually serialize the same schema for every call
+  private final Cache<HashCode, JsonSchema> compiledSchemas =
+      CacheBuilder.newBuilder().maximumSize(MAX_COMPILED_SCHEMAS).recordStats().build();
+  // yamls which passed validation, null unless enabled
+  private volatile Cache<ValidationKey, Boolean> validationResults;
+  private HarnessMetricRegistry harnessMetricRegistry;
 
   @Inject
   public YamlSchemaValidator(List<YamlSchemaRootClass> yamlSchemaRootClasses,
@@ -61,6 +86,40 @@ public class YamlSchemaValidator {
     this.requiredCodeSchemaHandler = requiredCodeSchemaHandler;
   }
 
+  /**
+   * Enables the cache of validation results, so that validating a yaml which already passed validation against the
+   * same schema returns right away. Only successful validations are kept.
+   */
+  @Inject(optional = true)
+  public void setValidationCacheSize(@Named(VALIDATION_CACHE_SIZE) Integer validationCacheSize) {
+    validationResults = validationCacheSize == null || validationCacheSize <= 0
+        ? null
+        : CacheBuilder.newBuilder().maximumSize(validationCacheSize).recordStats().build();
+  }
+
+  @Inject(optional = true)
+  public void setHarnessMetricRegistry(HarnessMetricRegistry harnessMetricRegistry) {
+    try {
+      harnessMetricRegistry.registerCounterMetric(
+          CACHE_HIT_METRIC, CACHE_METRIC_LABELS, "Yaml schema validator cache hits");
+      harnessMetricRegistry.registerCounterMetric(
+          CACHE_MISS_METRIC, CACHE_METRIC_LABELS, "Yaml schema validator cache misses");
+    } catch (IllegalArgumentException e) {
+      // registered by another validator of the same service already
+      log.debug("Yaml schema validator metrics are registered already", e);
+    }
+    this.harnessMetricRegistry = harnessMetricRegistry;
+  }
+
+  public CacheStats getCompiledSchemaCacheStats() {
+    return compiledSchemas.stats();
+  }
+
+  public CacheStats getValidationCacheStats() {
+    Cache<ValidationKey, Boolean> cache = validationResults;
+    return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+  }
+
   /**
    * @param yaml       The yaml String which is to be validated against schema of entity.
    * @param entityType The entityType against which yaml string needs to be validated.
@@ -95,24 +154,89 @@ public class YamlSchemaValidator {
   }
 
   public Set<String> validate(String yaml, String stringSchema) throws IOException {
+    HashCode schemaHash = hash(stringSchema);
+    Cache<ValidationKey, Boolean> cache = validationResults;
+    ValidationKey validationKey = cache == null ? null : new ValidationKey(schemaHash, hash(yaml));
+    if (isValidated(cache, validationKey)) {
+      return Collections.emptySet();
+    }
     JsonNode jsonNode = mapper.readTree(yaml);
-    JsonSchemaFactory factory =
-        JsonSchemaFactory.builder(JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7)).build();
-    JsonSchema schema = factory.getSchema(stringSchema);
-    Set<ValidationMessage> validateMsg = schema.validate(jsonNode);
-    return processAndHandleValidationMessage(jsonNode, validateMsg, yaml);
+    Set<ValidationMessage> validateMsg = getCompiledSchema(schemaHash, stringSchema).validate(jsonNode);
+    Set<String> result = processAndHandleValidationMessage(jsonNode, validateMsg, () -> yaml);
+    markValidated(cache, validationKey);
+    return result;
   }
 
   public Set<String> validate(JsonNode jsonNode, String stringSchema) throws IOException {
+    HashCode schemaHash = hash(stringSchema);
+    Cache<ValidationKey, Boolean> cache = validationResults;
+    ValidationKey validationKey = cache == null ? null : new ValidationKey(schemaHash, hash(jsonNode.toString()));
+    if (isValidated(cache, validationKey)) {
+      return Collections.emptySet();
+    }
+    Set<ValidationMessage> validateMsg = getCompiledSchema(schemaHash, stringSchema).validate(jsonNode);
+    Set<String> result =
+        processAndHandleValidationMessage(jsonNode, validateMsg, () -> YamlPipelineUtils.writeYamlString(jsonNode));
+    markValidated(cache, validationKey);
+    return result;
+  }
+
+  private JsonSchema getCompiledSchema(HashCode schemaHash, String stringSchema) {
+    JsonSchema schema = compiledSchemas.getIfPresent(schemaHash);
+    if (schema != null) {
+      recordCacheHit(SCHEMA_CACHE);
+      return schema;
+    }
+    recordCacheMiss(SCHEMA_CACHE);
     JsonSchemaFactory factory =
         JsonSchemaFactory.builder(JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7)).build();
-    JsonSchema schema = factory.getSchema(stringSchema);
-    Set<ValidationMessage> validateMsg = schema.validate(jsonNode);
-    return processAndHandleValidationMessage(jsonNode, validateMsg, YamlPipelineUtils.writeYamlString(jsonNode));
+    schema = factory.getSchema(stringSchema);
+    compiledSchemas.put(schemaHash, schema);
+    return schema;
+  }
+
+  private boolean isValidated(Cache<ValidationKey, Boolean> cache, ValidationKey validationKey) {
+    if (cache == null) {
+      return false;
+    }
+    if (cache.getIfPresent(validationKey) != null) {
+      recordCacheHit(VALIDATION_CACHE);
+      return true;
+    }
+    recordCacheMiss(VALIDATION_CACHE);
+    return false;
+  }
+
+  private void markValidated(Cache<ValidationKey, Boolean> cache, ValidationKey validationKey) {
+    if (cache != null) {
+      cache.put(validationKey, Boolean.TRUE);
+    }
+  }
+
+  private void recordCacheHit(String cacheName) {
+    if (harnessMetricRegistry != null) {
+      harnessMetricRegistry.recordCounterInc(CACHE_HIT_METRIC, cacheName);
+    }
+  }
+
+  private void recordCacheMiss(String cacheName) {
+    if (harnessMetricRegistry != null) {
+      harnessMetricRegistry.recordCounterInc(CACHE_MISS_METRIC, cacheName);
+    }
+  }
+
+  private static HashCode hash(String value) {
+    return Hashing.sha256().hashString(value, StandardCharsets.UTF_8);
   }
 
   public Set<String> processAndHandleValidationMessage(
       JsonNode jsonNode, Set<ValidationMessage> validateMsg, String yaml) {
+    return processAndHandleValidationMessage(jsonNode, validateMsg, () -> yaml);
+  }
+
+  // the yaml is only needed for the exception, so that valid yamls don't get serialized
+  private Set<String> processAndHandleValidationMessage(
+      JsonNode jsonNode, Set<ValidationMessage> validateMsg, Supplier<String> yaml) {
     if (!validateMsg.isEmpty()) {
       log.error(validateMsg.stream().map(ValidationMessage::getMessage).collect(Collectors.joining("\n")));
     }
@@ -131,7 +255,7 @@ public class YamlSchemaValidator {
         combinedValidationMessage.append(validationMessage.getMessage());
       }
       YamlSchemaErrorWrapperDTO errorWrapperDTO = YamlSchemaErrorWrapperDTO.builder().schemaErrors(errorDTOS).build();
-      throw new InvalidYamlException(combinedValidationMessage.toString(), errorWrapperDTO, yaml);
+      throw new InvalidYamlException(combinedValidationMessage.toString(), errorWrapperDTO, yaml.get());
     }
     return Collections.emptySet();
   }
@@ -181,4 +305,10 @@ public class YamlSchemaValidator {
     }
     return SchemaValidationUtils.filterErrorsIfMoreSpecificErrorIsPresent(validationMessageList);
   }
+
+  @Value
+  private static class ValidationKey {
+    HashCode schemaHash;
+    HashCode yamlHash;
+  }
 }
@@ -20,6 +20,7 @@ import static org.mockito.MockitoAnnotations.initMocks;
 
 import io.harness.CategoryTest;
 import io.harness.EntityType;
+import io.harness.category.element.StressTests;
 import io.harness.category.element.UnitTests;
 import io.harness.rule.Owner;
 import io.harness.yaml.TestClass;
@@ -34,25 +35,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
+import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 
+@Slf4j
 public class YamlSchemaValidatorTest extends CategoryTest {
   YamlSchemaValidator yamlSchemaValidator;
+  List<YamlSchemaRootClass> yamlSchemaRootClasses;
   @Mock EnumCodeSchemaHandler enumCodeSchemaHandler;
   @Mock RequiredCodeSchemaHandler requiredCodeSchemaHandler;
   @Before
   public void setup() throws IOException {
     initMocks(this);
-    final List<YamlSchemaRootClass> yamlSchemaRootClasses =
-        Collections.singletonList(YamlSchemaRootClass.builder()
-                                      .entityType(EntityType.CONNECTORS)
-                                      .clazz(TestClass.ClassWhichContainsInterface.class)
-                                      .build());
+    yamlSchemaRootClasses = Collections.singletonList(YamlSchemaRootClass.builder()
+                                                          .entityType(EntityType.CONNECTORS)
+                                                          .clazz(TestClass.ClassWhichContainsInterface.class)
+                                                          .build());
     yamlSchemaValidator =
         Mockito.spy(new YamlSchemaValidator(yamlSchemaRootClasses, enumCodeSchemaHandler, requiredCodeSchemaHandler));
   }
@@ -123,6 +128,125 @@ public class YamlSchemaValidatorTest extends CategoryTest {
     yamlSchemaValidator.validate(inValidYAML, schema);
   }
 
+  @Test
+  @Owner(developers = SUJEESH)
+  @Category(UnitTests.class)
+  public void testValidateReusesCompiledSchema() throws IOException {
+    String schema = getYamlResource("testSchema/testSampleSchema.json");
+    String validYAML = getYamlResource("testSchema/validSampleYAML.yaml");
+    String inValidYAML = getYamlResource("testSchema/validSampleYAML2.yaml");
+
+    assertThat(yamlSchemaValidator.validate(validYAML, schema)).isEmpty();
+    // callers serialize the schema for every call
+    assertThat(yamlSchemaValidator.validate(new ObjectMapper().readTree(validYAML), new String(schema))).isEmpty();
+    assertThatThrownBy(() -> yamlSchemaValidator.validate(inValidYAML, new String(schema)))
+        .isInstanceOf(InvalidYamlException.class);
+
+    assertThat(yamlSchemaValidator.getCompiledSchemaCacheStats().missCount()).isEqualTo(1);
+    assertThat(yamlSchemaValidator.getCompiledSchemaCacheStats().hitCount()).isEqualTo(2);
+    assertThat(yamlSchemaValidator.getValidationCacheStats().requestCount()).isZero();
+  }
+
+  @Test
+  @Owner(developers = SUJEESH)
+  @Category(UnitTests.class)
+  public void testValidateWithValidationCache() throws IOException {
+    String schema = getYamlResource("testSchema/testSampleSchema.json");
+    String validYAML = getYamlResource("testSchema/validSampleYAML.yaml");
+    String inValidYAML = getYamlResource("testSchema/validSampleYAML2.yaml");
+    yamlSchemaValidator.setValidationCacheSize(10);
+
+    assertThat(yamlSchemaValidator.validate(validYAML, schema)).isEmpty();
+    assertThat(yamlSchemaValidator.validate(validYAML, schema)).isEmpty();
+    assertThat(yamlSchemaValidator.getValidationCacheStats().hitCount()).isEqualTo(1);
+    assertThat(yamlSchemaValidator.getCompiledSchemaCacheStats().requestCount()).isEqualTo(1);
+
+    // failures are not cached
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> yamlSchemaValidator.validate(inValidYAML, schema))
+          .isInstanceOf(InvalidYamlException.class);
+    }
+    assertThat(yamlSchemaValidator.getValidationCacheStats().hitCount()).isEqualTo(1);
+
+    String otherSchema = getYamlResource("testSchema/sampleSchema.json");
+    yamlSchemaValidator.validate(validYAML, otherSchema);
+    assertThat(yamlSchemaValidator.getValidationCacheStats().hitCount()).isEqualTo(1);
+    assertThat(yamlSchemaValidator.getCompiledSchemaCacheStats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  @Owner(developers = SUJEESH)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void measureValidationLatency() throws IOException {
+    String schema = getYamlResource("schemas/v0/final/pipeline.json");
+    int iterations = 200;
+    for (int stageCount : new int[] {1, 10, 50}) {
+      String pipeline = pipelineYaml(stageCount);
+
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        // a fresh validator compiles the schema on every call, as validations did before the schema cache
+        new YamlSchemaValidator(yamlSchemaRootClasses, enumCodeSchemaHandler, requiredCodeSchemaHandler)
+            .validate(pipeline, new String(schema));
+      }
+      long compilingMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / iterations;
+
+      YamlSchemaValidator validator =
+          new YamlSchemaValidator(yamlSchemaRootClasses, enumCodeSchemaHandler, requiredCodeSchemaHandler);
+      start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        validator.validate(pipeline, new String(schema));
+      }
+      long cachedSchemaMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / iterations;
+
+      validator.setValidationCacheSize(100);
+      start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        validator.validate(pipeline, new String(schema));
+      }
+      long cachedValidationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / iterations;
+
+      log.info("{} stages: {} us compiling the schema, {} us with the schema cache, {} us with the validation cache",
+          stageCount, compilingMicros, cachedSchemaMicros, cachedValidationMicros);
+    }
+  }
+
+  private static String pipelineYaml(int stageCount) {
+    StringBuilder yaml = new StringBuilder(256 * stageCount)
+                             .append("pipeline:\n")
+                             .append("  name: benchmark\n")
+                             .append("  identifier: benchmark\n")
+                             .append("  orgIdentifier: default\n")
+                             .append("  stages:\n");
+    for (int i = 0; i < stageCount; i++) {
+      yaml.append("    - stage:\n")
+          .append("        name: stage")
+          .append(i)
+          .append("\n        identifier: stage")
+          .append(i)
+          .append("\n        type: Custom\n")
+          .append("        spec:\n")
+          .append("          execution:\n")
+          .append("            steps:\n")
+          .append("              - step:\n")
+          .append("                  name: wait\n")
+          .append("                  identifier: wait\n")
+          .append("                  type: Wait\n")
+          .append("                  spec:\n")
+          .append("                    duration: 10m\n")
+          .append("              - step:\n")
+          .append("                  name: http\n")
+          .append("                  identifier: http\n")
+          .append("                  type: Http\n")
+          .append("                  timeout: 10s\n")
+          .append("                  spec:\n")
+          .append("                    method: GET\n")
+          .append("                    url: https://harness.io\n");
+    }
+    return yaml.toString();
+  }
+
   @Test
   @Owner(developers = BRIJESH)
   @Category(UnitTests.class)
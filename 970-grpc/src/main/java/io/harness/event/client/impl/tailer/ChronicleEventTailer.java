@@ -10,8 +10,8 @@ package io.harness.event.client.impl.tailer;
 import static com.google.common.base.Verify.verify;
 import static java.util.Objects.requireNonNull;
 
+import io.harness.event.PublishBatch;
 import io.harness.event.PublishMessage;
-import io.harness.event.PublishRequest;
 import io.harness.event.PublishResponse;
 import io.harness.eventpublisherclient.EventPublisherClient;
 import io.harness.flow.BackoffScheduler;
@@ -23,8 +23,11 @@ import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
+import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import net.openhft.chronicle.queue.ExcerptTailer;
 import net.openhft.chronicle.queue.impl.RollingChronicleQueue;
@@ -45,6 +48,7 @@ public class ChronicleEventTailer extends AbstractScheduledService {
   // Batching settings
   private static final int MAX_BATCH_COUNT = 500;
   private static final int MAX_BATCH_BYTES = 1024 * 256; // 256KB
+  private static final Duration ACK_TIMEOUT = Duration.ofMinutes(1);
 
   private final ExcerptTailer readTailer;
 
@@ -56,6 +60,8 @@ public class ChronicleEventTailer extends AbstractScheduledService {
 
   private final EventPublisherClient eventPublisherClient;
 
+  private StreamingEventPublisher streamingEventPublisher;
+
   private String accountId;
 
   @Inject
@@ -70,6 +76,14 @@ public class ChronicleEventTailer extends AbstractScheduledService {
     addListener(new LoggingListener(this), MoreExecutors.directExecutor());
   }
 
+  /**
+   * Switches to publishing over a grpc stream instead of rest, if bound.
+   */
+  @Inject(optional = true)
+  void setStreamingEventPublisher(@Named("tailer") StreamingEventPublisher streamingEventPublisher) {
+    this.streamingEventPublisher = streamingEventPublisher;
+  }
+
   public void setAccountId(String accountId) {
     this.accountId = accountId;
   }
@@ -123,54 +137,11 @@ public class ChronicleEventTailer extends AbstractScheduledService {
     try {
       sampler.updateTime();
       sampler.sampled(() -> log.info("Checking for messages to publish"));
-      Batch batchToSend = new Batch(MAX_BATCH_BYTES, MAX_BATCH_COUNT);
-      while (!batchToSend.isFull()) {
-        long endIndex = queue.createTailer().toEnd().index();
-        try (DocumentContext dc = readTailer.readingDocument()) {
-          if (!dc.isPresent()) {
-            sampler.sampled(() -> log.info("Reached end of queue"));
-            long readIndex = readTailer.index();
-            if (readIndex < endIndex) {
-              readTailer.moveToIndex(endIndex);
-              fileDeletionManager.setSentIndex(endIndex);
-              log.warn(
-                  "Observed readTailer not at end with no document context. Moved from {} to {}", readIndex, endIndex);
-            }
-            break;
-          }
-          try {
-            verify(dc.wire() != null, "Null wire with document context present");
-            byte[] bytes = requireNonNull(dc.wire()).read().bytes();
-            if (bytes != null) {
-              PublishMessage message = PublishMessage.parseFrom(bytes);
-              batchToSend.add(message);
-            } else {
-              // could happen in case of an error during append with document context open.
-              log.warn("Read NULL message. Skipping");
-            }
-          } catch (Exception e) {
-            log.error("Exception while parsing message", e);
-          }
-        }
-      }
-      if (batchToSend.isFull()) {
-        log.info("Batch is full");
-      }
-      if (!batchToSend.isEmpty()) {
-        PublishRequest publishRequest = PublishRequest.newBuilder().addAllMessages(batchToSend.getMessages()).build();
-        try {
-          publishMessagesOverRest(publishRequest);
-          fileDeletionManager.setSentIndex(readTailer.index());
-          scheduler.recordSuccess();
-          log.info("Published {} messages successfully over rest", batchToSend.size());
-        } catch (Exception err) {
-          log.warn("Exception during message publish", err);
-          QueueUtils.moveToIndex(readTailer, fileDeletionManager.getSentIndex());
-          scheduler.recordFailure();
-        }
+      long endIndex = queue.createTailer().toEnd().index();
+      if (streamingEventPublisher != null) {
+        publishOverStream(endIndex);
       } else {
-        fileDeletionManager.setSentIndex(readTailer.index());
-        sampler.sampled(() -> log.info("Skipping message publish as batch is empty"));
+        publishOverRest(endIndex);
       }
     } catch (Exception e) {
       log.error("Encountered exception", e);
@@ -184,9 +155,128 @@ public class ChronicleEventTailer extends AbstractScheduledService {
     }
   }
 
-  private void publishMessagesOverRest(PublishRequest publishRequest) throws IOException {
+  /**
+   * Publishes the messages up to the end index over rest, one batch after the other, as read from the queue. The sent
+   * index is advanced after each published batch, on failure the tailer goes back to it.
+   */
+  private void publishOverRest(long endIndex) {
+    int messagesSent = 0;
+    try {
+      boolean endReached = false;
+      while (!endReached) {
+        RawBatch batchToSend = new RawBatch(MAX_BATCH_BYTES, MAX_BATCH_COUNT);
+        // messages appended after the iteration started are left for the next iteration
+        endReached = readBatch(endIndex, batchToSend::isFull, batchToSend::add) || readTailer.index() >= endIndex;
+        if (!batchToSend.isEmpty()) {
+          publishMessagesOverRest(batchToSend.build());
+          messagesSent += batchToSend.size();
+        }
+        fileDeletionManager.setSentIndex(readTailer.index());
+      }
+      if (messagesSent > 0) {
+        scheduler.recordSuccess();
+        log.info("Published {} messages successfully over rest", messagesSent);
+      } else {
+        sampler.sampled(() -> log.info("Skipping message publish as batch is empty"));
+      }
+    } catch (Exception err) {
+      log.warn("Exception during message publish", err);
+      QueueUtils.moveToIndex(readTailer, fileDeletionManager.getSentIndex());
+      scheduler.recordFailure();
+    }
+  }
+
+  /**
+   * Streams the messages up to the end index as read from the queue. The sent index is only advanced once a batch is
+   * acknowledged, so on failure the unacknowledged batches are read and sent again.
+   */
+  private void publishOverStream(long endIndex) {
+    int messagesSent = 0;
+    boolean endReached = false;
+    try {
+      while (true) {
+        if (!endReached && streamingEventPublisher.hasCapacity()) {
+          RawBatch batchToSend = new RawBatch(MAX_BATCH_BYTES, MAX_BATCH_COUNT);
+          // messages appended after the iteration started are left for the next iteration
+          endReached = readBatch(endIndex, batchToSend::isFull, batchToSend::add) || readTailer.index() >= endIndex;
+          if (!batchToSend.isEmpty()) {
+            streamingEventPublisher.send(batchToSend.build(), readTailer.index());
+            messagesSent += batchToSend.size();
+          }
+        } else if (streamingEventPublisher.inFlightCount() > 0) {
+          advanceSentIndex(streamingEventPublisher.awaitAck(ACK_TIMEOUT));
+        } else {
+          break;
+        }
+      }
+      streamingEventPublisher.close();
+      // skipped messages after the last batch
+      advanceSentIndex(readTailer.index());
+      if (messagesSent > 0) {
+        scheduler.recordSuccess();
+        log.info("Published {} messages successfully over stream", messagesSent);
+      } else {
+        sampler.sampled(() -> log.info("Skipping message publish as batch is empty"));
+      }
+    } catch (Exception err) {
+      log.warn("Exception during message publish over stream", err);
+      streamingEventPublisher.close();
+      QueueUtils.moveToIndex(readTailer, fileDeletionManager.getSentIndex());
+      scheduler.recordFailure();
+    }
+  }
+
+  private void advanceSentIndex(long index) {
+    if (index > fileDeletionManager.getSentIndex()) {
+      fileDeletionManager.setSentIndex(index);
+    }
+  }
+
+  /**
+   * Reads messages until the batch is full or the end of the queue is reached. Only the read tailer is moved, the
+   * sent index is left to the caller, to be advanced once the messages read are published.
+   * <p/>
+   * Messages are sent as read, but each one is checked to parse first. A corrupt message is skipped, as it would fail
+   * the whole batch on the event server, and the batch would be sent again forever.
+   *
+   * @return true if the end of the queue was reached
+   */
+  private boolean readBatch(long endIndex, BooleanSupplier isFull, Consumer<byte[]> consumer) {
+    while (!isFull.getAsBoolean()) {
+      try (DocumentContext dc = readTailer.readingDocument()) {
+        if (!dc.isPresent()) {
+          sampler.sampled(() -> log.info("Reached end of queue"));
+          long readIndex = readTailer.index();
+          if (readIndex < endIndex) {
+            readTailer.moveToIndex(endIndex);
+            log.warn(
+                "Observed readTailer not at end with no document context. Moved from {} to {}", readIndex, endIndex);
+          }
+          return true;
+        }
+        try {
+          verify(dc.wire() != null, "Null wire with document context present");
+          byte[] bytes = requireNonNull(dc.wire()).read().bytes();
+          if (bytes != null) {
+            PublishMessage.parseFrom(bytes);
+            consumer.accept(bytes);
+          } else {
+            // could happen in case of an error during append with document context open.
+            log.warn("Read NULL message. Skipping");
+          }
+        } catch (InvalidProtocolBufferException e) {
+          log.error("Skipping corrupt message at index {}", dc.index(), e);
+        } catch (Exception e) {
+          log.error("Exception while reading message", e);
+        }
+      }
+    }
+    return false;
+  }
+
+  private void publishMessagesOverRest(PublishBatch publishBatch) throws IOException {
     try {
-      Call<PublishResponse> call = eventPublisherClient.publish(accountId, publishRequest);
+      Call<PublishResponse> call = eventPublisherClient.publishBatch(accountId, publishBatch);
       EventServiceRestUtils.executeRestCallWithRetry(call);
     } catch (Exception e) {
       log.error("Error while publishing messages over rest ", e);
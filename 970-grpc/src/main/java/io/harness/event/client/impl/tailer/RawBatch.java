@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.event.client.impl.tailer;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import io.harness.event.PublishBatch;
+
+import com.google.protobuf.UnsafeByteOperations;
+
+/**
+ * Batch of serialized messages, as read from the queue.
+ */
+class RawBatch {
+  private final int thresholdBytes;
+  private final int thresholdCount;
+
+  private final PublishBatch.Builder builder = PublishBatch.newBuilder();
+  private int byteSize;
+
+  RawBatch(int thresholdBytes, int thresholdCount) {
+    this.thresholdBytes = thresholdBytes;
+    this.thresholdCount = thresholdCount;
+  }
+
+  void add(byte[] message) {
+    checkState(!isFull(), "Adding to a full batch");
+    // the excerpt bytes are copied out of the queue already, no need to copy them again
+    builder.addMessages(UnsafeByteOperations.unsafeWrap(message));
+    byteSize += message.length;
+  }
+
+  PublishBatch build() {
+    return builder.build();
+  }
+
+  public boolean isEmpty() {
+    return builder.getMessagesCount() == 0;
+  }
+
+  public int size() {
+    return builder.getMessagesCount();
+  }
+
+  public boolean isFull() {
+    return size() >= thresholdCount || byteSize >= thresholdBytes;
+  }
+}
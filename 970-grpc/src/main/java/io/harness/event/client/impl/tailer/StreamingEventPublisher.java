@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.event.client.impl.tailer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import io.harness.event.EventPublisherGrpc.EventPublisherStub;
+import io.harness.event.PublishBatch;
+import io.harness.event.PublishResponse;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes batches over a single compressed PublishStream call, keeping a bounded number of batches in flight.
+ * <p/>
+ * Not thread-safe, supposed to be used by the tailer thread only. Acknowledgements arrive on grpc threads and are
+ * handed over to the tailer thread through a queue.
+ */
+@Slf4j
+class StreamingEventPublisher {
+  private static final String COMPRESSION = "gzip";
+
+  private final EventPublisherStub stub;
+  private final int maxBatchesInFlight;
+
+  private Stream stream;
+
+  StreamingEventPublisher(EventPublisherStub stub, int maxBatchesInFlight) {
+    checkArgument(maxBatchesInFlight > 0, "maxBatchesInFlight should be positive");
+    this.stub = stub.withCompression(COMPRESSION);
+    this.maxBatchesInFlight = maxBatchesInFlight;
+  }
+
+  boolean hasCapacity() {
+    return inFlightCount() < maxBatchesInFlight;
+  }
+
+  int inFlightCount() {
+    return stream == null ? 0 : stream.inFlight.size();
+  }
+
+  /**
+   * Sends the batch without waiting for it to be acknowledged.
+   *
+   * @param endIndex queue index right after the last message of the batch
+   */
+  void send(PublishBatch batch, long endIndex) {
+    checkState(hasCapacity(), "Too many batches in flight");
+    if (stream == null) {
+      stream = new Stream();
+      stream.requestObserver = stub.publishStream(stream);
+    }
+    stream.inFlight.addLast(endIndex);
+    stream.requestObserver.onNext(batch);
+  }
+
+  /**
+   * Waits for the oldest batch in flight to be acknowledged.
+   *
+   * @return queue index right after the last message of the acknowledged batch
+   * @throws IOException if the stream failed or the acknowledgement didn't arrive in time
+   */
+  long awaitAck(Duration timeout) throws IOException {
+    checkState(inFlightCount() > 0, "No batch in flight");
+    Status status;
+    try {
+      status = stream.acks.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for acknowledgement", e);
+    }
+    if (status == null) {
+      throw new IOException("Timed out waiting for acknowledgement");
+    }
+    if (!status.isOk()) {
+      throw new IOException("Publish stream failed", status.asException());
+    }
+    return stream.inFlight.removeFirst();
+  }
+
+  /**
+   * Completes the stream if all batches got acknowledged, cancels it otherwise.
+   */
+  void close() {
+    if (stream == null) {
+      return;
+    }
+    try {
+      if (stream.inFlight.isEmpty()) {
+        stream.requestObserver.onCompleted();
+      } else {
+        stream.requestObserver.onError(Status.CANCELLED.withDescription("Publish stream reset").asException());
+      }
+    } catch (Exception e) {
+      log.warn("Exception while closing publish stream", e);
+    } finally {
+      stream = null;
+    }
+  }
+
+  private static class Stream implements StreamObserver<PublishResponse> {
+    // touched by the tailer thread only
+    private final Deque<Long> inFlight = new ArrayDeque<>();
+    private final BlockingQueue<Status> acks = new LinkedBlockingQueue<>();
+    private StreamObserver<PublishBatch> requestObserver;
+
+    @Override
+    public void onNext(PublishResponse value) {
+      acks.add(Status.OK);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+      acks.add(Status.fromThrowable(t));
+    }
+
+    @Override
+    public void onCompleted() {
+      // all batches sent before completing the stream are acknowledged already
+      acks.add(Status.UNAVAILABLE.withDescription("Publish stream completed by server"));
+    }
+  }
+}
@@ -18,6 +18,7 @@ import io.harness.security.TokenGenerator;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
+import com.google.inject.name.Names;
 import io.grpc.CallCredentials;
 import io.grpc.Channel;
 import io.grpc.netty.shaded.io.grpc.netty.GrpcSslContexts;
@@ -38,6 +39,13 @@ public class TailerModule extends ProviderModule {
     this.config = config;
   }
 
+  @Override
+  protected void configure() {
+    if (config.isStreamingPublishEnabled()) {
+      bind(StreamingEventPublisher.class).annotatedWith(Names.named("tailer")).to(StreamingEventPublisher.class);
+    }
+  }
+
   @Provides
   @Singleton
   @Named("tailer")
@@ -80,6 +88,14 @@ public class TailerModule extends ProviderModule {
     return EventPublisherGrpc.newBlockingStub(channel).withCallCredentials(callCredentials);
   }
 
+  @Provides
+  @Singleton
+  StreamingEventPublisher streamingEventPublisher(
+      @Named("event-server-channel") Channel channel, CallCredentials callCredentials) {
+    return new StreamingEventPublisher(
+        EventPublisherGrpc.newStub(channel).withCallCredentials(callCredentials), config.getMaxBatchesInFlight());
+  }
+
   @Value
   @Builder
   public static class Config {
@@ -90,5 +106,8 @@ public class TailerModule extends ProviderModule {
     String queueFilePath;
     @Builder.Default Duration minDelay = Duration.ofSeconds(1);
     @Builder.Default Duration maxDelay = Duration.ofMinutes(5);
+    // Publish over a grpc stream instead of rest, with up to maxBatchesInFlight batches waiting for acknowledgement
+    boolean streamingPublishEnabled;
+    @Builder.Default int maxBatchesInFlight = 8;
   }
 }
@@ -9,6 +9,7 @@ package io.harness.eventpublisherclient;
 
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.event.PublishBatch;
 import io.harness.event.PublishRequest;
 import io.harness.event.PublishResponse;
 
@@ -23,4 +24,12 @@ public interface EventPublisherClient {
   @Consumes({"application/x-protobuf"})
   @POST("k8sevent/publish")
   Call<PublishResponse> publish(@Query("accountId") String accountId, @Body PublishRequest publishRequest);
+
+  /**
+   * Same as {@link #publish}, with the messages still serialized as they were read from the queue. PublishBatch is
+   * wire compatible with PublishRequest, so the event server reads it as a PublishRequest.
+   */
+  @Consumes({"application/x-protobuf"})
+  @POST("k8sevent/publish")
+  Call<PublishResponse> publishBatch(@Query("accountId") String accountId, @Body PublishBatch publishBatch);
 }
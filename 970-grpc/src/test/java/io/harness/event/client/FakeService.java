@@ -8,10 +8,13 @@
 package io.harness.event.client;
 
 import io.harness.event.EventPublisherGrpc;
+import io.harness.event.PublishBatch;
 import io.harness.event.PublishMessage;
 import io.harness.event.PublishRequest;
 import io.harness.event.PublishResponse;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import java.util.ArrayList;
@@ -67,4 +70,46 @@ public class FakeService extends EventPublisherGrpc.EventPublisherImplBase {
       responseObserver.onCompleted();
     }
   }
+
+  @Override
+  public StreamObserver<PublishBatch> publishStream(StreamObserver<PublishResponse> responseObserver) {
+    return new StreamObserver<PublishBatch>() {
+      private boolean failed;
+
+      @Override
+      public void onNext(PublishBatch batch) {
+        if (failed) {
+          return;
+        }
+        if (shouldFailCall()) {
+          failed = true;
+          responseObserver.onError(Status.UNKNOWN.withDescription("Random Error").asException());
+          return;
+        }
+        messageCounter.addAndGet(batch.getMessagesCount());
+        if (recordMessages) {
+          for (ByteString message : batch.getMessagesList()) {
+            try {
+              receivedMessages.add(PublishMessage.parseFrom(message));
+            } catch (InvalidProtocolBufferException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        }
+        responseObserver.onNext(PublishResponse.newBuilder().build());
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        // client cancelled the stream
+      }
+
+      @Override
+      public void onCompleted() {
+        if (!failed) {
+          responseObserver.onCompleted();
+        }
+      }
+    };
+  }
 }
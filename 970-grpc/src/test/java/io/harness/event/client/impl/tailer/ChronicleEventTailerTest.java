@@ -0,0 +1,237 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.event.client.impl.tailer;
+
+import static io.harness.rule.OwnerRule.AVMOHAN;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.event.EventPublisherGrpc;
+import io.harness.event.PublishBatch;
+import io.harness.event.PublishMessage;
+import io.harness.event.PublishRequest;
+import io.harness.event.PublishResponse;
+import io.harness.event.client.FakeService;
+import io.harness.event.client.impl.EventPublisherConstants;
+import io.harness.eventpublisherclient.EventPublisherClient;
+import io.harness.flow.BackoffScheduler;
+import io.harness.rule.Owner;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.openhft.chronicle.queue.ChronicleQueue;
+import net.openhft.chronicle.queue.impl.RollingChronicleQueue;
+import net.openhft.chronicle.wire.DocumentContext;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import retrofit2.Call;
+import retrofit2.Response;
+
+@Slf4j
+public class ChronicleEventTailerTest extends CategoryTest {
+  private final String serverName = InProcessServerBuilder.generateName();
+  private final EventPublisherClient eventPublisherClient = mock(EventPublisherClient.class);
+
+  private File queueDirectory;
+  private RollingChronicleQueue queue;
+  private FileDeletionManager fileDeletionManager;
+  private FakeService fakeService;
+  private Server server;
+  private ManagedChannel channel;
+
+  @Before
+  public void setUp() throws Exception {
+    queueDirectory = Files.createTempDirectory("eventQueue").toFile();
+    queue = ChronicleQueue.singleBuilder(queueDirectory)
+                .rollCycle(EventPublisherConstants.QUEUE_ROLL_CYCLE)
+                .timeoutMS(EventPublisherConstants.QUEUE_TIMEOUT_MS)
+                .build();
+    fileDeletionManager = new FileDeletionManager(queue);
+    fakeService = new FakeService();
+    server = InProcessServerBuilder.forName(serverName).addService(fakeService).build().start();
+    channel = InProcessChannelBuilder.forName(serverName).build();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+    server.shutdownNow().awaitTermination();
+    queue.close();
+    FileUtils.deleteDirectory(queueDirectory);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldStreamMessagesAndAdvanceSentIndexOnAcknowledgement() {
+    fakeService.setRecordMessages(true);
+    List<PublishMessage> messages = appendMessages(2000);
+    ChronicleEventTailer tailer = newStreamingTailer(4);
+
+    tailer.runOneIteration();
+
+    assertThat(fakeService.getReceivedMessages()).containsExactlyElementsOf(messages);
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(queue.createTailer().toEnd().index());
+    verifyNoInteractions(eventPublisherClient);
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldSendUnacknowledgedBatchesAgainAfterFailure() {
+    fakeService.setRecordMessages(true);
+    List<PublishMessage> messages = appendMessages(2000);
+    ChronicleEventTailer tailer = newStreamingTailer(4);
+    long sentIndex = fileDeletionManager.getSentIndex();
+
+    fakeService.failNext();
+    tailer.runOneIteration();
+    assertThat(fakeService.getReceivedMessages()).isEmpty();
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(sentIndex);
+
+    tailer.runOneIteration();
+    assertThat(fakeService.getReceivedMessages()).containsExactlyElementsOf(messages);
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(queue.createTailer().toEnd().index());
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldPublishRawBatchesOverRest() throws Exception {
+    List<PublishMessage> messages = appendMessages(1200);
+    Call<PublishResponse> call = mock(Call.class);
+    when(call.clone()).thenReturn(call);
+    when(call.execute()).thenReturn(Response.success(PublishResponse.getDefaultInstance()));
+    when(eventPublisherClient.publishBatch(any(), any())).thenReturn(call);
+    Duration delay = Duration.ofMillis(50);
+    ChronicleEventTailer tailer = new ChronicleEventTailer(eventPublisherClient, queue, fileDeletionManager,
+        new BackoffScheduler(ChronicleEventTailer.class.getSimpleName(), delay, delay));
+
+    tailer.runOneIteration();
+
+    ArgumentCaptor<PublishBatch> captor = ArgumentCaptor.forClass(PublishBatch.class);
+    verify(eventPublisherClient, times(3)).publishBatch(any(), captor.capture());
+    List<PublishMessage> published = new ArrayList<>();
+    for (PublishBatch publishBatch : captor.getAllValues()) {
+      // read by the event server as a PublishRequest
+      published.addAll(PublishRequest.parseFrom(publishBatch.toByteArray()).getMessagesList());
+    }
+    assertThat(published).containsExactlyElementsOf(messages);
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(queue.createTailer().toEnd().index());
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldSkipCorruptMessageInTheMiddleOfARestBatch() throws Exception {
+    List<PublishMessage> messages = appendMessages(100);
+    appendCorruptMessage();
+    messages.addAll(appendMessages(100));
+    Call<PublishResponse> call = mock(Call.class);
+    when(call.clone()).thenReturn(call);
+    when(call.execute()).thenReturn(Response.success(PublishResponse.getDefaultInstance()));
+    when(eventPublisherClient.publishBatch(any(), any())).thenReturn(call);
+    Duration delay = Duration.ofMillis(50);
+    ChronicleEventTailer tailer = new ChronicleEventTailer(eventPublisherClient, queue, fileDeletionManager,
+        new BackoffScheduler(ChronicleEventTailer.class.getSimpleName(), delay, delay));
+
+    tailer.runOneIteration();
+
+    ArgumentCaptor<PublishBatch> captor = ArgumentCaptor.forClass(PublishBatch.class);
+    verify(eventPublisherClient).publishBatch(any(), captor.capture());
+    assertThat(PublishRequest.parseFrom(captor.getValue().toByteArray()).getMessagesList())
+        .containsExactlyElementsOf(messages);
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(queue.createTailer().toEnd().index());
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(UnitTests.class)
+  public void shouldSkipCorruptMessageInTheMiddleOfAStreamedBatch() {
+    fakeService.setRecordMessages(true);
+    List<PublishMessage> messages = appendMessages(100);
+    appendCorruptMessage();
+    messages.addAll(appendMessages(100));
+    ChronicleEventTailer tailer = newStreamingTailer(4);
+
+    tailer.runOneIteration();
+
+    assertThat(fakeService.getReceivedMessages()).containsExactlyElementsOf(messages);
+    assertThat(fileDeletionManager.getSentIndex()).isEqualTo(queue.createTailer().toEnd().index());
+  }
+
+  @Test
+  @Owner(developers = AVMOHAN)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void measureDrainRate() {
+    int messageCount = 500_000;
+    for (int maxBatchesInFlight : new int[] {1, 8}) {
+      appendMessages(messageCount);
+      ChronicleEventTailer tailer = newStreamingTailer(maxBatchesInFlight);
+      int published = fakeService.getMessageCount();
+      long start = System.nanoTime();
+      tailer.runOneIteration();
+      long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      assertThat(fakeService.getMessageCount() - published).isEqualTo(messageCount);
+      log.info("Drained {} messages with {} batches in flight in {} ms, {} messages/s", messageCount,
+          maxBatchesInFlight, elapsedMillis, messageCount * 1000L / elapsedMillis);
+    }
+  }
+
+  private ChronicleEventTailer newStreamingTailer(int maxBatchesInFlight) {
+    Duration delay = Duration.ofMillis(50);
+    ChronicleEventTailer tailer = new ChronicleEventTailer(eventPublisherClient, queue, fileDeletionManager,
+        new BackoffScheduler(ChronicleEventTailer.class.getSimpleName(), delay, delay));
+    tailer.setStreamingEventPublisher(
+        new StreamingEventPublisher(EventPublisherGrpc.newStub(channel), maxBatchesInFlight));
+    return tailer;
+  }
+
+  private List<PublishMessage> appendMessages(int count) {
+    List<PublishMessage> messages = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      PublishMessage message = PublishMessage.newBuilder().setMessageId("message-" + i).setCategory("test").build();
+      try (DocumentContext dc = queue.acquireAppender().writingDocument()) {
+        dc.wire().getValueOut().bytes(message.toByteArray());
+      }
+      messages.add(message);
+    }
+    return messages;
+  }
+
+  private void appendCorruptMessage() {
+    // length delimited field 1 claiming more bytes than present
+    try (DocumentContext dc = queue.acquireAppender().writingDocument()) {
+      dc.wire().getValueOut().bytes(new byte[] {0x0A, 0x05, 0x01});
+    }
+  }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.ngtriggers.conditionchecker;
+
+import static io.harness.annotations.dev.HarnessTeam.PIPELINE;
+
+import io.harness.annotations.dev.OwnedBy;
+
+/**
+ * Condition with its standard and operator bound, see {@link ConditionEvaluator#compile(String, String)}.
+ */
+@OwnedBy(PIPELINE)
+public interface CompiledCondition {
+  boolean evaluate(String input);
+}
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -53,6 +54,7 @@ public class CastedField {
   private boolean isArray; // indicated if it is an Array
   private boolean isCollection; // indicated if the collection is a list)
   private Type genericType;
+  @Getter(AccessLevel.NONE) private FieldAccessor accessor;
 
   CastedField(final Field f, final Class<?> clazz, final Recaster recaster) {
     f.setAccessible(true);
@@ -61,6 +63,7 @@ public class CastedField {
     persistedClass = clazz;
     realType = field.getType();
     genericType = field.getGenericType();
+    accessor = FieldAccessor.of(f);
     discover(recaster);
   }
 
@@ -359,19 +362,19 @@ public class CastedField {
   }
 
   public Object getFieldValue(final Object instance) {
-    try {
-      return field.get(instance);
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
+    return getAccessor().get(instance);
   }
 
   public void setFieldValue(final Object instance, final Object value) {
-    try {
-      field.set(instance, value);
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
+    getAccessor().set(instance, value);
+  }
+
+  private FieldAccessor getAccessor() {
+    // ephemeral fields describe a type parameter of their parent field and are rarely read, build the accessor lazily
+    if (accessor == null) {
+      accessor = FieldAccessor.of(field);
     }
+    return accessor;
   }
 
   public Object getRecastedMapValue(final RecasterMap recasterMap) {
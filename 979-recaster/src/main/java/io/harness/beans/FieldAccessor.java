@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.beans;
+
+import static java.lang.String.format;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single field through method handles which are resolved once, when the owning CastedClass is
+ * built, instead of going through reflective access checks on every call. The handles are adapted to plain Object
+ * signatures so the call sites stay monomorphic. If the jvm refuses to hand out a setter (e.g. some final fields) the
+ * accessor falls back to reflection for writes, so the observable behaviour is the same as plain Field access.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+final class FieldAccessor {
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Field field;
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+    this.field = field;
+    this.getter = getter;
+    this.setter = setter;
+  }
+
+  static FieldAccessor of(Field field) {
+    if (!field.isAccessible()) {
+      field.setAccessible(true);
+    }
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle getter;
+    try {
+      getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      getter = null;
+    }
+    MethodHandle setter;
+    try {
+      setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      setter = null;
+    }
+    return new FieldAccessor(field, getter, setter);
+  }
+
+  Object get(Object instance) {
+    if (getter == null) {
+      return getReflectively(instance);
+    }
+    try {
+      return (Object) getter.invokeExact(instance);
+    } catch (ClassCastException e) {
+      throw new IllegalArgumentException(
+          format("Can not get field %s on %s", field, instance == null ? null : instance.getClass()), e);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  void set(Object instance, Object value) {
+    if (setter == null) {
+      setReflectively(instance, value);
+      return;
+    }
+    if (value == null && field.getType().isPrimitive()) {
+      // Keep the reflective contract, unboxing null through the handle would surface as a NullPointerException
+      throw new IllegalArgumentException(format("Can not set %s field %s to null value", field.getType(), field));
+    }
+    try {
+      setter.invokeExact(instance, value);
+    } catch (ClassCastException e) {
+      throw new IllegalArgumentException(
+          format("Can not set %s field %s to %s", field.getType(), field, value == null ? null : value.getClass()), e);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+
+  private Object getReflectively(Object instance) {
+    try {
+      return field.get(instance);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void setReflectively(Object instance, Object value) {
+    try {
+      field.set(instance, value);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.beans;
+
+import static io.harness.rule.OwnerRule.ARCHIT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.core.Recaster;
+import io.harness.core.RecasterOptions;
+import io.harness.rule.Owner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@OwnedBy(HarnessTeam.PIPELINE)
+@Slf4j
+public class FieldAccessorTest extends CategoryTest {
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void shouldReadAndWritePrivateFields() throws Exception {
+    FieldAccessor name = FieldAccessor.of(DummyStepParameters.class.getDeclaredField("name"));
+    FieldAccessor timeout = FieldAccessor.of(DummyStepParameters.class.getDeclaredField("timeout"));
+    DummyStepParameters parameters = new DummyStepParameters();
+
+    name.set(parameters, "shell");
+    timeout.set(parameters, 10L);
+
+    assertThat(name.get(parameters)).isEqualTo("shell");
+    assertThat(timeout.get(parameters)).isEqualTo(10L);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void shouldWriteFinalFields() throws Exception {
+    FieldAccessor identifier = FieldAccessor.of(DummyFinal.class.getDeclaredField("identifier"));
+    DummyFinal dummy = new DummyFinal("old");
+
+    identifier.set(dummy, "new");
+
+    assertThat(identifier.get(dummy)).isEqualTo("new");
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void shouldKeepReflectiveErrorsForInvalidValues() throws Exception {
+    FieldAccessor name = FieldAccessor.of(DummyStepParameters.class.getDeclaredField("name"));
+    FieldAccessor timeout = FieldAccessor.of(DummyStepParameters.class.getDeclaredField("timeout"));
+    DummyStepParameters parameters = new DummyStepParameters();
+
+    assertThatThrownBy(() -> timeout.set(parameters, null)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> name.set(parameters, 10L)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> name.get("not parameters")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void shouldRoundTripThroughRecaster() {
+    Recaster recaster = new Recaster(RecasterOptions.builder().workWithMaps(true).build());
+    DummyStepParameters parameters = sampleParameters();
+
+    Map<String, Object> map = recaster.toMap(parameters);
+
+    assertThat(map.get("name")).isEqualTo("shell");
+    assertThat(recaster.fromMap(map, DummyStepParameters.class)).isEqualTo(parameters);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(StressTests.class)
+  @Ignore("This is a field access benchmark, we should ignore it to allow for simple run of unit tests")
+  public void recastPerformance() throws Exception {
+    int iterations = 200000;
+    Recaster recaster = new Recaster(RecasterOptions.builder().workWithMaps(true).build());
+    DummyStepParameters parameters = sampleParameters();
+    CastedClass castedClass = recaster.getCastedClass(parameters);
+
+    List<Field> fields = new ArrayList<>();
+    for (CastedField cf : castedClass.getPersistenceFields()) {
+      fields.add(cf.getField());
+    }
+    DummyStepParameters target = new DummyStepParameters();
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (Field field : fields) {
+        field.set(target, field.get(parameters));
+      }
+    }
+    long reflective = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (CastedField cf : castedClass.getPersistenceFields()) {
+        cf.setFieldValue(target, cf.getFieldValue(parameters));
+      }
+    }
+    long accessors = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      recaster.fromMap(recaster.toMap(parameters), DummyStepParameters.class);
+    }
+    long roundTrips = System.nanoTime() - start;
+
+    log.info("{} iterations: reflective field copy {} ms, accessor field copy {} ms, recast round trips {} ms",
+        iterations, reflective / 1000000, accessors / 1000000, roundTrips / 1000000);
+  }
+
+  private static DummyStepParameters sampleParameters() {
+    Map<String, String> environmentVariables = new HashMap<>();
+    environmentVariables.put("ENV", "qa");
+    return DummyStepParameters.builder()
+        .name("shell")
+        .identifier("shell_script")
+        .script("echo hello")
+        .timeout(600000L)
+        .onDelegate(true)
+        .delegateSelectors(Arrays.asList("primary", "secondary"))
+        .environmentVariables(environmentVariables)
+        .build();
+  }
+
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  @EqualsAndHashCode
+  private static class DummyStepParameters {
+    private String name;
+    private String identifier;
+    private String script;
+    private long timeout;
+    private boolean onDelegate;
+    private List<String> delegateSelectors;
+    private Map<String, String> environmentVariables;
+  }
+
+  @AllArgsConstructor
+  private static class DummyFinal {
+    private final String identifier;
+  }
+}
@@ -15,12 +15,9 @@ import io.harness.text.resolver.ExpressionResolver;
 import io.harness.text.resolver.StringReplacer;
 
 import lombok.experimental.UtilityClass;
-import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
-import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.apache.commons.jexl3.MapContext;
-import org.apache.commons.logging.impl.NoOpLog;
 
 @OwnedBy(HarnessTeam.PIPELINE)
 @UtilityClass
@@ -39,8 +36,7 @@ public class EngineExpressionSecretUtils {
     private final StringReplacer replacer;
 
     private SecretRevertResolveFunctor(ExpressionMode expressionMode) {
-      JexlEngine engine = new JexlBuilder().logger(new NoOpLog()).create();
-      this.replacer = new StringReplacer(new SecretRevertResolver(engine, expressionMode), "${", "}");
+      this.replacer = new StringReplacer(new SecretRevertResolver(expressionMode), "${", "}");
     }
 
     @Override
@@ -55,12 +51,10 @@ public class EngineExpressionSecretUtils {
   }
 
   private static class SecretRevertResolver implements ExpressionResolver {
-    private final JexlEngine engine;
     private final JexlContext ctx;
     private final ExpressionMode expressionMode;
 
-    private SecretRevertResolver(JexlEngine engine, ExpressionMode expressionMode) {
-      this.engine = engine;
+    private SecretRevertResolver(ExpressionMode expressionMode) {
       this.ctx = new MapContext();
       this.ctx.set("ngSecretManager", new SecretRevertFunctor());
       this.expressionMode = expressionMode;
@@ -74,7 +68,7 @@ public class EngineExpressionSecretUtils {
     @Override
     public String resolveInternal(String expression) {
       try {
-        JexlExpression jexlExpression = engine.createExpression(expression);
+        JexlExpression jexlExpression = JexlExpressionCache.createExpression(expression);
         Object value = jexlExpression.evaluate(ctx);
         if (value == null && expressionMode == ExpressionMode.RETURN_ORIGINAL_EXPRESSION_IF_UNRESOLVED) {
           return ExpressionConstants.EXPR_START + expression + ExpressionConstants.EXPR_END;
@@ -29,13 +29,10 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.Data;
 import org.apache.commons.collections.map.SingletonMap;
-import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
-import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlExpression;
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.logging.impl.NoOpLog;
 import org.apache.commons.text.StrSubstitutor;
 
 /**
@@ -61,8 +58,6 @@ public class ExpressionEvaluator {
 
   private Map<String, Object> expressionFunctorMap = new HashMap<>();
 
-  private JexlEngine engine = new JexlBuilder().logger(new NoOpLog()).create();
-
   public void addFunctor(String name, ExpressionFunctor functor) {
     if (functor == null) {
       throw new InvalidArgumentsException(Pair.of("functor", "null"));
@@ -93,13 +88,13 @@ public class ExpressionEvaluator {
 
     JexlExpression jexlExpression;
     try {
-      jexlExpression = engine.createExpression(expression);
+      jexlExpression = JexlExpressionCache.createExpression(expression);
     } catch (JexlException.Tokenization ex) {
       if (newLineInParenthesesPattern.matcher(expression).find()) {
         // Ref: https://stackoverflow.com/q/66498157
         // Line break in JEXL String
         expression = expression.replaceAll("\n", "\\\\u000a");
-        jexlExpression = engine.createExpression(expression);
+        jexlExpression = JexlExpressionCache.createExpression(expression);
       } else {
         throw ex;
       }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.expression;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import javax.validation.constraints.NotNull;
+import lombok.experimental.UtilityClass;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.logging.impl.NoOpLog;
+
+/**
+ * Process wide cache of parsed jexl expressions and scripts. Parsed jexl objects are immutable and can be evaluated
+ * concurrently against different contexts, so all the evaluators share a single engine and reuse the parsed form of
+ * an expression text instead of parsing it on every evaluation. Keys are the final expression text, i.e. after static
+ * alias and prefix substitutions.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+@UtilityClass
+public class JexlExpressionCache {
+  private static final long MAX_SIZE = 10000;
+
+  private static final JexlEngine engine = new JexlBuilder().logger(new NoOpLog()).create();
+
+  private static final Cache<String, JexlExpression> expressions =
+      CacheBuilder.newBuilder().maximumSize(MAX_SIZE).recordStats().build();
+  private static final Cache<String, JexlScript> scripts =
+      CacheBuilder.newBuilder().maximumSize(MAX_SIZE).recordStats().build();
+
+  public JexlEngine getEngine() {
+    return engine;
+  }
+
+  /**
+   * Returns the parsed jexl expression for the given text. Parsing errors are propagated as is and nothing is cached
+   * for such expressions.
+   */
+  public JexlExpression createExpression(@NotNull String expression) {
+    JexlExpression jexlExpression = expressions.getIfPresent(expression);
+    if (jexlExpression == null) {
+      jexlExpression = engine.createExpression(expression);
+      expressions.put(expression, jexlExpression);
+    }
+    return jexlExpression;
+  }
+
+  /**
+   * Returns the parsed jexl script for the given text. Parsing errors are propagated as is and nothing is cached for
+   * such scripts.
+   */
+  public JexlScript createScript(@NotNull String script) {
+    JexlScript jexlScript = scripts.getIfPresent(script);
+    if (jexlScript == null) {
+      jexlScript = engine.createScript(script);
+      scripts.put(script, jexlScript);
+    }
+    return jexlScript;
+  }
+
+  public CacheStats getExpressionCacheStats() {
+    return expressions.stats();
+  }
+
+  public CacheStats getScriptCacheStats() {
+    return scripts.stats();
+  }
+
+  public long getExpressionCacheSize() {
+    return expressions.size();
+  }
+
+  public long getScriptCacheSize() {
+    return scripts.size();
+  }
+
+  @VisibleForTesting
+  void invalidateAll() {
+    expressions.invalidateAll();
+    scripts.invalidateAll();
+  }
+}
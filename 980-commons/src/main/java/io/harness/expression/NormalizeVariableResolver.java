@@ -11,17 +11,13 @@ import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
 
 import java.util.List;
 import lombok.Builder;
-import org.apache.commons.jexl3.JexlBuilder;
 import org.apache.commons.jexl3.JexlContext;
-import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlExpression;
-import org.apache.commons.logging.impl.NoOpLog;
 import org.apache.commons.text.StrLookup;
 
 @Builder
 public class NormalizeVariableResolver extends StrLookup {
-  private static JexlEngine engine = new JexlBuilder().logger(new NoOpLog()).create();
   private JexlContext context;
   private List<String> objectPrefixes;
 
@@ -40,7 +36,7 @@ public class NormalizeVariableResolver extends StrLookup {
     String normalized = objectPrefix + "." + variable;
 
     try {
-      JexlExpression jexlExpression = engine.createExpression(normalized);
+      JexlExpression jexlExpression = JexlExpressionCache.createExpression(normalized);
       if (jexlExpression.evaluate(context) == null) {
         return variable;
       }
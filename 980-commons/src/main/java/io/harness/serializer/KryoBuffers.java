@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.serializer;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Per thread buffers reused across kryo serialization calls. A serializer can end up calling back into
+ * KryoSerializer on the same thread, so the buffers are handed out only when not already in use and the caller gets
+ * throw away buffers otherwise. Buffers which grew beyond MAX_RETAINED_SIZE are dropped on release so that one large
+ * payload does not pin memory to the thread forever.
+ *
+ * Deflaters and inflaters hold native memory which is only freed by end(), so they are not kept per thread. They are
+ * borrowed from bounded pools shared by all threads, reset and returned on release, and ended once a pool is full.
+ */
+@OwnedBy(HarnessTeam.PL)
+class KryoBuffers {
+  private static final int INITIAL_SIZE = 4096;
+  private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+  @VisibleForTesting static final int MAX_POOLED_CODERS = 2 * Runtime.getRuntime().availableProcessors();
+
+  private static final ThreadLocal<KryoBuffers> threadBuffers = ThreadLocal.withInitial(KryoBuffers::new);
+  @VisibleForTesting static final BlockingQueue<Deflater> deflaterPool = new ArrayBlockingQueue<>(MAX_POOLED_CODERS);
+  @VisibleForTesting static final BlockingQueue<Inflater> inflaterPool = new ArrayBlockingQueue<>(MAX_POOLED_CODERS);
+
+  private final boolean pooled;
+  private boolean inUse;
+  private Output output;
+  private byte[] scratch;
+  private Deflater deflater;
+  private Inflater inflater;
+
+  private KryoBuffers() {
+    this(true);
+  }
+
+  private KryoBuffers(boolean pooled) {
+    this.pooled = pooled;
+  }
+
+  static KryoBuffers acquire() {
+    KryoBuffers buffers = threadBuffers.get();
+    if (buffers.inUse) {
+      return new KryoBuffers(false);
+    }
+    buffers.inUse = true;
+    return buffers;
+  }
+
+  void release() {
+    if (deflater != null) {
+      deflater.reset();
+      if (!deflaterPool.offer(deflater)) {
+        deflater.end();
+      }
+      deflater = null;
+    }
+    if (inflater != null) {
+      inflater.reset();
+      if (!inflaterPool.offer(inflater)) {
+        inflater.end();
+      }
+      inflater = null;
+    }
+    if (!pooled) {
+      return;
+    }
+    if (output != null && output.getBuffer().length > MAX_RETAINED_SIZE) {
+      output = null;
+    }
+    if (scratch != null && scratch.length > MAX_RETAINED_SIZE) {
+      scratch = null;
+    }
+    inUse = false;
+  }
+
+  Output getOutput() {
+    if (output == null) {
+      output = new Output(INITIAL_SIZE, -1);
+    }
+    output.clear();
+    return output;
+  }
+
+  /**
+   * Returns a deflater, reset, which goes back to the pool on release.
+   */
+  Deflater getDeflater() {
+    if (deflater == null) {
+      deflater = deflaterPool.poll();
+      if (deflater == null) {
+        deflater = new Deflater();
+      }
+    }
+    return deflater;
+  }
+
+  /**
+   * Returns an inflater, reset, which goes back to the pool on release.
+   */
+  Inflater getInflater() {
+    if (inflater == null) {
+      inflater = inflaterPool.poll();
+      if (inflater == null) {
+        inflater = new Inflater();
+      }
+    }
+    return inflater;
+  }
+
+  /**
+   * Returns a scratch array of at least the given size. Its content is undefined.
+   */
+  byte[] scratch(int minSize) {
+    if (scratch == null || scratch.length < minSize) {
+      scratch = new byte[Math.max(minSize, INITIAL_SIZE)];
+    }
+    return scratch;
+  }
+
+  /**
+   * Doubles the scratch array keeping its content.
+   */
+  byte[] growScratch() {
+    scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, INITIAL_SIZE));
+    return scratch;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.serializer;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Compression codecs used for the deflated kryo payloads.
+ *
+ * ZLIB payloads are plain zlib streams without any header of our own, which keeps them compatible with everything
+ * written before codecs were introduced. Every other codec prefixes the payload with a one byte marker. A zlib stream
+ * always starts with 0x78 for the default window size, so the markers can never be confused with a legacy payload.
+ */
+@OwnedBy(HarnessTeam.PL)
+public enum KryoCompressionCodec {
+  ZLIB((byte) 0) {
+    @Override
+    byte[] compress(byte[] src, int length, KryoBuffers buffers) {
+      Deflater deflater = buffers.getDeflater();
+      deflater.reset();
+      deflater.setInput(src, 0, length);
+      deflater.finish();
+      byte[] dest = buffers.scratch(length / 2 + 64);
+      int position = 0;
+      while (!deflater.finished()) {
+        if (position == dest.length) {
+          dest = buffers.growScratch();
+        }
+        position += deflater.deflate(dest, position, dest.length - position);
+      }
+      return Arrays.copyOf(dest, position);
+    }
+
+    @Override
+    int decompress(byte[] src, KryoBuffers buffers) throws DataFormatException {
+      Inflater inflater = buffers.getInflater();
+      inflater.reset();
+      inflater.setInput(src);
+      byte[] dest = buffers.scratch(src.length * 4);
+      int position = 0;
+      while (!inflater.finished()) {
+        if (position == dest.length) {
+          dest = buffers.growScratch();
+        }
+        int inflated = inflater.inflate(dest, position, dest.length - position);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new DataFormatException("Unexpected end of zlib stream");
+        }
+        position += inflated;
+      }
+      return position;
+    }
+  },
+
+  LZ4((byte) 1) {
+    private static final int HEADER_LENGTH = 5;
+
+    @Override
+    byte[] compress(byte[] src, int length, KryoBuffers buffers) {
+      LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+      byte[] dest = buffers.scratch(HEADER_LENGTH + compressor.maxCompressedLength(length));
+      dest[0] = getMarker();
+      writeInt(dest, 1, length);
+      int compressedLength = compressor.compress(src, 0, length, dest, HEADER_LENGTH);
+      return Arrays.copyOf(dest, HEADER_LENGTH + compressedLength);
+    }
+
+    @Override
+    int decompress(byte[] src, KryoBuffers buffers) {
+      LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+      int length = readInt(src, 1);
+      byte[] dest = buffers.scratch(length);
+      decompressor.decompress(src, HEADER_LENGTH, dest, 0, length);
+      return length;
+    }
+  };
+
+  private final byte marker;
+
+  KryoCompressionCodec(byte marker) {
+    this.marker = marker;
+  }
+
+  byte getMarker() {
+    return marker;
+  }
+
+  /**
+   * Compresses the first length bytes of src. The returned array is owned by the caller.
+   */
+  abstract byte[] compress(byte[] src, int length, KryoBuffers buffers);
+
+  /**
+   * Decompresses src into the scratch buffer of buffers and returns the number of bytes written to it.
+   */
+  abstract int decompress(byte[] src, KryoBuffers buffers) throws DataFormatException;
+
+  static KryoCompressionCodec of(byte[] payload) {
+    if (payload.length > 0 && payload[0] == LZ4.getMarker()) {
+      return LZ4;
+    }
+    return ZLIB;
+  }
+
+  private static void writeInt(byte[] dest, int offset, int value) {
+    dest[offset] = (byte) (value >>> 24);
+    dest[offset + 1] = (byte) (value >>> 16);
+    dest[offset + 2] = (byte) (value >>> 8);
+    dest[offset + 3] = (byte) value;
+  }
+
+  private static int readInt(byte[] src, int offset) {
+    return ((src[offset] & 0xFF) << 24) | ((src[offset + 1] & 0xFF) << 16) | ((src[offset + 2] & 0xFF) << 8)
+        | (src[offset + 3] & 0xFF);
+  }
+}
@@ -9,6 +9,7 @@ package io.harness.serializer;
 
 import static java.lang.String.format;
 
+import io.harness.data.structure.EmptyPredicate;
 import io.harness.reflection.CodeUtils;
 
 import com.esotericsoftware.kryo.Registration;
@@ -20,14 +21,10 @@ import com.google.api.client.util.Base64;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Set;
-import java.util.zip.DeflaterOutputStream;
-import java.util.zip.InflaterInputStream;
 import lombok.extern.slf4j.Slf4j;
 
 @Singleton
@@ -51,8 +48,16 @@ public class KryoSerializer {
     }
   }
 
+  private static final KryoCompressionCodec DEFAULT_COMPRESSION_CODEC =
+      EmptyPredicate.isNotEmpty(System.getenv("KRYO_COMPRESSION_CODEC"))
+      ? KryoCompressionCodec.valueOf(System.getenv("KRYO_COMPRESSION_CODEC"))
+      : KryoCompressionCodec.ZLIB;
+
   private final KryoPool pool;
   private final boolean skipHarnessClassOriginRegistrarCheck;
+  // Only affects writes, reads detect the codec from the payload. Pods need to be able to read a codec before any of
+  // them starts writing it.
+  private KryoCompressionCodec compressionCodec = DEFAULT_COMPRESSION_CODEC;
 
   @Inject
   public KryoSerializer(Set<Class<? extends KryoRegistrar>> registrars) {
@@ -99,40 +104,45 @@ public class KryoSerializer {
     return kryo;
   }
 
+  @VisibleForTesting
+  void setCompressionCodec(KryoCompressionCodec compressionCodec) {
+    this.compressionCodec = compressionCodec;
+  }
+
   public String asString(Object obj) {
     return Base64.encodeBase64String(asBytes(obj));
   }
 
   public byte[] asBytes(Object obj) {
-    try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-      writeToStream(obj, outputStream);
-      return outputStream.toByteArray();
+    KryoBuffers buffers = KryoBuffers.acquire();
+    try {
+      return writeToBuffer(obj, buffers).toBytes();
     } catch (Exception e) {
       throw new RuntimeException(e);
+    } finally {
+      buffers.release();
     }
   }
 
   public byte[] asDeflatedBytes(Object obj) {
-    try (ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-         DeflaterOutputStream outputStream = new DeflaterOutputStream(byteStream)) {
-      writeToStream(obj, outputStream);
-      outputStream.finish();
-      return byteStream.toByteArray();
+    KryoBuffers buffers = KryoBuffers.acquire();
+    try {
+      Output output = writeToBuffer(obj, buffers);
+      return compressionCodec.compress(output.getBuffer(), output.position(), buffers);
     } catch (Exception exception) {
       throw new RuntimeException(exception);
+    } finally {
+      buffers.release();
     }
   }
 
-  private void writeToStream(Object obj, OutputStream outputStream) {
-    try (Output output = new Output(outputStream)) {
-      pool.run(kryo -> {
-        kryo.writeClassAndObject(output, obj);
-        return null;
-      });
-      output.flush();
-    } catch (Exception exception) {
-      throw new RuntimeException(exception);
-    }
+  private Output writeToBuffer(Object obj, KryoBuffers buffers) {
+    Output output = buffers.getOutput();
+    pool.run(kryo -> {
+      kryo.writeClassAndObject(output, obj);
+      return null;
+    });
+    return output;
   }
 
   public <T> T clone(T object) {
@@ -146,10 +156,15 @@ public class KryoSerializer {
   }
 
   public Object asInflatedObject(byte[] bytes) {
-    try (Input input = new Input(new InflaterInputStream(new Input(bytes)))) {
+    KryoBuffers buffers = KryoBuffers.acquire();
+    try {
+      int length = KryoCompressionCodec.of(bytes).decompress(bytes, buffers);
+      Input input = new Input(buffers.scratch(length), 0, length);
       return pool.run(kryo -> kryo.readClassAndObject(input));
     } catch (Exception exception) {
       throw new RuntimeException(exception);
+    } finally {
+      buffers.release();
     }
   }
 
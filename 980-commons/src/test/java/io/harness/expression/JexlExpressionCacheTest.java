@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.expression;
+
+import static io.harness.rule.OwnerRule.ARCHIT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlExpression;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.logging.impl.NoOpLog;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Slf4j
+public class JexlExpressionCacheTest extends CategoryTest {
+  @Before
+  public void setUp() {
+    JexlExpressionCache.invalidateAll();
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void testCreateExpressionIsCached() {
+    CacheStats before = JexlExpressionCache.getExpressionCacheStats();
+    JexlExpression first = JexlExpressionCache.createExpression("a.b + 1");
+    JexlExpression second = JexlExpressionCache.createExpression("a.b + 1");
+    assertThat(second).isSameAs(first);
+
+    CacheStats stats = JexlExpressionCache.getExpressionCacheStats().minus(before);
+    assertThat(stats.hitCount()).isEqualTo(1);
+    assertThat(stats.missCount()).isEqualTo(1);
+
+    MapContext ctx = new MapContext(ImmutableMap.of("a", ImmutableMap.of("b", 2)));
+    assertThat(second.evaluate(ctx)).isEqualTo(3);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void testScriptsAndExpressionsAreCachedSeparately() {
+    JexlExpressionCache.createExpression("x");
+    JexlExpressionCache.createScript("x");
+    assertThat(JexlExpressionCache.getExpressionCacheSize()).isEqualTo(1);
+    assertThat(JexlExpressionCache.getScriptCacheSize()).isEqualTo(1);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(UnitTests.class)
+  public void testInvalidExpressionIsNotCached() {
+    assertThatThrownBy(() -> JexlExpressionCache.createExpression("a.b +")).isInstanceOf(JexlException.class);
+    assertThat(JexlExpressionCache.getExpressionCacheSize()).isEqualTo(0);
+  }
+
+  @Test
+  @Owner(developers = ARCHIT)
+  @Category(StressTests.class)
+  @Ignore("This is a parse cost benchmark, we should ignore it to allow for simple run of unit tests")
+  public void parsePerformance() {
+    int count = 1000;
+    int iterations = 100;
+    List<String> expressions = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      expressions.add("pipeline.stages.stage" + i + ".spec.execution.steps.step" + i + ".output.outputVariables.var");
+    }
+
+    JexlEngine engine = new JexlBuilder().logger(new NoOpLog()).create();
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      expressions.forEach(engine::createExpression);
+    }
+    long uncached = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      expressions.forEach(JexlExpressionCache::createExpression);
+    }
+    long cached = System.nanoTime() - start;
+
+    log.info("Parsing {} expressions {} times: uncached {} ms, cached {} ms, stats {}", count, iterations,
+        uncached / 1000000, cached / 1000000, JexlExpressionCache.getExpressionCacheStats());
+  }
+}
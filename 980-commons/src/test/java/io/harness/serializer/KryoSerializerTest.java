@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.serializer;
+
+import static io.harness.rule.OwnerRule.GEORGE;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.harness.CategoryTest;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Slf4j
+public class KryoSerializerTest extends CategoryTest {
+  private final KryoSerializer kryoSerializer = new KryoSerializer(Collections.emptySet(), true);
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(UnitTests.class)
+  public void testDeflatedRoundTripForAllCodecs() {
+    Map<String, Object> object = sampleObject(100);
+    for (KryoCompressionCodec codec : KryoCompressionCodec.values()) {
+      kryoSerializer.setCompressionCodec(codec);
+      byte[] bytes = kryoSerializer.asDeflatedBytes(object);
+      assertThat(kryoSerializer.asInflatedObject(bytes)).isEqualTo(object);
+    }
+  }
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(UnitTests.class)
+  public void testDeflaterGoesBackToThePoolWhenItsThreadIsGone() throws Exception {
+    AtomicReference<Deflater> used = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      KryoBuffers buffers = KryoBuffers.acquire();
+      try {
+        used.set(buffers.getDeflater());
+      } finally {
+        buffers.release();
+      }
+    });
+    thread.start();
+    thread.join();
+
+    assertThat(KryoBuffers.deflaterPool).contains(used.get());
+  }
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(UnitTests.class)
+  public void testDeflatersWhichDoNotFitThePoolAreEnded() {
+    // nested acquires on one thread hand out throw away buffers, each borrowing its own deflater
+    List<KryoBuffers> acquired = new ArrayList<>();
+    List<Deflater> deflaters = new ArrayList<>();
+    for (int i = 0; i <= KryoBuffers.MAX_POOLED_CODERS; i++) {
+      KryoBuffers buffers = KryoBuffers.acquire();
+      acquired.add(buffers);
+      deflaters.add(buffers.getDeflater());
+    }
+    acquired.forEach(KryoBuffers::release);
+
+    assertThat(KryoBuffers.deflaterPool).hasSize(KryoBuffers.MAX_POOLED_CODERS);
+    Deflater ended = deflaters.get(deflaters.size() - 1);
+    assertThat(KryoBuffers.deflaterPool).doesNotContain(ended);
+    assertThatThrownBy(ended::getTotalIn).isInstanceOf(NullPointerException.class);
+  }
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(UnitTests.class)
+  public void testLegacyZlibPayloadIsReadable() throws Exception {
+    Map<String, Object> object = sampleObject(100);
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    try (DeflaterOutputStream outputStream = new DeflaterOutputStream(byteStream)) {
+      outputStream.write(kryoSerializer.asBytes(object));
+    }
+
+    kryoSerializer.setCompressionCodec(KryoCompressionCodec.LZ4);
+    assertThat(kryoSerializer.asInflatedObject(byteStream.toByteArray())).isEqualTo(object);
+  }
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(UnitTests.class)
+  public void testLargeObjectRoundTrip() {
+    Map<String, Object> object = sampleObject(100000);
+    for (KryoCompressionCodec codec : KryoCompressionCodec.values()) {
+      kryoSerializer.setCompressionCodec(codec);
+      assertThat(kryoSerializer.asInflatedObject(kryoSerializer.asDeflatedBytes(object))).isEqualTo(object);
+      assertThat(kryoSerializer.asObject(kryoSerializer.asBytes(object))).isEqualTo(object);
+    }
+  }
+
+  @Test
+  @Owner(developers = GEORGE)
+  @Category(StressTests.class)
+  @Ignore("This is a codec benchmark, we should ignore it to allow for simple run of unit tests")
+  public void codecPerformance() {
+    int iterations = 10000;
+    Map<String, Object> object = sampleObject(1000);
+    for (KryoCompressionCodec codec : KryoCompressionCodec.values()) {
+      kryoSerializer.setCompressionCodec(codec);
+      long size = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < iterations; i++) {
+        byte[] bytes = kryoSerializer.asDeflatedBytes(object);
+        kryoSerializer.asInflatedObject(bytes);
+        size = bytes.length;
+      }
+      log.info("Codec {}: {} round trips in {} ms, payload size {} bytes", codec, iterations,
+          (System.nanoTime() - start) / 1000000, size);
+    }
+  }
+
+  private static Map<String, Object> sampleObject(int entries) {
+    Map<String, Object> object = new HashMap<>();
+    for (int i = 0; i < entries; i++) {
+      List<String> values = new ArrayList<>();
+      values.add("status-" + (i % 7));
+      values.add("node-execution-" + i);
+      object.put("key-" + i, values);
+    }
+    return object;
+  }
+}
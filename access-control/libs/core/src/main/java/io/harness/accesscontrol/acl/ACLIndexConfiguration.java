@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.acl;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@OwnedBy(PL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ACLIndexConfiguration {
+  @JsonProperty("enabled") private boolean enabled;
+  // the weight of a principal is one plus, for each of its indexed query strings, one plus the number of ACLs
+  @JsonProperty("maximumWeight") @Builder.Default private long maximumWeight = 1000000;
+  @JsonProperty("maximumQueryStringsPerPrincipal") @Builder.Default private int maximumQueryStringsPerPrincipal = 5000;
+  @JsonProperty("expireAfterWriteSeconds") @Builder.Default private long expireAfterWriteSeconds = 60;
+}
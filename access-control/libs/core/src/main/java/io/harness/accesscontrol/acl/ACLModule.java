@@ -10,6 +10,7 @@ package io.harness.accesscontrol.acl;
 import io.harness.accesscontrol.acl.persistence.ACL;
 import io.harness.accesscontrol.acl.persistence.ACLDAO;
 import io.harness.accesscontrol.acl.persistence.ACLDAOImpl;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidationPublisher;
 import io.harness.accesscontrol.acl.persistence.ACLMorphiaRegistrar;
 import io.harness.accesscontrol.acl.persistence.repositories.ACLRepository;
 import io.harness.accesscontrol.acl.persistence.repositories.PrimaryACLRepositoryImpl;
@@ -21,6 +22,7 @@ import io.harness.morphia.MorphiaRegistrar;
 import com.google.inject.AbstractModule;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Names;
 
 @OwnedBy(HarnessTeam.PL)
@@ -44,5 +46,11 @@ public class ACLModule extends AbstractModule {
     bind(ACLDAO.class).to(ACLDAOImpl.class);
     bind(ACLRepository.class).annotatedWith(Names.named(ACL.PRIMARY_COLLECTION)).to(PrimaryACLRepositoryImpl.class);
     bind(ACLRepository.class).annotatedWith(Names.named(ACL.SECONDARY_COLLECTION)).to(SecondaryACLRepositoryImpl.class);
+    OptionalBinder.newOptionalBinder(binder(), ACLIndexConfiguration.class)
+        .setDefault()
+        .toInstance(ACLIndexConfiguration.builder().enabled(false).build());
+    OptionalBinder.newOptionalBinder(binder(), ACLIndexInvalidationPublisher.class)
+        .setDefault()
+        .toInstance(invalidation -> {});
   }
 }
@@ -22,6 +22,7 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -42,11 +43,14 @@ public class ACLDAOImpl implements ACLDAO {
 
   public static final String ALL_AUTHENTICATED_USERS = "ALL_AUTHENTICATED_USERS";
   private final ACLRepository aclRepository;
+  private final ACLIndex aclIndex;
   private final Set<String> scopeResourceTypes;
 
   @Inject
-  public ACLDAOImpl(@Named(ACL.PRIMARY_COLLECTION) ACLRepository aclRepository, Map<String, ScopeLevel> scopeLevels) {
+  public ACLDAOImpl(@Named(ACL.PRIMARY_COLLECTION) ACLRepository aclRepository, ACLIndex aclIndex,
+      Map<String, ScopeLevel> scopeLevels) {
     this.aclRepository = aclRepository;
+    this.aclIndex = aclIndex;
     this.scopeResourceTypes =
         scopeLevels.values().stream().map(ScopeLevel::getResourceType).collect(Collectors.toSet());
   }
@@ -164,12 +168,25 @@ public class ACLDAOImpl implements ACLDAO {
       aclQueryStrings.addAll(queryStrings);
     });
 
-    List<ACL> aclsPresentInDB = aclRepository.getByAclQueryStringInAndEnabled(aclQueryStrings, true);
-    return aclQueryStringsPerPermission.stream()
-        .map(queryStringsForPermission
-            -> aclsPresentInDB.stream()
-                   .filter(acl -> queryStringsForPermission.contains(acl.getAclQueryString()))
-                   .collect(Collectors.toList()))
-        .collect(Collectors.toList());
+    Map<String, List<ACL>> enabledACLs = getEnabledACLsByQueryString(aclQueryStrings);
+    List<List<ACL>> matchingACLs = new ArrayList<>(aclQueryStringsPerPermission.size());
+    for (Set<String> queryStringsForPermission : aclQueryStringsPerPermission) {
+      List<ACL> matchingACLsForPermission = new ArrayList<>();
+      for (String queryString : queryStringsForPermission) {
+        matchingACLsForPermission.addAll(enabledACLs.getOrDefault(queryString, Collections.emptyList()));
+      }
+      matchingACLs.add(matchingACLsForPermission);
+    }
+    return matchingACLs;
+  }
+
+  private Map<String, List<ACL>> getEnabledACLsByQueryString(Set<String> aclQueryStrings) {
+    if (aclIndex.isEnabled()) {
+      return aclIndex.getEnabledACLs(
+          aclQueryStrings, queryStrings -> aclRepository.getByAclQueryStringInAndEnabled(queryStrings, true));
+    }
+    return aclRepository.getByAclQueryStringInAndEnabled(aclQueryStrings, true)
+        .stream()
+        .collect(Collectors.groupingBy(ACL::getAclQueryString));
   }
 }
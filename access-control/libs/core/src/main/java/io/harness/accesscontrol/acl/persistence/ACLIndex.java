@@ -0,0 +1,279 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.acl.persistence;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+
+import io.harness.accesscontrol.acl.ACLIndexConfiguration;
+import io.harness.annotations.dev.OwnedBy;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In memory index of the enabled ACLs per principal, keyed by acl query string. Entries are filled lazily from the
+ * query strings looked up during access checks, both for query strings which have enabled ACLs and for the ones
+ * which do not, so that a repeated access check does not need a round trip to mongo at all.
+ *
+ * The index is kept consistent with the ACL writes done through the ACL repositories, which is where the aggregator
+ * applies the ACL changes it consumes: created and removed ACLs invalidate their principals and deleted role assignment
+ * ACLs invalidate the principals which have them indexed. Every invalidation is also published to the other replicas,
+ * expireAfterWriteSeconds only bounds how long a lost invalidation goes unnoticed. The size of the index is bounded by
+ * the number of indexed query strings and ACLs rather than by the number of principals.
+ */
+@OwnedBy(PL)
+@Singleton
+@Slf4j
+public class ACLIndex {
+  private static final String DELIMITER = "$";
+
+  private final boolean enabled;
+  private final int maximumQueryStringsPerPrincipal;
+  private final Cache<String, PrincipalACLs> principalACLs;
+  private final AtomicLong deletions = new AtomicLong();
+  private final ACLIndexInvalidationPublisher invalidationPublisher;
+  private final String sourceId = generateUuid();
+
+  @Inject
+  public ACLIndex(ACLIndexConfiguration configuration, ACLIndexInvalidationPublisher invalidationPublisher) {
+    this.enabled = configuration.isEnabled();
+    this.maximumQueryStringsPerPrincipal = configuration.getMaximumQueryStringsPerPrincipal();
+    this.invalidationPublisher = invalidationPublisher;
+    this.principalACLs = CacheBuilder.newBuilder()
+                             .maximumWeight(configuration.getMaximumWeight())
+                             .weigher((String principalKey, PrincipalACLs acls) -> acls.getWeight())
+                             .expireAfterWrite(configuration.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+                             .recordStats()
+                             .build();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the enabled ACLs for the given query strings, grouped by query string. Query strings which are not indexed
+   * yet are fetched with a single call to the loader and indexed before returning.
+   */
+  public Map<String, List<ACL>> getEnabledACLs(
+      Set<String> aclQueryStrings, Function<Set<String>, List<ACL>> enabledACLsLoader) {
+    Map<String, List<ACL>> result = new HashMap<>();
+    Map<String, PrincipalACLs> missingQueryStrings = new HashMap<>();
+    for (String aclQueryString : aclQueryStrings) {
+      PrincipalACLs acls = getPrincipalACLs(getPrincipalKey(aclQueryString));
+      List<ACL> indexed = acls.get(aclQueryString);
+      if (indexed == null) {
+        missingQueryStrings.put(aclQueryString, acls);
+      } else if (!indexed.isEmpty()) {
+        result.put(aclQueryString, indexed);
+      }
+    }
+    if (missingQueryStrings.isEmpty()) {
+      return result;
+    }
+
+    long deletionsBeforeLoad = deletions.get();
+    Map<String, List<ACL>> loaded = groupByQueryString(enabledACLsLoader.apply(missingQueryStrings.keySet()));
+    Map<String, PrincipalACLs> updatedPrincipals = new HashMap<>();
+    missingQueryStrings.forEach((aclQueryString, acls) -> {
+      List<ACL> matching = loaded.getOrDefault(aclQueryString, Collections.emptyList());
+      acls.put(aclQueryString, matching, maximumQueryStringsPerPrincipal);
+      updatedPrincipals.put(getPrincipalKey(aclQueryString), acls);
+      if (!matching.isEmpty()) {
+        result.put(aclQueryString, matching);
+      }
+    });
+    // the weigher only runs when a value is written, so write the grown entries again. Entries which got invalidated
+    // meanwhile are not the same instance any more and stay out.
+    updatedPrincipals.forEach((principalKey, acls) -> principalACLs.asMap().replace(principalKey, acls, acls));
+    if (deletionsBeforeLoad != deletions.get()) {
+      // A deletion ran while loading. It may have missed what we just indexed because the role assignment was not
+      // indexed for these principals yet, so drop them rather than risk serving deleted ACLs.
+      principalACLs.invalidateAll(
+          missingQueryStrings.keySet().stream().map(ACLIndex::getPrincipalKey).collect(Collectors.toSet()));
+    }
+    return result;
+  }
+
+  public void onACLsCreated(Collection<ACL> acls) {
+    if (!enabled || isEmpty(acls)) {
+      return;
+    }
+    HashSet<String> principalKeys = getPrincipalKeys(acls);
+    principalACLs.invalidateAll(principalKeys);
+    publish(principalKeys, null);
+  }
+
+  /**
+   * For ACLs removed without going through their role assignment, like the cleanup of redundant ACLs.
+   */
+  public void onACLsDeleted(Collection<ACL> acls) {
+    if (!enabled || isEmpty(acls)) {
+      return;
+    }
+    HashSet<String> principalKeys = getPrincipalKeys(acls);
+    deletions.incrementAndGet();
+    principalACLs.invalidateAll(principalKeys);
+    publish(principalKeys, null);
+  }
+
+  public void onACLsDeleted(String roleAssignmentId) {
+    if (!enabled) {
+      return;
+    }
+    invalidateRoleAssignment(roleAssignmentId);
+    publish(null, roleAssignmentId);
+  }
+
+  public void invalidateAll() {
+    invalidateAllLocally();
+    if (enabled) {
+      publish(null, null);
+    }
+  }
+
+  /**
+   * Applies an invalidation published by another replica.
+   */
+  public void onInvalidation(ACLIndexInvalidation invalidation) {
+    if (!enabled || sourceId.equals(invalidation.getSourceId())) {
+      return;
+    }
+    if (invalidation.getPrincipalKeys() != null) {
+      deletions.incrementAndGet();
+      principalACLs.invalidateAll(invalidation.getPrincipalKeys());
+    } else if (invalidation.getRoleAssignmentId() != null) {
+      invalidateRoleAssignment(invalidation.getRoleAssignmentId());
+    } else {
+      invalidateAllLocally();
+    }
+  }
+
+  /**
+   * Clears the index without telling the other replicas, e.g. after missing their invalidations.
+   */
+  public void invalidateAllLocally() {
+    deletions.incrementAndGet();
+    principalACLs.invalidateAll();
+  }
+
+  public CacheStats getStats() {
+    return principalACLs.stats();
+  }
+
+  public long getIndexedPrincipals() {
+    return principalACLs.size();
+  }
+
+  @VisibleForTesting
+  static String getPrincipalKey(String aclQueryString) {
+    int principalIdentifierStart = aclQueryString.lastIndexOf(DELIMITER);
+    int principalTypeStart = aclQueryString.lastIndexOf(DELIMITER, principalIdentifierStart - 1);
+    return aclQueryString.substring(principalTypeStart + 1);
+  }
+
+  private static String getPrincipalKey(String principalType, String principalIdentifier) {
+    return principalType + DELIMITER + principalIdentifier;
+  }
+
+  private static HashSet<String> getPrincipalKeys(Collection<ACL> acls) {
+    HashSet<String> principalKeys = new HashSet<>();
+    for (ACL acl : acls) {
+      principalKeys.add(getPrincipalKey(acl.getPrincipalType(), acl.getPrincipalIdentifier()));
+    }
+    return principalKeys;
+  }
+
+  private void invalidateRoleAssignment(String roleAssignmentId) {
+    deletions.incrementAndGet();
+    principalACLs.asMap().values().removeIf(acls -> acls.hasRoleAssignment(roleAssignmentId));
+  }
+
+  private void publish(HashSet<String> principalKeys, String roleAssignmentId) {
+    try {
+      invalidationPublisher.publish(
+          new ACLIndexInvalidation(sourceId, System.currentTimeMillis(), principalKeys, roleAssignmentId));
+    } catch (Exception e) {
+      // the other replicas pick the change up once their entries expire
+      log.error("Failed to publish the ACL index invalidation", e);
+    }
+  }
+
+  private PrincipalACLs getPrincipalACLs(String principalKey) {
+    // A removal racing with this lookup leaves the caller with a detached instance, whatever is loaded into it is
+    // simply never seen again. This is what keeps a load which started before an invalidation from being indexed.
+    PrincipalACLs acls = principalACLs.getIfPresent(principalKey);
+    if (acls == null) {
+      acls = principalACLs.asMap().computeIfAbsent(principalKey, key -> new PrincipalACLs());
+    }
+    return acls;
+  }
+
+  private static Map<String, List<ACL>> groupByQueryString(List<ACL> acls) {
+    Map<String, List<ACL>> aclsByQueryString = new HashMap<>();
+    for (ACL acl : acls) {
+      aclsByQueryString.computeIfAbsent(acl.getAclQueryString(), key -> new ArrayList<>()).add(acl);
+    }
+    return aclsByQueryString;
+  }
+
+  private static class PrincipalACLs {
+    private final Map<String, List<ACL>> aclsByQueryString = new ConcurrentHashMap<>();
+    private final Set<String> roleAssignmentIds = ConcurrentHashMap.newKeySet();
+
+    List<ACL> get(String aclQueryString) {
+      return aclsByQueryString.get(aclQueryString);
+    }
+
+    void put(String aclQueryString, List<ACL> acls, int maximumQueryStrings) {
+      if (aclsByQueryString.size() >= maximumQueryStrings) {
+        // this principal touched more distinct query strings than we want to hold, start over instead of tracking
+        // recency per query string
+        aclsByQueryString.clear();
+      }
+      for (ACL acl : acls) {
+        if (acl.getRoleAssignmentId() != null) {
+          roleAssignmentIds.add(acl.getRoleAssignmentId());
+        }
+      }
+      aclsByQueryString.put(aclQueryString, acls);
+    }
+
+    boolean hasRoleAssignment(String roleAssignmentId) {
+      return roleAssignmentIds.contains(roleAssignmentId);
+    }
+
+    int getWeight() {
+      int weight = 1;
+      for (List<ACL> acls : aclsByQueryString.values()) {
+        weight += 1 + acls.size();
+      }
+      return weight;
+    }
+  }
+}
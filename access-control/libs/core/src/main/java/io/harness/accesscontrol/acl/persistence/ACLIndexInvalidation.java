@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.acl.persistence;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import lombok.Value;
+
+/**
+ * Published after an ACL write on one replica, so that the ACL indexes of the other replicas drop what it changed.
+ * When neither principalKeys nor roleAssignmentId is set the whole index is cleared.
+ */
+@OwnedBy(PL)
+@Value
+public class ACLIndexInvalidation implements Serializable {
+  // identifies the publishing replica, which invalidated its own index already
+  String sourceId;
+  long publishedAt;
+  HashSet<String> principalKeys;
+  String roleAssignmentId;
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.acl.persistence;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+/**
+ * Sends the invalidations of the local {@link ACLIndex} to the other replicas, which apply them through
+ * {@link ACLIndex#onInvalidation(ACLIndexInvalidation)}.
+ */
+@OwnedBy(PL)
+public interface ACLIndexInvalidationPublisher {
+  void publish(ACLIndexInvalidation invalidation);
+}
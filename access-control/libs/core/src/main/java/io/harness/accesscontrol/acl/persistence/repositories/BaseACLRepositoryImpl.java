@@ -18,6 +18,7 @@ import static org.springframework.data.mongodb.util.MongoDbErrorCodes.isDuplicat
 
 import io.harness.accesscontrol.acl.persistence.ACL;
 import io.harness.accesscontrol.acl.persistence.ACL.ACLKeys;
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
 import io.harness.accesscontrol.resources.resourcegroups.ResourceSelector;
 import io.harness.accesscontrol.resources.resourcegroups.ResourceSelector.ResourceSelectorKeys;
 import io.harness.annotations.dev.OwnedBy;
@@ -60,10 +61,21 @@ import org.springframework.data.mongodb.core.query.Query;
 @ValidateOnExecution
 public abstract class BaseACLRepositoryImpl implements ACLRepository {
   protected final MongoTemplate mongoTemplate;
+  protected final ACLIndex aclIndex;
 
   protected abstract String getCollectionName();
 
   public long insertAllIgnoringDuplicates(List<ACL> acls) {
+    try {
+      return insertAllIgnoringDuplicatesInternal(acls);
+    } finally {
+      if (isIndexed()) {
+        aclIndex.onACLsCreated(acls);
+      }
+    }
+  }
+
+  private long insertAllIgnoringDuplicatesInternal(List<ACL> acls) {
     try {
       if (isEmpty(acls)) {
         return 0;
@@ -91,21 +103,25 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
 
   @Override
   public long deleteByRoleAssignmentId(String id) {
-    return mongoTemplate
+    long deleted = mongoTemplate
         .remove(new Query(Criteria.where(ACLKeys.roleAssignmentId).is(id)), ACL.class, getCollectionName())
         .getDeletedCount();
+    onACLsDeleted(id);
+    return deleted;
   }
 
   @Override
   public long deleteByScopeIdentifierAndRoleAssignmentIdentifier(
       String scopeIdentifier, String roleAssignmentIdentifier) {
-    return mongoTemplate
+    long deleted = mongoTemplate
         .remove(new Query(Criteria.where(ACLKeys.scopeIdentifier)
                               .is(scopeIdentifier)
                               .and(ACL.ROLE_ASSIGNMENT_IDENTIFIER_KEY)
                               .is(roleAssignmentIdentifier)),
             ACL.class, getCollectionName())
         .getDeletedCount();
+    invalidateIndex();
+    return deleted;
   }
 
   @Override
@@ -154,7 +170,9 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
                                                          .is(resourceSelector.getCondition()))
                                               .toArray(Criteria[] ::new);
     criteria.orOperator(resourceSelectorCriteria);
-    return mongoTemplate.remove(new Query(criteria), ACL.class, getCollectionName()).getDeletedCount();
+    long deleted = mongoTemplate.remove(new Query(criteria), ACL.class, getCollectionName()).getDeletedCount();
+    onACLsDeleted(roleAssignmentId);
+    return deleted;
   }
 
   @Override
@@ -162,13 +180,15 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
     if (isEmpty(permissions)) {
       return 0;
     }
-    return mongoTemplate
+    long deleted = mongoTemplate
         .remove(new Query(Criteria.where(ACLKeys.roleAssignmentId)
                               .is(roleAssignmentId)
                               .and(ACLKeys.permissionIdentifier)
                               .in(permissions)),
             ACL.class, getCollectionName())
         .getDeletedCount();
+    onACLsDeleted(roleAssignmentId);
+    return deleted;
   }
 
   @Override
@@ -176,24 +196,28 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
     if (isEmpty(principals)) {
       return 0;
     }
-    return mongoTemplate
+    long deleted = mongoTemplate
         .remove(new Query(Criteria.where(ACLKeys.roleAssignmentId)
                               .is(roleAssignmentId)
                               .and(ACLKeys.principalIdentifier)
                               .in(principals)),
             ACL.class, getCollectionName())
         .getDeletedCount();
+    onACLsDeleted(roleAssignmentId);
+    return deleted;
   }
 
   @Override
   public long deleteByRoleAssignmentIdAndImplicitForScope(String roleAssignmentId) {
-    return mongoTemplate
+    long deleted = mongoTemplate
         .remove(new Query(Criteria.where(ACLKeys.roleAssignmentId)
                               .is(roleAssignmentId)
                               .and(ACL.IMPLICITLY_CREATED_FOR_SCOPE_ACCESS_KEY)
                               .is(true)),
             ACL.class, getCollectionName())
         .getDeletedCount();
+    onACLsDeleted(roleAssignmentId);
+    return deleted;
   }
 
   @Override
@@ -216,7 +240,11 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
   @Override
   public List<ACL> getByAclQueryStringInAndEnabled(Collection<String> aclQueries, boolean enabled) {
     Query query = new Query(Criteria.where(ACLKeys.aclQueryString).in(aclQueries).and(ACLKeys.enabled).is(enabled));
-    query.fields().include(ACLKeys.aclQueryString).include(ACLKeys.condition).include(ACLKeys.conditional);
+    query.fields()
+        .include(ACLKeys.aclQueryString)
+        .include(ACLKeys.condition)
+        .include(ACLKeys.conditional)
+        .include(ACLKeys.roleAssignmentId);
     return mongoTemplate.find(query, ACL.class);
   }
 
@@ -233,6 +261,7 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
     mongoTemplate.createCollection(getCollectionName());
     List<IndexModel> indexModels = ACL.mongoIndexes().stream().map(this::buildIndexModel).collect(Collectors.toList());
     mongoTemplate.getCollection(getCollectionName()).createIndexes(indexModels);
+    invalidateIndex();
   }
 
   @Override
@@ -240,6 +269,25 @@ public abstract class BaseACLRepositoryImpl implements ACLRepository {
     MongoNamespace mongoNamespace = new MongoNamespace(mongoTemplate.getDb().getName(), newCollectionName);
     mongoTemplate.getCollection(getCollectionName())
         .renameCollection(mongoNamespace, new RenameCollectionOptions().dropTarget(true));
+    if (isIndexed() || ACL.PRIMARY_COLLECTION.equals(newCollectionName)) {
+      aclIndex.invalidateAll();
+    }
+  }
+
+  private boolean isIndexed() {
+    return ACL.PRIMARY_COLLECTION.equals(getCollectionName());
+  }
+
+  private void onACLsDeleted(String roleAssignmentId) {
+    if (isIndexed()) {
+      aclIndex.onACLsDeleted(roleAssignmentId);
+    }
+  }
+
+  private void invalidateIndex() {
+    if (isIndexed()) {
+      aclIndex.invalidateAll();
+    }
   }
 
   private IndexModel buildIndexModel(MongoIndex mongoIndex) {
@@ -17,9 +17,11 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.harness.accesscontrol.AccessControlCoreTestBase;
+import io.harness.accesscontrol.acl.ACLIndexConfiguration;
 import io.harness.accesscontrol.acl.PermissionCheck;
 import io.harness.accesscontrol.acl.api.Principal;
 import io.harness.accesscontrol.acl.persistence.ACLDAOImpl;
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
 import io.harness.accesscontrol.acl.persistence.repositories.ACLRepository;
 import io.harness.accesscontrol.principals.PrincipalType;
 import io.harness.accesscontrol.scopes.core.ScopeLevel;
@@ -49,7 +51,8 @@ public class ACLDAOImplTest extends AccessControlCoreTestBase {
   @Owner(developers = ASHISHSANODIA)
   @Category(UnitTests.class)
   public void testOnlyEnabledACLMatch() {
-    aclDaoImpl = new ACLDAOImpl(aclRepository, scopeLevels);
+    aclDaoImpl = new ACLDAOImpl(aclRepository,
+        new ACLIndex(ACLIndexConfiguration.builder().enabled(false).build(), invalidation -> {}), scopeLevels);
     Principal principal = Principal.of(PrincipalType.USER, randomAlphabetic(10));
     List<PermissionCheck> permissionChecks = new ArrayList<>();
     permissionChecks.add(PermissionCheck.builder().resourceType("user").permission("core_user_view").build());
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.persistence;
+
+import static io.harness.accesscontrol.acl.persistence.ACL.getAclQueryString;
+import static io.harness.rule.OwnerRule.ASHISHSANODIA;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.harness.accesscontrol.AccessControlCoreTestBase;
+import io.harness.accesscontrol.acl.ACLIndexConfiguration;
+import io.harness.accesscontrol.acl.PermissionCheck;
+import io.harness.accesscontrol.acl.api.Principal;
+import io.harness.accesscontrol.acl.persistence.ACL;
+import io.harness.accesscontrol.acl.persistence.ACLDAOImpl;
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidation;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidationPublisher;
+import io.harness.accesscontrol.acl.persistence.repositories.ACLRepository;
+import io.harness.accesscontrol.principals.PrincipalType;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import com.google.common.collect.Sets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+
+@Slf4j
+public class ACLIndexTest extends AccessControlCoreTestBase {
+  private static final String SCOPE = "/ACCOUNT/account";
+  private static final String PERMISSION = "core_pipeline_view";
+
+  private ACLIndex aclIndex;
+  private ACLIndexInvalidationPublisher invalidationPublisher;
+  private List<ACL> enabledACLs;
+  private Function<Set<String>, List<ACL>> loader;
+
+  @Before
+  public void setup() {
+    invalidationPublisher = mock(ACLIndexInvalidationPublisher.class);
+    aclIndex = new ACLIndex(ACLIndexConfiguration.builder().enabled(true).build(), invalidationPublisher);
+    enabledACLs = new ArrayList<>();
+    loader = mock(Function.class);
+    when(loader.apply(any())).thenAnswer(invocation -> {
+      Collection<String> queryStrings = invocation.getArgument(0);
+      return enabledACLs.stream()
+          .filter(acl -> queryStrings.contains(acl.getAclQueryString()))
+          .collect(Collectors.toList());
+    });
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldIndexPresentAndAbsentQueryStrings() {
+    ACL acl = acl("user1", "/PIPELINE/*", "ra1");
+    enabledACLs.add(acl);
+    String absent = getAclQueryString(SCOPE, "/*/*", "USER", "user1", PERMISSION);
+    Set<String> queryStrings = Sets.newHashSet(acl.getAclQueryString(), absent);
+
+    Map<String, List<ACL>> first = aclIndex.getEnabledACLs(queryStrings, loader);
+    Map<String, List<ACL>> second = aclIndex.getEnabledACLs(queryStrings, loader);
+
+    assertThat(first).containsOnlyKeys(acl.getAclQueryString());
+    assertThat(second).isEqualTo(first);
+    verify(loader, times(1)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldInvalidatePrincipalOnCreatedACLs() {
+    ACL acl = acl("user1", "/PIPELINE/*", "ra1");
+    Set<String> queryStrings = Collections.singleton(acl.getAclQueryString());
+    assertThat(aclIndex.getEnabledACLs(queryStrings, loader)).isEmpty();
+
+    enabledACLs.add(acl);
+    aclIndex.onACLsCreated(Collections.singletonList(acl));
+
+    assertThat(aclIndex.getEnabledACLs(queryStrings, loader)).containsOnlyKeys(acl.getAclQueryString());
+    verify(loader, times(2)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldInvalidateOnlyPrincipalsHavingDeletedRoleAssignment() {
+    ACL user1ACL = acl("user1", "/PIPELINE/*", "ra1");
+    ACL user2ACL = acl("user2", "/PIPELINE/*", "ra2");
+    enabledACLs.add(user1ACL);
+    enabledACLs.add(user2ACL);
+    aclIndex.getEnabledACLs(Collections.singleton(user1ACL.getAclQueryString()), loader);
+    aclIndex.getEnabledACLs(Collections.singleton(user2ACL.getAclQueryString()), loader);
+
+    enabledACLs.remove(user1ACL);
+    aclIndex.onACLsDeleted("ra1");
+
+    assertThat(aclIndex.getEnabledACLs(Collections.singleton(user1ACL.getAclQueryString()), loader)).isEmpty();
+    assertThat(aclIndex.getEnabledACLs(Collections.singleton(user2ACL.getAclQueryString()), loader))
+        .containsOnlyKeys(user2ACL.getAclQueryString());
+    verify(loader, times(3)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldShareAllAuthenticatedUsersEntries() {
+    ACL acl = acl(ACLDAOImpl.ALL_AUTHENTICATED_USERS, "/PIPELINE/p1", "ra1");
+    enabledACLs.add(acl);
+    aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader);
+
+    aclIndex.onACLsCreated(Collections.singletonList(acl("user1", "/PIPELINE/*", "ra2")));
+
+    assertThat(aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader))
+        .containsOnlyKeys(acl.getAclQueryString());
+    verify(loader, times(1)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldApplyInvalidationsOfOtherReplicas() {
+    ACL acl = acl("user1", "/PIPELINE/*", "ra1");
+    enabledACLs.add(acl);
+    aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader);
+    ACLIndex otherReplica =
+        new ACLIndex(ACLIndexConfiguration.builder().enabled(true).build(), aclIndex::onInvalidation);
+
+    enabledACLs.remove(acl);
+    otherReplica.onACLsDeleted(Collections.singletonList(acl));
+
+    assertThat(aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader)).isEmpty();
+    verify(loader, times(2)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldPublishButIgnoreOwnInvalidations() {
+    ACL acl = acl("user1", "/PIPELINE/*", "ra1");
+    enabledACLs.add(acl);
+    aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader);
+    ArgumentCaptor<ACLIndexInvalidation> invalidationCaptor = ArgumentCaptor.forClass(ACLIndexInvalidation.class);
+
+    aclIndex.onACLsDeleted("ra2");
+    verify(invalidationPublisher).publish(invalidationCaptor.capture());
+    assertThat(invalidationCaptor.getValue().getRoleAssignmentId()).isEqualTo("ra2");
+    aclIndex.onInvalidation(new ACLIndexInvalidation(
+        invalidationCaptor.getValue().getSourceId(), System.currentTimeMillis(), null, null));
+
+    assertThat(aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader))
+        .containsOnlyKeys(acl.getAclQueryString());
+    verify(loader, times(1)).apply(any());
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldBoundIndexByWeight() {
+    aclIndex =
+        new ACLIndex(ACLIndexConfiguration.builder().enabled(true).maximumWeight(50).build(), invalidationPublisher);
+    for (int i = 0; i < 20; i++) {
+      ACL acl = acl("user" + i, "/PIPELINE/*", "ra" + i);
+      enabledACLs.add(acl);
+      aclIndex.getEnabledACLs(Collections.singleton(acl.getAclQueryString()), loader);
+    }
+
+    // every principal weighs 3, one for itself, one for its query string and one for its ACL
+    assertThat(aclIndex.getIndexedPrincipals()).isLessThanOrEqualTo(50 / 3);
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(StressTests.class)
+  @Ignore("This is an access check benchmark, we should ignore it to allow for simple run of unit tests")
+  public void accessCheckPerformance() {
+    int users = 1000;
+    int checks = 200000;
+    List<ACL> acls = new ArrayList<>();
+    for (int i = 0; i < users; i++) {
+      // permission checks without a resource scope look up query strings with an empty scope
+      acls.add(acl("", "user" + i, "/PIPELINE/*", "ra" + i));
+    }
+    Map<String, List<ACL>> aclsByQueryString = acls.stream().collect(Collectors.groupingBy(ACL::getAclQueryString));
+    AtomicLong repositoryCalls = new AtomicLong();
+    ACLRepository aclRepository = mock(ACLRepository.class, withSettings().stubOnly());
+    when(aclRepository.getByAclQueryStringInAndEnabled(any(), anyBoolean())).thenAnswer(invocation -> {
+      repositoryCalls.incrementAndGet();
+      Collection<String> queryStrings = invocation.getArgument(0);
+      List<ACL> result = new ArrayList<>();
+      for (String queryString : queryStrings) {
+        result.addAll(aclsByQueryString.getOrDefault(queryString, Collections.emptyList()));
+      }
+      return result;
+    });
+    List<PermissionCheck> permissionChecks = Collections.singletonList(
+        PermissionCheck.builder().resourceType("PIPELINE").resourceIdentifier("p1").permission(PERMISSION).build());
+
+    for (boolean enabled : new boolean[] {false, true}) {
+      ACLDAOImpl aclDAO = new ACLDAOImpl(
+          aclRepository,
+          new ACLIndex(ACLIndexConfiguration.builder().enabled(enabled).build(), invalidation -> {}), new HashMap<>());
+      long start = System.nanoTime();
+      for (int i = 0; i < checks; i++) {
+        aclDAO.getMatchingACLs(Principal.of(PrincipalType.USER, "user" + (i % users)), permissionChecks);
+      }
+      long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1000000);
+      log.info("Index enabled {}: {} checks in {} ms, {} checks per second, {} repository calls", enabled,
+          checks, elapsedMillis, checks * 1000 / elapsedMillis,
+          repositoryCalls.getAndSet(0));
+    }
+  }
+
+  private static ACL acl(String principalIdentifier, String resourceSelector, String roleAssignmentId) {
+    return acl(SCOPE, principalIdentifier, resourceSelector, roleAssignmentId);
+  }
+
+  private static ACL acl(String scope, String principalIdentifier, String resourceSelector, String roleAssignmentId) {
+    return ACL.builder()
+        .roleAssignmentId(roleAssignmentId)
+        .principalType("USER")
+        .principalIdentifier(principalIdentifier)
+        .aclQueryString(getAclQueryString(scope, resourceSelector, "USER", principalIdentifier, PERMISSION))
+        .enabled(true)
+        .build();
+  }
+}
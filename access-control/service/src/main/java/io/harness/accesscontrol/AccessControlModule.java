@@ -27,10 +27,13 @@ import static io.harness.eventsframework.EventsFrameworkConstants.USERMEMBERSHIP
 import static io.harness.lock.DistributedLockImplementation.REDIS;
 
 import io.harness.AccessControlClientModule;
+import io.harness.accesscontrol.acl.ACLIndexConfiguration;
+import io.harness.accesscontrol.acl.RedisACLIndexInvalidationPublisher;
 import io.harness.accesscontrol.acl.ResourceAttributeProvider;
 import io.harness.accesscontrol.acl.api.ACLResource;
 import io.harness.accesscontrol.acl.api.ACLResourceImpl;
 import io.harness.accesscontrol.acl.api.ResourceAttributeProviderImpl;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidationPublisher;
 import io.harness.accesscontrol.admin.api.AccessControlAdminResource;
 import io.harness.accesscontrol.admin.api.AccessControlAdminResourceImpl;
 import io.harness.accesscontrol.aggregator.api.AggregatorResource;
@@ -152,6 +155,7 @@ import com.google.inject.Singleton;
 import com.google.inject.TypeLiteral;
 import com.google.inject.multibindings.MapBinder;
 import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.OptionalBinder;
 import com.google.inject.name.Named;
 import com.google.inject.name.Names;
 import java.time.Duration;
@@ -431,5 +435,15 @@ public class AccessControlModule extends AbstractModule {
     bind(Integer.class)
         .annotatedWith(Names.named("batchSizeForACLCreation"))
         .toInstance(config.getBatchSizeForACLCreation());
+    if (config.getAclIndexConfiguration() != null) {
+      OptionalBinder.newOptionalBinder(binder(), ACLIndexConfiguration.class)
+          .setBinding()
+          .toInstance(config.getAclIndexConfiguration());
+      if (config.getAclIndexConfiguration().isEnabled() && config.getEventsConfig().isEnabled()) {
+        OptionalBinder.newOptionalBinder(binder(), ACLIndexInvalidationPublisher.class)
+            .setBinding()
+            .to(RedisACLIndexInvalidationPublisher.class);
+      }
+    }
   }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.acl;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidation;
+import io.harness.accesscontrol.acl.persistence.ACLIndexInvalidationPublisher;
+import io.harness.accesscontrol.commons.events.EventsConfig;
+import io.harness.annotations.dev.OwnedBy;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+
+/**
+ * Broadcasts the ACL index invalidations to every access control replica over a topic of the events framework redis.
+ */
+@OwnedBy(PL)
+@Singleton
+@Slf4j
+public class RedisACLIndexInvalidationPublisher implements ACLIndexInvalidationPublisher {
+  static final String TOPIC_NAME = "aclIndex/invalidations";
+
+  private final RTopic topic;
+
+  @Inject
+  public RedisACLIndexInvalidationPublisher(@Named("eventsFrameworkRedissonClient") RedissonClient redissonClient,
+      @Named("eventsConfig") EventsConfig eventsConfig, Provider<ACLIndex> aclIndexProvider) {
+    String envNamespace = eventsConfig.getRedisConfig().getEnvNamespace();
+    this.topic =
+        redissonClient.getTopic(isEmpty(envNamespace) ? TOPIC_NAME : envNamespace.concat(":").concat(TOPIC_NAME));
+    topic.addListener(
+        ACLIndexInvalidation.class, (channel, invalidation) -> aclIndexProvider.get().onInvalidation(invalidation));
+    topic.addListener(new BaseStatusListener() {
+      @Override
+      public void onSubscribe(String channel) {
+        // invalidations published while we were not subscribed are lost
+        aclIndexProvider.get().invalidateAllLocally();
+      }
+    });
+  }
+
+  @Override
+  public void publish(ACLIndexInvalidation invalidation) {
+    topic.publish(invalidation);
+  }
+}
@@ -20,6 +20,7 @@ import static org.springframework.data.mongodb.core.query.Criteria.where;
 
 import io.harness.accesscontrol.acl.persistence.ACL;
 import io.harness.accesscontrol.acl.persistence.ACL.ACLKeys;
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
 import io.harness.accesscontrol.acl.persistence.ACLOptimizationMigrationOffset;
 import io.harness.accesscontrol.acl.persistence.ACLOptimizationMigrationOffset.ACLOptimizationMigrationOffsetKey;
 import io.harness.accesscontrol.acl.persistence.RemoveRedundantACLJobState;
@@ -35,6 +36,8 @@ import io.harness.security.dto.ServicePrincipal;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.BulkOperations;
@@ -53,14 +56,16 @@ public class RemoveRedundantACLJob implements Runnable {
   private final MongoTemplate mongoTemplate;
   private final PersistentLocker persistentLocker;
   private final InMemoryPermissionRepository inMemoryPermissionRepository;
+  private final ACLIndex aclIndex;
   private static final String LOCK_NAME = "RemoveRedundantACLJob";
 
   @Inject
   public RemoveRedundantACLJob(MongoTemplate mongoTemplate, PersistentLocker persistentLocker,
-      InMemoryPermissionRepository inMemoryPermissionRepository) {
+      InMemoryPermissionRepository inMemoryPermissionRepository, ACLIndex aclIndex) {
     this.mongoTemplate = mongoTemplate;
     this.persistentLocker = persistentLocker;
     this.inMemoryPermissionRepository = inMemoryPermissionRepository;
+    this.aclIndex = aclIndex;
   }
 
   @Override
@@ -100,6 +105,7 @@ public class RemoveRedundantACLJob implements Runnable {
         String offset = null;
         int totalRemoved = 0;
         BulkOperations bulkOperations = mongoTemplate.bulkOps(UNORDERED, ACL.class);
+        List<ACL> removedACLs = new ArrayList<>();
 
         while (iterator.hasNext()) {
           ACL acl = iterator.next();
@@ -109,6 +115,7 @@ public class RemoveRedundantACLJob implements Runnable {
           Query query = new Query();
           query.addCriteria(where(ACLKeys.id).is(acl.getId()));
           bulkOperations.remove(query);
+          removedACLs.add(acl);
 
           totalRemoved++;
 
@@ -116,6 +123,7 @@ public class RemoveRedundantACLJob implements Runnable {
           if (totalRemoved % BATCH_SIZE == 0) {
             log.info(DEBUG_MESSAGE + "Removing disabled ACLs. total: {}, removed: {}", bulkOperations.execute(),
                 totalRemoved);
+            onACLsRemoved(removedACLs);
 
             // Reset bulkOperations for the next batch
             bulkOperations = mongoTemplate.bulkOps(UNORDERED, ACL.class);
@@ -132,6 +140,7 @@ public class RemoveRedundantACLJob implements Runnable {
         if (totalRemoved % BATCH_SIZE != 0) {
           log.info(
               DEBUG_MESSAGE + "Removing disabled ACLs. total: {}, removed: {}", bulkOperations.execute(), totalRemoved);
+          onACLsRemoved(removedACLs);
         }
 
         // Update the offset
@@ -146,6 +155,7 @@ public class RemoveRedundantACLJob implements Runnable {
         String offset = null;
         int totalRemoved = 0;
         BulkOperations bulkOperations = mongoTemplate.bulkOps(UNORDERED, ACL.class);
+        List<ACL> removedACLs = new ArrayList<>();
 
         while (iterator.hasNext()) {
           ACL acl = iterator.next();
@@ -156,12 +166,14 @@ public class RemoveRedundantACLJob implements Runnable {
           if (!inMemoryPermissionRepository.isPermissionCompatibleWithResourceSelector(
                   acl.getPermissionIdentifier(), acl.getResourceSelector())) {
             bulkOperations.remove(query);
+            removedACLs.add(acl);
             totalRemoved++;
           }
 
           if (totalRemoved != 0 && totalRemoved % BATCH_SIZE == 0) {
             log.info(DEBUG_MESSAGE + "Removing redundant ACLs. total: {}, removed: {}", bulkOperations.execute(),
                 totalRemoved);
+            onACLsRemoved(removedACLs);
             bulkOperations = mongoTemplate.bulkOps(UNORDERED, ACL.class);
 
             updateOffset(offset);
@@ -172,6 +184,7 @@ public class RemoveRedundantACLJob implements Runnable {
         if (totalRemoved % BATCH_SIZE != 0) {
           log.info(DEBUG_MESSAGE + "Removing redundant ACLs. total: {}, removed: {}", bulkOperations.execute(),
               totalRemoved);
+          onACLsRemoved(removedACLs);
         }
 
         if (offset != null) {
@@ -185,6 +198,12 @@ public class RemoveRedundantACLJob implements Runnable {
     }
   }
 
+  private void onACLsRemoved(List<ACL> removedACLs) {
+    // the bulk removals bypass the ACL repository, so the ACL index has to be told directly
+    aclIndex.onACLsDeleted(removedACLs);
+    removedACLs.clear();
+  }
+
   private void updateOffset(String lastProcessedAclId) {
     Update update = new Update().set(RemoveRedundantACLJobStateKey.offset, lastProcessedAclId);
     mongoTemplate.findAndModify(new Query(), update, RemoveRedundantACLJobState.class);
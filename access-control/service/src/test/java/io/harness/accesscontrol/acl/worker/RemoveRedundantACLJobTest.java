@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import io.harness.accesscontrol.AccessControlTestBase;
 import io.harness.accesscontrol.acl.persistence.ACL;
 import io.harness.accesscontrol.acl.persistence.ACL.ACLKeys;
+import io.harness.accesscontrol.acl.persistence.ACLIndex;
 import io.harness.accesscontrol.acl.persistence.ACLOptimizationMigrationOffset;
 import io.harness.accesscontrol.acl.persistence.RemoveRedundantACLJobState;
 import io.harness.accesscontrol.acl.persistence.repositories.ACLRepository;
@@ -62,6 +63,7 @@ public class RemoveRedundantACLJobTest extends AccessControlTestBase {
 
   @Inject private MongoTemplate mongoTemplate;
   @Inject @Named(ACL.PRIMARY_COLLECTION) private ACLRepository aclRepository;
+  @Inject private ACLIndex aclIndex;
   @Mock private PersistentLocker persistentLocker;
   private InMemoryPermissionRepository inMemoryPermissionRepository;
   private RemoveRedundantACLJob removeRedundantACLJob;
@@ -88,7 +90,8 @@ public class RemoveRedundantACLJobTest extends AccessControlTestBase {
         ResourceTypeDBO.builder().identifier(SERVICE_RESOURCE_IDENTIFIER).permissionKey(SERVICE_RESOURCE_NAME).build());
     inMemoryPermissionRepository =
         new InMemoryPermissionRepository(mongoTemplate, of("ccm_perspective_view", Set.of("CCM_FOLDER")));
-    removeRedundantACLJob = new RemoveRedundantACLJob(mongoTemplate, persistentLocker, inMemoryPermissionRepository);
+    removeRedundantACLJob =
+        new RemoveRedundantACLJob(mongoTemplate, persistentLocker, inMemoryPermissionRepository, aclIndex);
   }
 
   @Test
@@ -96,6 +96,10 @@ if [[ "" != "$DISABLE_BATCH_JOBS_IN_CG" ]]; then
   export DISABLE_BATCH_JOBS_IN_CG; yq -i '.batchQueryConfig.disableBatchJobsInCG=env(DISABLE_BATCH_JOBS_IN_CG)' $CONFIG_FILE
 fi
 
+if [[ "" != "$BILLING_DATA_COPY_ENABLED" ]]; then
+  export BILLING_DATA_COPY_ENABLED; yq -i '.batchQueryConfig.billingDataCopyEnabled=env(BILLING_DATA_COPY_ENABLED)' $CONFIG_FILE
+fi
+
 if [[ "" != "$BULK_OPERATION_QUERY_BATCH_SIZE" ]]; then
   export BULK_OPERATION_QUERY_BATCH_SIZE; yq -i '.bulkOperationBatchQueryConfig.queryBatchSize=env(BULK_OPERATION_QUERY_BATCH_SIZE)' $CONFIG_FILE
 fi
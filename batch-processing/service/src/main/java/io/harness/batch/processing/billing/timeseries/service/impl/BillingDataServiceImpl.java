@@ -13,6 +13,7 @@ import static com.google.common.base.Preconditions.checkState;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.batch.processing.billing.timeseries.data.InstanceBillingData;
+import io.harness.batch.processing.billing.timeseries.service.support.BillingDataCopyWriter;
 import io.harness.batch.processing.billing.timeseries.service.support.BillingDataTableNameProvider;
 import io.harness.batch.processing.ccm.ActualIdleCostWriterData;
 import io.harness.batch.processing.ccm.BatchJobType;
@@ -25,8 +26,10 @@ import io.harness.timescaledb.TimeScaleDBService;
 
 import software.wings.graphql.datafetcher.ce.recommendation.entity.Cost;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Singleton;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -42,6 +45,8 @@ import java.util.Objects;
 import java.util.Optional;
 import javax.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -57,9 +62,20 @@ public class BillingDataServiceImpl {
   private static final int MAX_RETRY_COUNT = 2;
   private static final int DELETE_MAX_RETRY_COUNT = 5;
   private static final int SELECT_MAX_RETRY_COUNT = 5;
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
   static final String INSERT_STATEMENT =
       "INSERT INTO %s (STARTTIME, ENDTIME, ACCOUNTID, INSTANCETYPE, BILLINGACCOUNTID, BILLINGAMOUNT, CPUBILLINGAMOUNT, MEMORYBILLINGAMOUNT, USAGEDURATIONSECONDS, INSTANCEID, CLUSTERNAME, CLUSTERID, SETTINGID,  SERVICEID, APPID, CLOUDPROVIDERID, ENVID, CPUUNITSECONDS, MEMORYMBSECONDS, PARENTINSTANCEID, REGION, LAUNCHTYPE, CLUSTERTYPE, CLOUDPROVIDER, WORKLOADNAME, WORKLOADTYPE, NAMESPACE, CLOUDSERVICENAME, TASKID, IDLECOST, CPUIDLECOST, MEMORYIDLECOST, MAXCPUUTILIZATION, MAXMEMORYUTILIZATION, AVGCPUUTILIZATION, AVGMEMORYUTILIZATION, SYSTEMCOST, CPUSYSTEMCOST, MEMORYSYSTEMCOST, ACTUALIDLECOST, CPUACTUALIDLECOST, MEMORYACTUALIDLECOST, UNALLOCATEDCOST, CPUUNALLOCATEDCOST, MEMORYUNALLOCATEDCOST, INSTANCENAME, CPUREQUEST, MEMORYREQUEST, CPULIMIT, MEMORYLIMIT, MAXCPUUTILIZATIONVALUE, MAXMEMORYUTILIZATIONVALUE, AVGCPUUTILIZATIONVALUE, AVGMEMORYUTILIZATIONVALUE, NETWORKCOST, PRICINGSOURCE, STORAGEACTUALIDLECOST, STORAGEUNALLOCATEDCOST, STORAGEUTILIZATIONVALUE, STORAGEREQUEST, STORAGEMBSECONDS, STORAGECOST, MAXSTORAGEUTILIZATIONVALUE, MAXSTORAGEREQUEST, ORGIDENTIFIER, PROJECTIDENTIFIER, USAGESTARTTIME, USAGESTOPTIME) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?) ON CONFLICT DO NOTHING";
 
+  // Rows are cleared on commit, the table itself lives as long as the pooled connection
+  static final String CREATE_STAGING_TABLE_STATEMENT = "CREATE TEMP TABLE IF NOT EXISTS BILLING_DATA_STAGING ("
+      + BillingDataCopyWriter.COLUMN_DEFINITIONS + ") ON COMMIT DELETE ROWS";
+
+  static final String COPY_STAGING_STATEMENT =
+      "COPY BILLING_DATA_STAGING (" + BillingDataCopyWriter.COLUMNS + ") FROM STDIN (FORMAT BINARY)";
+
+  static final String MERGE_STAGING_STATEMENT = "INSERT INTO %s (" + BillingDataCopyWriter.COLUMNS + ") SELECT "
+      + BillingDataCopyWriter.COLUMNS + " FROM BILLING_DATA_STAGING ON CONFLICT DO NOTHING";
+
   static final String UPDATE_STATEMENT =
       "UPDATE %s SET ACTUALIDLECOST = ?, CPUACTUALIDLECOST = ?, MEMORYACTUALIDLECOST = ?, UNALLOCATEDCOST = ?, CPUUNALLOCATEDCOST = ?, MEMORYUNALLOCATEDCOST = ? WHERE ACCOUNTID = ? AND CLUSTERID = ? AND INSTANCEID = ? AND STARTTIME = ?";
 
@@ -90,6 +106,17 @@ public class BillingDataServiceImpl {
   private static final String READER_QUERY =
       "SELECT * FROM %s WHERE ACCOUNTID = '%s' AND STARTTIME >= '%s' AND STARTTIME < '%s' ORDER BY accountid, clusterid, instanceid OFFSET %s LIMIT %s;";
 
+  // Unique key of a billing data row within an account. The unique index tells NULL and '' apart, so the nullable
+  // columns compare by whether they are null first and coalesced after, which also keeps NULL out of the row compare
+  private static final String KEYSET_COLUMNS = "STARTTIME, INSTANCEID, INSTANCETYPE, (CLUSTERID IS NULL), "
+      + "COALESCE(CLUSTERID, ''), (SETTINGID IS NULL), COALESCE(SETTINGID, '')";
+
+  static final String KEYSET_READER_QUERY =
+      "SELECT * FROM %s WHERE ACCOUNTID = ? AND STARTTIME >= ? AND STARTTIME < ?%s ORDER BY " + KEYSET_COLUMNS
+      + " LIMIT ?;";
+
+  static final String KEYSET_AFTER_CONDITION = " AND (" + KEYSET_COLUMNS + ") > (?, ?, ?, ?, ?, ?, ?)";
+
   private static final String ECS_SERVICE_LAST_DAY_COST =
       "SELECT SUM(CPUBILLINGAMOUNT), SUM(MEMORYBILLINGAMOUNT) FROM BILLING_DATA WHERE INSTANCETYPE IN ('ECS_TASK_FARGATE', 'ECS_TASK_EC2') AND ACCOUNTID = ? AND CLUSTERID = ? AND CLOUDSERVICENAME = ? AND STARTTIME = (SELECT MAX(STARTTIME) FROM BILLING_DATA WHERE INSTANCETYPE IN ('ECS_TASK_FARGATE', 'ECS_TASK_EC2') AND ACCOUNTID = ? AND CLUSTERID = ? AND CLOUDSERVICENAME = ? AND STARTTIME >= ?)";
 
@@ -142,6 +169,54 @@ public class BillingDataServiceImpl {
     return successfulInsert;
   }
 
+  /**
+   * Same as {@link #create} but streams the rows through a binary COPY into a session scoped staging table and merges
+   * them into the billing data table with a single INSERT ... ON CONFLICT DO NOTHING, in one transaction.
+   */
+  public boolean copy(List<InstanceBillingData> instanceBillingDataList, BatchJobType batchJobType) {
+    boolean successfulInsert = false;
+    if (timeScaleDBService.isValid() && !instanceBillingDataList.isEmpty()) {
+      String mergeStatement = BillingDataTableNameProvider.replaceTableName(MERGE_STAGING_STATEMENT, batchJobType);
+      int retryCount = 0;
+      while (!successfulInsert && retryCount < MAX_RETRY_COUNT) {
+        try (Connection dbConnection = timeScaleDBService.getDBConnection()) {
+          copyAndMerge(dbConnection, instanceBillingDataList, mergeStatement);
+          successfulInsert = true;
+        } catch (SQLException | IOException e) {
+          log.error("Failed to copy instance data,[{}],retryCount=[{}], Exception: ", instanceBillingDataList.size(),
+              retryCount, e);
+          retryCount++;
+        }
+      }
+    } else {
+      log.warn("Not processing instance billing data:[{}]", instanceBillingDataList.size());
+    }
+    return successfulInsert;
+  }
+
+  private void copyAndMerge(Connection dbConnection, List<InstanceBillingData> instanceBillingDataList,
+      String mergeStatement) throws SQLException, IOException {
+    boolean autoCommit = dbConnection.getAutoCommit();
+    dbConnection.setAutoCommit(false);
+    try (Statement statement = dbConnection.createStatement()) {
+      statement.execute(CREATE_STAGING_TABLE_STATEMENT);
+      try (BillingDataCopyWriter writer = new BillingDataCopyWriter(new PGCopyOutputStream(
+               dbConnection.unwrap(PGConnection.class), COPY_STAGING_STATEMENT, COPY_BUFFER_SIZE))) {
+        for (InstanceBillingData instanceBillingData : instanceBillingDataList) {
+          writer.write(instanceBillingData);
+        }
+      }
+      int inserted = statement.executeUpdate(mergeStatement);
+      dbConnection.commit();
+      log.debug("Copied instance billing data:[{}], inserted:[{}]", instanceBillingDataList.size(), inserted);
+    } catch (SQLException | IOException e) {
+      dbConnection.rollback();
+      throw e;
+    } finally {
+      dbConnection.setAutoCommit(autoCommit);
+    }
+  }
+
   public boolean update(ActualIdleCostWriterData actualIdleCostWriterData, BatchJobType batchJobType) {
     boolean successfulUpdate = false;
     if (timeScaleDBService.isValid()) {
@@ -273,6 +348,56 @@ public class BillingDataServiceImpl {
     }
   }
 
+  /**
+   * Keyset paginated read: returns the next batchSize rows after the given row, or the first ones if it is null. Unlike
+   * {@link #read} the cost of a page does not grow with the number of rows already read.
+   */
+  public List<InstanceBillingData> readAfter(String accountId, Instant startTime, Instant endTime, int batchSize,
+      InstanceBillingData after, BatchJobType batchJobType) {
+    if (!timeScaleDBService.isValid()) {
+      throw new InvalidRequestException("Cannot process request in ClusterDataToBigQueryTasklet");
+    }
+    String tableName;
+    if (batchJobType.equals(BatchJobType.CLUSTER_DATA_TO_BIG_QUERY)) {
+      tableName = DAILY_BILLING_DATA_TABLE;
+    } else if (batchJobType.equals(BatchJobType.CLUSTER_DATA_HOURLY_TO_BIG_QUERY)) {
+      tableName = HOURLY_BILLING_DATA_TABLE;
+    } else {
+      throw new InvalidRequestException("Billing data can not be read for batch job type " + batchJobType);
+    }
+    String query = String.format(KEYSET_READER_QUERY, tableName, after == null ? "" : KEYSET_AFTER_CONDITION);
+    ResultSet resultSet = null;
+    int retryCount = 0;
+    while (retryCount < SELECT_MAX_RETRY_COUNT) {
+      retryCount++;
+      try (Connection connection = timeScaleDBService.getDBConnection();
+           PreparedStatement statement = connection.prepareStatement(query)) {
+        int i = updateAggregationStatement(statement, accountId, startTime, endTime);
+        if (after != null) {
+          statement.setTimestamp(++i, new Timestamp(after.getStartTimestamp()), utils.getDefaultCalendar());
+          statement.setString(++i, after.getInstanceId());
+          statement.setString(++i, after.getInstanceType());
+          statement.setBoolean(++i, after.getClusterId() == null);
+          statement.setString(++i, Strings.nullToEmpty(after.getClusterId()));
+          statement.setBoolean(++i, after.getSettingId() == null);
+          statement.setString(++i, Strings.nullToEmpty(after.getSettingId()));
+        }
+        statement.setInt(++i, batchSize);
+        resultSet = statement.executeQuery();
+        List<InstanceBillingData> instanceBillingDataList = new ArrayList<>();
+        while (resultSet.next()) {
+          instanceBillingDataList.add(toInstanceBillingData(resultSet));
+        }
+        return instanceBillingDataList;
+      } catch (SQLException e) {
+        log.error("Error while fetching billing Data data, retryCount=[{}]", retryCount, e);
+      } finally {
+        DBUtils.close(resultSet);
+      }
+    }
+    throw new InvalidRequestException("Error while fetching Instance Billing data");
+  }
+
   private List<InstanceBillingData> getUtilizationDataFromTimescaleDB(String query) {
     if (query.equals("")) {
       return null;
@@ -287,83 +412,7 @@ public class BillingDataServiceImpl {
            Statement statement = connection.createStatement()) {
         resultSet = statement.executeQuery(query);
         while (resultSet.next()) {
-          instanceBillingDataList.add(
-              InstanceBillingData.builder()
-                  .endTimestamp(resultSet.getTimestamp("ENDTIME").toInstant().toEpochMilli())
-                  .startTimestamp(resultSet.getTimestamp("STARTTIME").toInstant().toEpochMilli())
-                  .accountId(resultSet.getString("ACCOUNTID"))
-                  .instanceType(resultSet.getString("INSTANCETYPE"))
-                  .billingAccountId(resultSet.getString("BILLINGACCOUNTID"))
-                  .billingAmount(resultSet.getBigDecimal("BILLINGAMOUNT"))
-                  .cpuBillingAmount(resultSet.getBigDecimal("CPUBILLINGAMOUNT"))
-                  .memoryBillingAmount(resultSet.getBigDecimal("MEMORYBILLINGAMOUNT"))
-                  .usageDurationSeconds(resultSet.getDouble("USAGEDURATIONSECONDS"))
-                  .instanceId(resultSet.getString("INSTANCEID"))
-                  .clusterName(resultSet.getString("CLUSTERNAME"))
-                  .clusterId(resultSet.getString("CLUSTERID"))
-                  .settingId(resultSet.getString("SETTINGID"))
-                  .serviceId(resultSet.getString("SERVICEID"))
-                  .appId(resultSet.getString("APPID"))
-                  .cloudProviderId(resultSet.getString("CLOUDPROVIDERID"))
-                  .envId(resultSet.getString("ENVID"))
-                  .cpuUnitSeconds(resultSet.getDouble("CPUUNITSECONDS"))
-                  .memoryMbSeconds(resultSet.getDouble("MEMORYMBSECONDS"))
-                  .parentInstanceId(resultSet.getString("PARENTINSTANCEID"))
-                  .region(resultSet.getString("REGION"))
-                  .launchType(resultSet.getString("LAUNCHTYPE"))
-                  .clusterType(resultSet.getString("CLUSTERTYPE"))
-                  .cloudProvider(resultSet.getString("CLOUDPROVIDER"))
-                  .workloadName(resultSet.getString("WORKLOADNAME"))
-                  .workloadType(resultSet.getString("WORKLOADTYPE"))
-                  .namespace(resultSet.getString("NAMESPACE"))
-                  .cloudServiceName(resultSet.getString("CLOUDSERVICENAME"))
-                  .taskId(resultSet.getString("TASKID"))
-                  .idleCost(resultSet.getBigDecimal("IDLECOST"))
-                  .cpuIdleCost(resultSet.getBigDecimal("CPUIDLECOST"))
-                  .memoryIdleCost(resultSet.getBigDecimal("MEMORYIDLECOST"))
-                  .maxCpuUtilization(resultSet.getDouble("MAXCPUUTILIZATION"))
-                  .maxMemoryUtilization(resultSet.getDouble("MAXMEMORYUTILIZATION"))
-                  .avgCpuUtilization(resultSet.getDouble("AVGCPUUTILIZATION"))
-                  .avgMemoryUtilization(resultSet.getDouble("AVGMEMORYUTILIZATION"))
-                  .systemCost(resultSet.getBigDecimal("SYSTEMCOST"))
-                  .cpuSystemCost(resultSet.getBigDecimal("CPUSYSTEMCOST"))
-                  .memorySystemCost(resultSet.getBigDecimal("MEMORYSYSTEMCOST"))
-                  .actualIdleCost(resultSet.getBigDecimal("ACTUALIDLECOST"))
-                  .cpuActualIdleCost(resultSet.getBigDecimal("CPUACTUALIDLECOST"))
-                  .memoryActualIdleCost(resultSet.getBigDecimal("MEMORYACTUALIDLECOST"))
-                  .unallocatedCost(resultSet.getBigDecimal("UNALLOCATEDCOST"))
-                  .cpuUnallocatedCost(resultSet.getBigDecimal("CPUUNALLOCATEDCOST"))
-                  .memoryUnallocatedCost(resultSet.getBigDecimal("MEMORYUNALLOCATEDCOST"))
-                  .instanceName(resultSet.getString("INSTANCENAME"))
-                  .cpuRequest(resultSet.getDouble("CPUREQUEST"))
-                  .memoryRequest(resultSet.getDouble("MEMORYREQUEST"))
-                  .cpuLimit(resultSet.getDouble("CPULIMIT"))
-                  .memoryLimit(resultSet.getDouble("MEMORYLIMIT"))
-                  .maxCpuUtilizationValue(resultSet.getDouble("MAXCPUUTILIZATIONVALUE"))
-                  .maxMemoryUtilizationValue(resultSet.getDouble("MAXMEMORYUTILIZATIONVALUE"))
-                  .avgCpuUtilizationValue(resultSet.getDouble("AVGCPUUTILIZATIONVALUE"))
-                  .avgMemoryUtilizationValue(resultSet.getDouble("AVGMEMORYUTILIZATIONVALUE"))
-                  .networkCost(resultSet.getDouble("NETWORKCOST"))
-                  .pricingSource(resultSet.getString("PRICINGSOURCE"))
-                  .storageRequest(resultSet.getDouble("STORAGEREQUEST"))
-                  .storageUtilizationValue(resultSet.getDouble("STORAGEUTILIZATIONVALUE"))
-                  .storageMbSeconds(resultSet.getDouble("STORAGEMBSECONDS"))
-                  .storageBillingAmount(resultSet.getBigDecimal("STORAGECOST"))
-                  .storageActualIdleCost(resultSet.getBigDecimal("STORAGEACTUALIDLECOST"))
-                  .storageUnallocatedCost(resultSet.getBigDecimal("STORAGEUNALLOCATEDCOST"))
-                  .maxStorageUtilizationValue(resultSet.getDouble("MAXSTORAGEUTILIZATIONVALUE"))
-                  .maxStorageRequest(resultSet.getDouble("MAXSTORAGEREQUEST"))
-                  .orgIdentifier(resultSet.getString("ORGIDENTIFIER"))
-                  .projectIdentifier(resultSet.getString("PROJECTIDENTIFIER"))
-                  .usageStartTime(Optional.ofNullable(resultSet.getTimestamp("USAGESTARTTIME"))
-                                      .map(Timestamp::toInstant)
-                                      .map(Instant::toEpochMilli)
-                                      .orElse(0l))
-                  .usageStopTime(Optional.ofNullable(resultSet.getTimestamp("USAGESTOPTIME"))
-                                     .map(Timestamp::toInstant)
-                                     .map(Instant::toEpochMilli)
-                                     .orElse(0l))
-                  .build());
+          instanceBillingDataList.add(toInstanceBillingData(resultSet));
         }
         return instanceBillingDataList;
       } catch (SQLException e) {
@@ -375,6 +424,85 @@ public class BillingDataServiceImpl {
     return null;
   }
 
+  private InstanceBillingData toInstanceBillingData(ResultSet resultSet) throws SQLException {
+    return InstanceBillingData.builder()
+        .endTimestamp(resultSet.getTimestamp("ENDTIME").toInstant().toEpochMilli())
+        .startTimestamp(resultSet.getTimestamp("STARTTIME").toInstant().toEpochMilli())
+        .accountId(resultSet.getString("ACCOUNTID"))
+        .instanceType(resultSet.getString("INSTANCETYPE"))
+        .billingAccountId(resultSet.getString("BILLINGACCOUNTID"))
+        .billingAmount(resultSet.getBigDecimal("BILLINGAMOUNT"))
+        .cpuBillingAmount(resultSet.getBigDecimal("CPUBILLINGAMOUNT"))
+        .memoryBillingAmount(resultSet.getBigDecimal("MEMORYBILLINGAMOUNT"))
+        .usageDurationSeconds(resultSet.getDouble("USAGEDURATIONSECONDS"))
+        .instanceId(resultSet.getString("INSTANCEID"))
+        .clusterName(resultSet.getString("CLUSTERNAME"))
+        .clusterId(resultSet.getString("CLUSTERID"))
+        .settingId(resultSet.getString("SETTINGID"))
+        .serviceId(resultSet.getString("SERVICEID"))
+        .appId(resultSet.getString("APPID"))
+        .cloudProviderId(resultSet.getString("CLOUDPROVIDERID"))
+        .envId(resultSet.getString("ENVID"))
+        .cpuUnitSeconds(resultSet.getDouble("CPUUNITSECONDS"))
+        .memoryMbSeconds(resultSet.getDouble("MEMORYMBSECONDS"))
+        .parentInstanceId(resultSet.getString("PARENTINSTANCEID"))
+        .region(resultSet.getString("REGION"))
+        .launchType(resultSet.getString("LAUNCHTYPE"))
+        .clusterType(resultSet.getString("CLUSTERTYPE"))
+        .cloudProvider(resultSet.getString("CLOUDPROVIDER"))
+        .workloadName(resultSet.getString("WORKLOADNAME"))
+        .workloadType(resultSet.getString("WORKLOADTYPE"))
+        .namespace(resultSet.getString("NAMESPACE"))
+        .cloudServiceName(resultSet.getString("CLOUDSERVICENAME"))
+        .taskId(resultSet.getString("TASKID"))
+        .idleCost(resultSet.getBigDecimal("IDLECOST"))
+        .cpuIdleCost(resultSet.getBigDecimal("CPUIDLECOST"))
+        .memoryIdleCost(resultSet.getBigDecimal("MEMORYIDLECOST"))
+        .maxCpuUtilization(resultSet.getDouble("MAXCPUUTILIZATION"))
+        .maxMemoryUtilization(resultSet.getDouble("MAXMEMORYUTILIZATION"))
+        .avgCpuUtilization(resultSet.getDouble("AVGCPUUTILIZATION"))
+        .avgMemoryUtilization(resultSet.getDouble("AVGMEMORYUTILIZATION"))
+        .systemCost(resultSet.getBigDecimal("SYSTEMCOST"))
+        .cpuSystemCost(resultSet.getBigDecimal("CPUSYSTEMCOST"))
+        .memorySystemCost(resultSet.getBigDecimal("MEMORYSYSTEMCOST"))
+        .actualIdleCost(resultSet.getBigDecimal("ACTUALIDLECOST"))
+        .cpuActualIdleCost(resultSet.getBigDecimal("CPUACTUALIDLECOST"))
+        .memoryActualIdleCost(resultSet.getBigDecimal("MEMORYACTUALIDLECOST"))
+        .unallocatedCost(resultSet.getBigDecimal("UNALLOCATEDCOST"))
+        .cpuUnallocatedCost(resultSet.getBigDecimal("CPUUNALLOCATEDCOST"))
+        .memoryUnallocatedCost(resultSet.getBigDecimal("MEMORYUNALLOCATEDCOST"))
+        .instanceName(resultSet.getString("INSTANCENAME"))
+        .cpuRequest(resultSet.getDouble("CPUREQUEST"))
+        .memoryRequest(resultSet.getDouble("MEMORYREQUEST"))
+        .cpuLimit(resultSet.getDouble("CPULIMIT"))
+        .memoryLimit(resultSet.getDouble("MEMORYLIMIT"))
+        .maxCpuUtilizationValue(resultSet.getDouble("MAXCPUUTILIZATIONVALUE"))
+        .maxMemoryUtilizationValue(resultSet.getDouble("MAXMEMORYUTILIZATIONVALUE"))
+        .avgCpuUtilizationValue(resultSet.getDouble("AVGCPUUTILIZATIONVALUE"))
+        .avgMemoryUtilizationValue(resultSet.getDouble("AVGMEMORYUTILIZATIONVALUE"))
+        .networkCost(resultSet.getDouble("NETWORKCOST"))
+        .pricingSource(resultSet.getString("PRICINGSOURCE"))
+        .storageRequest(resultSet.getDouble("STORAGEREQUEST"))
+        .storageUtilizationValue(resultSet.getDouble("STORAGEUTILIZATIONVALUE"))
+        .storageMbSeconds(resultSet.getDouble("STORAGEMBSECONDS"))
+        .storageBillingAmount(resultSet.getBigDecimal("STORAGECOST"))
+        .storageActualIdleCost(resultSet.getBigDecimal("STORAGEACTUALIDLECOST"))
+        .storageUnallocatedCost(resultSet.getBigDecimal("STORAGEUNALLOCATEDCOST"))
+        .maxStorageUtilizationValue(resultSet.getDouble("MAXSTORAGEUTILIZATIONVALUE"))
+        .maxStorageRequest(resultSet.getDouble("MAXSTORAGEREQUEST"))
+        .orgIdentifier(resultSet.getString("ORGIDENTIFIER"))
+        .projectIdentifier(resultSet.getString("PROJECTIDENTIFIER"))
+        .usageStartTime(Optional.ofNullable(resultSet.getTimestamp("USAGESTARTTIME"))
+                            .map(Timestamp::toInstant)
+                            .map(Instant::toEpochMilli)
+                            .orElse(0l))
+        .usageStopTime(Optional.ofNullable(resultSet.getTimestamp("USAGESTOPTIME"))
+                           .map(Timestamp::toInstant)
+                           .map(Instant::toEpochMilli)
+                           .orElse(0l))
+        .build();
+  }
+
   public ClusterDataDetails getTimeScaleClusterData(String accountId, Instant startTime) {
     ResultSet resultSet = null;
     int retryCount = 0;
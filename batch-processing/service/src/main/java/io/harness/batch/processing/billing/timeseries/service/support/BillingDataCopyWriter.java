@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.batch.processing.billing.timeseries.service.support;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.batch.processing.billing.timeseries.data.InstanceBillingData;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes instance billing data in the postgres binary COPY format, one tuple per row with the columns in the order of
+ * {@link #COLUMNS}. Text columns are written as UTF-8, cost and utilization columns as float8 and time columns as
+ * timestamptz.
+ */
+@OwnedBy(HarnessTeam.CE)
+public class BillingDataCopyWriter implements Closeable {
+  public static final String COLUMNS =
+      "STARTTIME, ENDTIME, ACCOUNTID, INSTANCETYPE, BILLINGACCOUNTID, BILLINGAMOUNT, CPUBILLINGAMOUNT, MEMORYBILLINGAMOUNT, USAGEDURATIONSECONDS, INSTANCEID, CLUSTERNAME, CLUSTERID, SETTINGID, SERVICEID, APPID, CLOUDPROVIDERID, ENVID, CPUUNITSECONDS, MEMORYMBSECONDS, PARENTINSTANCEID, REGION, LAUNCHTYPE, CLUSTERTYPE, CLOUDPROVIDER, WORKLOADNAME, WORKLOADTYPE, NAMESPACE, CLOUDSERVICENAME, TASKID, IDLECOST, CPUIDLECOST, MEMORYIDLECOST, MAXCPUUTILIZATION, MAXMEMORYUTILIZATION, AVGCPUUTILIZATION, AVGMEMORYUTILIZATION, SYSTEMCOST, CPUSYSTEMCOST, MEMORYSYSTEMCOST, ACTUALIDLECOST, CPUACTUALIDLECOST, MEMORYACTUALIDLECOST, UNALLOCATEDCOST, CPUUNALLOCATEDCOST, MEMORYUNALLOCATEDCOST, INSTANCENAME, CPUREQUEST, MEMORYREQUEST, CPULIMIT, MEMORYLIMIT, MAXCPUUTILIZATIONVALUE, MAXMEMORYUTILIZATIONVALUE, AVGCPUUTILIZATIONVALUE, AVGMEMORYUTILIZATIONVALUE, NETWORKCOST, PRICINGSOURCE, STORAGEACTUALIDLECOST, STORAGEUNALLOCATEDCOST, STORAGEUTILIZATIONVALUE, STORAGEREQUEST, STORAGEMBSECONDS, STORAGECOST, MAXSTORAGEUTILIZATIONVALUE, MAXSTORAGEREQUEST, ORGIDENTIFIER, PROJECTIDENTIFIER, USAGESTARTTIME, USAGESTOPTIME";
+
+  // Column definitions of the staging table, matching the types written below
+  public static final String COLUMN_DEFINITIONS =
+      "STARTTIME TIMESTAMPTZ, ENDTIME TIMESTAMPTZ, ACCOUNTID TEXT, INSTANCETYPE TEXT, BILLINGACCOUNTID TEXT, BILLINGAMOUNT DOUBLE PRECISION, CPUBILLINGAMOUNT DOUBLE PRECISION, MEMORYBILLINGAMOUNT DOUBLE PRECISION, USAGEDURATIONSECONDS DOUBLE PRECISION, INSTANCEID TEXT, CLUSTERNAME TEXT, CLUSTERID TEXT, SETTINGID TEXT, SERVICEID TEXT, APPID TEXT, CLOUDPROVIDERID TEXT, ENVID TEXT, CPUUNITSECONDS DOUBLE PRECISION, MEMORYMBSECONDS DOUBLE PRECISION, PARENTINSTANCEID TEXT, REGION TEXT, LAUNCHTYPE TEXT, CLUSTERTYPE TEXT, CLOUDPROVIDER TEXT, WORKLOADNAME TEXT, WORKLOADTYPE TEXT, NAMESPACE TEXT, CLOUDSERVICENAME TEXT, TASKID TEXT, IDLECOST DOUBLE PRECISION, CPUIDLECOST DOUBLE PRECISION, MEMORYIDLECOST DOUBLE PRECISION, MAXCPUUTILIZATION DOUBLE PRECISION, MAXMEMORYUTILIZATION DOUBLE PRECISION, AVGCPUUTILIZATION DOUBLE PRECISION, AVGMEMORYUTILIZATION DOUBLE PRECISION, SYSTEMCOST DOUBLE PRECISION, CPUSYSTEMCOST DOUBLE PRECISION, MEMORYSYSTEMCOST DOUBLE PRECISION, ACTUALIDLECOST DOUBLE PRECISION, CPUACTUALIDLECOST DOUBLE PRECISION, MEMORYACTUALIDLECOST DOUBLE PRECISION, UNALLOCATEDCOST DOUBLE PRECISION, CPUUNALLOCATEDCOST DOUBLE PRECISION, MEMORYUNALLOCATEDCOST DOUBLE PRECISION, INSTANCENAME TEXT, CPUREQUEST DOUBLE PRECISION, MEMORYREQUEST DOUBLE PRECISION, CPULIMIT DOUBLE PRECISION, MEMORYLIMIT DOUBLE PRECISION, MAXCPUUTILIZATIONVALUE DOUBLE PRECISION, MAXMEMORYUTILIZATIONVALUE DOUBLE PRECISION, AVGCPUUTILIZATIONVALUE DOUBLE PRECISION, AVGMEMORYUTILIZATIONVALUE DOUBLE PRECISION, NETWORKCOST DOUBLE PRECISION, PRICINGSOURCE TEXT, STORAGEACTUALIDLECOST DOUBLE PRECISION, STORAGEUNALLOCATEDCOST DOUBLE PRECISION, STORAGEUTILIZATIONVALUE DOUBLE PRECISION, STORAGEREQUEST DOUBLE PRECISION, STORAGEMBSECONDS DOUBLE PRECISION, STORAGECOST DOUBLE PRECISION, MAXSTORAGEUTILIZATIONVALUE DOUBLE PRECISION, MAXSTORAGEREQUEST DOUBLE PRECISION, ORGIDENTIFIER TEXT, PROJECTIDENTIFIER TEXT, USAGESTARTTIME TIMESTAMPTZ, USAGESTOPTIME TIMESTAMPTZ";
+
+  static final int COLUMN_COUNT = 68;
+  static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+  // Postgres timestamps count microseconds from 2000-01-01T00:00:00Z
+  static final long POSTGRES_EPOCH_MILLIS = 946684800000L;
+
+  private final DataOutputStream out;
+
+  public BillingDataCopyWriter(OutputStream outputStream) throws IOException {
+    this.out = new DataOutputStream(outputStream);
+    out.write(SIGNATURE);
+    // flags and header extension length
+    out.writeInt(0);
+    out.writeInt(0);
+  }
+
+  public void write(InstanceBillingData data) throws IOException {
+    out.writeShort(COLUMN_COUNT);
+    writeTimestamp(data.getStartTimestamp());
+    writeTimestamp(data.getEndTimestamp());
+    writeText(data.getAccountId());
+    writeText(data.getInstanceType());
+    writeText(data.getBillingAccountId());
+    writeDecimal(data.getBillingAmount());
+    writeDecimal(data.getCpuBillingAmount());
+    writeDecimal(data.getMemoryBillingAmount());
+    writeDouble(data.getUsageDurationSeconds());
+    writeText(data.getInstanceId());
+    writeText(data.getClusterName());
+    writeText(data.getClusterId());
+    writeText(data.getSettingId());
+    writeText(data.getServiceId());
+    writeText(data.getAppId());
+    writeText(data.getCloudProviderId());
+    writeText(data.getEnvId());
+    writeDouble(data.getCpuUnitSeconds());
+    writeDouble(data.getMemoryMbSeconds());
+    writeText(data.getParentInstanceId());
+    writeText(data.getRegion());
+    writeText(data.getLaunchType());
+    writeText(data.getClusterType());
+    writeText(data.getCloudProvider());
+    writeText(data.getWorkloadName());
+    writeText(data.getWorkloadType());
+    writeText(data.getNamespace());
+    writeText(data.getCloudServiceName());
+    writeText(data.getTaskId());
+    writeDecimal(data.getIdleCost());
+    writeDecimal(data.getCpuIdleCost());
+    writeDecimal(data.getMemoryIdleCost());
+    writeDouble(data.getMaxCpuUtilization());
+    writeDouble(data.getMaxMemoryUtilization());
+    writeDouble(data.getAvgCpuUtilization());
+    writeDouble(data.getAvgMemoryUtilization());
+    writeDecimal(data.getSystemCost());
+    writeDecimal(data.getCpuSystemCost());
+    writeDecimal(data.getMemorySystemCost());
+    writeDecimal(data.getActualIdleCost());
+    writeDecimal(data.getCpuActualIdleCost());
+    writeDecimal(data.getMemoryActualIdleCost());
+    writeDecimal(data.getUnallocatedCost());
+    writeDecimal(data.getCpuUnallocatedCost());
+    writeDecimal(data.getMemoryUnallocatedCost());
+    writeText(data.getInstanceName());
+    writeDouble(data.getCpuRequest());
+    writeDouble(data.getMemoryRequest());
+    writeDouble(data.getCpuLimit());
+    writeDouble(data.getMemoryLimit());
+    writeDouble(data.getMaxCpuUtilizationValue());
+    writeDouble(data.getMaxMemoryUtilizationValue());
+    writeDouble(data.getAvgCpuUtilizationValue());
+    writeDouble(data.getAvgMemoryUtilizationValue());
+    writeDouble(data.getNetworkCost());
+    writeText(data.getPricingSource());
+    writeDecimal(data.getStorageActualIdleCost());
+    writeDecimal(data.getStorageUnallocatedCost());
+    writeDouble(data.getStorageUtilizationValue());
+    writeDouble(data.getStorageRequest());
+    writeDouble(data.getStorageMbSeconds());
+    writeDecimal(data.getStorageBillingAmount());
+    writeDouble(data.getMaxStorageUtilizationValue());
+    writeDouble(data.getMaxStorageRequest());
+    writeText(data.getOrgIdentifier());
+    writeText(data.getProjectIdentifier());
+    writeTimestamp(data.getUsageStartTime());
+    writeTimestamp(data.getUsageStopTime());
+  }
+
+  /**
+   * Writes the file trailer and closes the underlying stream, which ends the COPY.
+   */
+  @Override
+  public void close() throws IOException {
+    out.writeShort(-1);
+    out.close();
+  }
+
+  private void writeText(String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private void writeDecimal(BigDecimal value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    writeDouble(value.doubleValue());
+  }
+
+  private void writeDouble(double value) throws IOException {
+    out.writeInt(Double.BYTES);
+    out.writeDouble(value);
+  }
+
+  private void writeTimestamp(long epochMillis) throws IOException {
+    out.writeInt(Long.BYTES);
+    out.writeLong((epochMillis - POSTGRES_EPOCH_MILLIS) * 1000);
+  }
+}
@@ -393,7 +393,11 @@ public class InstanceBillingDataTasklet implements Tasklet {
       }
     });
 
-    billingDataService.create(instanceBillingDataList, batchJobType);
+    if (config.getBatchQueryConfig().isBillingDataCopyEnabled()) {
+      billingDataService.copy(instanceBillingDataList, batchJobType);
+    } else {
+      billingDataService.create(instanceBillingDataList, batchJobType);
+    }
     return instanceBillingDataList;
   }
 
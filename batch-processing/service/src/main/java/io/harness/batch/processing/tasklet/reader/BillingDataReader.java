@@ -22,28 +22,27 @@ public class BillingDataReader {
   private Instant startTime;
   private Instant endTime;
   private int batchSize;
-  private int offset;
+  private InstanceBillingData lastRead;
   private BillingDataServiceImpl billingDataService;
 
   @Autowired private BatchJobType batchJobType;
 
   @Autowired
   public BillingDataReader(BillingDataServiceImpl billingDataService, String accountId, Instant startTime,
-      Instant endTime, int batchSize, int offset, BatchJobType batchJobType) {
+      Instant endTime, int batchSize, BatchJobType batchJobType) {
     this.accountId = accountId;
     this.startTime = startTime;
     this.endTime = endTime;
     this.batchSize = batchSize;
-    this.offset = offset;
     this.billingDataService = billingDataService;
     this.batchJobType = batchJobType;
   }
 
   public List<InstanceBillingData> getNext() {
     List<InstanceBillingData> instanceBillingDataList =
-        billingDataService.read(accountId, startTime, endTime, batchSize, offset, batchJobType);
+        billingDataService.readAfter(accountId, startTime, endTime, batchSize, lastRead, batchJobType);
     if (!instanceBillingDataList.isEmpty()) {
-      offset += batchSize;
+      lastRead = instanceBillingDataList.get(instanceBillingDataList.size() - 1);
     }
     return instanceBillingDataList;
   }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.batch.processing.billing.timeseries.service.impl;
+
+import static io.harness.rule.OwnerRule.UTSAV;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.batch.processing.billing.timeseries.data.InstanceBillingData;
+import io.harness.batch.processing.billing.timeseries.service.support.BillingDataCopyWriter;
+import io.harness.batch.processing.ccm.BatchJobType;
+import io.harness.category.element.StressTests;
+import io.harness.ccm.commons.utils.TimeUtils;
+import io.harness.rule.Owner;
+import io.harness.timescaledb.TimeScaleDBService;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * Compares the batched INSERT and the binary COPY loaders, and OFFSET and keyset reads, on a local postgres or
+ * timescale, e.g. docker run -p 5432:5432 -e POSTGRES_PASSWORD=postgres timescale/timescaledb:latest-pg14. All the
+ * tables are created in a scratch schema.
+ */
+@Slf4j
+@RunWith(MockitoJUnitRunner.class)
+public class BillingDataLoadBenchmarkTest extends CategoryTest {
+  private static final String URL = System.getProperty(
+      "benchmark.timescaledb.url", "jdbc:postgresql://localhost:5432/postgres?currentSchema=billing_benchmark");
+  private static final String USER = System.getProperty("benchmark.timescaledb.user", "postgres");
+  private static final String PASSWORD = System.getProperty("benchmark.timescaledb.password", "postgres");
+  private static final String ACCOUNT_ID = "benchmarkAccount";
+  private static final int TOTAL_ROWS = 10_000_000;
+  private static final int INSTANCES_PER_DAY = 100_000;
+  private static final int LOAD_BATCH_SIZE = 50_000;
+  private static final int INSERT_SAMPLE_ROWS = 1_000_000;
+  private static final int PAGE_SIZE = 4000;
+  private static final Instant FIRST_DAY = Instant.parse("2023-01-01T00:00:00Z");
+
+  @InjectMocks private BillingDataServiceImpl billingDataService;
+  @Mock private TimeScaleDBService timeScaleDBService;
+  @Mock private TimeUtils utils;
+
+  @Before
+  public void setUp() throws SQLException {
+    when(timeScaleDBService.isValid()).thenReturn(true);
+    when(timeScaleDBService.getDBConnection())
+        .thenAnswer(invocation -> DriverManager.getConnection(URL, USER, PASSWORD));
+    when(utils.getDefaultCalendar()).thenReturn(Calendar.getInstance(TimeZone.getTimeZone("UTC")));
+    try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD);
+         Statement statement = connection.createStatement()) {
+      statement.execute("DROP SCHEMA IF EXISTS billing_benchmark CASCADE");
+      statement.execute("CREATE SCHEMA billing_benchmark");
+      statement.execute(
+          "CREATE TABLE billing_benchmark.billing_data (" + BillingDataCopyWriter.COLUMN_DEFINITIONS + ")");
+      statement.execute("CREATE UNIQUE INDEX ON billing_benchmark.billing_data "
+          + "(ACCOUNTID, SETTINGID, CLUSTERID, INSTANCEID, INSTANCETYPE, STARTTIME DESC)");
+      statement.execute("CREATE INDEX ON billing_benchmark.billing_data (ACCOUNTID, STARTTIME, INSTANCEID, "
+          + "INSTANCETYPE, (CLUSTERID IS NULL), COALESCE(CLUSTERID, ''), (SETTINGID IS NULL), "
+          + "COALESCE(SETTINGID, ''))");
+    }
+  }
+
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(StressTests.class)
+  @Ignore("Needs a local postgres, ignored to allow for simple run of unit tests")
+  public void benchmarkLoadAndRead() {
+    long insertNanos = 0;
+    for (int from = 0; from < INSERT_SAMPLE_ROWS; from += LOAD_BATCH_SIZE) {
+      List<InstanceBillingData> batch = generate("insertAccount", from, LOAD_BATCH_SIZE);
+      long start = System.nanoTime();
+      assertThat(billingDataService.create(batch, BatchJobType.INSTANCE_BILLING)).isTrue();
+      insertNanos += System.nanoTime() - start;
+    }
+    long copyNanos = 0;
+    for (int from = 0; from < TOTAL_ROWS; from += LOAD_BATCH_SIZE) {
+      List<InstanceBillingData> batch = generate(ACCOUNT_ID, from, LOAD_BATCH_SIZE);
+      long start = System.nanoTime();
+      assertThat(billingDataService.copy(batch, BatchJobType.INSTANCE_BILLING)).isTrue();
+      copyNanos += System.nanoTime() - start;
+    }
+    log.info("insert: {} rows/s, copy: {} rows/s", rowsPerSecond(INSERT_SAMPLE_ROWS, insertNanos),
+        rowsPerSecond(TOTAL_ROWS, copyNanos));
+
+    // ten days, a million rows
+    Instant startTime = FIRST_DAY.plus(40, ChronoUnit.DAYS);
+    Instant endTime = startTime.plus(10, ChronoUnit.DAYS);
+    int expected = 10 * INSTANCES_PER_DAY;
+
+    long start = System.nanoTime();
+    int read = 0;
+    List<InstanceBillingData> page;
+    do {
+      page = billingDataService.read(
+          ACCOUNT_ID, startTime, endTime, PAGE_SIZE, read, BatchJobType.CLUSTER_DATA_TO_BIG_QUERY);
+      read += page.size();
+    } while (page.size() == PAGE_SIZE);
+    long offsetNanos = System.nanoTime() - start;
+    assertThat(read).isEqualTo(expected);
+
+    start = System.nanoTime();
+    read = 0;
+    InstanceBillingData lastRead = null;
+    do {
+      page = billingDataService.readAfter(
+          ACCOUNT_ID, startTime, endTime, PAGE_SIZE, lastRead, BatchJobType.CLUSTER_DATA_TO_BIG_QUERY);
+      read += page.size();
+      lastRead = page.isEmpty() ? lastRead : page.get(page.size() - 1);
+    } while (page.size() == PAGE_SIZE);
+    long keysetNanos = System.nanoTime() - start;
+    assertThat(read).isEqualTo(expected);
+
+    log.info("offset read: {} ms, keyset read: {} ms", TimeUnit.NANOSECONDS.toMillis(offsetNanos),
+        TimeUnit.NANOSECONDS.toMillis(keysetNanos));
+  }
+
+  private List<InstanceBillingData> generate(String accountId, int from, int count) {
+    List<InstanceBillingData> rows = new ArrayList<>(count);
+    for (int i = from; i < from + count; i++) {
+      long startTime = FIRST_DAY.plus(i / INSTANCES_PER_DAY, ChronoUnit.DAYS).toEpochMilli();
+      rows.add(InstanceBillingData.builder()
+                   .accountId(accountId)
+                   .settingId("settingId")
+                   .clusterId("cluster" + (i % 20))
+                   .instanceId("instance" + (i % INSTANCES_PER_DAY))
+                   .instanceType("K8S_POD")
+                   .startTimestamp(startTime)
+                   .endTimestamp(startTime + TimeUnit.DAYS.toMillis(1))
+                   .usageStartTime(startTime)
+                   .usageStopTime(startTime + TimeUnit.DAYS.toMillis(1))
+                   .billingAmount(BigDecimal.valueOf(i % 100))
+                   .cpuBillingAmount(BigDecimal.valueOf(i % 50))
+                   .memoryBillingAmount(BigDecimal.valueOf(i % 50))
+                   .usageDurationSeconds(86400)
+                   .namespace("namespace" + (i % 50))
+                   .workloadName("workload" + (i % 500))
+                   .build());
+    }
+    return rows;
+  }
+
+  private static long rowsPerSecond(long rows, long nanos) {
+    return rows * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+  }
+}
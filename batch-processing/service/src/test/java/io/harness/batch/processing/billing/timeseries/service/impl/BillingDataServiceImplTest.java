@@ -14,8 +14,14 @@ import static io.harness.rule.OwnerRule.UTSAV;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.harness.CategoryTest;
@@ -29,6 +35,7 @@ import io.harness.ccm.commons.utils.TimeUtils;
 import io.harness.rule.Owner;
 import io.harness.timescaledb.TimeScaleDBService;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -37,6 +44,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.TimeZone;
@@ -50,6 +58,9 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
 
 @RunWith(MockitoJUnitRunner.class)
 public class BillingDataServiceImplTest extends CategoryTest {
@@ -214,6 +225,108 @@ public class BillingDataServiceImplTest extends CategoryTest {
     assertThat(result).isTrue();
   }
 
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(UnitTests.class)
+  public void testReadAfterPagesByKey() throws SQLException {
+    Connection mockConnection = mock(Connection.class);
+    when(timeScaleDBService.getDBConnection()).thenReturn(mockConnection);
+    when(mockConnection.prepareStatement(String.format(BillingDataServiceImpl.KEYSET_READER_QUERY,
+             BillingDataServiceImpl.DAILY_BILLING_DATA_TABLE, "")))
+        .thenReturn(statement);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    mockResultSet();
+
+    List<InstanceBillingData> firstPage = billingDataService.readAfter(ACCOUNT_ID,
+        Instant.ofEpochMilli(START_TIME_MILLIS), Instant.ofEpochMilli(END_TIME_MILLIS), 500, null,
+        BatchJobType.CLUSTER_DATA_TO_BIG_QUERY);
+    assertThat(firstPage).hasSize(1);
+    verify(statement).setString(1, ACCOUNT_ID);
+    verify(statement).setInt(4, 500);
+
+    PreparedStatement nextPageStatement = mock(PreparedStatement.class);
+    when(mockConnection.prepareStatement(
+             String.format(BillingDataServiceImpl.KEYSET_READER_QUERY, BillingDataServiceImpl.DAILY_BILLING_DATA_TABLE,
+                 BillingDataServiceImpl.KEYSET_AFTER_CONDITION)))
+        .thenReturn(nextPageStatement);
+    when(nextPageStatement.executeQuery()).thenReturn(resultSet);
+    InstanceBillingData lastRead = instanceBillingData();
+    lastRead.setInstanceId("instanceId");
+    lastRead.setSettingId("settingId");
+
+    List<InstanceBillingData> nextPage = billingDataService.readAfter(ACCOUNT_ID,
+        Instant.ofEpochMilli(START_TIME_MILLIS), Instant.ofEpochMilli(END_TIME_MILLIS), 500, lastRead,
+        BatchJobType.CLUSTER_DATA_TO_BIG_QUERY);
+    assertThat(nextPage).isEmpty();
+    verify(nextPageStatement).setTimestamp(eq(4), eq(new Timestamp(lastRead.getStartTimestamp())), any());
+    verify(nextPageStatement).setString(5, "instanceId");
+    verify(nextPageStatement).setString(6, InstanceType.EC2_INSTANCE.name());
+    // a null cluster id sorts after all the others, not together with an empty one
+    verify(nextPageStatement).setBoolean(7, true);
+    verify(nextPageStatement).setString(8, "");
+    verify(nextPageStatement).setBoolean(9, false);
+    verify(nextPageStatement).setString(10, "settingId");
+    verify(nextPageStatement).setInt(11, 500);
+  }
+
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(UnitTests.class)
+  public void testCopyBillingData() throws SQLException {
+    Connection mockConnection = mock(Connection.class);
+    PGConnection pgConnection = mock(PGConnection.class);
+    CopyManager copyManager = mock(CopyManager.class);
+    CopyIn copyIn = mock(CopyIn.class);
+    when(timeScaleDBService.getDBConnection()).thenReturn(mockConnection);
+    when(mockConnection.getAutoCommit()).thenReturn(true);
+    when(mockConnection.createStatement()).thenReturn(statement);
+    when(mockConnection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+    when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+    when(copyManager.copyIn(BillingDataServiceImpl.COPY_STAGING_STATEMENT)).thenReturn(copyIn);
+    when(copyIn.isActive()).thenReturn(true);
+    ByteArrayOutputStream copied = new ByteArrayOutputStream();
+    doAnswer(invocation -> {
+      copied.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+      return null;
+    })
+        .when(copyIn)
+        .writeToCopy(any(), anyInt(), anyInt());
+    String mergeStatement = BillingDataTableNameProvider.replaceTableName(
+        BillingDataServiceImpl.MERGE_STAGING_STATEMENT, BatchJobType.INSTANCE_BILLING_HOURLY);
+    when(statement.executeUpdate(mergeStatement)).thenReturn(2);
+
+    boolean copy = billingDataService.copy(
+        ImmutableList.of(instanceBillingData(), instanceBillingData()), BatchJobType.INSTANCE_BILLING_HOURLY);
+
+    assertThat(copy).isTrue();
+    assertThat(mergeStatement).startsWith("INSERT INTO billing_data_hourly (");
+    verify(statement).execute(BillingDataServiceImpl.CREATE_STAGING_TABLE_STATEMENT);
+    verify(copyIn).endCopy();
+    verify(mockConnection).commit();
+    verify(mockConnection, never()).rollback();
+    verify(mockConnection).setAutoCommit(true);
+    byte[] bytes = copied.toByteArray();
+    assertThat(Arrays.copyOf(bytes, 6)).isEqualTo("PGCOPY".getBytes());
+    // file trailer
+    assertThat(Arrays.copyOfRange(bytes, bytes.length - 2, bytes.length)).containsExactly((byte) -1, (byte) -1);
+  }
+
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(UnitTests.class)
+  public void testFailedCopyIsRolledBack() throws SQLException {
+    Connection mockConnection = mock(Connection.class);
+    when(timeScaleDBService.getDBConnection()).thenReturn(mockConnection);
+    when(mockConnection.createStatement()).thenReturn(statement);
+    when(statement.execute(BillingDataServiceImpl.CREATE_STAGING_TABLE_STATEMENT)).thenThrow(new SQLException());
+
+    boolean copy = billingDataService.copy(ImmutableList.of(instanceBillingData()), BatchJobType.INSTANCE_BILLING);
+
+    assertThat(copy).isFalse();
+    verify(mockConnection, never()).commit();
+    verify(mockConnection, times(2)).rollback();
+  }
+
   private void mockResultSet() throws SQLException {
     when(resultSet.getDouble(anyString())).thenAnswer((Answer<Double>) invocation -> Double.valueOf(10));
     when(resultSet.getString(anyString())).thenAnswer((Answer<String>) invocation -> "stringValue");
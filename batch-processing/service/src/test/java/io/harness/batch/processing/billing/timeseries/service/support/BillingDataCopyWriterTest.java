@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.batch.processing.billing.timeseries.service.support;
+
+import static io.harness.rule.OwnerRule.UTSAV;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.harness.CategoryTest;
+import io.harness.batch.processing.billing.timeseries.data.InstanceBillingData;
+import io.harness.category.element.UnitTests;
+import io.harness.rule.Owner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class BillingDataCopyWriterTest extends CategoryTest {
+  private static final long START_TIME = 1546300800000L;
+
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(UnitTests.class)
+  public void testWritesBinaryCopyFormat() throws IOException {
+    InstanceBillingData instanceBillingData = InstanceBillingData.builder()
+                                                  .startTimestamp(START_TIME)
+                                                  .endTimestamp(START_TIME + 86400000L)
+                                                  .accountId("accountId")
+                                                  .instanceType("K8S_POD")
+                                                  .billingAmount(BigDecimal.valueOf(2.5))
+                                                  .usageDurationSeconds(3600)
+                                                  .build();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (BillingDataCopyWriter writer = new BillingDataCopyWriter(bytes)) {
+      writer.write(instanceBillingData);
+      writer.write(instanceBillingData);
+    }
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    byte[] signature = new byte[BillingDataCopyWriter.SIGNATURE.length];
+    in.readFully(signature);
+    assertThat(signature).isEqualTo(BillingDataCopyWriter.SIGNATURE);
+    assertThat(in.readInt()).isEqualTo(0);
+    assertThat(in.readInt()).isEqualTo(0);
+
+    for (int row = 0; row < 2; row++) {
+      List<byte[]> fields = readTuple(in);
+      assertThat(fields).hasSize(BillingDataCopyWriter.COLUMN_COUNT);
+      assertThat(toLong(fields.get(0))).isEqualTo((START_TIME - BillingDataCopyWriter.POSTGRES_EPOCH_MILLIS) * 1000);
+      assertThat(new String(fields.get(2), StandardCharsets.UTF_8)).isEqualTo("accountId");
+      assertThat(new String(fields.get(3), StandardCharsets.UTF_8)).isEqualTo("K8S_POD");
+      // null text and decimal columns
+      assertThat(fields.get(4)).isNull();
+      assertThat(Double.longBitsToDouble(toLong(fields.get(5)))).isEqualTo(2.5);
+      assertThat(fields.get(6)).isNull();
+      assertThat(Double.longBitsToDouble(toLong(fields.get(8)))).isEqualTo(3600);
+    }
+    assertThat(in.readShort()).isEqualTo((short) -1);
+    assertThat(in.available()).isZero();
+  }
+
+  @Test
+  @Owner(developers = UTSAV)
+  @Category(UnitTests.class)
+  public void testColumnsMatchDefinitions() {
+    String[] columns = BillingDataCopyWriter.COLUMNS.split(", ");
+    String[] definitions = BillingDataCopyWriter.COLUMN_DEFINITIONS.split(", ");
+    assertThat(columns).hasSize(BillingDataCopyWriter.COLUMN_COUNT);
+    assertThat(definitions).hasSize(BillingDataCopyWriter.COLUMN_COUNT);
+    for (int i = 0; i < columns.length; i++) {
+      assertThat(definitions[i]).startsWith(columns[i] + " ");
+    }
+  }
+
+  private List<byte[]> readTuple(DataInputStream in) throws IOException {
+    short fieldCount = in.readShort();
+    List<byte[]> fields = new ArrayList<>();
+    for (int i = 0; i < fieldCount; i++) {
+      int length = in.readInt();
+      if (length < 0) {
+        fields.add(null);
+        continue;
+      }
+      byte[] field = new byte[length];
+      in.readFully(field);
+      fields.add(field);
+    }
+    return fields;
+  }
+
+  private long toLong(byte[] bytes) throws IOException {
+    return new DataInputStream(new ByteArrayInputStream(bytes)).readLong();
+  }
+}
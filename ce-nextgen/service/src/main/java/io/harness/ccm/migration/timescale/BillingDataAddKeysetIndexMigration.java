@@ -0,0 +1,17 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.ccm.migration.timescale;
+
+import io.harness.migration.timescale.NGAbstractTimeScaleMigration;
+
+public class BillingDataAddKeysetIndexMigration extends NGAbstractTimeScaleMigration {
+  @Override
+  public String getFileName() {
+    return "timescaledb/add_keyset_index_billing_data_table.sql";
+  }
+}
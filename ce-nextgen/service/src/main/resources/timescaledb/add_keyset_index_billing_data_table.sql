@@ -0,0 +1,12 @@
+-- Copyright 2023 Harness Inc. All rights reserved.
+-- Use of this source code is governed by the PolyForm Shield 1.0.0 license
+-- that can be found in the licenses directory at the root of this repository, also available at
+-- https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+
+-- Serves the keyset paginated reads of the cluster data export jobs
+BEGIN;
+CREATE INDEX IF NOT EXISTS BILLING_DATA_KEYSET_INDEX ON BILLING_DATA(ACCOUNTID, STARTTIME, INSTANCEID, INSTANCETYPE,
+    (CLUSTERID IS NULL), COALESCE(CLUSTERID, ''), (SETTINGID IS NULL), COALESCE(SETTINGID, ''));
+CREATE INDEX IF NOT EXISTS BILLING_DATA_HOURLY_KEYSET_INDEX ON BILLING_DATA_HOURLY(ACCOUNTID, STARTTIME, INSTANCEID,
+    INSTANCETYPE, (CLUSTERID IS NULL), COALESCE(CLUSTERID, ''), (SETTINGID IS NULL), COALESCE(SETTINGID, ''));
+COMMIT;
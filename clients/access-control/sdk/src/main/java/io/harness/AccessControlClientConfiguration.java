@@ -9,6 +9,7 @@ package io.harness;
 
 import static io.harness.annotations.dev.HarnessTeam.PL;
 
+import io.harness.accesscontrol.clients.AccessCheckCacheConfiguration;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.remote.client.ServiceHttpClientConfig;
 import io.harness.secret.ConfigSecret;
@@ -23,4 +24,5 @@ public class AccessControlClientConfiguration {
   private boolean enableAccessControl;
   private ServiceHttpClientConfig accessControlServiceConfig;
   @ConfigSecret private String accessControlServiceSecret;
+  private AccessCheckCacheConfiguration accessCheckCacheConfiguration;
 }
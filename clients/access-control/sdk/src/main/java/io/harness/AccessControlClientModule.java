@@ -11,6 +11,8 @@ import static io.harness.annotations.dev.HarnessTeam.PL;
 
 import io.harness.accesscontrol.NGAccessControlCheck;
 import io.harness.accesscontrol.NGAccessControlCheckHandler;
+import io.harness.accesscontrol.clients.AccessCheckCacheConfiguration;
+import io.harness.accesscontrol.clients.AccessCheckCacheMetricsPublisher;
 import io.harness.accesscontrol.clients.AccessControlClient;
 import io.harness.accesscontrol.clients.AccessControlHttpClient;
 import io.harness.accesscontrol.clients.AccessControlHttpClientFactory;
@@ -18,6 +20,8 @@ import io.harness.accesscontrol.clients.NoOpAccessControlClientImpl;
 import io.harness.accesscontrol.clients.NonPrivilegedAccessControlClientImpl;
 import io.harness.accesscontrol.clients.PrivilegedAccessControlClientImpl;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.metrics.service.api.MetricService;
+import io.harness.metrics.service.api.MetricsPublisher;
 import io.harness.remote.client.ClientMode;
 import io.harness.security.ServiceTokenGenerator;
 
@@ -73,6 +77,19 @@ public class AccessControlClientModule extends AbstractModule {
   protected void configure() {
     registerRequiredBindings();
     if (accessControlClientConfiguration.isEnableAccessControl()) {
+      AccessCheckCacheConfiguration accessCheckCacheConfiguration =
+          accessControlClientConfiguration.getAccessCheckCacheConfiguration();
+      bind(AccessCheckCacheConfiguration.class)
+          .toInstance(accessCheckCacheConfiguration == null ? AccessCheckCacheConfiguration.builder().build()
+                                                            : accessCheckCacheConfiguration);
+      if (accessCheckCacheConfiguration != null && accessCheckCacheConfiguration.isEnabled()) {
+        requireBinding(MetricService.class);
+        bind(MetricsPublisher.class)
+            .annotatedWith(Names.named("AccessCheckCacheMetricsPublisher"))
+            .to(AccessCheckCacheMetricsPublisher.class)
+            .in(Scopes.SINGLETON);
+      }
+
       bind(AccessControlHttpClient.class)
           .annotatedWith(Names.named(ClientMode.PRIVILEGED.name()))
           .toProvider(privilegedAccessControlHttpClientFactory())
@@ -25,6 +25,8 @@ import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.exception.AccessDeniedException;
 import io.harness.exception.UnexpectedException;
+import io.harness.remote.client.ClientMode;
+import io.harness.security.SecurityContextBuilder;
 
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Streams;
@@ -42,10 +44,32 @@ public abstract class AbstractAccessControlClient implements AccessControlClient
   private static final String ACCOUNT_RESOURCE_TYPE = "ACCOUNT";
   private static final String PROJECT_RESOURCE_TYPE = "PROJECT";
 
-  public AbstractAccessControlClient() {}
+  private final AccessDecisionCache accessDecisionCache;
+
+  public AbstractAccessControlClient() {
+    this.accessDecisionCache = null;
+  }
+
+  protected AbstractAccessControlClient(ClientMode clientMode,
+      AccessCheckCacheConfiguration accessCheckCacheConfiguration, AccessCheckCacheMetrics accessCheckCacheMetrics) {
+    if (accessCheckCacheConfiguration != null && accessCheckCacheConfiguration.isEnabled()) {
+      this.accessDecisionCache = new AccessDecisionCache(accessCheckCacheConfiguration, this::checkForAccess,
+          this::getRequestContext, accessCheckCacheMetrics.forClientMode(clientMode));
+    } else {
+      this.accessDecisionCache = null;
+    }
+  }
 
   protected abstract AccessCheckResponseDTO checkForAccess(AccessCheckRequestDTO accessCheckRequestDTO);
 
+  /**
+   * Identifies whatever the http client takes from the calling thread into the access check request. Cached
+   * decisions and batched checks are never shared between different request contexts.
+   */
+  protected Object getRequestContext() {
+    return SecurityContextBuilder.getPrincipal();
+  }
+
   @Override
   public AccessCheckResponseDTO checkForAccess(Principal principal, List<PermissionCheckDTO> permissionCheckDTOList) {
     AccessCheckRequestDTO accessCheckRequestDTO =
@@ -164,8 +188,9 @@ public abstract class AbstractAccessControlClient implements AccessControlClient
                                .resourceAttributes(resource.getResourceAttributes())
                                .build();
     }
-    AccessCheckResponseDTO accessCheckResponseDTO =
-        checkForAccess(principal, Collections.singletonList(permissionCheckDTO));
+    AccessCheckResponseDTO accessCheckResponseDTO = accessDecisionCache == null
+        ? checkForAccess(principal, Collections.singletonList(permissionCheckDTO))
+        : accessDecisionCache.checkForAccess(principal, permissionCheckDTO);
     AccessControlDTO accessControlDTO = accessCheckResponseDTO.getAccessControlList().get(0);
     if (!accessControlDTO.isPermitted()) {
       String finalMessage =
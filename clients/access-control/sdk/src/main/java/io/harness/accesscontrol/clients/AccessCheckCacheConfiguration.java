@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.clients;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@OwnedBy(PL)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessCheckCacheConfiguration {
+  private boolean enabled;
+  @Builder.Default private long maximumSize = 10000;
+  @Builder.Default private long expireAfterWriteMillis = 5000;
+  /**
+   * How long the first single check of a batch waits for concurrent single checks of the same principal before
+   * sending them together, 0 sends every check on its own.
+   */
+  @Builder.Default private long batchWindowMillis = 5;
+  @Builder.Default private int maximumBatchSize = 100;
+}
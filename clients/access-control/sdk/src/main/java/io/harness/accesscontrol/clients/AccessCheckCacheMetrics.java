@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.clients;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.remote.client.ClientMode;
+
+import com.google.inject.Singleton;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the access check cache of each client mode, drained periodically by the metrics publisher.
+ */
+@OwnedBy(PL)
+@Singleton
+public class AccessCheckCacheMetrics {
+  private final Map<ClientMode, Counters> counters = new EnumMap<>(ClientMode.class);
+
+  public AccessCheckCacheMetrics() {
+    for (ClientMode clientMode : ClientMode.values()) {
+      counters.put(clientMode, new Counters());
+    }
+  }
+
+  Counters forClientMode(ClientMode clientMode) {
+    return counters.get(clientMode);
+  }
+
+  public Snapshot drain(ClientMode clientMode) {
+    Counters modeCounters = counters.get(clientMode);
+    return new Snapshot(modeCounters.hits.sumThenReset(), modeCounters.misses.sumThenReset(),
+        modeCounters.roundTrips.sumThenReset(), modeCounters.batchedChecks.sumThenReset());
+  }
+
+  static class Counters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder roundTrips = new LongAdder();
+    private final LongAdder batchedChecks = new LongAdder();
+
+    void hit() {
+      hits.increment();
+    }
+
+    void miss() {
+      misses.increment();
+    }
+
+    void roundTrip(int checks) {
+      roundTrips.increment();
+      batchedChecks.add(checks);
+    }
+  }
+
+  public static class Snapshot {
+    private final long hits;
+    private final long misses;
+    private final long roundTrips;
+    private final long batchedChecks;
+
+    Snapshot(long hits, long misses, long roundTrips, long batchedChecks) {
+      this.hits = hits;
+      this.misses = misses;
+      this.roundTrips = roundTrips;
+      this.batchedChecks = batchedChecks;
+    }
+
+    public boolean isEmpty() {
+      return hits + misses == 0;
+    }
+
+    public double getHitRatio() {
+      return isEmpty() ? 0 : (double) hits / (hits + misses);
+    }
+
+    public double getAverageBatchSize() {
+      return roundTrips == 0 ? 0 : (double) batchedChecks / roundTrips;
+    }
+
+    /**
+     * Single checks which did not need a call of their own, either because they were served from the cache or
+     * because they were sent along with other checks.
+     */
+    public long getRoundTripsSaved() {
+      return hits + misses - roundTrips;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.clients;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.metrics.service.api.MetricService;
+import io.harness.metrics.service.api.MetricsPublisher;
+import io.harness.remote.client.ClientMode;
+
+import com.google.inject.Inject;
+
+@OwnedBy(PL)
+public class AccessCheckCacheMetricsPublisher implements MetricsPublisher {
+  public static final String CACHE_HIT_RATIO_METRIC_NAME = "access_check_cache_hit_ratio";
+  public static final String BATCH_SIZE_METRIC_NAME = "access_check_batch_size";
+  public static final String ROUND_TRIPS_SAVED_METRIC_NAME = "access_check_round_trips_saved";
+
+  private final AccessCheckCacheMetrics accessCheckCacheMetrics;
+  private final MetricService metricService;
+
+  @Inject
+  public AccessCheckCacheMetricsPublisher(
+      AccessCheckCacheMetrics accessCheckCacheMetrics, MetricService metricService) {
+    this.accessCheckCacheMetrics = accessCheckCacheMetrics;
+    this.metricService = metricService;
+  }
+
+  @Override
+  public void recordMetrics() {
+    for (ClientMode clientMode : ClientMode.values()) {
+      AccessCheckCacheMetrics.Snapshot snapshot = accessCheckCacheMetrics.drain(clientMode);
+      if (snapshot.isEmpty()) {
+        // nothing went through the cache of this client since the last run, most likely it is not enabled
+        continue;
+      }
+      try (AccessCheckCacheMetricContext ignore = new AccessCheckCacheMetricContext(clientMode.name())) {
+        metricService.recordMetric(CACHE_HIT_RATIO_METRIC_NAME, snapshot.getHitRatio());
+        metricService.recordMetric(BATCH_SIZE_METRIC_NAME, snapshot.getAverageBatchSize());
+        metricService.recordMetric(ROUND_TRIPS_SAVED_METRIC_NAME, snapshot.getRoundTripsSaved());
+      }
+    }
+  }
+}
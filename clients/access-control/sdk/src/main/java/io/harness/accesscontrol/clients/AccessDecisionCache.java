@@ -0,0 +1,209 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.accesscontrol.clients;
+
+import static io.harness.annotations.dev.HarnessTeam.PL;
+
+import io.harness.accesscontrol.acl.api.AccessCheckRequestDTO;
+import io.harness.accesscontrol.acl.api.AccessCheckResponseDTO;
+import io.harness.accesscontrol.acl.api.AccessControlDTO;
+import io.harness.accesscontrol.acl.api.PermissionCheckDTO;
+import io.harness.accesscontrol.acl.api.Principal;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.exception.UnexpectedException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.Value;
+
+/**
+ * Short lived cache of single access check decisions, which also merges the single checks that miss the cache and
+ * are made concurrently for the same principal into one access check request.
+ *
+ * Decisions are keyed by the request context as well as by the check itself, because the non privileged client
+ * authenticates with the principal of the calling thread and the access control service falls back to that principal
+ * when the check does not carry one. The thread which opens a batch waits for batchWindowMillis, or until the batch
+ * is full, and then sends it with its own context on behalf of every thread in the batch.
+ */
+@OwnedBy(PL)
+final class AccessDecisionCache {
+  private final Function<AccessCheckRequestDTO, AccessCheckResponseDTO> accessChecker;
+  private final Supplier<Object> requestContext;
+  private final AccessCheckCacheMetrics.Counters metrics;
+  private final long batchWindowMillis;
+  private final int maximumBatchSize;
+  private final Cache<DecisionKey, AccessCheckResponseDTO> decisions;
+  private final ConcurrentMap<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+  // cache misses being checked right now, a batch is only held open for others when there are any
+  private final AtomicInteger pendingMisses = new AtomicInteger();
+
+  AccessDecisionCache(AccessCheckCacheConfiguration configuration,
+      Function<AccessCheckRequestDTO, AccessCheckResponseDTO> accessChecker, Supplier<Object> requestContext,
+      AccessCheckCacheMetrics.Counters metrics) {
+    this.accessChecker = accessChecker;
+    this.requestContext = requestContext;
+    this.metrics = metrics;
+    this.batchWindowMillis = configuration.getBatchWindowMillis();
+    this.maximumBatchSize = Math.max(1, configuration.getMaximumBatchSize());
+    this.decisions = CacheBuilder.newBuilder()
+                         .maximumSize(configuration.getMaximumSize())
+                         .expireAfterWrite(configuration.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS)
+                         .build();
+  }
+
+  /**
+   * Returns a response holding exactly one access control entry, the one for the given permission check.
+   */
+  AccessCheckResponseDTO checkForAccess(Principal principal, PermissionCheckDTO permissionCheckDTO) {
+    BatchKey batchKey = new BatchKey(requestContext.get(), principal);
+    DecisionKey decisionKey = new DecisionKey(batchKey, permissionCheckDTO);
+    AccessCheckResponseDTO decision = decisions.getIfPresent(decisionKey);
+    if (decision != null) {
+      metrics.hit();
+      return decision;
+    }
+    metrics.miss();
+    if (batchWindowMillis <= 0 || maximumBatchSize == 1) {
+      CompletableFuture<AccessCheckResponseDTO> pending = new CompletableFuture<>();
+      send(batchKey, Collections.singletonMap(permissionCheckDTO, pending));
+      return pending.join();
+    }
+
+    pendingMisses.incrementAndGet();
+    try {
+      return checkInBatch(batchKey, permissionCheckDTO);
+    } finally {
+      pendingMisses.decrementAndGet();
+    }
+  }
+
+  private AccessCheckResponseDTO checkInBatch(BatchKey batchKey, PermissionCheckDTO permissionCheckDTO) {
+    while (true) {
+      Batch batch = new Batch();
+      Batch openBatch = openBatches.putIfAbsent(batchKey, batch);
+      if (openBatch == null) {
+        CompletableFuture<AccessCheckResponseDTO> pending = batch.add(permissionCheckDTO);
+        // without any other miss in flight there is nobody to wait for, so do not delay the check by the window
+        Map<PermissionCheckDTO, CompletableFuture<AccessCheckResponseDTO>> checks =
+            pendingMisses.get() > 1 ? batch.awaitAndClose() : batch.close();
+        openBatches.remove(batchKey, batch);
+        send(batchKey, checks);
+        return pending.join();
+      }
+      CompletableFuture<AccessCheckResponseDTO> pending = openBatch.add(permissionCheckDTO);
+      if (pending != null) {
+        return await(pending);
+      }
+      // the batch was closed between the lookup and the add, drop it so that a new one can be opened
+      openBatches.remove(batchKey, openBatch);
+    }
+  }
+
+  private void send(BatchKey batchKey, Map<PermissionCheckDTO, CompletableFuture<AccessCheckResponseDTO>> checks) {
+    List<PermissionCheckDTO> permissions = new ArrayList<>(checks.keySet());
+    try {
+      metrics.roundTrip(permissions.size());
+      AccessCheckResponseDTO response = accessChecker.apply(
+          AccessCheckRequestDTO.builder().principal(batchKey.getPrincipal()).permissions(permissions).build());
+      List<AccessControlDTO> accessControlList = response.getAccessControlList();
+      if (accessControlList == null || accessControlList.size() != permissions.size()) {
+        throw new UnexpectedException(String.format("Access check for %d permissions returned %d results",
+            permissions.size(), accessControlList == null ? 0 : accessControlList.size()));
+      }
+      for (int i = 0; i < permissions.size(); i++) {
+        AccessCheckResponseDTO decision = AccessCheckResponseDTO.builder()
+                                              .principal(response.getPrincipal())
+                                              .accessControlList(Collections.singletonList(accessControlList.get(i)))
+                                              .build();
+        decisions.put(new DecisionKey(batchKey, permissions.get(i)), decision);
+        checks.get(permissions.get(i)).complete(decision);
+      }
+    } catch (RuntimeException | Error e) {
+      checks.values().forEach(pending -> pending.completeExceptionally(e));
+      throw e;
+    }
+  }
+
+  private static AccessCheckResponseDTO await(CompletableFuture<AccessCheckResponseDTO> pending) {
+    try {
+      return pending.join();
+    } catch (CompletionException e) {
+      // rethrow what the sending thread got, so that callers see the same exceptions as without batching
+      if (e.getCause() instanceof RuntimeException) {
+        throw(RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw(Error) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  @Value
+  private static class BatchKey {
+    Object requestContext;
+    Principal principal;
+  }
+
+  @Value
+  private static class DecisionKey {
+    BatchKey batchKey;
+    PermissionCheckDTO permissionCheckDTO;
+  }
+
+  private class Batch {
+    private final Map<PermissionCheckDTO, CompletableFuture<AccessCheckResponseDTO>> checks = new LinkedHashMap<>();
+    private boolean closed;
+
+    synchronized CompletableFuture<AccessCheckResponseDTO> add(PermissionCheckDTO permissionCheckDTO) {
+      if (closed || checks.size() >= maximumBatchSize) {
+        return null;
+      }
+      CompletableFuture<AccessCheckResponseDTO> pending =
+          checks.computeIfAbsent(permissionCheckDTO, check -> new CompletableFuture<>());
+      if (checks.size() >= maximumBatchSize) {
+        notifyAll();
+      }
+      return pending;
+    }
+
+    synchronized Map<PermissionCheckDTO, CompletableFuture<AccessCheckResponseDTO>> awaitAndClose() {
+      long deadline = System.currentTimeMillis() + batchWindowMillis;
+      long remaining = batchWindowMillis;
+      try {
+        while (remaining > 0 && checks.size() < maximumBatchSize) {
+          wait(remaining);
+          remaining = deadline - System.currentTimeMillis();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        closed = true;
+      }
+      return checks;
+    }
+
+    synchronized Map<PermissionCheckDTO, CompletableFuture<AccessCheckResponseDTO>> close() {
+      closed = true;
+      return checks;
+    }
+  }
+}
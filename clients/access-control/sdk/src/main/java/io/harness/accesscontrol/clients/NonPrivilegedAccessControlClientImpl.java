@@ -11,6 +11,7 @@ import io.harness.accesscontrol.acl.api.AccessCheckRequestDTO;
 import io.harness.accesscontrol.acl.api.AccessCheckResponseDTO;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.remote.client.ClientMode;
 import io.harness.remote.client.NGRestUtils;
 
 import com.google.inject.Inject;
@@ -20,9 +21,14 @@ import com.google.inject.name.Named;
 public class NonPrivilegedAccessControlClientImpl extends AbstractAccessControlClient {
   private final AccessControlHttpClient accessControlHttpClient;
 
+  public NonPrivilegedAccessControlClientImpl(AccessControlHttpClient accessControlHttpClient) {
+    this.accessControlHttpClient = accessControlHttpClient;
+  }
+
   @Inject
-  public NonPrivilegedAccessControlClientImpl(
-      @Named("NON_PRIVILEGED") AccessControlHttpClient accessControlHttpClient) {
+  public NonPrivilegedAccessControlClientImpl(@Named("NON_PRIVILEGED") AccessControlHttpClient accessControlHttpClient,
+      AccessCheckCacheConfiguration accessCheckCacheConfiguration, AccessCheckCacheMetrics accessCheckCacheMetrics) {
+    super(ClientMode.NON_PRIVILEGED, accessCheckCacheConfiguration, accessCheckCacheMetrics);
     this.accessControlHttpClient = accessControlHttpClient;
   }
 
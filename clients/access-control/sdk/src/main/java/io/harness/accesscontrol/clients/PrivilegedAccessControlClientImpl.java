@@ -11,6 +11,7 @@ import io.harness.accesscontrol.acl.api.AccessCheckRequestDTO;
 import io.harness.accesscontrol.acl.api.AccessCheckResponseDTO;
 import io.harness.annotations.dev.HarnessTeam;
 import io.harness.annotations.dev.OwnedBy;
+import io.harness.remote.client.ClientMode;
 import io.harness.remote.client.NGRestUtils;
 
 import com.google.inject.Inject;
@@ -22,8 +23,14 @@ import com.google.inject.name.Named;
 public class PrivilegedAccessControlClientImpl extends AbstractAccessControlClient {
   private final AccessControlHttpClient accessControlHttpClient;
 
+  public PrivilegedAccessControlClientImpl(AccessControlHttpClient accessControlHttpClient) {
+    this.accessControlHttpClient = accessControlHttpClient;
+  }
+
   @Inject
-  public PrivilegedAccessControlClientImpl(@Named("PRIVILEGED") AccessControlHttpClient accessControlHttpClient) {
+  public PrivilegedAccessControlClientImpl(@Named("PRIVILEGED") AccessControlHttpClient accessControlHttpClient,
+      AccessCheckCacheConfiguration accessCheckCacheConfiguration, AccessCheckCacheMetrics accessCheckCacheMetrics) {
+    super(ClientMode.PRIVILEGED, accessCheckCacheConfiguration, accessCheckCacheMetrics);
     this.accessControlHttpClient = accessControlHttpClient;
   }
 
@@ -31,4 +38,10 @@ public class PrivilegedAccessControlClientImpl extends AbstractAccessControlClie
   protected AccessCheckResponseDTO checkForAccess(AccessCheckRequestDTO accessCheckRequestDTO) {
     return NGRestUtils.getResponse(accessControlHttpClient.checkForAccess(accessCheckRequestDTO));
   }
+
+  @Override
+  protected Object getRequestContext() {
+    // privileged calls always authenticate as the service itself, whatever the calling thread is
+    return ClientMode.PRIVILEGED;
+  }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness;
+
+import static io.harness.rule.OwnerRule.ASHISHSANODIA;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.accesscontrol.acl.api.AccessCheckRequestDTO;
+import io.harness.accesscontrol.acl.api.AccessCheckResponseDTO;
+import io.harness.accesscontrol.acl.api.AccessControlDTO;
+import io.harness.accesscontrol.acl.api.PermissionCheckDTO;
+import io.harness.accesscontrol.acl.api.Resource;
+import io.harness.accesscontrol.acl.api.ResourceScope;
+import io.harness.accesscontrol.clients.AccessCheckCacheConfiguration;
+import io.harness.accesscontrol.clients.AccessCheckCacheMetrics;
+import io.harness.accesscontrol.clients.AccessControlHttpClient;
+import io.harness.accesscontrol.clients.NonPrivilegedAccessControlClientImpl;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.manage.GlobalContextManager;
+import io.harness.manage.GlobalContextManager.GlobalContextGuard;
+import io.harness.ng.core.dto.ResponseDTO;
+import io.harness.remote.client.ClientMode;
+import io.harness.rule.Owner;
+import io.harness.security.SecurityContextBuilder;
+import io.harness.security.dto.UserPrincipal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import retrofit2.Call;
+import retrofit2.Response;
+
+@OwnedBy(HarnessTeam.PL)
+public class AccessDecisionCacheTest extends CategoryTest {
+  private static final String PERMISSION = "core_pipeline_view";
+  private static final ResourceScope RESOURCE_SCOPE = ResourceScope.builder().accountIdentifier("account").build();
+
+  private AccessControlHttpClient accessControlHttpClient;
+  private AccessCheckCacheMetrics accessCheckCacheMetrics;
+  private ExecutorService executorService;
+
+  @Before
+  public void setup() throws Exception {
+    accessControlHttpClient = mock(AccessControlHttpClient.class);
+    accessCheckCacheMetrics = new AccessCheckCacheMetrics();
+    executorService = Executors.newFixedThreadPool(3);
+    when(accessControlHttpClient.checkForAccess(any()))
+        .thenAnswer(invocation -> respond(invocation.getArgument(0)));
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldServeRepeatedChecksOfTheSameContextFromCache() {
+    NonPrivilegedAccessControlClientImpl accessControlClient =
+        client(AccessCheckCacheConfiguration.builder().enabled(true).batchWindowMillis(0).build());
+
+    try (GlobalContextGuard guard = GlobalContextManager.ensureGlobalContextGuard()) {
+      SecurityContextBuilder.setContext(new UserPrincipal("user1", "user1@harness.io", "user1", "account"));
+      assertThat(accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("allowed"), PERMISSION)).isTrue();
+      assertThat(accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("allowed"), PERMISSION)).isTrue();
+      assertThat(accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("denied"), PERMISSION)).isFalse();
+      assertThat(accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("denied"), PERMISSION)).isFalse();
+      verify(accessControlHttpClient, times(2)).checkForAccess(any());
+
+      SecurityContextBuilder.setContext(new UserPrincipal("user2", "user2@harness.io", "user2", "account"));
+      assertThat(accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("allowed"), PERMISSION)).isTrue();
+      verify(accessControlHttpClient, times(3)).checkForAccess(any());
+    }
+
+    AccessCheckCacheMetrics.Snapshot snapshot = accessCheckCacheMetrics.drain(ClientMode.NON_PRIVILEGED);
+    assertThat(snapshot.getHitRatio()).isEqualTo(0.4);
+    assertThat(snapshot.getRoundTripsSaved()).isEqualTo(2);
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldMergeConcurrentChecksIntoOneRequest() throws Exception {
+    NonPrivilegedAccessControlClientImpl accessControlClient = client(
+        AccessCheckCacheConfiguration.builder().enabled(true).batchWindowMillis(60000).maximumBatchSize(2).build());
+    // the first check is held in flight until the other two got merged, which is what makes them wait for each other
+    CountDownLatch firstCheckSent = new CountDownLatch(1);
+    CountDownLatch mergedChecksSent = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    when(accessControlHttpClient.checkForAccess(any())).thenAnswer(invocation -> {
+      if (calls.incrementAndGet() == 1) {
+        firstCheckSent.countDown();
+        mergedChecksSent.await();
+      } else {
+        mergedChecksSent.countDown();
+      }
+      return respond(invocation.getArgument(0));
+    });
+
+    List<Future<Boolean>> results = new ArrayList<>();
+    results.add(
+        executorService.submit(() -> accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("allowed1"), PERMISSION)));
+    firstCheckSent.await();
+    for (String identifier : new String[] {"denied", "allowed2"}) {
+      results.add(executorService.submit(
+          () -> accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline(identifier), PERMISSION)));
+    }
+
+    assertThat(results.get(0).get()).isTrue();
+    assertThat(results.get(1).get()).isFalse();
+    assertThat(results.get(2).get()).isTrue();
+    ArgumentCaptor<AccessCheckRequestDTO> request = ArgumentCaptor.forClass(AccessCheckRequestDTO.class);
+    verify(accessControlHttpClient, times(2)).checkForAccess(request.capture());
+    assertThat(request.getAllValues().get(0).getPermissions()).hasSize(1);
+    assertThat(request.getAllValues().get(1).getPermissions()).hasSize(2);
+
+    AccessCheckCacheMetrics.Snapshot snapshot = accessCheckCacheMetrics.drain(ClientMode.NON_PRIVILEGED);
+    assertThat(snapshot.getAverageBatchSize()).isEqualTo(1.5);
+    assertThat(snapshot.getRoundTripsSaved()).isEqualTo(1);
+  }
+
+  @Test
+  @Owner(developers = ASHISHSANODIA)
+  @Category(UnitTests.class)
+  public void shouldNotWaitForTheBatchWindowWithoutOtherChecks() throws Exception {
+    NonPrivilegedAccessControlClientImpl accessControlClient =
+        client(AccessCheckCacheConfiguration.builder().enabled(true).batchWindowMillis(60000).build());
+
+    Future<Boolean> result =
+        executorService.submit(() -> accessControlClient.hasAccess(RESOURCE_SCOPE, pipeline("allowed"), PERMISSION));
+
+    assertThat(result.get(10, TimeUnit.SECONDS)).isTrue();
+    verify(accessControlHttpClient, times(1)).checkForAccess(any());
+  }
+
+  // every resource identifier starting with "allowed" is permitted
+  private static Call<ResponseDTO<AccessCheckResponseDTO>> respond(AccessCheckRequestDTO request) throws Exception {
+    List<AccessControlDTO> accessControlList = new ArrayList<>();
+    for (PermissionCheckDTO permission : request.getPermissions()) {
+      accessControlList.add(AccessControlDTO.builder()
+                                .permission(permission.getPermission())
+                                .resourceType(permission.getResourceType())
+                                .resourceIdentifier(permission.getResourceIdentifier())
+                                .permitted(permission.getResourceIdentifier().startsWith("allowed"))
+                                .build());
+    }
+    Call<ResponseDTO<AccessCheckResponseDTO>> call = mock(Call.class);
+    when(call.execute())
+        .thenReturn(Response.success(
+            ResponseDTO.newResponse(AccessCheckResponseDTO.builder().accessControlList(accessControlList).build())));
+    return call;
+  }
+
+  private NonPrivilegedAccessControlClientImpl client(AccessCheckCacheConfiguration configuration) {
+    return new NonPrivilegedAccessControlClientImpl(accessControlHttpClient, configuration, accessCheckCacheMetrics);
+  }
+
+  private static Resource pipeline(String identifier) {
+    return Resource.of("PIPELINE", identifier);
+  }
+}
@@ -176,6 +176,7 @@ public class DebeziumServiceApplication extends Application<DebeziumServiceConfi
                                                         .consumerType(ConsumerType.EVENTS_FRAMEWORK)
                                                         .eventsFrameworkConfiguration(eventsFrameworkConfiguration)
                                                         .redisStreamSize(debeziumConfig.getRedisStreamSize())
+                                                        .sinkWindowSize(debeziumConfig.getSinkWindowSize())
                                                         .build();
 
         starter.startDebeziumController(debeziumConfig, changeConsumerConfig, locker, appConfig.getRedisLockConfig(),
@@ -509,6 +509,7 @@ replace_key_value notificationClient.secrets.notificationClientSecret "$NOTIFICA
 
 replace_key_value triggerConfig.webhookBaseUrl "$WEBHOOK_TRIGGER_BASEURL"
 replace_key_value triggerConfig.customBaseUrl "$CUSTOM_TRIGGER_BASEURL"
+replace_key_value triggerConfig.webhookRoutingIndexEnabled "$WEBHOOK_TRIGGER_ROUTING_INDEX_ENABLED"
 
 replace_key_value opaServerConfig.baseUrl "$OPA_SERVER_BASEURL"
 replace_key_value opaServerConfig.secret "$OPA_SERVER_SECRET"
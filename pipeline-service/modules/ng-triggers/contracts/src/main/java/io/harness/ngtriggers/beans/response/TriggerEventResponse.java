@@ -55,6 +55,7 @@ public class TriggerEventResponse {
     NO_ENABLED_TRIGGER_FOR_SOURCEREPO_TYPE("No enabled trigger for source repo type"),
     NO_ENABLED_TRIGGER_FOR_ACCOUNT_SOURCE_REPO("No enabled trigger for account source repo"),
     NO_MATCHING_TRIGGER_FOR_FILEPATH_CONDITIONS("No matching trigger for filepath conditions"),
+    NO_MATCHING_TRIGGER_FOR_EVENT_TYPE_AND_BRANCHES("No matching trigger for event type and branches"),
     FAILED_TO_FETCH_PR_DETAILS("Failed to fetch pr details"),
     EXCEPTION_WHILE_PROCESSING("Exception while processing"),
     TRIGGER_CONFIRMATION_SUCCESSFUL("Trigger confirmation successful"),
@@ -71,6 +71,8 @@ public class NGTriggersModule extends AbstractModule {
     variablesMapBinder.addBinding("trigger").toInstance(TriggerHelper.getAllTriggerExpressions());
 
     install(SCMJavaClientModule.getInstance());
+    bind(TriggerConfiguration.class)
+        .toInstance(triggerConfig != null ? triggerConfig : TriggerConfiguration.builder().build());
     bind(NGTriggerService.class).to(NGTriggerServiceImpl.class);
     bind(NGTriggerEventsService.class).to(NGTriggerEventServiceImpl.class);
     bind(NGTriggerWebhookRegistrationService.class).to(NGTriggerWebhookRegistrationServiceImpl.class);
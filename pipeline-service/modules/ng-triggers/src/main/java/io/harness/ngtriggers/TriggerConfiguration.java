@@ -20,4 +20,5 @@ import lombok.Value;
 public class TriggerConfiguration {
   private String webhookBaseUrl;
   private String customBaseUrl;
+  private boolean webhookRoutingIndexEnabled;
 }
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.ngtriggers.eventmapper;
+
+import static io.harness.annotations.dev.HarnessTeam.PIPELINE;
+import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.beans.WebhookEvent.Type.PR;
+import static io.harness.beans.WebhookEvent.Type.PUSH;
+
+import static org.apache.commons.lang3.StringUtils.EMPTY;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.beans.WebhookBaseAttributes;
+import io.harness.beans.WebhookEvent;
+import io.harness.ngtriggers.TriggerConfiguration;
+import io.harness.ngtriggers.beans.config.NGTriggerConfigV2;
+import io.harness.ngtriggers.beans.dto.TriggerDetails;
+import io.harness.ngtriggers.beans.entity.NGTriggerEntity;
+import io.harness.ngtriggers.beans.entity.TriggerWebhookEvent;
+import io.harness.ngtriggers.beans.scm.WebhookPayloadData;
+import io.harness.ngtriggers.beans.source.NGTriggerSpecV2;
+import io.harness.ngtriggers.beans.source.webhook.v2.TriggerEventDataCondition;
+import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
+import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerSpecV2;
+import io.harness.ngtriggers.conditionchecker.CompiledCondition;
+import io.harness.ngtriggers.conditionchecker.ConditionEvaluator;
+import io.harness.ngtriggers.mapper.NGTriggerElementMapper;
+import io.harness.ngtriggers.mapper.TriggerFilterHelper;
+import io.harness.ngtriggers.utils.WebhookTriggerFilterUtils;
+import io.harness.repositories.spring.NGTriggerRepository;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Index of the enabled webhook triggers per account and source repo type, so that incoming webhooks don't load and
+ * parse every trigger of the account. Triggers are parsed once and routed by git event, and the branch conditions of
+ * pull request and push triggers are compiled once, so that only the triggers which can match the event go through the
+ * filters. Triggers are not routed by repo, as the repo of a trigger depends on its connector, so events of a repo no
+ * trigger listens to still go through the filters.
+ * <p/>
+ * Trigger writes on this replica invalidate the routes of the account right away. Once {@link #subscribe} is called
+ * the invalidations are also published on a redis topic, so that the other replicas drop the routes of the account as
+ * well, expiring the routes is only a backstop for lost invalidations. Rebuilding the routes of an account only parses
+ * the triggers which changed.
+ */
+@Singleton
+@Slf4j
+@OwnedBy(PIPELINE)
+public class WebhookTriggerRoutingIndex {
+  static final String TOPIC_NAME = "webhookTriggerRoutingIndex/invalidations";
+  private static final long MAX_ROUTES_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final int MAX_ROUTES = 2000;
+  private static final String SOURCE_BRANCH = "sourceBranch";
+  private static final String TARGET_BRANCH = "targetBranch";
+  // separates the source id from the account id in the published invalidations
+  private static final String SEPARATOR = ":";
+
+  private final NGTriggerRepository ngTriggerRepository;
+  private final NGTriggerElementMapper ngTriggerElementMapper;
+  private final boolean enabled;
+
+  private final Cache<RoutesKey, Routes> routesCache = CacheBuilder.newBuilder().maximumSize(MAX_ROUTES).build();
+  // bumped on every invalidation, routes loaded meanwhile might miss the change and are not kept
+  private final AtomicLong generation = new AtomicLong();
+  private final String sourceId = generateUuid();
+  private volatile RTopic topic;
+
+  @Inject
+  public WebhookTriggerRoutingIndex(NGTriggerRepository ngTriggerRepository,
+      NGTriggerElementMapper ngTriggerElementMapper, TriggerConfiguration triggerConfig) {
+    this.ngTriggerRepository = ngTriggerRepository;
+    this.ngTriggerElementMapper = ngTriggerElementMapper;
+    this.enabled = triggerConfig.isWebhookRoutingIndexEnabled();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Finds the enabled triggers for the account and source repo type of the event which can match its git event and
+   * branches, with their config parsed. Returns none if no trigger can match, see {@link #hasTriggers} to tell that
+   * apart from the account having no triggers. Returns all of them if the event has no git event type.
+   * <p/>
+   * The trigger entities and configs are shared between events and must not be modified.
+   */
+  public List<TriggerDetails> findCandidates(WebhookPayloadData webhookPayloadData) {
+    return getRoutes(webhookPayloadData.getOriginalEvent()).candidates(webhookPayloadData.getWebhookEvent());
+  }
+
+  /**
+   * Whether the account has enabled triggers for the source repo type of the event.
+   */
+  public boolean hasTriggers(WebhookPayloadData webhookPayloadData) {
+    return !getRoutes(webhookPayloadData.getOriginalEvent()).all.isEmpty();
+  }
+
+  /**
+   * Drops the routes of the account, to be called after its triggers are created, updated or deleted.
+   */
+  public void invalidate(String accountId) {
+    if (!enabled) {
+      return;
+    }
+    invalidateLocally(accountId);
+    RTopic invalidations = topic;
+    if (invalidations != null) {
+      // the other replicas pick the change up once their routes expire if this gets lost
+      invalidations.publishAsync(sourceId + SEPARATOR + accountId);
+    }
+  }
+
+  /**
+   * Starts publishing the invalidations to the other replicas and applying theirs.
+   */
+  public void subscribe(RedissonClient redissonClient, String envNamespace) {
+    RTopic invalidations = redissonClient.getTopic(
+        isEmpty(envNamespace) ? TOPIC_NAME : envNamespace.concat(":").concat(TOPIC_NAME), StringCodec.INSTANCE);
+    invalidations.addListener(String.class, (channel, invalidation) -> onInvalidation(invalidation));
+    invalidations.addListener(new BaseStatusListener() {
+      @Override
+      public void onSubscribe(String channel) {
+        // invalidations published while we were disconnected are lost
+        invalidateAllLocally();
+      }
+    });
+    topic = invalidations;
+  }
+
+  @VisibleForTesting
+  void onInvalidation(String invalidation) {
+    int separator = invalidation.indexOf(SEPARATOR);
+    if (separator < 0 || sourceId.equals(invalidation.substring(0, separator))) {
+      return;
+    }
+    invalidateLocally(invalidation.substring(separator + 1));
+  }
+
+  private void invalidateLocally(String accountId) {
+    generation.incrementAndGet();
+    routesCache.asMap().forEach((key, routes) -> {
+      if (key.getAccountId().equals(accountId)) {
+        routes.invalidate();
+      }
+    });
+  }
+
+  private void invalidateAllLocally() {
+    generation.incrementAndGet();
+    routesCache.asMap().values().forEach(Routes::invalidate);
+  }
+
+  private Routes getRoutes(TriggerWebhookEvent triggerWebhookEvent) {
+    RoutesKey key = new RoutesKey(triggerWebhookEvent.getAccountId(), triggerWebhookEvent.getSourceRepoType());
+    long now = System.currentTimeMillis();
+    Routes current = routesCache.getIfPresent(key);
+    if (current != null && current.isValid(now)) {
+      return current;
+    }
+
+    long loadGeneration = generation.get();
+    List<NGTriggerEntity> triggers =
+        ngTriggerRepository
+            .findAll(TriggerFilterHelper.createCriteriaFormWebhookTriggerGetListByRepoType(
+                         triggerWebhookEvent, EMPTY, false, true),
+                Pageable.unpaged())
+            .getContent();
+    Routes routes = new Routes(now, route(triggers, current));
+    if (generation.get() == loadGeneration) {
+      routesCache.put(key, routes);
+    }
+    log.info("Routed {} webhook triggers for account {} and source repo type {}", triggers.size(), key.getAccountId(),
+        key.getSourceRepoType());
+    return routes;
+  }
+
+  private List<RoutedTrigger> route(List<NGTriggerEntity> triggers, Routes previous) {
+    List<RoutedTrigger> routedTriggers = new ArrayList<>(triggers.size());
+    for (NGTriggerEntity trigger : triggers) {
+      RoutedTrigger previousRoute = previous == null ? null : previous.get(trigger.getUuid());
+      if (previousRoute != null && previousRoute.isRoutedFrom(trigger)) {
+        // the entity is refreshed, only its config is reused
+        routedTriggers.add(previousRoute.withEntity(trigger));
+      } else {
+        routedTriggers.add(route(trigger));
+      }
+    }
+    return routedTriggers;
+  }
+
+  @VisibleForTesting
+  RoutedTrigger route(NGTriggerEntity trigger) {
+    NGTriggerConfigV2 config;
+    try {
+      config = ngTriggerElementMapper.toTriggerConfigV2(trigger);
+    } catch (Exception e) {
+      // left to the filters, which report the trigger as skipped
+      return new RoutedTrigger(trigger, null, null, Collections.emptyList(), Collections.emptyList());
+    }
+
+    String gitEvent = null;
+    List<CompiledCondition> sourceBranchConditions = new ArrayList<>();
+    List<CompiledCondition> targetBranchConditions = new ArrayList<>();
+    try {
+      NGTriggerSpecV2 spec = config.getSource().getSpec();
+      if (spec instanceof WebhookTriggerConfigV2) {
+        WebhookTriggerSpecV2 webhookTriggerSpec = ((WebhookTriggerConfigV2) spec).getSpec();
+        if (webhookTriggerSpec.fetchGitAware() != null) {
+          gitEvent = webhookTriggerSpec.fetchGitAware().fetchEvent().getValue();
+        }
+        if (webhookTriggerSpec.fetchPayloadAware() != null
+            && webhookTriggerSpec.fetchPayloadAware().fetchPayloadConditions() != null) {
+          for (TriggerEventDataCondition condition : webhookTriggerSpec.fetchPayloadAware().fetchPayloadConditions()) {
+            if (SOURCE_BRANCH.equals(condition.getKey())) {
+              sourceBranchConditions.add(compile(condition));
+            } else if (TARGET_BRANCH.equals(condition.getKey())) {
+              targetBranchConditions.add(compile(condition));
+            }
+          }
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Failed to route trigger {}, it is evaluated for every event", trigger.getIdentifier(), e);
+      return new RoutedTrigger(trigger, config, null, Collections.emptyList(), Collections.emptyList());
+    }
+    return new RoutedTrigger(trigger, config, gitEvent, sourceBranchConditions, targetBranchConditions);
+  }
+
+  private static CompiledCondition compile(TriggerEventDataCondition condition) {
+    String operator = condition.getOperator() != null ? condition.getOperator().getValue() : EMPTY;
+    return ConditionEvaluator.compile(condition.getValue(), operator);
+  }
+
+  @Value
+  private static class RoutesKey {
+    String accountId;
+    String sourceRepoType;
+  }
+
+  private static class Routes {
+    private final long loadedAt;
+    private final List<TriggerDetails> all = new ArrayList<>();
+    private final Map<String, RoutedTrigger> byUuid = new HashMap<>();
+    // in the order of the triggers, triggers without git event are routed to all events
+    private final Map<WebhookEvent.Type, List<RoutedTrigger>> byEventType = new EnumMap<>(WebhookEvent.Type.class);
+    private volatile boolean invalidated;
+
+    Routes(long loadedAt, List<RoutedTrigger> routedTriggers) {
+      this.loadedAt = loadedAt;
+      for (WebhookEvent.Type type : WebhookEvent.Type.values()) {
+        byEventType.put(type, new ArrayList<>());
+      }
+      for (RoutedTrigger routedTrigger : routedTriggers) {
+        all.add(routedTrigger.toTriggerDetails());
+        byUuid.put(routedTrigger.getEntity().getUuid(), routedTrigger);
+        for (WebhookEvent.Type type : WebhookEvent.Type.values()) {
+          if (routedTrigger.getGitEvent() == null
+              || WebhookTriggerFilterUtils.checkIfEventTypeMatches(type, routedTrigger.getGitEvent())) {
+            byEventType.get(type).add(routedTrigger);
+          }
+        }
+      }
+    }
+
+    boolean isValid(long now) {
+      return !invalidated && now - loadedAt < MAX_ROUTES_AGE_MILLIS;
+    }
+
+    void invalidate() {
+      invalidated = true;
+    }
+
+    RoutedTrigger get(String uuid) {
+      return byUuid.get(uuid);
+    }
+
+    List<TriggerDetails> candidates(WebhookEvent webhookEvent) {
+      if (webhookEvent == null || webhookEvent.getType() == null) {
+        return copyOf(all);
+      }
+      WebhookBaseAttributes baseAttributes = webhookEvent.getBaseAttributes();
+      // branch conditions are evaluated by the payload conditions filter for pull request and push events only
+      boolean checkBranches =
+          (webhookEvent.getType() == PR || webhookEvent.getType() == PUSH) && baseAttributes != null;
+      List<TriggerDetails> candidates = new ArrayList<>();
+      for (RoutedTrigger routedTrigger : byEventType.get(webhookEvent.getType())) {
+        if (!checkBranches || routedTrigger.matchesBranches(baseAttributes)) {
+          candidates.add(routedTrigger.toTriggerDetails());
+        }
+      }
+      return candidates;
+    }
+
+    private static List<TriggerDetails> copyOf(List<TriggerDetails> triggerDetails) {
+      List<TriggerDetails> copy = new ArrayList<>(triggerDetails.size());
+      for (TriggerDetails details : triggerDetails) {
+        copy.add(TriggerDetails.builder()
+                     .ngTriggerEntity(details.getNgTriggerEntity())
+                     .ngTriggerConfigV2(details.getNgTriggerConfigV2())
+                     .build());
+      }
+      return copy;
+    }
+  }
+
+  @Value
+  @VisibleForTesting
+  static class RoutedTrigger {
+    NGTriggerEntity entity;
+    // null if the trigger couldn't be parsed
+    NGTriggerConfigV2 config;
+    // null if the trigger couldn't be routed
+    String gitEvent;
+    List<CompiledCondition> sourceBranchConditions;
+    List<CompiledCondition> targetBranchConditions;
+
+    boolean isRoutedFrom(NGTriggerEntity trigger) {
+      return Objects.equals(entity.getYaml(), trigger.getYaml())
+          && Objects.equals(entity.getYmlVersion(), trigger.getYmlVersion())
+          && Objects.equals(entity.getHarnessVersion(), trigger.getHarnessVersion());
+    }
+
+    RoutedTrigger withEntity(NGTriggerEntity trigger) {
+      return new RoutedTrigger(trigger, config, gitEvent, sourceBranchConditions, targetBranchConditions);
+    }
+
+    /**
+     * Evaluates the branch conditions as {@link WebhookTriggerFilterUtils#checkIfPayloadConditionsMatch} does, but
+     * keeps the trigger if the evaluation fails.
+     */
+    boolean matchesBranches(WebhookBaseAttributes baseAttributes) {
+      try {
+        // push events don't have a source branch
+        if (isNotBlank(baseAttributes.getSource())) {
+          for (CompiledCondition condition : sourceBranchConditions) {
+            if (!condition.evaluate(baseAttributes.getSource())) {
+              return false;
+            }
+          }
+        }
+        for (CompiledCondition condition : targetBranchConditions) {
+          if (!condition.evaluate(baseAttributes.getTarget())) {
+            return false;
+          }
+        }
+        return true;
+      } catch (Exception e) {
+        return true;
+      }
+    }
+
+    TriggerDetails toTriggerDetails() {
+      return TriggerDetails.builder().ngTriggerEntity(entity).ngTriggerConfigV2(config).build();
+    }
+  }
+}
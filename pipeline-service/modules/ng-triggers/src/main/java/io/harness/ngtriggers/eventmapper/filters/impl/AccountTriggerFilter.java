@@ -10,6 +10,7 @@ package io.harness.ngtriggers.eventmapper.filters.impl;
 import static io.harness.annotations.dev.HarnessTeam.PIPELINE;
 import static io.harness.data.structure.EmptyPredicate.isEmpty;
 import static io.harness.ngtriggers.beans.response.TriggerEventResponse.FinalStatus.NO_ENABLED_TRIGGER_FOR_ACCOUNT_SOURCE_REPO;
+import static io.harness.ngtriggers.beans.response.TriggerEventResponse.FinalStatus.NO_MATCHING_TRIGGER_FOR_EVENT_TYPE_AND_BRANCHES;
 
 import static java.util.stream.Collectors.toList;
 
@@ -17,8 +18,8 @@ import io.harness.annotations.dev.OwnedBy;
 import io.harness.ngtriggers.beans.dto.TriggerDetails;
 import io.harness.ngtriggers.beans.dto.eventmapping.WebhookEventMappingResponse;
 import io.harness.ngtriggers.beans.dto.eventmapping.WebhookEventMappingResponse.WebhookEventMappingResponseBuilder;
-import io.harness.ngtriggers.beans.entity.NGTriggerEntity;
 import io.harness.ngtriggers.beans.entity.TriggerWebhookEvent;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.ngtriggers.eventmapper.filters.TriggerFilter;
 import io.harness.ngtriggers.eventmapper.filters.dto.FilterRequestData;
 import io.harness.ngtriggers.helpers.TriggerEventResponseHelper;
@@ -36,13 +37,35 @@ import lombok.extern.slf4j.Slf4j;
 @OwnedBy(PIPELINE)
 public class AccountTriggerFilter implements TriggerFilter {
   private final NGTriggerService ngTriggerService;
+  private final WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
 
   @Override
   public WebhookEventMappingResponse applyFilter(FilterRequestData filterRequestData) {
     WebhookEventMappingResponseBuilder builder = initWebhookEventMappingResponse(filterRequestData);
     TriggerWebhookEvent triggerWebhookEvent = filterRequestData.getWebhookPayloadData().getOriginalEvent();
-    List<NGTriggerEntity> triggersForAccount =
-        ngTriggerService.findTriggersForWehbookBySourceRepoType(triggerWebhookEvent, false, true);
+    List<TriggerDetails> triggersForAccount;
+    if (webhookTriggerRoutingIndex.isEnabled()) {
+      triggersForAccount = webhookTriggerRoutingIndex.findCandidates(filterRequestData.getWebhookPayloadData());
+      if (isEmpty(triggersForAccount)
+          && webhookTriggerRoutingIndex.hasTriggers(filterRequestData.getWebhookPayloadData())) {
+        String errorMsg = new StringBuilder(256)
+                              .append("No trigger matches the event type and branches for Account:")
+                              .append(triggerWebhookEvent.getAccountId())
+                              .append(", SourceRepoType: ")
+                              .append(triggerWebhookEvent.getSourceRepoType())
+                              .toString();
+        log.info(errorMsg);
+        return builder.failedToFindTrigger(true)
+            .webhookEventResponse(TriggerEventResponseHelper.toResponse(
+                NO_MATCHING_TRIGGER_FOR_EVENT_TYPE_AND_BRANCHES, triggerWebhookEvent, null, null, errorMsg, null))
+            .build();
+      }
+    } else {
+      triggersForAccount = ngTriggerService.findTriggersForWehbookBySourceRepoType(triggerWebhookEvent, false, true)
+                               .stream()
+                               .map(entity -> TriggerDetails.builder().ngTriggerEntity(entity).build())
+                               .collect(toList());
+    }
 
     if (isEmpty(triggersForAccount)) {
       String errorMsg = new StringBuilder(256)
@@ -55,10 +78,7 @@ public class AccountTriggerFilter implements TriggerFilter {
       builder.failedToFindTrigger(true).webhookEventResponse(TriggerEventResponseHelper.toResponse(
           NO_ENABLED_TRIGGER_FOR_ACCOUNT_SOURCE_REPO, triggerWebhookEvent, null, null, errorMsg, null));
     } else {
-      addDetails(builder, filterRequestData,
-          triggersForAccount.stream()
-              .map(entity -> TriggerDetails.builder().ngTriggerEntity(entity).build())
-              .collect(toList()));
+      addDetails(builder, filterRequestData, triggersForAccount);
     }
 
     return builder.build();
@@ -53,6 +53,7 @@ import io.harness.ngtriggers.beans.source.NGTriggerSpecV2;
 import io.harness.ngtriggers.beans.source.WebhookTriggerType;
 import io.harness.ngtriggers.beans.source.webhook.v2.TriggerEventDataCondition;
 import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
+import io.harness.ngtriggers.conditionchecker.CompiledCondition;
 import io.harness.ngtriggers.conditionchecker.ConditionEvaluator;
 import io.harness.ngtriggers.eventmapper.filters.TriggerFilter;
 import io.harness.ngtriggers.eventmapper.filters.dto.FilterRequestData;
@@ -188,9 +189,11 @@ public class FilepathTriggerFilter implements TriggerFilter {
   boolean evaluateFromPushPayload(FilterRequestData filterRequestData, TriggerEventDataCondition pathCondition) {
     Set<String> payloadFiles = getFilesFromPushPayload(filterRequestData);
 
+    CompiledCondition condition =
+        ConditionEvaluator.compile(pathCondition.getValue(), pathCondition.getOperator().getValue());
     boolean eligible = false;
     for (String pathFetched : payloadFiles) {
-      if (ConditionEvaluator.evaluate(pathFetched, pathCondition.getValue(), pathCondition.getOperator().getValue())) {
+      if (condition.evaluate(pathFetched)) {
         eligible = true;
         break;
       }
@@ -86,6 +86,7 @@ import io.harness.ngtriggers.beans.source.scheduled.CronTriggerSpec;
 import io.harness.ngtriggers.beans.source.scheduled.ScheduledTriggerConfig;
 import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
 import io.harness.ngtriggers.buildtriggers.helpers.BuildTriggerHelper;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.ngtriggers.events.TriggerCreateEvent;
 import io.harness.ngtriggers.events.TriggerDeleteEvent;
 import io.harness.ngtriggers.events.TriggerUpdateEvent;
@@ -197,6 +198,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
   private final TriggerReferenceHelper triggerReferenceHelper;
   private final TriggerSetupUsageHelper triggerSetupUsageHelper;
   private final MaxMultiArtifactTriggerSourcesProvider maxMultiArtifactTriggerSourcesProvider;
+  private final WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
   private static final String TRIGGER = "trigger";
   private static final String INPUT_YAML = "inputYaml";
 
@@ -259,6 +261,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
   }
 
   private void performPostUpsertFlow(NGTriggerEntity ngTriggerEntity, boolean isUpdate) {
+    webhookTriggerRoutingIndex.invalidate(ngTriggerEntity.getAccountId());
     NGTriggerEntity validatedTrigger = validateTrigger(ngTriggerEntity);
     registerWebhookAsync(validatedTrigger);
     registerPollingAsync(validatedTrigger, isUpdate);
@@ -471,6 +474,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
       throw new InvalidRequestException(
           String.format("NGTrigger [%s] couldn't be updated or doesn't exist", ngTriggerEntity.getIdentifier()));
     }
+    webhookTriggerRoutingIndex.invalidate(updatedEntity.getAccountId());
   }
 
   private void stampPollingStatusInfo(
@@ -606,6 +610,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
       failedToUpdate = failedToUpdate + triggerUpdateCount.getFailureCount();
     }
 
+    webhookTriggerRoutingIndex.invalidate(accountIdentifier);
     String toggledAction = enable ? "enabled" : "disabled";
 
     log.info("Successfully {} {} and failed to {} {} triggers in account {}, org {}, project {}, pipeline {}",
@@ -675,6 +680,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
     if (!hardDeleteResult.wasAcknowledged()) {
       throw new InvalidRequestException(String.format("NGTrigger [%s] couldn't hard delete", identifier));
     }
+    webhookTriggerRoutingIndex.invalidate(accountId);
     log.info("NGTrigger {} hard delete successful", identifier);
 
     if (ngTriggerEntity.isPresent()) {
@@ -1303,6 +1309,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
         throw new InvalidRequestException(
             String.format("NGTrigger [%s] couldn't be updated or doesn't exist", identifier));
       }
+      webhookTriggerRoutingIndex.invalidate(ngTriggerEntity.getAccountId());
     }
 
     return ngTriggerEntity;
@@ -1468,6 +1475,7 @@ public class NGTriggerServiceImpl implements NGTriggerService {
       }
 
       TriggerUpdateCount updateTriggerYamlResult = ngTriggerRepository.updateTriggerYaml(listOfUpdatedTriggers);
+      webhookTriggerRoutingIndex.invalidate(accountIdentifier);
       return TriggerUpdateCount.builder()
           .failureCount(updateTriggerYamlResult.getFailureCount() + failedYamlUpdateCount)
           .successCount(updateTriggerYamlResult.getSuccessCount())
@@ -25,6 +25,7 @@ import io.harness.delegate.task.scm.ScmPathFilterEvaluationTaskResponse;
 import io.harness.exception.ConnectorNotFoundException;
 import io.harness.git.GitClientHelper;
 import io.harness.ngtriggers.beans.source.webhook.v2.TriggerEventDataCondition;
+import io.harness.ngtriggers.conditionchecker.CompiledCondition;
 import io.harness.ngtriggers.conditionchecker.ConditionEvaluator;
 import io.harness.ngtriggers.eventmapper.filters.dto.FilterRequestData;
 import io.harness.product.ci.scm.proto.CompareCommitsResponse;
@@ -73,8 +74,9 @@ public class SCMFilePathEvaluatorOnManager extends SCMFilePathEvaluator {
         changedFiles = GitClientHelper.sanitiseFilesForAzureRepo(changedFiles);
       }
 
+      CompiledCondition condition = ConditionEvaluator.compile(params.getStandard(), params.getOperator());
       for (String filepath : changedFiles) {
-        if (ConditionEvaluator.evaluate(filepath, params.getStandard(), params.getOperator())) {
+        if (condition.evaluate(filepath)) {
           return ScmPathFilterEvaluationTaskResponse.builder().matched(true).build();
         }
       }
@@ -73,8 +73,10 @@ public class WebhookTriggerFilterUtils {
           "Invalid Filter used. Event Filter is not compatible with class: " + webhookTriggerSpec.getClass(), USER_SRE);
     }
 
-    String gitEvent = webhookTriggerSpec.fetchGitAware().fetchEvent().getValue();
+    return checkIfEventTypeMatches(eventTypeFromPayload, webhookTriggerSpec.fetchGitAware().fetchEvent().getValue());
+  }
 
+  public boolean checkIfEventTypeMatches(io.harness.beans.WebhookEvent.Type eventTypeFromPayload, String gitEvent) {
     if (eventTypeFromPayload.equals(PR)) {
       return gitEvent.equals(PULL_REQUEST_EVENT_TYPE) || gitEvent.equals(MERGE_REQUEST_EVENT_TYPE);
     }
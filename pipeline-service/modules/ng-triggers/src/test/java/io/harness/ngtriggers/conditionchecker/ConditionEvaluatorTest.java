@@ -19,12 +19,15 @@ import static io.harness.ngtriggers.conditionchecker.OperationEvaluator.STARTS_W
 import static io.harness.rule.OwnerRule.NAMAN;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.harness.CategoryTest;
 import io.harness.annotations.dev.OwnedBy;
 import io.harness.category.element.UnitTests;
+import io.harness.exception.InvalidArgumentsException;
 import io.harness.rule.Owner;
 
+import java.util.regex.PatternSyntaxException;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -95,4 +98,28 @@ public class ConditionEvaluatorTest extends CategoryTest {
     assertThat(ConditionEvaluator.evaluate("release/on-prem/2401", "release/on-prem", DOES_NOT_CONTAIN_OPERATOR))
         .isFalse();
   }
+
+  @Test
+  @Owner(developers = NAMAN)
+  @Category(UnitTests.class)
+  public void testCompile() {
+    String[][] conditions = {{"master", EQUALS_OPERATOR}, {"master", NOT_EQUALS_OPERATOR}, {"", NOT_EQUALS_OPERATOR},
+        {"release", STARTS_WITH_OPERATOR}, {"2401", ENDS_WITH_OPERATOR}, {"master", DOES_NOT_CONTAIN_OPERATOR},
+        {"master, release/saas/*", IN_OPERATOR}, {"\"prod,d\", qa", IN_OPERATOR}, {"qa, release/.*", NOT_IN_OPERATOR},
+        {"^release/saas/.*", REGEX_OPERATOR}, {"", REGEX_OPERATOR}};
+    String[] inputs = {"master", "master1", "prod,d", "release/saas", "release/saas/2401", "release/on-prem/2401", ""};
+    for (String[] condition : conditions) {
+      CompiledCondition compiledCondition = ConditionEvaluator.compile(condition[0], condition[1]);
+      for (String input : inputs) {
+        assertThat(compiledCondition.evaluate(input))
+            .describedAs("%s %s %s", input, condition[1], condition[0])
+            .isEqualTo(ConditionEvaluator.evaluate(input, condition[0], condition[1]));
+      }
+    }
+
+    CompiledCondition invalidRegex = ConditionEvaluator.compile("release/(", REGEX_OPERATOR);
+    assertThatThrownBy(() -> invalidRegex.evaluate("release/saas")).isInstanceOf(PatternSyntaxException.class);
+    CompiledCondition unknownOperator = ConditionEvaluator.compile("master", "Matches");
+    assertThatThrownBy(() -> unknownOperator.evaluate("master")).isInstanceOf(InvalidArgumentsException.class);
+  }
 }
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.ngtriggers.eventmapper;
+
+import static io.harness.annotations.dev.HarnessTeam.PIPELINE;
+import static io.harness.rule.OwnerRule.MEET;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.beans.PRWebhookEvent;
+import io.harness.beans.PushWebhookEvent;
+import io.harness.beans.WebhookBaseAttributes;
+import io.harness.beans.WebhookEvent;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.ngtriggers.TriggerConfiguration;
+import io.harness.ngtriggers.beans.config.NGTriggerConfigV2;
+import io.harness.ngtriggers.beans.dto.TriggerDetails;
+import io.harness.ngtriggers.beans.entity.NGTriggerEntity;
+import io.harness.ngtriggers.beans.entity.TriggerWebhookEvent;
+import io.harness.ngtriggers.beans.scm.WebhookPayloadData;
+import io.harness.ngtriggers.beans.source.webhook.v2.TriggerEventDataCondition;
+import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
+import io.harness.ngtriggers.conditionchecker.ConditionEvaluator;
+import io.harness.ngtriggers.mapper.NGTriggerElementMapper;
+import io.harness.ngtriggers.utils.WebhookTriggerFilterUtils;
+import io.harness.repositories.spring.NGTriggerRepository;
+import io.harness.rule.Owner;
+import io.harness.utils.PmsFeatureFlagService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+@Slf4j
+@OwnedBy(PIPELINE)
+public class WebhookTriggerRoutingIndexTest extends CategoryTest {
+  private static final String ACCOUNT_ID = "acc";
+
+  @Mock NGTriggerRepository ngTriggerRepository;
+  @Mock PmsFeatureFlagService pmsFeatureFlagService;
+  @InjectMocks NGTriggerElementMapper ngTriggerElementMapper;
+  private final List<NGTriggerEntity> triggers = new ArrayList<>();
+  private WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(ngTriggerRepository.findAll(any(Criteria.class), any(Pageable.class)))
+        .thenAnswer(invocation -> new PageImpl<>(new ArrayList<>(triggers)));
+    webhookTriggerRoutingIndex = newIndex(true);
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(UnitTests.class)
+  public void testFindCandidatesByEventTypeAndBranch() {
+    triggers.add(trigger("pr_main", "PullRequest", "main"));
+    triggers.add(trigger("pr_release", "PullRequest", "release"));
+    triggers.add(trigger("push_main", "Push", "main"));
+    triggers.add(trigger("pr_any", "PullRequest", null));
+
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main"))))
+        .containsExactly("pr_main", "pr_any");
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("release"))))
+        .containsExactly("pr_release", "pr_any");
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(pushPayload("main"))))
+        .containsExactly("push_main");
+
+    List<TriggerDetails> candidates = webhookTriggerRoutingIndex.findCandidates(prPayload("main"));
+    assertThat(candidates.get(0).getNgTriggerConfigV2()).isNotNull();
+    verify(ngTriggerRepository, times(1)).findAll(any(Criteria.class), any(Pageable.class));
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(UnitTests.class)
+  public void testFindCandidatesReturnsNoTriggersWhenNoneCanMatch() {
+    triggers.add(trigger("pr_main", "PullRequest", "main"));
+    triggers.add(trigger("push_main", "Push", "main"));
+    triggers.add(
+        NGTriggerEntity.builder().uuid("broken").identifier("broken").yaml("trigger: [").ymlVersion(2L).build());
+
+    // triggers which can't be parsed are left to the filters
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(pushPayload("develop"))))
+        .containsExactly("broken");
+    triggers.remove(2);
+    webhookTriggerRoutingIndex.invalidate(ACCOUNT_ID);
+    assertThat(webhookTriggerRoutingIndex.findCandidates(pushPayload("develop"))).isEmpty();
+    assertThat(webhookTriggerRoutingIndex.hasTriggers(pushPayload("develop"))).isTrue();
+
+    triggers.clear();
+    webhookTriggerRoutingIndex.invalidate(ACCOUNT_ID);
+    assertThat(webhookTriggerRoutingIndex.findCandidates(pushPayload("develop"))).isEmpty();
+    assertThat(webhookTriggerRoutingIndex.hasTriggers(pushPayload("develop"))).isFalse();
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(UnitTests.class)
+  public void testInvalidateReusesUnchangedTriggers() {
+    NGTriggerEntity unchanged = trigger("pr_main", "PullRequest", "main");
+    triggers.add(unchanged);
+    triggers.add(trigger("pr_release", "PullRequest", "release"));
+    NGTriggerConfigV2 config =
+        webhookTriggerRoutingIndex.findCandidates(prPayload("main")).get(0).getNgTriggerConfigV2();
+
+    triggers.set(1, trigger("pr_release", "PullRequest", "main"));
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main")))).containsExactly("pr_main");
+    webhookTriggerRoutingIndex.invalidate("otherAccount");
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main")))).containsExactly("pr_main");
+
+    webhookTriggerRoutingIndex.invalidate(ACCOUNT_ID);
+    List<TriggerDetails> candidates = webhookTriggerRoutingIndex.findCandidates(prPayload("main"));
+    assertThat(identifiers(candidates)).containsExactly("pr_main", "pr_release");
+    assertThat(candidates.get(0).getNgTriggerConfigV2()).isSameAs(config);
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(UnitTests.class)
+  public void testInvalidationsAreBroadcastToOtherReplicas() {
+    RedissonClient redissonClient = mock(RedissonClient.class);
+    RTopic topic = mock(RTopic.class);
+    when(redissonClient.getTopic(eq("env:" + WebhookTriggerRoutingIndex.TOPIC_NAME), any(Codec.class)))
+        .thenReturn(topic);
+    webhookTriggerRoutingIndex.subscribe(redissonClient, "env");
+
+    triggers.add(trigger("pr_main", "PullRequest", "main"));
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main")))).containsExactly("pr_main");
+    webhookTriggerRoutingIndex.invalidate(ACCOUNT_ID);
+    ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+    verify(topic).publishAsync(published.capture());
+    assertThat(published.getValue()).endsWith(":" + ACCOUNT_ID);
+
+    triggers.add(trigger("pr_any", "PullRequest", null));
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main"))))
+        .containsExactly("pr_main", "pr_any");
+    // own invalidations are applied already
+    triggers.remove(1);
+    webhookTriggerRoutingIndex.onInvalidation(published.getValue());
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main"))))
+        .containsExactly("pr_main", "pr_any");
+    webhookTriggerRoutingIndex.onInvalidation("otherReplica:" + ACCOUNT_ID);
+    assertThat(identifiers(webhookTriggerRoutingIndex.findCandidates(prPayload("main")))).containsExactly("pr_main");
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(UnitTests.class)
+  public void testDisabled() {
+    WebhookTriggerRoutingIndex disabledIndex = newIndex(false);
+    assertThat(disabledIndex.isEnabled()).isFalse();
+    assertThat(newIndex(true).isEnabled()).isTrue();
+  }
+
+  @Test
+  @Owner(developers = MEET)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void measureMatchLatency() {
+    int events = 200;
+    for (int triggerCount : new int[] {100, 1000, 10000}) {
+      triggers.clear();
+      for (int i = 0; i < triggerCount; i++) {
+        // every event matches the pull request triggers of one branch
+        triggers.add(trigger("t" + i, i % 2 == 0 ? "PullRequest" : "Push", "branch" + (i % 50)));
+      }
+      webhookTriggerRoutingIndex.invalidate(ACCOUNT_ID);
+      webhookTriggerRoutingIndex.findCandidates(prPayload("branch0"));
+
+      long start = System.nanoTime();
+      int indexed = 0;
+      for (int i = 0; i < events; i++) {
+        indexed += webhookTriggerRoutingIndex.findCandidates(prPayload("branch" + (2 * i % 50))).size();
+      }
+      long indexedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / events;
+
+      start = System.nanoTime();
+      int scanned = 0;
+      for (int i = 0; i < events; i++) {
+        scanned += scan(prPayload("branch" + (2 * i % 50)));
+      }
+      long scannedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / events;
+
+      assertThat(indexed).isEqualTo(scanned);
+      log.info("{} triggers: {} us per event with the index, {} us per event parsing every trigger", triggerCount,
+          indexedMicros, scannedMicros);
+    }
+  }
+
+  // what the filters do for every trigger of the account without the index
+  private int scan(WebhookPayloadData webhookPayloadData) {
+    int matched = 0;
+    for (NGTriggerEntity trigger : triggers) {
+      WebhookTriggerConfigV2 config =
+          (WebhookTriggerConfigV2) ngTriggerElementMapper.toTriggerConfigV2(trigger).getSource().getSpec();
+      if (!WebhookTriggerFilterUtils.checkIfEventTypeMatches(
+              webhookPayloadData.getWebhookEvent().getType(), config.getSpec())) {
+        continue;
+      }
+      boolean branchMatches = true;
+      for (TriggerEventDataCondition condition : config.getSpec().fetchPayloadAware().fetchPayloadConditions()) {
+        String target = webhookPayloadData.getWebhookEvent().getBaseAttributes().getTarget();
+        branchMatches &= ConditionEvaluator.evaluate(
+            target, condition.getValue(), condition.getOperator().getValue());
+      }
+      matched += branchMatches ? 1 : 0;
+    }
+    return matched;
+  }
+
+  private WebhookTriggerRoutingIndex newIndex(boolean enabled) {
+    return new WebhookTriggerRoutingIndex(ngTriggerRepository, ngTriggerElementMapper,
+        TriggerConfiguration.builder().webhookRoutingIndexEnabled(enabled).build());
+  }
+
+  private static NGTriggerEntity trigger(String identifier, String event, String targetBranch) {
+    StringBuilder yaml = new StringBuilder(512)
+                             .append("trigger:\n")
+                             .append("  name: ")
+                             .append(identifier)
+                             .append("\n  identifier: ")
+                             .append(identifier)
+                             .append("\n  enabled: true\n")
+                             .append("  orgIdentifier: org\n")
+                             .append("  projectIdentifier: proj\n")
+                             .append("  pipelineIdentifier: pipeline\n")
+                             .append("  source:\n")
+                             .append("    type: Webhook\n")
+                             .append("    spec:\n")
+                             .append("      type: Github\n")
+                             .append("      spec:\n")
+                             .append("        type: ")
+                             .append(event)
+                             .append("\n        spec:\n")
+                             .append("          connectorRef: conn\n")
+                             .append("          autoAbortPreviousExecutions: false\n")
+                             .append("          payloadConditions:");
+    if (targetBranch == null) {
+      yaml.append(" []\n");
+    } else {
+      yaml.append("\n            - key: targetBranch\n")
+          .append("              operator: Equals\n")
+          .append("              value: ")
+          .append(targetBranch)
+          .append('\n');
+    }
+    return NGTriggerEntity.builder()
+        .uuid(identifier)
+        .accountId(ACCOUNT_ID)
+        .identifier(identifier)
+        .yaml(yaml.toString())
+        .ymlVersion(2L)
+        .build();
+  }
+
+  private static WebhookPayloadData prPayload(String targetBranch) {
+    return payload(PRWebhookEvent.builder()
+                       .baseAttributes(WebhookBaseAttributes.builder().source("feature").target(targetBranch).build())
+                       .build());
+  }
+
+  private static WebhookPayloadData pushPayload(String branch) {
+    return payload(
+        PushWebhookEvent.builder().baseAttributes(WebhookBaseAttributes.builder().target(branch).build()).build());
+  }
+
+  private static WebhookPayloadData payload(WebhookEvent webhookEvent) {
+    return WebhookPayloadData.builder()
+        .originalEvent(TriggerWebhookEvent.builder().accountId(ACCOUNT_ID).sourceRepoType("GITHUB").build())
+        .webhookEvent(webhookEvent)
+        .build();
+  }
+
+  private static List<String> identifiers(List<TriggerDetails> triggerDetails) {
+    return triggerDetails.stream().map(details -> details.getNgTriggerEntity().getIdentifier()).collect(toList());
+  }
+}
@@ -9,10 +9,13 @@ package io.harness.ngtriggers.eventmapper.filters.impl;
 
 import static io.harness.annotations.dev.HarnessTeam.PIPELINE;
 import static io.harness.ngtriggers.beans.response.TriggerEventResponse.FinalStatus.NO_ENABLED_TRIGGER_FOR_ACCOUNT_SOURCE_REPO;
+import static io.harness.ngtriggers.beans.response.TriggerEventResponse.FinalStatus.NO_MATCHING_TRIGGER_FOR_EVENT_TYPE_AND_BRANCHES;
 import static io.harness.rule.OwnerRule.ADWAIT;
 
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
 import io.harness.CategoryTest;
@@ -23,6 +26,7 @@ import io.harness.ngtriggers.beans.dto.eventmapping.WebhookEventMappingResponse;
 import io.harness.ngtriggers.beans.entity.NGTriggerEntity;
 import io.harness.ngtriggers.beans.entity.TriggerWebhookEvent;
 import io.harness.ngtriggers.beans.scm.WebhookPayloadData;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.ngtriggers.eventmapper.filters.dto.FilterRequestData;
 import io.harness.ngtriggers.service.NGTriggerService;
 import io.harness.rule.Owner;
@@ -30,6 +34,7 @@ import io.harness.rule.Owner;
 import com.google.inject.Inject;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
@@ -41,6 +46,7 @@ import org.powermock.api.mockito.PowerMockito;
 @OwnedBy(PIPELINE)
 public class TriggetAccountFilterTest extends CategoryTest {
   @Mock private NGTriggerService ngTriggerService;
+  @Mock private WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
   @Inject @InjectMocks AccountTriggerFilter accountTriggerFilter;
 
   @Before
@@ -90,4 +96,29 @@ public class TriggetAccountFilterTest extends CategoryTest {
         triggerDetails.stream().map(triggerDetails1 -> triggerDetails1.getNgTriggerEntity()).collect(toList());
     assertThat(entities).containsExactlyInAnyOrder(t1, t2);
   }
+
+  @Test
+  @Owner(developers = ADWAIT)
+  @Category(UnitTests.class)
+  public void applyAccountFilterWithRoutingIndexWhenNoTriggerCanMatch() {
+    TriggerWebhookEvent triggerWebhookEvent =
+        TriggerWebhookEvent.builder().accountId("acc").sourceRepoType("GITHUB").build();
+    WebhookPayloadData webhookPayloadData = WebhookPayloadData.builder().originalEvent(triggerWebhookEvent).build();
+    FilterRequestData filterRequestData =
+        FilterRequestData.builder().accountId("acc").webhookPayloadData(webhookPayloadData).build();
+    when(webhookTriggerRoutingIndex.isEnabled()).thenReturn(true);
+    when(webhookTriggerRoutingIndex.findCandidates(webhookPayloadData)).thenReturn(Collections.emptyList());
+    when(webhookTriggerRoutingIndex.hasTriggers(webhookPayloadData)).thenReturn(true, false);
+
+    WebhookEventMappingResponse webhookEventMappingResponse = accountTriggerFilter.applyFilter(filterRequestData);
+    assertThat(webhookEventMappingResponse.isFailedToFindTrigger()).isTrue();
+    assertThat(webhookEventMappingResponse.getWebhookEventResponse().getFinalStatus())
+        .isEqualTo(NO_MATCHING_TRIGGER_FOR_EVENT_TYPE_AND_BRANCHES);
+
+    webhookEventMappingResponse = accountTriggerFilter.applyFilter(filterRequestData);
+    assertThat(webhookEventMappingResponse.isFailedToFindTrigger()).isTrue();
+    assertThat(webhookEventMappingResponse.getWebhookEventResponse().getFinalStatus())
+        .isEqualTo(NO_ENABLED_TRIGGER_FOR_ACCOUNT_SOURCE_REPO);
+    verifyNoInteractions(ngTriggerService);
+  }
 }
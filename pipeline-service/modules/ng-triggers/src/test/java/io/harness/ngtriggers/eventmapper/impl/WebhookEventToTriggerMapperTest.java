@@ -28,6 +28,7 @@ import io.harness.ngtriggers.beans.source.NGTriggerType;
 import io.harness.ngtriggers.beans.source.WebhookTriggerType;
 import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
 import io.harness.ngtriggers.beans.source.webhook.v2.custom.CustomTriggerSpec;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.ngtriggers.eventmapper.filters.impl.AccountCustomTriggerFilter;
 import io.harness.ngtriggers.eventmapper.filters.impl.AccountTriggerFilter;
 import io.harness.ngtriggers.eventmapper.filters.impl.HeaderTriggerFilter;
@@ -59,6 +60,7 @@ public class WebhookEventToTriggerMapperTest extends CategoryTest {
   @InjectMocks @Inject private TriggerFilterStore triggerFilterStore;
   @Mock private NGTriggerService ngTriggerService;
   @Mock private NGTriggerElementMapper ngTriggerElementMapper;
+  @Mock private WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
   @InjectMocks @Inject AccountTriggerFilter accountTriggerFilter;
   @InjectMocks @Inject AccountCustomTriggerFilter accountCustomTriggerFilter;
   @InjectMocks @Inject PayloadConditionsTriggerFilter payloadConditionsTriggerFilter;
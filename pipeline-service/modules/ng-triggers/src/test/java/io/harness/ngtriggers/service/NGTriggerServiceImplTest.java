@@ -103,6 +103,7 @@ import io.harness.ngtriggers.beans.source.webhook.v2.WebhookTriggerConfigV2;
 import io.harness.ngtriggers.beans.source.webhook.v2.github.GithubSpec;
 import io.harness.ngtriggers.beans.target.TargetType;
 import io.harness.ngtriggers.buildtriggers.helpers.BuildTriggerHelper;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.ngtriggers.helpers.TriggerCatalogHelper;
 import io.harness.ngtriggers.helpers.TriggerSetupUsageHelper;
 import io.harness.ngtriggers.mapper.NGTriggerElementMapper;
@@ -200,6 +201,7 @@ public class NGTriggerServiceImplTest extends CategoryTest {
   @Mock TriggerValidationHandler triggerValidationHandler;
   @Mock TriggerEventHistoryRepository triggerEventHistoryRepository;
   @Mock TriggerCatalogHelper triggerCatalogHelper;
+  @Mock WebhookTriggerRoutingIndex webhookTriggerRoutingIndex;
 
   private final String ACCOUNT_ID = "account_id";
   private final String ORG_IDENTIFIER = "orgId";
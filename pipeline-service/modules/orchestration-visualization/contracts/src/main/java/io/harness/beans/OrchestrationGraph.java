@@ -38,6 +38,8 @@ public class OrchestrationGraph implements Distributable, Nominal {
   Long startTs;
   @Wither Long endTs;
   @Wither Status status;
+  // set on snapshots written by the delta storage, only those can have deltas to apply on top of them
+  @Wither boolean deltaLogged;
 
   List<String> rootNodeIds;
   OrchestrationAdjacencyListInternal adjacencyList;
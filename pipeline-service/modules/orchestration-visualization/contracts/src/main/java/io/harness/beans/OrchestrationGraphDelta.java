@@ -0,0 +1,70 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.beans;
+
+import io.harness.annotations.StoreIn;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.mongo.index.CompoundMongoIndex;
+import io.harness.mongo.index.FdTtlIndex;
+import io.harness.mongo.index.MongoIndex;
+import io.harness.ng.DbAliases;
+import io.harness.persistence.PersistentEntity;
+import io.harness.persistence.UuidAware;
+
+import com.google.common.collect.ImmutableList;
+import dev.morphia.annotations.Entity;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.List;
+import lombok.Builder;
+import lombok.Setter;
+import lombok.Value;
+import lombok.experimental.FieldNameConstants;
+import lombok.experimental.NonFinal;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.TypeAlias;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Changes made to the {@link OrchestrationGraph} of an execution by one graph update, stored instead of rewriting the
+ * whole graph. The graph is its last snapshot with the deltas applied in sequence order on top of it.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+@Value
+@Builder
+@FieldNameConstants(innerTypeName = "OrchestrationGraphDeltaKeys")
+@StoreIn(DbAliases.PMS)
+@Entity(value = "orchestrationGraphDeltas", noClassnameStored = true)
+@Document("orchestrationGraphDeltas")
+@TypeAlias("orchestrationGraphDelta")
+public class OrchestrationGraphDelta implements PersistentEntity, UuidAware {
+  public static final long TTL_MONTHS = 6;
+
+  @Setter @NonFinal @Id @dev.morphia.annotations.Id String uuid;
+  String planExecutionId;
+  long sequence;
+  // lastUpdatedAt of the graph after the update, deltas not newer than the snapshot are already part of it
+  long graphUpdatedAt;
+  // Kryo deflated OrchestrationGraph holding only the vertices and edge lists added or changed by the update
+  byte[] changes;
+  List<String> removedVertexIds;
+
+  @Builder.Default @FdTtlIndex Date validUntil = Date.from(OffsetDateTime.now().plusMonths(TTL_MONTHS).toInstant());
+
+  public static List<MongoIndex> mongoIndexes() {
+    return ImmutableList.<MongoIndex>builder()
+        .add(CompoundMongoIndex.builder()
+                 .name("unique_planExecutionId_sequence")
+                 .unique(true)
+                 .field(OrchestrationGraphDeltaKeys.planExecutionId)
+                 .field(OrchestrationGraphDeltaKeys.sequence)
+                 .build())
+        .build();
+  }
+}
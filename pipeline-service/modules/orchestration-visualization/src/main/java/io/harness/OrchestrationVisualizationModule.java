@@ -42,6 +42,7 @@ public class OrchestrationVisualizationModule extends AbstractModule {
   private final ThreadPoolConfig visualizationThreadPoolConfig;
   private final MetricRegistry threadPoolMetricRegistry;
   private final Integer graphConsumerSleepMs;
+  private final boolean graphDeltaStorageEnabled;
 
   public static OrchestrationVisualizationModule getInstance(EventsFrameworkConfiguration eventsFrameworkConfiguration,
       ThreadPoolConfig visualizationThreadPoolConfig, Integer graphConsumerSleepMs) {
@@ -62,12 +63,23 @@ public class OrchestrationVisualizationModule extends AbstractModule {
     return instance;
   }
 
+  public static OrchestrationVisualizationModule getInstance(EventsFrameworkConfiguration eventsFrameworkConfiguration,
+      ThreadPoolConfig visualizationThreadPoolConfig, Integer graphConsumerSleepMs,
+      MetricRegistry threadPoolMetricRegistry, boolean graphDeltaStorageEnabled) {
+    if (instance == null) {
+      instance = new OrchestrationVisualizationModule(eventsFrameworkConfiguration, visualizationThreadPoolConfig,
+          graphConsumerSleepMs, threadPoolMetricRegistry, graphDeltaStorageEnabled);
+    }
+    return instance;
+  }
+
   OrchestrationVisualizationModule(EventsFrameworkConfiguration eventsFrameworkConfiguration,
       ThreadPoolConfig visualizationThreadPoolConfig, Integer graphConsumerSleepMs) {
     this.eventsFrameworkConfiguration = eventsFrameworkConfiguration;
     this.visualizationThreadPoolConfig = visualizationThreadPoolConfig;
     this.graphConsumerSleepMs = graphConsumerSleepMs == null ? 0 : graphConsumerSleepMs;
     this.threadPoolMetricRegistry = new MetricRegistry();
+    this.graphDeltaStorageEnabled = false;
   }
 
   OrchestrationVisualizationModule(EventsFrameworkConfiguration eventsFrameworkConfiguration,
@@ -77,6 +89,17 @@ public class OrchestrationVisualizationModule extends AbstractModule {
     this.visualizationThreadPoolConfig = visualizationThreadPoolConfig;
     this.graphConsumerSleepMs = graphConsumerSleepMs == null ? 0 : graphConsumerSleepMs;
     this.threadPoolMetricRegistry = threadPoolMetricRegistry;
+    this.graphDeltaStorageEnabled = false;
+  }
+
+  OrchestrationVisualizationModule(EventsFrameworkConfiguration eventsFrameworkConfiguration,
+      ThreadPoolConfig visualizationThreadPoolConfig, Integer graphConsumerSleepMs,
+      MetricRegistry threadPoolMetricRegistry, boolean graphDeltaStorageEnabled) {
+    this.eventsFrameworkConfiguration = eventsFrameworkConfiguration;
+    this.visualizationThreadPoolConfig = visualizationThreadPoolConfig;
+    this.graphConsumerSleepMs = graphConsumerSleepMs == null ? 0 : graphConsumerSleepMs;
+    this.threadPoolMetricRegistry = threadPoolMetricRegistry;
+    this.graphDeltaStorageEnabled = graphDeltaStorageEnabled;
   }
 
   @Override
@@ -113,4 +136,11 @@ public class OrchestrationVisualizationModule extends AbstractModule {
   public int graphConsumerSleepMs() {
     return graphConsumerSleepMs;
   }
+
+  @Provides
+  @Singleton
+  @Named("GraphDeltaStorageEnabled")
+  public boolean graphDeltaStorageEnabled() {
+    return graphDeltaStorageEnabled;
+  }
 }
@@ -8,6 +8,7 @@
 package io.harness.service.impl;
 
 import static io.harness.data.structure.EmptyPredicate.isEmpty;
+import static io.harness.data.structure.EmptyPredicate.isNotEmpty;
 
 import io.harness.annotations.dev.CodePulse;
 import io.harness.annotations.dev.HarnessModuleComponent;
@@ -18,6 +19,7 @@ import io.harness.beans.EphemeralOrchestrationGraph;
 import io.harness.beans.GraphVertex;
 import io.harness.beans.OrchestrationEventLog;
 import io.harness.beans.OrchestrationGraph;
+import io.harness.beans.OrchestrationGraphDelta;
 import io.harness.beans.converter.EphemeralOrchestrationGraphConverter;
 import io.harness.beans.internal.OrchestrationAdjacencyListInternal;
 import io.harness.cache.SpringCacheEntity;
@@ -55,8 +57,10 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -92,6 +96,8 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
   @Inject private OrchestrationLogPublisher orchestrationLogPublisher;
   @Inject private PmsFeatureFlagService pmsFeatureFlagService;
   @Inject private PlanExecutionModuleInfoUpdateEventHandler planExecutionModuleInfoUpdateEventHandler;
+  @Inject private OrchestrationGraphDeltaStore orchestrationGraphDeltaStore;
+  @Inject @Named("GraphDeltaStorageEnabled") private boolean graphDeltaStorageEnabled;
 
   @Override
   public boolean updateGraph(String planExecutionId) {
@@ -137,17 +143,29 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
   // This must always be called after acquiring the lock
   @VisibleForTesting
   boolean updateGraphUnderLock(String planExecutionId) {
-    OrchestrationGraph orchestrationGraph = getCachedOrchestrationGraph(planExecutionId);
-    if (orchestrationGraph == null) {
+    OrchestrationGraph snapshot = getCachedOrchestrationGraphSnapshot(planExecutionId, false);
+    if (snapshot == null) {
       log.warn("[PMS_GRAPH] Graph not yet generated. Passing on to next iteration");
       return true;
     }
-    return updateGraphUnderLock(orchestrationGraph);
+    // Deltas are also read when the delta storage is disabled, as some may be left from when it was enabled
+    List<OrchestrationGraphDelta> deltas = fetchDeltas(snapshot, false);
+    return updateGraphUnderLock(applyDeltas(snapshot, deltas), deltas);
   }
 
   // This must always be called after acquiring the lock
   @VisibleForTesting
   boolean updateGraphUnderLock(OrchestrationGraph orchestrationGraph) {
+    return updateGraphUnderLock(orchestrationGraph, null);
+  }
+
+  /**
+   * Applies the unprocessed event logs to the graph, which is its snapshot with the given deltas applied. With the
+   * delta storage enabled only the changes get appended as a new delta, otherwise the whole graph is written back and
+   * the applied deltas are dropped.
+   */
+  private boolean updateGraphUnderLock(
+      OrchestrationGraph orchestrationGraph, List<OrchestrationGraphDelta> appliedDeltas) {
     if (orchestrationGraph == null) {
       return false;
     }
@@ -167,6 +185,9 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
       // Re-emit if there are too many logs
       shouldAck = false;
     }
+    OrchestrationGraphChangeTracker changeTracker = graphDeltaStorageEnabled && appliedDeltas != null
+        ? new OrchestrationGraphChangeTracker(orchestrationGraph)
+        : null;
     boolean updateRequired = false;
     Update executionSummaryUpdate = new Update();
     Set<String> nodeExecutionIds = new HashSet<>();
@@ -190,11 +211,17 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
           updateRequired = true;
           break;
         case STEP_DETAILS_UPDATE:
+          if (changeTracker != null) {
+            changeTracker.touch(nodeExecutionId);
+          }
           orchestrationGraph = stepDetailsUpdateEventHandler.handleEvent(
               planExecutionId, nodeExecutionId, orchestrationGraph, executionSummaryUpdate);
           updateRequired = true;
           break;
         case STEP_INPUTS_UPDATE:
+          if (changeTracker != null) {
+            changeTracker.touch(nodeExecutionId);
+          }
           orchestrationGraph =
               stepDetailsUpdateEventHandler.handleStepInputEvent(planExecutionId, nodeExecutionId, orchestrationGraph);
           updateRequired = true;
@@ -223,7 +250,16 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
       }
     }
 
-    cachePartialOrchestrationGraph(orchestrationGraph.withLastUpdatedAt(lastUpdatedAt), lastUpdatedAt);
+    if (changeTracker != null) {
+      saveGraphChanges(orchestrationGraph.withLastUpdatedAt(lastUpdatedAt), changeTracker, appliedDeltas);
+    } else {
+      cachePartialOrchestrationGraph(
+          orchestrationGraph.withLastUpdatedAt(lastUpdatedAt).withDeltaLogged(false), lastUpdatedAt);
+      if (isNotEmpty(appliedDeltas)) {
+        deleteCompactedDeltas(
+            planExecutionId, appliedDeltas.get(appliedDeltas.size() - 1).getSequence(), lastUpdatedAt);
+      }
+    }
     if (updateRequired) {
       executionSummaryUpdate.set(PlanExecutionSummaryKeys.lastUpdatedAt, lastUpdatedAt);
       pmsExecutionSummaryService.update(planExecutionId, executionSummaryUpdate);
@@ -236,20 +272,92 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
     return shouldAck;
   }
 
+  /**
+   * Appends the changes as a new delta, or compacts all the deltas into a new snapshot once there are enough of them.
+   * A snapshot not yet written by the delta storage is rewritten whole first, as its readers do not look for deltas.
+   */
+  private void saveGraphChanges(OrchestrationGraph orchestrationGraph, OrchestrationGraphChangeTracker changeTracker,
+      List<OrchestrationGraphDelta> appliedDeltas) {
+    String planExecutionId = orchestrationGraph.getPlanExecutionId();
+    long lastSequence = appliedDeltas.isEmpty() ? 0 : appliedDeltas.get(appliedDeltas.size() - 1).getSequence();
+    if (!orchestrationGraph.isDeltaLogged() || changeTracker.isReplaced(orchestrationGraph)
+        || appliedDeltas.size() >= OrchestrationGraphDeltaStore.MAX_DELTAS_BEFORE_COMPACTION
+        || StatusUtils.isFinalStatus(orchestrationGraph.getStatus())) {
+      long entityUpdatedAt = orchestrationGraph.getLastUpdatedAt();
+      cachePartialOrchestrationGraph(orchestrationGraph.withDeltaLogged(true), entityUpdatedAt);
+      // deltas left behind next to an unmarked snapshot were never applied, they must not be picked up from now on
+      deleteCompactedDeltas(
+          planExecutionId, orchestrationGraph.isDeltaLogged() ? lastSequence : Long.MAX_VALUE, entityUpdatedAt);
+      return;
+    }
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph, changeTracker, lastSequence + 1);
+  }
+
+  // SpringMongoStore does not throw on failed writes, so deltas are only dropped once the new snapshot is in place
+  private void deleteCompactedDeltas(String planExecutionId, long lastSequence, long snapshotUpdatedAt) {
+    if (lastSequence == 0) {
+      return;
+    }
+    Long entityUpdatedAt = mongoStore.getEntityUpdatedAt(
+        OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
+    if (entityUpdatedAt == null || entityUpdatedAt < snapshotUpdatedAt) {
+      log.warn("[PMS_GRAPH] Graph snapshot not updated, keeping [{}] graph deltas", lastSequence);
+      return;
+    }
+    orchestrationGraphDeltaStore.deleteDeltas(planExecutionId, lastSequence);
+  }
+
+  // Deltas are applied whether the delta storage is enabled or not, until they are compacted by the next full write
   @Override
   public OrchestrationGraph getCachedOrchestrationGraph(String planExecutionId) {
-    return mongoStore.get(OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
+    OrchestrationGraph snapshot = getCachedOrchestrationGraphSnapshot(planExecutionId, false);
+    if (snapshot == null) {
+      return null;
+    }
+    return applyDeltas(snapshot, fetchDeltas(snapshot, false));
   }
 
   @Override
   public OrchestrationGraph getCachedOrchestrationGraphFromSecondary(String planExecutionId) {
-    return mongoStore.getFromSecondary(
-        OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
+    OrchestrationGraph snapshot = getCachedOrchestrationGraphSnapshot(planExecutionId, true);
+    if (snapshot == null) {
+      return null;
+    }
+    return applyDeltas(snapshot, fetchDeltas(snapshot, true));
+  }
+
+  // Only snapshots written by the delta storage can have deltas, this spares the lookup for all the others
+  private List<OrchestrationGraphDelta> fetchDeltas(OrchestrationGraph snapshot, boolean fromSecondary) {
+    if (!snapshot.isDeltaLogged()) {
+      return Collections.emptyList();
+    }
+    return orchestrationGraphDeltaStore.fetchDeltas(snapshot.getPlanExecutionId(), fromSecondary);
+  }
+
+  private OrchestrationGraph applyDeltas(OrchestrationGraph snapshot, List<OrchestrationGraphDelta> deltas) {
+    return isEmpty(deltas) ? snapshot : orchestrationGraphDeltaStore.applyDeltas(snapshot, deltas);
+  }
+
+  private OrchestrationGraph getCachedOrchestrationGraphSnapshot(String planExecutionId, boolean fromSecondary) {
+    if (fromSecondary) {
+      return mongoStore.getFromSecondary(
+          OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
+    }
+    return mongoStore.get(OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
   }
 
   @Override
   public void cacheOrchestrationGraph(OrchestrationGraph orchestrationGraph) {
-    mongoStore.upsert(orchestrationGraph, SpringCacheEntity.TTL);
+    // The whole graph is written, so it replaces the snapshot and all the deltas written so far
+    if (!orchestrationGraph.isDeltaLogged()) {
+      mongoStore.upsert(orchestrationGraph, SpringCacheEntity.TTL);
+      return;
+    }
+    String planExecutionId = orchestrationGraph.getPlanExecutionId();
+    long lastSequence = orchestrationGraphDeltaStore.fetchLastSequence(planExecutionId);
+    long entityUpdatedAt = System.currentTimeMillis();
+    mongoStore.upsert(orchestrationGraph.withDeltaLogged(false), SpringCacheEntity.TTL, entityUpdatedAt);
+    deleteCompactedDeltas(planExecutionId, lastSequence, entityUpdatedAt);
   }
 
   private void cachePartialOrchestrationGraph(OrchestrationGraph orchestrationGraph, long entityUpdatedAt) {
@@ -308,6 +416,7 @@ public class GraphGenerationServiceImpl implements GraphGenerationService {
         cacheEntities.add(graph);
       }
       mongoStore.delete(cacheEntities);
+      orchestrationGraphDeltaStore.deleteAllDeltas(planExecutionIds);
     }
   }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.service.impl;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.beans.GraphVertex;
+import io.harness.beans.OrchestrationGraph;
+import io.harness.beans.internal.EdgeListInternal;
+import io.harness.beans.internal.OrchestrationAdjacencyListInternal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers the state of an {@link OrchestrationGraph} before a graph update, to tell the vertices and edge lists the
+ * update changed. Vertices updated from their node execution are replaced in the vertex map, vertices updated in place
+ * have to be reported through {@link #touch(String)}. Edge lists are always updated in place, so they are copied and
+ * compared by value.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+public class OrchestrationGraphChangeTracker {
+  private final OrchestrationAdjacencyListInternal adjacencyList;
+  private final Map<String, GraphVertex> vertices;
+  private final Map<String, EdgeListInternal> edgeLists;
+  private final Set<String> touchedVertexIds = new HashSet<>();
+
+  public OrchestrationGraphChangeTracker(OrchestrationGraph orchestrationGraph) {
+    adjacencyList = orchestrationGraph.getAdjacencyList();
+    vertices = new HashMap<>(adjacencyList.getGraphVertexMap());
+    edgeLists = new HashMap<>();
+    adjacencyList.getAdjacencyMap().forEach((id, edgeList) -> edgeLists.put(id, copy(edgeList)));
+  }
+
+  public void touch(String vertexId) {
+    touchedVertexIds.add(vertexId);
+  }
+
+  /**
+   * @return true if the update replaced the whole graph, as it does when the graph gets regenerated
+   */
+  public boolean isReplaced(OrchestrationGraph orchestrationGraph) {
+    return orchestrationGraph.getAdjacencyList() != adjacencyList;
+  }
+
+  /**
+   * @return a graph holding the graph level fields and only the vertices and edge lists added or changed since tracking
+   *     started
+   */
+  public OrchestrationGraph changes(OrchestrationGraph orchestrationGraph) {
+    Map<String, GraphVertex> changedVertices = new HashMap<>();
+    orchestrationGraph.getAdjacencyList().getGraphVertexMap().forEach((id, vertex) -> {
+      if (vertices.get(id) != vertex || touchedVertexIds.contains(id)) {
+        changedVertices.put(id, vertex);
+      }
+    });
+    Map<String, EdgeListInternal> changedEdgeLists = new HashMap<>();
+    orchestrationGraph.getAdjacencyList().getAdjacencyMap().forEach((id, edgeList) -> {
+      if (!edgeList.equals(edgeLists.get(id))) {
+        changedEdgeLists.put(id, edgeList);
+      }
+    });
+    return OrchestrationGraph.builder()
+        .planExecutionId(orchestrationGraph.getPlanExecutionId())
+        .lastUpdatedAt(orchestrationGraph.getLastUpdatedAt())
+        .startTs(orchestrationGraph.getStartTs())
+        .endTs(orchestrationGraph.getEndTs())
+        .status(orchestrationGraph.getStatus())
+        .rootNodeIds(new ArrayList<>(orchestrationGraph.getRootNodeIds()))
+        .adjacencyList(OrchestrationAdjacencyListInternal.builder()
+                           .graphVertexMap(changedVertices)
+                           .adjacencyMap(changedEdgeLists)
+                           .build())
+        .build();
+  }
+
+  public List<String> removedVertexIds(OrchestrationGraph orchestrationGraph) {
+    Set<String> removedIds = new HashSet<>(vertices.keySet());
+    removedIds.addAll(edgeLists.keySet());
+    removedIds.removeAll(orchestrationGraph.getAdjacencyList().getGraphVertexMap().keySet());
+    removedIds.removeAll(orchestrationGraph.getAdjacencyList().getAdjacencyMap().keySet());
+    return new ArrayList<>(removedIds);
+  }
+
+  private static EdgeListInternal copy(EdgeListInternal edgeList) {
+    return EdgeListInternal.builder()
+        .parentId(edgeList.getParentId())
+        .prevIds(edgeList.getPrevIds() == null ? null : new ArrayList<>(edgeList.getPrevIds()))
+        .nextIds(edgeList.getNextIds() == null ? null : new ArrayList<>(edgeList.getNextIds()))
+        .edges(edgeList.getEdges() == null ? null : new ArrayList<>(edgeList.getEdges()))
+        .build();
+  }
+}
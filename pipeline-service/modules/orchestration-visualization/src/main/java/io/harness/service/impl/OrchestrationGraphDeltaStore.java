@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Shield 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/06/PolyForm-Shield-1.0.0.txt.
+ */
+
+package io.harness.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.beans.OrchestrationGraph;
+import io.harness.beans.OrchestrationGraphDelta;
+import io.harness.beans.OrchestrationGraphDelta.OrchestrationGraphDeltaKeys;
+import io.harness.beans.internal.OrchestrationAdjacencyListInternal;
+import io.harness.data.structure.CollectionUtils;
+import io.harness.mongo.helper.SecondaryMongoTemplateHolder;
+import io.harness.serializer.KryoSerializer;
+import io.harness.springdata.PersistenceUtils;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import java.util.List;
+import java.util.Set;
+import net.jodah.failsafe.Failsafe;
+import net.jodah.failsafe.RetryPolicy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Stores the changes of graph updates as {@link OrchestrationGraphDelta}s next to the graph snapshot kept in the
+ * SpringMongoStore. Applying a delta overwrites the vertices and edge lists it holds. Deltas left behind by a failed
+ * compaction are skipped, as the lastUpdatedAt of the graph grows with every update.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+@Singleton
+public class OrchestrationGraphDeltaStore {
+  public static final int MAX_DELTAS_BEFORE_COMPACTION = 100;
+
+  @Inject private MongoTemplate mongoTemplate;
+  @Inject private SecondaryMongoTemplateHolder secondaryMongoTemplateHolder;
+  @Inject @Named("referenceFalseKryoSerializer") private KryoSerializer kryoSerializer;
+
+  public List<OrchestrationGraphDelta> fetchDeltas(String planExecutionId, boolean fromSecondary) {
+    Query query = new Query(where(OrchestrationGraphDeltaKeys.planExecutionId).is(planExecutionId))
+                      .with(Sort.by(Sort.Direction.ASC, OrchestrationGraphDeltaKeys.sequence));
+    MongoTemplate template = fromSecondary ? secondaryMongoTemplateHolder.getSecondaryMongoTemplate() : mongoTemplate;
+    return template.find(query, OrchestrationGraphDelta.class);
+  }
+
+  public long fetchLastSequence(String planExecutionId) {
+    Query query = new Query(where(OrchestrationGraphDeltaKeys.planExecutionId).is(planExecutionId))
+                      .with(Sort.by(Sort.Direction.DESC, OrchestrationGraphDeltaKeys.sequence));
+    query.fields().include(OrchestrationGraphDeltaKeys.sequence);
+    OrchestrationGraphDelta delta = mongoTemplate.findOne(query, OrchestrationGraphDelta.class);
+    return delta == null ? 0 : delta.getSequence();
+  }
+
+  public OrchestrationGraph applyDeltas(OrchestrationGraph snapshot, List<OrchestrationGraphDelta> deltas) {
+    OrchestrationGraph orchestrationGraph = snapshot;
+    for (OrchestrationGraphDelta delta : deltas) {
+      if (delta.getGraphUpdatedAt() <= orchestrationGraph.getLastUpdatedAt()) {
+        continue;
+      }
+      OrchestrationGraph changes = (OrchestrationGraph) kryoSerializer.asInflatedObject(delta.getChanges());
+      OrchestrationAdjacencyListInternal adjacencyList = orchestrationGraph.getAdjacencyList();
+      for (String vertexId : CollectionUtils.emptyIfNull(delta.getRemovedVertexIds())) {
+        adjacencyList.getGraphVertexMap().remove(vertexId);
+        adjacencyList.getAdjacencyMap().remove(vertexId);
+      }
+      adjacencyList.getGraphVertexMap().putAll(changes.getAdjacencyList().getGraphVertexMap());
+      adjacencyList.getAdjacencyMap().putAll(changes.getAdjacencyList().getAdjacencyMap());
+      orchestrationGraph.getRootNodeIds().clear();
+      orchestrationGraph.getRootNodeIds().addAll(changes.getRootNodeIds());
+      orchestrationGraph = orchestrationGraph.withStatus(changes.getStatus())
+                               .withEndTs(changes.getEndTs())
+                               .withLastUpdatedAt(changes.getLastUpdatedAt());
+    }
+    return orchestrationGraph;
+  }
+
+  public void appendDelta(
+      OrchestrationGraph orchestrationGraph, OrchestrationGraphChangeTracker changeTracker, long sequence) {
+    OrchestrationGraphDelta delta =
+        OrchestrationGraphDelta.builder()
+            .planExecutionId(orchestrationGraph.getPlanExecutionId())
+            .sequence(sequence)
+            .graphUpdatedAt(orchestrationGraph.getLastUpdatedAt())
+            .changes(kryoSerializer.asDeflatedBytes(changeTracker.changes(orchestrationGraph)))
+            .removedVertexIds(changeTracker.removedVertexIds(orchestrationGraph))
+            .build();
+    mongoTemplate.insert(delta);
+  }
+
+  /**
+   * Deletes the deltas of an execution up to the given sequence, once they are part of the graph snapshot.
+   */
+  public void deleteDeltas(String planExecutionId, long lastSequence) {
+    Query query = new Query(where(OrchestrationGraphDeltaKeys.planExecutionId)
+                                .is(planExecutionId)
+                                .and(OrchestrationGraphDeltaKeys.sequence)
+                                .lte(lastSequence));
+    mongoTemplate.remove(query, OrchestrationGraphDelta.class);
+  }
+
+  public void deleteAllDeltas(Set<String> planExecutionIds) {
+    Query query = new Query(where(OrchestrationGraphDeltaKeys.planExecutionId).in(planExecutionIds));
+    RetryPolicy<Object> retryPolicy =
+        PersistenceUtils.getRetryPolicy("[Retrying]: Failed deleting OrchestrationGraphDelta; attempt: {}",
+            "[Failed]: Failed deleting OrchestrationGraphDelta; attempt: {}");
+    Failsafe.with(retryPolicy).get(() -> mongoTemplate.remove(query, OrchestrationGraphDelta.class));
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.service.impl;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.harness.OrchestrationVisualizationTestBase;
+import io.harness.beans.GraphVertex;
+import io.harness.beans.OrchestrationGraph;
+import io.harness.beans.OrchestrationGraphDelta;
+import io.harness.beans.internal.EdgeListInternal;
+import io.harness.beans.internal.OrchestrationAdjacencyListInternal;
+import io.harness.cache.SpringCacheEntity;
+import io.harness.cache.SpringMongoStore;
+import io.harness.category.element.StressTests;
+import io.harness.category.element.UnitTests;
+import io.harness.pms.contracts.execution.Status;
+import io.harness.pms.data.stepparameters.PmsStepParameters;
+import io.harness.rule.Owner;
+import io.harness.serializer.KryoSerializer;
+import io.harness.service.GraphGenerationService;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Slf4j
+public class OrchestrationGraphDeltaStoreTest extends OrchestrationVisualizationTestBase {
+  @Inject private OrchestrationGraphDeltaStore orchestrationGraphDeltaStore;
+  @Inject private SpringMongoStore mongoStore;
+  @Inject @Named("referenceFalseKryoSerializer") private KryoSerializer kryoSerializer;
+  @Inject private GraphGenerationService graphGenerationService;
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldRebuildGraphFromSnapshotAndDeltas() {
+    String planExecutionId = generateUuid();
+    OrchestrationGraph orchestrationGraph = buildGraph(planExecutionId, 2, 100L);
+    byte[] snapshot = kryoSerializer.asDeflatedBytes(orchestrationGraph);
+    Map<String, GraphVertex> vertices = orchestrationGraph.getAdjacencyList().getGraphVertexMap();
+    Map<String, EdgeListInternal> edgeLists = orchestrationGraph.getAdjacencyList().getAdjacencyMap();
+
+    OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    vertices.put("vertex1", vertices.get("vertex1").toBuilder().status(Status.SUCCEEDED).build());
+    addVertex(orchestrationGraph, "vertex2");
+    orchestrationGraph = orchestrationGraph.withStatus(Status.RUNNING).withLastUpdatedAt(200L);
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph, changeTracker, 1);
+
+    changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    vertices.remove("vertex1");
+    edgeLists.remove("vertex1");
+    edgeLists.get("root").getEdges().remove("vertex1");
+    vertices.get("vertex2").setStatus(Status.FAILED);
+    changeTracker.touch("vertex2");
+    orchestrationGraph = orchestrationGraph.withStatus(Status.FAILED).withLastUpdatedAt(300L);
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph, changeTracker, 2);
+
+    List<OrchestrationGraphDelta> deltas = orchestrationGraphDeltaStore.fetchDeltas(planExecutionId, false);
+    assertThat(deltas).extracting(OrchestrationGraphDelta::getSequence).containsExactly(1L, 2L);
+    OrchestrationGraph firstChanges = (OrchestrationGraph) kryoSerializer.asInflatedObject(deltas.get(0).getChanges());
+    assertThat(firstChanges.getAdjacencyList().getGraphVertexMap()).containsOnlyKeys("vertex1", "vertex2");
+    assertThat(firstChanges.getAdjacencyList().getAdjacencyMap()).containsOnlyKeys("root", "vertex2");
+    assertThat(deltas.get(1).getRemovedVertexIds()).containsExactly("vertex1");
+
+    OrchestrationGraph rebuilt = orchestrationGraphDeltaStore.applyDeltas(
+        (OrchestrationGraph) kryoSerializer.asInflatedObject(snapshot), deltas);
+    assertThat(rebuilt.getStatus()).isEqualTo(Status.FAILED);
+    assertThat(rebuilt.getLastUpdatedAt()).isEqualTo(300L);
+    assertThat(rebuilt.getAdjacencyList().getGraphVertexMap()).containsOnlyKeys("root", "vertex0", "vertex2");
+    assertThat(rebuilt.getAdjacencyList().getGraphVertexMap().get("vertex2").getStatus()).isEqualTo(Status.FAILED);
+    assertThat(rebuilt.getAdjacencyList().getAdjacencyMap().get("root").getEdges())
+        .containsExactly("vertex0", "vertex2");
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldSkipDeltasAlreadyCompactedIntoSnapshot() {
+    String planExecutionId = generateUuid();
+    OrchestrationGraph orchestrationGraph = buildGraph(planExecutionId, 1, 100L);
+    OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    addVertex(orchestrationGraph, "vertex1");
+    orchestrationGraph = orchestrationGraph.withLastUpdatedAt(200L);
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph, changeTracker, 1);
+
+    // a compaction which wrote the snapshot after a later update, but failed to delete the delta
+    changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    orchestrationGraph.getAdjacencyList().getGraphVertexMap().get("vertex1").setStatus(Status.SUCCEEDED);
+    changeTracker.touch("vertex1");
+    orchestrationGraph = orchestrationGraph.withLastUpdatedAt(300L);
+    OrchestrationGraph snapshot =
+        (OrchestrationGraph) kryoSerializer.asInflatedObject(kryoSerializer.asDeflatedBytes(orchestrationGraph));
+
+    OrchestrationGraph rebuilt = orchestrationGraphDeltaStore.applyDeltas(
+        snapshot, orchestrationGraphDeltaStore.fetchDeltas(planExecutionId, false));
+    assertThat(rebuilt.getLastUpdatedAt()).isEqualTo(300L);
+    assertThat(rebuilt.getAdjacencyList().getGraphVertexMap().get("vertex1").getStatus()).isEqualTo(Status.SUCCEEDED);
+
+    assertThat(orchestrationGraphDeltaStore.fetchLastSequence(planExecutionId)).isEqualTo(1L);
+    orchestrationGraphDeltaStore.deleteDeltas(planExecutionId, 1);
+    assertThat(orchestrationGraphDeltaStore.fetchDeltas(planExecutionId, false)).isEmpty();
+    assertThat(orchestrationGraphDeltaStore.fetchLastSequence(planExecutionId)).isZero();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldDetectEdgeListChangesWithEqualHashCodes() {
+    OrchestrationGraph orchestrationGraph = buildGraph(generateUuid(), 1, 100L);
+    List<String> edges = orchestrationGraph.getAdjacencyList().getAdjacencyMap().get("vertex0").getEdges();
+    edges.add("Aa");
+    OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    // "Aa" and "BB" have the same hash code
+    edges.set(0, "BB");
+
+    OrchestrationGraph changes = changeTracker.changes(orchestrationGraph);
+    assertThat(changes.getAdjacencyList().getAdjacencyMap()).containsOnlyKeys("vertex0");
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldApplyDeltasLeftFromWhenDeltaStorageWasEnabled() {
+    String planExecutionId = generateUuid();
+    OrchestrationGraph orchestrationGraph = buildGraph(planExecutionId, 1, 100L);
+    mongoStore.upsert(orchestrationGraph.withDeltaLogged(true), SpringCacheEntity.TTL, 100L);
+    OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    addVertex(orchestrationGraph, "vertex1");
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph.withLastUpdatedAt(200L), changeTracker, 1);
+
+    // the delta storage is disabled in tests
+    OrchestrationGraph cachedGraph = graphGenerationService.getCachedOrchestrationGraph(planExecutionId);
+    assertThat(cachedGraph.getLastUpdatedAt()).isEqualTo(200L);
+    assertThat(cachedGraph.getAdjacencyList().getGraphVertexMap()).containsOnlyKeys("root", "vertex0", "vertex1");
+
+    graphGenerationService.cacheOrchestrationGraph(cachedGraph);
+    assertThat(orchestrationGraphDeltaStore.fetchDeltas(planExecutionId, false)).isEmpty();
+    OrchestrationGraph snapshot = getSnapshot(planExecutionId);
+    assertThat(snapshot.isDeltaLogged()).isFalse();
+    assertThat(snapshot.getAdjacencyList().getGraphVertexMap()).containsOnlyKeys("root", "vertex0", "vertex1");
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldIgnoreDeltasNextToSnapshotNotWrittenByDeltaStorage() {
+    String planExecutionId = generateUuid();
+    OrchestrationGraph orchestrationGraph = buildGraph(planExecutionId, 1, 100L);
+    mongoStore.upsert(orchestrationGraph, SpringCacheEntity.TTL, 100L);
+    OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+    addVertex(orchestrationGraph, "vertex1");
+    orchestrationGraphDeltaStore.appendDelta(orchestrationGraph.withLastUpdatedAt(200L), changeTracker, 1);
+
+    OrchestrationGraph cachedGraph = graphGenerationService.getCachedOrchestrationGraph(planExecutionId);
+    assertThat(cachedGraph.getLastUpdatedAt()).isEqualTo(100L);
+    assertThat(cachedGraph.getAdjacencyList().getGraphVertexMap()).containsOnlyKeys("root", "vertex0");
+    assertThat(graphGenerationService.getCachedOrchestrationGraphFromSecondary(planExecutionId)
+                   .getAdjacencyList()
+                   .getGraphVertexMap())
+        .containsOnlyKeys("root", "vertex0");
+  }
+
+  /**
+   * Compares graph updates which read and rewrite the whole graph with updates which rebuild the graph from its
+   * snapshot and deltas and only append their changes, for graphs of growing size. Each update changes the status of
+   * one vertex.
+   */
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(StressTests.class)
+  @Ignore("Ignore this stress test to make it easy to run only unit tests")
+  public void updateThroughputByGraphSize() {
+    int updates = 300;
+    for (int vertexCount : new int[] {100, 1000, 5000}) {
+      Random random = new Random(vertexCount);
+
+      String wholeGraphId = generateUuid();
+      mongoStore.upsert(buildGraph(wholeGraphId, vertexCount, 100L), SpringCacheEntity.TTL);
+      long start = System.currentTimeMillis();
+      for (int i = 1; i <= updates; i++) {
+        OrchestrationGraph orchestrationGraph = getSnapshot(wholeGraphId);
+        updateRandomVertex(orchestrationGraph, random);
+        mongoStore.upsert(orchestrationGraph.withLastUpdatedAt(100L + i), SpringCacheEntity.TTL, 100L + i);
+      }
+      long wholeGraphMillis = System.currentTimeMillis() - start;
+
+      String deltaGraphId = generateUuid();
+      mongoStore.upsert(buildGraph(deltaGraphId, vertexCount, 100L), SpringCacheEntity.TTL);
+      start = System.currentTimeMillis();
+      for (int i = 1; i <= updates; i++) {
+        List<OrchestrationGraphDelta> deltas = orchestrationGraphDeltaStore.fetchDeltas(deltaGraphId, false);
+        OrchestrationGraph orchestrationGraph =
+            orchestrationGraphDeltaStore.applyDeltas(getSnapshot(deltaGraphId), deltas);
+        OrchestrationGraphChangeTracker changeTracker = new OrchestrationGraphChangeTracker(orchestrationGraph);
+        updateRandomVertex(orchestrationGraph, random);
+        orchestrationGraph = orchestrationGraph.withLastUpdatedAt(100L + i);
+        long lastSequence = deltas.isEmpty() ? 0 : deltas.get(deltas.size() - 1).getSequence();
+        if (deltas.size() >= OrchestrationGraphDeltaStore.MAX_DELTAS_BEFORE_COMPACTION) {
+          mongoStore.upsert(orchestrationGraph, SpringCacheEntity.TTL, 100L + i);
+          orchestrationGraphDeltaStore.deleteDeltas(deltaGraphId, lastSequence);
+        } else {
+          orchestrationGraphDeltaStore.appendDelta(orchestrationGraph, changeTracker, lastSequence + 1);
+        }
+      }
+      long deltaMillis = System.currentTimeMillis() - start;
+
+      log.info("Vertices: {}, whole graph: {} updates/s, deltas: {} updates/s", vertexCount,
+          updates * 1000L / Math.max(wholeGraphMillis, 1), updates * 1000L / Math.max(deltaMillis, 1));
+    }
+  }
+
+  private OrchestrationGraph getSnapshot(String planExecutionId) {
+    return mongoStore.get(OrchestrationGraph.ALGORITHM_ID, OrchestrationGraph.STRUCTURE_HASH, planExecutionId, null);
+  }
+
+  private static void updateRandomVertex(OrchestrationGraph orchestrationGraph, Random random) {
+    Map<String, GraphVertex> vertices = orchestrationGraph.getAdjacencyList().getGraphVertexMap();
+    String vertexId = "vertex" + random.nextInt(vertices.size() - 1);
+    Status status = vertices.get(vertexId).getStatus() == Status.RUNNING ? Status.SUCCEEDED : Status.RUNNING;
+    vertices.put(vertexId, vertices.get(vertexId).toBuilder().status(status).build());
+  }
+
+  private static OrchestrationGraph buildGraph(String planExecutionId, int childCount, long lastUpdatedAt) {
+    OrchestrationGraph orchestrationGraph = OrchestrationGraph.builder()
+                                                .cacheKey(planExecutionId)
+                                                .planExecutionId(planExecutionId)
+                                                .status(Status.RUNNING)
+                                                .lastUpdatedAt(lastUpdatedAt)
+                                                .rootNodeIds(Lists.newArrayList("root"))
+                                                .adjacencyList(OrchestrationAdjacencyListInternal.builder()
+                                                                   .graphVertexMap(new HashMap<>())
+                                                                   .adjacencyMap(new HashMap<>())
+                                                                   .build())
+                                                .build();
+    orchestrationGraph.getAdjacencyList().getGraphVertexMap().put("root", buildVertex("root"));
+    orchestrationGraph.getAdjacencyList().getAdjacencyMap().put("root",
+        EdgeListInternal.builder()
+            .edges(new ArrayList<>())
+            .nextIds(new ArrayList<>())
+            .prevIds(new ArrayList<>())
+            .build());
+    for (int i = 0; i < childCount; i++) {
+      addVertex(orchestrationGraph, "vertex" + i);
+    }
+    return orchestrationGraph;
+  }
+
+  private static void addVertex(OrchestrationGraph orchestrationGraph, String vertexId) {
+    orchestrationGraph.getAdjacencyList().getGraphVertexMap().put(vertexId, buildVertex(vertexId));
+    orchestrationGraph.getAdjacencyList().getAdjacencyMap().get("root").getEdges().add(vertexId);
+    orchestrationGraph.getAdjacencyList().getAdjacencyMap().put(vertexId,
+        EdgeListInternal.builder()
+            .parentId("root")
+            .edges(new ArrayList<>())
+            .nextIds(new ArrayList<>())
+            .prevIds(new ArrayList<>())
+            .build());
+  }
+
+  private static GraphVertex buildVertex(String vertexId) {
+    Map<String, Object> stepParameters = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      stepParameters.put("parameter" + i, "value of parameter " + i + " for " + vertexId);
+    }
+    return GraphVertex.builder()
+        .uuid(vertexId)
+        .name(vertexId)
+        .identifier(vertexId)
+        .status(Status.RUNNING)
+        .stepParameters(new PmsStepParameters(stepParameters))
+        .build();
+  }
+}
@@ -57,4 +57,5 @@ public class OrchestrationModuleConfig {
   String licenseClientId;
 
   ExpandedJsonLockConfig expandedJsonLockConfig;
+  boolean coLocatedNotifyCallbacksEnabled;
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.engine.executions.plan;
+
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.plan.Node;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.inject.Singleton;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+
+/**
+ * Process wide cache of plan nodes keyed by plan id and node id. Plan nodes never change once saved, a plan only gets
+ * new identity nodes appended for matrix retries, so cached nodes are never stale. Nodes of a plan are dropped when the
+ * plan gets its TTL at the end of the execution or is deleted, and otherwise once they are not accessed for a while.
+ *
+ * A miss does not mean that the node does not exist, callers have to read it from the database and put it here.
+ */
+@OwnedBy(HarnessTeam.PIPELINE)
+@Singleton
+public class PlanNodeCache {
+  private static final long MAX_NODES = 50000;
+  private static final long MAX_PLANS = 10000;
+  private static final long ACCESS_EXPIRY_MINUTES = 60;
+
+  private final Cache<PlanNodeKey, Node> nodes = CacheBuilder.newBuilder()
+                                                     .maximumSize(MAX_NODES)
+                                                     .expireAfterAccess(ACCESS_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                                                     .removalListener(this::onRemoval)
+                                                     .recordStats()
+                                                     .build();
+  // Ids of the cached nodes of every plan, so the nodes of a plan are dropped without scanning the whole cache
+  private final Map<String, Set<String>> planNodeIds = new ConcurrentHashMap<>();
+  // Plans whose nodes were all put here at once or which were dropped, a miss for them only reads the missing node
+  private final Cache<String, Boolean> loadedPlans = CacheBuilder.newBuilder()
+                                                         .maximumSize(MAX_PLANS)
+                                                         .expireAfterAccess(ACCESS_EXPIRY_MINUTES, TimeUnit.MINUTES)
+                                                         .build();
+
+  public Node get(String planId, String nodeId) {
+    return nodes.getIfPresent(new PlanNodeKey(planId, nodeId));
+  }
+
+  public void put(String planId, Node node) {
+    // indexed first, so an eviction right after the put also removes it from the index
+    planNodeIds.computeIfAbsent(planId, id -> ConcurrentHashMap.newKeySet()).add(node.getUuid());
+    nodes.put(new PlanNodeKey(planId, node.getUuid()), node);
+  }
+
+  public void putAll(String planId, Collection<? extends Node> planNodes) {
+    for (Node node : planNodes) {
+      put(planId, node);
+    }
+  }
+
+  /**
+   * Puts all the nodes of a plan, as read or written in one go.
+   */
+  public void putPlan(String planId, Collection<? extends Node> planNodes) {
+    putAll(planId, planNodes);
+    loadedPlans.put(planId, Boolean.TRUE);
+  }
+
+  public boolean isPlanLoaded(String planId) {
+    return loadedPlans.getIfPresent(planId) != null;
+  }
+
+  public void invalidate(String planId, Set<String> nodeIds) {
+    for (String nodeId : nodeIds) {
+      nodes.invalidate(new PlanNodeKey(planId, nodeId));
+    }
+  }
+
+  /**
+   * Drops the nodes of plans which are done or deleted. Nodes still needed afterwards are read one by one.
+   */
+  public void dropPlans(Set<String> planIds) {
+    for (String planId : planIds) {
+      loadedPlans.put(planId, Boolean.TRUE);
+    }
+    for (String planId : planIds) {
+      Set<String> nodeIds = planNodeIds.remove(planId);
+      if (nodeIds != null) {
+        invalidate(planId, nodeIds);
+      }
+    }
+  }
+
+  public CacheStats stats() {
+    return nodes.stats();
+  }
+
+  public long size() {
+    return nodes.size();
+  }
+
+  private void onRemoval(RemovalNotification<PlanNodeKey, Node> notification) {
+    if (notification.getCause() == RemovalCause.REPLACED) {
+      return;
+    }
+    PlanNodeKey key = notification.getKey();
+    planNodeIds.computeIfPresent(key.getPlanId(), (planId, nodeIds) -> {
+      nodeIds.remove(key.getNodeId());
+      return nodeIds.isEmpty() ? null : nodeIds;
+    });
+  }
+
+  @Value
+  private static class PlanNodeKey {
+    String planId;
+    String nodeId;
+  }
+}
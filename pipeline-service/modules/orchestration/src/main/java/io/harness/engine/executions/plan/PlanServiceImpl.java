@@ -28,6 +28,7 @@ import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.mongodb.client.result.UpdateResult;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -48,6 +49,7 @@ public class PlanServiceImpl implements PlanService {
   @Inject private PlanRepository planRepository;
   @Inject private NodeEntityRepository nodeEntityRepository;
   @Inject private TransactionHelper transactionHelper;
+  @Inject private PlanNodeCache planNodeCache;
 
   @Override
   public Plan fetchPlan(String planId) {
@@ -70,12 +72,13 @@ public class PlanServiceImpl implements PlanService {
         .saveAll(identityNodes.stream().map(o -> NodeEntity.fromNode(o, planId)).collect(Collectors.toList()))
         .iterator()
         .forEachRemaining(nodeEntity -> nodes.add(nodeEntity.getNode()));
+    planNodeCache.putAll(planId, nodes);
     return nodes;
   }
 
   @Override
   public Plan save(Plan plan) {
-    return transactionHelper.performTransaction(() -> {
+    Plan savedPlan = transactionHelper.performTransaction(() -> {
       List<NodeEntity> nodeEntities =
           plan.getPlanNodes().stream().map(pn -> NodeEntity.fromNode(pn, plan.getUuid())).collect(Collectors.toList());
       nodeEntityRepository.saveAll(nodeEntities);
@@ -85,10 +88,31 @@ public class PlanServiceImpl implements PlanService {
         return plan;
       }
     });
+    planNodeCache.putPlan(plan.getUuid(), plan.getPlanNodes());
+    return savedPlan;
   }
 
   @Override
   public Node fetchNode(String planId, String nodeId) {
+    Node node = planNodeCache.get(planId, nodeId);
+    if (node != null) {
+      return node;
+    }
+    if (!planNodeCache.isPlanLoaded(planId)) {
+      // First node of the plan needed in this process, the other ones will most likely follow so read them all at once
+      Optional<Node> loadedNode = fetchNodes(planId).stream().filter(n -> nodeId.equals(n.getUuid())).findFirst();
+      if (loadedNode.isPresent()) {
+        return loadedNode.get();
+      }
+    }
+    node = fetchNodeFromDb(planId, nodeId);
+    if (node != null) {
+      planNodeCache.put(planId, node);
+    }
+    return node;
+  }
+
+  private Node fetchNodeFromDb(String planId, String nodeId) {
     Optional<NodeEntity> nodeEntity = nodeEntityRepository.findByPlanIdAndNodeId(planId, nodeId);
     if (nodeEntity.isPresent()) {
       return nodeEntity.get().getNode();
@@ -125,10 +149,12 @@ public class PlanServiceImpl implements PlanService {
 
   @Override
   public List<Node> fetchNodes(String planId) {
-    return nodeEntityRepository.findNodeEntityByPlanId(planId)
-        .stream()
-        .map(NodeEntity::getNode)
-        .collect(Collectors.toList());
+    List<Node> nodes = nodeEntityRepository.findNodeEntityByPlanId(planId)
+                           .stream()
+                           .map(NodeEntity::getNode)
+                           .collect(Collectors.toList());
+    planNodeCache.putPlan(planId, nodes);
+    return nodes;
   }
   @Override
   public void deleteNodesForGivenIds(String planId, Set<String> nodeEntityIds) {
@@ -143,6 +169,7 @@ public class PlanServiceImpl implements PlanService {
       nodeEntityRepository.deleteAllByUuidIn(nodeEntityIds);
       return true;
     });
+    planNodeCache.invalidate(planId, nodeEntityIds);
   }
 
   @Override
@@ -161,6 +188,7 @@ public class PlanServiceImpl implements PlanService {
       }
       return true;
     });
+    planNodeCache.dropPlans(Collections.singleton(planId));
   }
 
   @Override
@@ -172,6 +200,7 @@ public class PlanServiceImpl implements PlanService {
       planRepository.deleteAllByUuidIn(planIds);
       return true;
     });
+    planNodeCache.dropPlans(planIds);
   }
 
   @Override
@@ -196,16 +225,31 @@ public class PlanServiceImpl implements PlanService {
 
   @Override
   public <T extends Node> Set<T> fetchAllNodes(String planId, Set<String> nodeIds) {
-    Query query = new Query(Criteria.where(NodeEntityKeys.planId).is(planId).and(NodeEntityKeys.nodeId).in(nodeIds));
-    Iterable<NodeEntity> nodesEntities = nodeEntityRepository.findByPlanIdAndNodeIds(query);
     Set<T> nodes = new HashSet<>();
+    Set<String> uncachedNodeIds = new HashSet<>();
+    for (String nodeId : nodeIds) {
+      Node node = planNodeCache.get(planId, nodeId);
+      if (node != null) {
+        nodes.add((T) node);
+      } else {
+        uncachedNodeIds.add(nodeId);
+      }
+    }
+    if (uncachedNodeIds.isEmpty()) {
+      return nodes;
+    }
+
+    Query query =
+        new Query(Criteria.where(NodeEntityKeys.planId).is(planId).and(NodeEntityKeys.nodeId).in(uncachedNodeIds));
+    Iterable<NodeEntity> nodesEntities = nodeEntityRepository.findByPlanIdAndNodeIds(query);
     Set<String> nodeIdsFound = new HashSet<>();
     for (NodeEntity nodeEntity : nodesEntities) {
       nodes.add((T) nodeEntity.getNode());
       nodeIdsFound.add(nodeEntity.getNodeId());
+      planNodeCache.put(planId, nodeEntity.getNode());
     }
 
-    Set<String> remainingNodeIds = Sets.difference(nodeIds, nodeIdsFound);
+    Set<String> remainingNodeIds = Sets.difference(uncachedNodeIds, nodeIdsFound);
     if (isNotEmpty(remainingNodeIds)) {
       // This is a fallback mechanism added. In case of execution that were running while deployment nodes would have
       // already been created according to old setup that is uuid of the entity will be same as node id hence for those
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2023 Harness Inc. All rights reserved.
+ * Use of this source code is governed by the PolyForm Free Trial 1.0.0 license
+ * that can be found in the licenses directory at the root of this repository, also available at
+ * https://polyformproject.org/wp-content/uploads/2020/05/PolyForm-Free-Trial-1.0.0.txt.
+ */
+
+package io.harness.engine.executions.plan;
+
+import static io.harness.data.structure.UUIDGenerator.generateUuid;
+import static io.harness.rule.OwnerRule.PRASHANT;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.harness.CategoryTest;
+import io.harness.annotations.dev.HarnessTeam;
+import io.harness.annotations.dev.OwnedBy;
+import io.harness.category.element.UnitTests;
+import io.harness.plan.IdentityPlanNode;
+import io.harness.plan.Node;
+import io.harness.plan.NodeEntity;
+import io.harness.plan.PlanNode;
+import io.harness.pms.contracts.steps.StepCategory;
+import io.harness.pms.contracts.steps.StepType;
+import io.harness.repositories.NodeEntityRepository;
+import io.harness.repositories.PlanRepository;
+import io.harness.rule.Owner;
+import io.harness.springdata.TransactionHelper;
+
+import com.mongodb.client.result.UpdateResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@OwnedBy(HarnessTeam.PIPELINE)
+public class PlanNodeCacheTest extends CategoryTest {
+  private static final StepType DUMMY_STEP_TYPE =
+      StepType.newBuilder().setType("DUMMY").setStepCategory(StepCategory.STEP).build();
+
+  @Mock MongoTemplate mongoTemplate;
+  @Mock PlanRepository planRepository;
+  @Mock NodeEntityRepository nodeEntityRepository;
+  @Mock TransactionHelper transactionHelper;
+  @Spy PlanNodeCache planNodeCache = new PlanNodeCache();
+  @InjectMocks PlanServiceImpl planService;
+
+  @Before
+  public void beforeTest() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldReadNodesOfPlanOnceForWholeExecution() {
+    String planId = generateUuid();
+    List<Node> nodes = buildNodes(500);
+    when(nodeEntityRepository.findNodeEntityByPlanId(planId))
+        .thenReturn(nodes.stream().map(node -> NodeEntity.fromNode(node, planId)).collect(Collectors.toList()));
+
+    // every step node is fetched for facilitation, advising and resume
+    for (int i = 0; i < 3; i++) {
+      for (Node node : nodes) {
+        assertThat(planService.fetchNode(planId, node.getUuid())).isSameAs(node);
+      }
+    }
+
+    // a single read of the planId index instead of 1500 reads of the node entities
+    verify(nodeEntityRepository, times(1)).findNodeEntityByPlanId(planId);
+    verify(nodeEntityRepository, never()).findByPlanIdAndNodeId(anyString(), anyString());
+    assertThat(planNodeCache.stats().missCount()).isEqualTo(1);
+    assertThat(planNodeCache.stats().hitCount()).isEqualTo(1499);
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldKeepIdentityNodesAndDropNodesOnTTL() {
+    String planId = generateUuid();
+    List<Node> nodes = buildNodes(2);
+    when(nodeEntityRepository.findNodeEntityByPlanId(planId))
+        .thenReturn(nodes.stream().map(node -> NodeEntity.fromNode(node, planId)).collect(Collectors.toList()));
+    when(nodeEntityRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(NodeEntity.class)))
+        .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+    assertThat(planService.fetchNode(planId, nodes.get(0).getUuid())).isSameAs(nodes.get(0));
+    Node identityNode = IdentityPlanNode.mapPlanNodeToIdentityNode(
+        generateUuid(), nodes.get(1), "dummy1_0", "Dummy 1", DUMMY_STEP_TYPE, generateUuid());
+    planService.saveIdentityNodesForMatrix(Collections.singletonList(identityNode), planId);
+    assertThat(planService.fetchNode(planId, identityNode.getUuid()).getUuid()).isEqualTo(identityNode.getUuid());
+    verify(nodeEntityRepository, never()).findByPlanIdAndNodeId(anyString(), anyString());
+
+    planService.updateTTLForNodesForGivenPlanId(planId, new Date());
+    assertThat(planNodeCache.size()).isZero();
+    when(nodeEntityRepository.findByPlanIdAndNodeId(planId, nodes.get(1).getUuid()))
+        .thenReturn(Optional.of(NodeEntity.fromNode(nodes.get(1), planId)));
+    assertThat(planService.fetchNode(planId, nodes.get(1).getUuid())).isSameAs(nodes.get(1));
+    // nodes needed after the plan got dropped are read one by one
+    verify(nodeEntityRepository, times(1)).findNodeEntityByPlanId(planId);
+    verify(nodeEntityRepository, times(1)).findByPlanIdAndNodeId(planId, nodes.get(1).getUuid());
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldNotCacheMissingNodes() {
+    String planId = generateUuid();
+    String nodeId = generateUuid();
+    when(nodeEntityRepository.findNodeEntityByPlanId(planId)).thenReturn(Collections.emptyList());
+    // entities saved without a node
+    when(nodeEntityRepository.findByPlanIdAndNodeId(planId, nodeId))
+        .thenReturn(Optional.of(NodeEntity.builder().planId(planId).nodeId(nodeId).build()));
+
+    assertThat(planService.fetchNode(planId, nodeId)).isNull();
+    assertThat(planNodeCache.size()).isZero();
+  }
+
+  @Test
+  @Owner(developers = PRASHANT)
+  @Category(UnitTests.class)
+  public void shouldDropOnlyNodesOfDroppedPlans() {
+    String droppedPlanId = generateUuid();
+    String keptPlanId = generateUuid();
+    List<Node> droppedNodes = buildNodes(3);
+    List<Node> keptNodes = buildNodes(2);
+    planNodeCache.putPlan(droppedPlanId, droppedNodes);
+    planNodeCache.putPlan(keptPlanId, keptNodes);
+
+    planNodeCache.dropPlans(Collections.singleton(droppedPlanId));
+
+    assertThat(planNodeCache.size()).isEqualTo(2);
+    assertThat(planNodeCache.get(droppedPlanId, droppedNodes.get(0).getUuid())).isNull();
+    assertThat(planNodeCache.get(keptPlanId, keptNodes.get(0).getUuid())).isSameAs(keptNodes.get(0));
+  }
+
+  private static List<Node> buildNodes(int count) {
+    List<Node> nodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      nodes.add(PlanNode.builder()
+                    .uuid(generateUuid())
+                    .name("Dummy " + i)
+                    .identifier("dummy" + i)
+                    .stepType(DUMMY_STEP_TYPE)
+                    .build());
+    }
+    return nodes;
+  }
+}
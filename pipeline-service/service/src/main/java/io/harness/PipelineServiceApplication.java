@@ -103,6 +103,7 @@ import io.harness.ng.core.exceptionmappers.NotAllowedExceptionMapper;
 import io.harness.ng.core.exceptionmappers.NotFoundExceptionMapper;
 import io.harness.ng.core.exceptionmappers.WingsExceptionMapperV2;
 import io.harness.ng.core.filter.ApiResponseFilter;
+import io.harness.ngtriggers.eventmapper.WebhookTriggerRoutingIndex;
 import io.harness.notification.module.NotificationClientModule;
 import io.harness.observers.PipelineExecutionSummaryFailureInfoUpdateHandler;
 import io.harness.outbox.OutboxEventPollService;
@@ -209,6 +210,7 @@ import io.harness.telemetry.filter.TerraformTelemetryFilter;
 import io.harness.threading.ExecutorModule;
 import io.harness.threading.ThreadPool;
 import io.harness.timeout.TimeoutEngine;
+import io.harness.timeout.wheel.TimeoutWheelOptions;
 import io.harness.token.remote.TokenClient;
 import io.harness.tracing.MongoRedisTracer;
 import io.harness.waiter.NotifierScheduledExecutorService;
@@ -272,6 +274,7 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.eclipse.jetty.servlets.CrossOriginFilter;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.redisson.api.RedissonClient;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 @CodePulse(module = ProductModule.CDS, unitCoverageRequired = true, components = {HarnessModuleComponent.CDS_TRIGGERS})
@@ -280,6 +283,7 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 public class PipelineServiceApplication extends Application<PipelineServiceConfiguration> {
   private static final SecureRandom random = new SecureRandom();
   private static final String APPLICATION_NAME = "Pipeline Service Application";
+  private static final String TIMEOUT_ITERATOR_MODE_TIMER_WHEEL = "TIMER_WHEEL";
 
   private final MetricRegistry metricRegistry = new MetricRegistry();
   private final MetricRegistry threadPoolMetricRegistry = new MetricRegistry();
@@ -431,6 +435,12 @@ public class PipelineServiceApplication extends Application<PipelineServiceConfi
     injector.getInstance(TriggerWebhookExecutionService.class)
         .registerIterators(iteratorsConfig.getTriggerWebhookConfig());
     injector.getInstance(ScheduledTriggerHandler.class).registerIterators(iteratorsConfig.getScheduleTriggerConfig());
+    WebhookTriggerRoutingIndex webhookTriggerRoutingIndex = injector.getInstance(WebhookTriggerRoutingIndex.class);
+    if (webhookTriggerRoutingIndex.isEnabled()) {
+      webhookTriggerRoutingIndex.subscribe(
+          injector.getInstance(Key.get(RedissonClient.class, Names.named("cacheRedissonClient"))),
+          appConfig.getRedisLockConfig().getEnvNamespace());
+    }
     if (PersistenceIterator.ProcessMode.REDIS_BATCH.name().equals(appConfig.getTimeoutIteratorMode())) {
       injector.getInstance(TimeoutEngine.class)
           .createAndStartRedisBatchIterator(
@@ -443,6 +453,11 @@ public class PipelineServiceApplication extends Application<PipelineServiceConfi
                       iteratorsConfig.getTimeoutEngineRedisConfig().getThreadPoolIntervalInSeconds()))
                   .build(),
               Duration.ofSeconds(iteratorsConfig.getTimeoutEngineRedisConfig().getTargetIntervalInSeconds()));
+    } else if (TIMEOUT_ITERATOR_MODE_TIMER_WHEEL.equals(appConfig.getTimeoutIteratorMode())) {
+      injector.getInstance(TimeoutEngine.class)
+          .startTimerWheel(TimeoutWheelOptions.builder()
+                               .handlerThreads(iteratorsConfig.getTimeoutEngineConfig().getThreadPoolCount())
+                               .build());
     } else {
       injector.getInstance(TimeoutEngine.class)
           .createAndStartIterator(PersistenceIteratorFactory.PumpExecutorOptions.builder()
@@ -185,6 +185,8 @@ public class PipelineServiceConfiguration extends Configuration {
   @JsonProperty("webhookEventHsqsDequeueConfig") private HsqsDequeueConfig webhookEventHsqsDequeueConfig;
   @JsonProperty("maxMultiArtifactTriggerSources") private Integer maxMultiArtifactTriggerSources;
   @JsonProperty("graphConsumerSleepIntervalMs") private Integer graphConsumerSleepIntervalMs;
+  @JsonProperty("graphDeltaStorageEnabled") private boolean graphDeltaStorageEnabled;
+  @JsonProperty("yamlSchemaValidationCacheSize") private int yamlSchemaValidationCacheSize;
   @JsonProperty("asyncFilterCreationConsumerSleepIntervalMs")
   private Integer asyncFilterCreationConsumerSleepIntervalMs;
   @JsonProperty("publishAdviserEventForCustomAdvisers") private Boolean publishAdviserEventForCustomAdvisers;
@@ -192,6 +194,7 @@ public class PipelineServiceConfiguration extends Configuration {
   @JsonProperty("pipelineExecutionDetailsDeleteMaxBatchSize")
   private Integer pipelineExecutionDetailsDeleteMaxBatchSize;
   private boolean useQueueServiceForWebhookTriggers;
+  @JsonProperty("coLocatedNotifyCallbacksEnabled") private boolean coLocatedNotifyCallbacksEnabled;
   @JsonProperty(value = "useSchemaFromHarnessSchemaRepo") private Boolean useSchemaFromHarnessSchemaRepo;
 
   private String managerServiceSecret;
@@ -247,6 +247,7 @@ import io.harness.yaml.YamlSdkModule;
 import io.harness.yaml.core.StepSpecType;
 import io.harness.yaml.schema.beans.YamlSchemaRootClass;
 import io.harness.yaml.schema.client.YamlSchemaClientModule;
+import io.harness.yaml.validator.YamlSchemaValidator;
 
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -350,13 +351,14 @@ public class PipelineServiceModule extends AbstractModule {
             .licenseClientConfig(configuration.getNgManagerServiceHttpClientConfig())
             .licenseClientId(PIPELINE_SERVICE.getServiceId())
             .expandedJsonLockConfig(configuration.getExpandedJsonLockConfig())
+            .coLocatedNotifyCallbacksEnabled(configuration.isCoLocatedNotifyCallbacksEnabled())
             .build(),
         threadPoolMetricRegistry));
     install(OrchestrationStepsModule.getInstance(configuration.getOrchestrationStepConfig()));
     install(FeatureFlagModule.getInstance());
     install(OrchestrationVisualizationModule.getInstance(configuration.getEventsFrameworkConfiguration(),
         configuration.getOrchestrationVisualizationThreadPoolConfig(), configuration.getGraphConsumerSleepIntervalMs(),
-        threadPoolMetricRegistry));
+        threadPoolMetricRegistry, configuration.isGraphDeltaStorageEnabled()));
     install(PodCleanUpModule.getInstance(configuration.getPodCleanUpThreadPoolConfig(), threadPoolMetricRegistry));
     install(PrimaryVersionManagerModule.getInstance());
     install(new DelegateServiceDriverGrpcClientModule(configuration.getManagerServiceSecret(),
@@ -467,6 +469,9 @@ public class PipelineServiceModule extends AbstractModule {
     bind(PipelineRefreshService.class).to(PipelineRefreshServiceImpl.class);
     bind(NodeTypeLookupService.class).to(NodeTypeLookupServiceImpl.class);
 
+    bind(Integer.class)
+        .annotatedWith(Names.named(YamlSchemaValidator.VALIDATION_CACHE_SIZE))
+        .toInstance(configuration.getYamlSchemaValidationCacheSize());
     bind(ScheduledExecutorService.class)
         .annotatedWith(Names.named("syncTaskPollExecutor"))
         .toInstance(new ManagedScheduledExecutorService("SyncTaskPoll-Thread"));
@@ -10,6 +10,8 @@ package io.harness.metrics;
 import io.harness.annotations.dev.CodePulse;
 import io.harness.annotations.dev.HarnessModuleComponent;
 import io.harness.annotations.dev.ProductModule;
+import io.harness.engine.executions.plan.PlanNodeCache;
+import io.harness.expression.JexlExpressionCache;
 import io.harness.metrics.service.api.MetricService;
 import io.harness.metrics.service.api.MetricsPublisher;
 
@@ -17,6 +19,7 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
+import com.google.common.cache.CacheStats;
 import com.google.inject.Inject;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +34,7 @@ import lombok.extern.slf4j.Slf4j;
 public class PipelineServiceThreadMetricsPublisher implements MetricsPublisher {
   private final HarnessMetricRegistry metricRegistry;
   private final MetricService metricService;
+  private final PlanNodeCache planNodeCache;
   private static final Double SNAPSHOT_FACTOR = 1.0D / (double) TimeUnit.SECONDS.toNanos(1L);
   private static final Pattern METRIC_NAME_RE = Pattern.compile("[^a-zA-Z0-9:_]");
   private static final String NAMESPACE = System.getenv("NAMESPACE");
@@ -55,6 +59,25 @@ public class PipelineServiceThreadMetricsPublisher implements MetricsPublisher {
     counterSet.stream()
         .filter(e -> metricFilters.stream().anyMatch(e.getKey()::startsWith))
         .forEach(entry -> recordCounter(sanitizeMetricName(entry.getKey()), entry.getValue()));
+
+    recordExpressionCacheMetrics();
+  }
+
+  private void recordExpressionCacheMetrics() {
+    try (DwMetricContext ignore = new DwMetricContext(NAMESPACE, CONTAINER_NAME, SERVICE_NAME)) {
+      recordCacheStats("JexlExpressionCache", JexlExpressionCache.getExpressionCacheStats(),
+          JexlExpressionCache.getExpressionCacheSize());
+      recordCacheStats(
+          "JexlScriptCache", JexlExpressionCache.getScriptCacheStats(), JexlExpressionCache.getScriptCacheSize());
+      recordCacheStats("PlanNodeCache", planNodeCache.stats(), planNodeCache.size());
+    }
+  }
+
+  private void recordCacheStats(String metricName, CacheStats stats, long size) {
+    recordMetric(metricName + "_hitCount", stats.hitCount());
+    recordMetric(metricName + "_missCount", stats.missCount());
+    recordMetric(metricName + "_evictionCount", stats.evictionCount());
+    recordMetric(metricName + "_size", size);
   }
 
   private void recordMeter(String metricName, Meter meter) {